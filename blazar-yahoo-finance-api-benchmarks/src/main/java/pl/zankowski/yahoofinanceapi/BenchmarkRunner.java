@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Entry point of benchmarks jar. It accepts the same arguments as JMH, but results are exported in JSON format to
+ * jmh-result.json by default, so they can be collected for trend tracking. Result format and file can be changed with
+ * -rf and -rff arguments.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class BenchmarkRunner {
+
+	private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp()) {
+			commandLineOptions.showHelp();
+			return;
+		}
+		if (commandLineOptions.shouldList()) {
+			new Runner(commandLineOptions).list();
+			return;
+		}
+
+		new Runner(new OptionsBuilder()
+				.parent(commandLineOptions)
+				.resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+				.result(commandLineOptions.getResult().orElse(DEFAULT_RESULT_FILE))
+				.build()).run();
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * {@link DataReceiver} consuming all received values with JMH {@link Blackhole}, so parsing is not eliminated by JIT.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class BlackholeDataReceiver implements DataReceiver {
+
+	private final Blackhole blackhole;
+
+	public BlackholeDataReceiver(Blackhole blackhole) {
+		this.blackhole = blackhole;
+	}
+
+	@Override
+	public void onStringReceived(int requestID, DataType dataType, String value) {
+		blackhole.consume(value);
+	}
+
+	@Override
+	public void onDoubleReceived(int requestID, DataType dataType, double value) {
+		blackhole.consume(value);
+	}
+
+	@Override
+	public void onSizeReceived(int requestID, DataType dataType, int value) {
+		blackhole.consume(value);
+	}
+
+	@Override
+	public void onIntradayReceived(int requestID, long timestamp, double close, double high, double low, double open,
+			int volume) {
+		blackhole.consume(timestamp);
+		blackhole.consume(close);
+		blackhole.consume(high);
+		blackhole.consume(low);
+		blackhole.consume(open);
+		blackhole.consume(volume);
+	}
+
+	@Override
+	public void onHistoricalReceived(int requestID, LocalDate date, double close, double high, double low, double open,
+			int volume, double adjustedClose) {
+		blackhole.consume(date);
+		blackhole.consume(close);
+		blackhole.consume(high);
+		blackhole.consume(low);
+		blackhole.consume(open);
+		blackhole.consume(volume);
+		blackhole.consume(adjustedClose);
+	}
+
+	@Override
+	public void onCustomReceived(int requestID, List<String> value) {
+		blackhole.consume(value);
+	}
+
+	@Override
+	public void onForexReceived(int requestID, long timestamp, double price) {
+		blackhole.consume(timestamp);
+		blackhole.consume(price);
+	}
+
+}
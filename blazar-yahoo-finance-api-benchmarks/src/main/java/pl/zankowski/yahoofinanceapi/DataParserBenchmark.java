@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Benchmark measuring cost of parsing historical and intraday data in {@link RequestFactory}. Data is read from
+ * recorded table.csv (1000 daily rows) and chartdata (390 minute rows) fixtures held in memory, so network is not
+ * measured.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataParserBenchmark {
+
+	private byte[] historicalData;
+	private byte[] intradayData;
+
+	@Setup
+	public void setUp() throws IOException {
+		historicalData = readFixture("table.csv");
+		intradayData = readFixture("chartdata.csv");
+	}
+
+	@Benchmark
+	public void parseHistoricalData(Blackhole blackhole) throws IOException {
+		RequestFactory.parseHistoricalData(new BlackholeDataReceiver(blackhole), 1,
+				new ByteArrayInputStream(historicalData));
+	}
+
+	@Benchmark
+	public HistoricalSeries parseHistoricalSeries() throws IOException {
+		HistoricalSeries series = new HistoricalSeries();
+		RequestFactory.parseHistoricalSeries(new ByteArrayInputStream(historicalData), series);
+		return series;
+	}
+
+	@Benchmark
+	public void parseIntradayData(Blackhole blackhole) throws IOException {
+		RequestFactory.parseIntradayData(new BlackholeDataReceiver(blackhole), 1, new ByteArrayInputStream(intradayData));
+	}
+
+	protected static byte[] readFixture(String name) throws IOException {
+		try (InputStream input = DataParserBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+			if (input == null) {
+				throw new IOException("Fixture " + name + " not found.");
+			}
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				output.write(buffer, 0, read);
+			}
+			return output.toByteArray();
+		}
+	}
+
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Embedded HTTP server standing in for Yahoo Finance API in performance tests. It serves quotes.csv, table.csv and
+ * chartdata responses built from recorded fixtures under the same paths as Yahoo Finance, so it can be used with
+ * {@link RequestURLFactory#setBaseURL(String)}.
+ * </p>
+ *
+ * <p>
+ * Every response is delayed by configured latency without blocking server threads, configured fraction of requests
+ * fails with HTTP 500 and historical and intraday responses are repeated or truncated to configured number of rows.
+ * Quotes are returned for every requested instrument and data type, so their size depends on request.
+ * </p>
+ *
+ * <p>
+ * Load tests should call {@link #enableNoDelay()} before creating the server.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class FakeYahooServer {
+
+	private final static Logger LOGGER = Logger.getLogger(FakeYahooServer.class.getName());
+
+	private static final String NOT_AVAILABLE = "N/A";
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final ScheduledExecutorService scheduler;
+	private final int latency;
+	private final double errorRate;
+	private final Map<String, String> quoteValues;
+	private final byte[] historicalData;
+	private final byte[] intradayData;
+
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong errorCount = new AtomicLong();
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param port
+	 *            port of server, 0 means any free port
+	 * @param latency
+	 *            delay of every response in milliseconds
+	 * @param errorRate
+	 *            fraction of requests failing with HTTP 500, from 0 to 1
+	 * @param payloadRows
+	 *            number of rows of historical and intraday responses, if 0 then recorded responses are served as they
+	 *            are
+	 * @throws IOException
+	 */
+	public FakeYahooServer(int port, int latency, double errorRate, int payloadRows) throws IOException {
+		if (latency < 0 || payloadRows < 0) {
+			throw new IllegalArgumentException("Illegal value. Latency and payload rows cannot be negative.");
+		}
+		if (errorRate < 0 || errorRate > 1) {
+			throw new IllegalArgumentException("Illegal value. Error rate has to be between 0 and 1.");
+		}
+		this.latency = latency;
+		this.errorRate = errorRate;
+		this.quoteValues = readQuoteValues();
+		this.historicalData = resize(DataParserBenchmark.readFixture("table.csv"), DataConstants.ENDOFDAY_HEADER,
+				payloadRows);
+		this.intradayData = resize(DataParserBenchmark.readFixture("chartdata.csv"), DataConstants.INTRADAY_HEADER,
+				payloadRows);
+
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+		this.executor = Executors.newFixedThreadPool(4, daemonThreads("fake-yahoo-server"));
+		this.scheduler = Executors.newScheduledThreadPool(4, daemonThreads("fake-yahoo-latency"));
+		server.setExecutor(executor);
+		server.createContext("/d/quotes.csv", handler(this::quotes));
+		server.createContext("/table.csv", handler(exchange -> historicalData));
+		server.createContext("/instrument/1.1/", handler(exchange -> intradayData));
+	}
+
+	/**
+	 * Enables TCP_NODELAY of every {@link HttpServer} in this JVM, unless sun.net.httpserver.nodelay system property is
+	 * already set. Headers and body are written separately, so without it every response waits for delayed ACK. It has
+	 * to be called before the first server is created, because the property is read once.
+	 */
+	public static void enableNoDelay() {
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	public void stop() {
+		server.stop(0);
+		scheduler.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @return Base URL of server, e.g. "http://127.0.0.1:8080".
+	 */
+	public String getBaseURL() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	private HttpHandler handler(ResponseFactory responseFactory) {
+		return exchange -> {
+			requestCount.incrementAndGet();
+			boolean error = errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+			Runnable response = () -> {
+				try {
+					if (error) {
+						errorCount.incrementAndGet();
+						respond(exchange, 500, "Internal Server Error".getBytes(StandardCharsets.US_ASCII));
+					} else {
+						respond(exchange, 200, responseFactory.create(exchange));
+					}
+				} catch (IOException | RuntimeException e) {
+					LOGGER.log(Level.WARNING, "Couldn't send response. " + e.getMessage());
+					exchange.close();
+				}
+			};
+			if (latency == 0) {
+				response.run();
+			} else {
+				scheduler.schedule(response, latency, TimeUnit.MILLISECONDS);
+			}
+		};
+	}
+
+	private static void respond(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+		exchange.getResponseHeaders().add("Content-Type", "text/csv");
+		exchange.sendResponseHeaders(statusCode, body.length == 0 ? -1 : body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+	private byte[] quotes(HttpExchange exchange) {
+		String instruments = "";
+		String dataTypes = "";
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query != null) {
+			for (String parameter : query.split("&")) {
+				if (parameter.startsWith("s=")) {
+					instruments = parameter.substring(2);
+				} else if (parameter.startsWith("f=")) {
+					dataTypes = parameter.substring(2);
+				}
+			}
+		}
+
+		List<String> codes = splitDataTypes(dataTypes);
+		StringBuilder builder = new StringBuilder();
+		for (String instrument : instruments.split("\\+")) {
+			if (instrument.isEmpty()) {
+				continue;
+			}
+			for (int i = 0; i < codes.size(); i++) {
+				if (i > 0) {
+					builder.append(',');
+				}
+				String value = quoteValues.get(codes.get(i));
+				builder.append(value == null ? NOT_AVAILABLE : value);
+			}
+			builder.append('\n');
+		}
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Every data type code is a letter optionally followed by one digit, e.g. "l1d1t1".
+	 */
+	private static List<String> splitDataTypes(String dataTypes) {
+		List<String> codes = new ArrayList<>();
+		int i = 0;
+		while (i < dataTypes.length()) {
+			int end = i + 1;
+			if (end < dataTypes.length() && Character.isDigit(dataTypes.charAt(end))) {
+				end++;
+			}
+			codes.add(dataTypes.substring(i, end));
+			i = end;
+		}
+		return codes;
+	}
+
+	private static Map<String, String> readQuoteValues() throws IOException {
+		Map<String, String> values = new HashMap<>();
+		String fixture = new String(DataParserBenchmark.readFixture("quotes.csv"), StandardCharsets.UTF_8);
+		for (String line : fixture.split("\n")) {
+			int separator = line.indexOf(',');
+			if (separator > 0) {
+				values.put(line.substring(0, separator), line.substring(separator + 1));
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Keeps header and repeats or truncates rows of recorded response to given number of rows.
+	 */
+	private static byte[] resize(byte[] data, int headerLines, int rows) {
+		if (rows == 0) {
+			return data;
+		}
+		String[] lines = new String(data, StandardCharsets.UTF_8).split("\n");
+		if (lines.length <= headerLines) {
+			return data;
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		for (int i = 0; i < headerLines; i++) {
+			write(output, lines[i]);
+		}
+		for (int i = 0; i < rows; i++) {
+			write(output, lines[headerLines + i % (lines.length - headerLines)]);
+		}
+		return output.toByteArray();
+	}
+
+	private static void write(ByteArrayOutputStream output, String line) {
+		byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+		output.write(bytes, 0, bytes.length);
+	}
+
+	private static ThreadFactory daemonThreads(String name) {
+		return runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private interface ResponseFactory {
+
+		byte[] create(HttpExchange exchange);
+
+	}
+
+}
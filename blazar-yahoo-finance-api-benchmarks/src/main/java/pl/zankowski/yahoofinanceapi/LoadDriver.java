@@ -0,0 +1,246 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Load driver running {@link Session} end to end against {@link FakeYahooServer}. It subscribes market data for given
+ * number of instruments and after given time prints throughput of delivered values, latency percentiles of HTTP
+ * requests and number of used threads. Arguments are passed as key=value pairs, e.g.:
+ * </p>
+ *
+ * <p>
+ * subscriptions=5000 delay=1000 duration=30 mode=virtual transport=nio latency=50 errorRate=0.01 rows=0 throttle=2000
+ * </p>
+ *
+ * <p>
+ * Mode is one of pool (scheduler thread pool of threads size), virtual (tasks on virtual threads) or batch
+ * (multi-instrument requests of batchSize instruments). Transport is one of nio or url. Throttle is max number of
+ * requests per second of {@link ThrottledTransport}, 0 means no throttling.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class LoadDriver {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> arguments = parseArguments(args);
+		int subscriptions = Integer.parseInt(arguments.getOrDefault("subscriptions", "5000"));
+		int delay = Integer.parseInt(arguments.getOrDefault("delay", "1000"));
+		int duration = Integer.parseInt(arguments.getOrDefault("duration", "30"));
+		String mode = arguments.getOrDefault("mode", "pool");
+		int threads = Integer.parseInt(arguments.getOrDefault("threads", "8"));
+		int batchSize = Integer.parseInt(arguments.getOrDefault("batchSize", "200"));
+		String transportType = arguments.getOrDefault("transport", "nio");
+		int latency = Integer.parseInt(arguments.getOrDefault("latency", "50"));
+		double errorRate = Double.parseDouble(arguments.getOrDefault("errorRate", "0"));
+		int rows = Integer.parseInt(arguments.getOrDefault("rows", "0"));
+		double throttle = Double.parseDouble(arguments.getOrDefault("throttle", "0"));
+
+		FakeYahooServer.enableNoDelay();
+		FakeYahooServer server = new FakeYahooServer(0, latency, errorRate, rows);
+		server.start();
+		RequestURLFactory.setBaseURL(server.getBaseURL());
+
+		HttpTransport transport = "url".equals(transportType) ? new UrlConnectionTransport(threads, 10000, 30000)
+				: new NioHttpTransport(2, 10000, 30000, 1024);
+		TimingTransport timingTransport = new TimingTransport(transport);
+		ThrottledTransport throttledTransport = throttle > 0 ? new ThrottledTransport(timingTransport, throttle,
+				(int) Math.max(1, throttle / 10), subscriptions) : null;
+		UrlDataParser.setTransport(throttledTransport != null ? throttledTransport : timingTransport);
+
+		RequestManager requestManager;
+		if ("virtual".equals(mode)) {
+			requestManager = RequestManager.createVirtualThreadManager(0);
+		} else if ("batch".equals(mode)) {
+			requestManager = new RequestManager(threads, batchSize);
+		} else {
+			requestManager = new RequestManager(threads);
+		}
+
+		CountingDataReceiver receiver = new CountingDataReceiver();
+		Session session = SessionFactory.createNewSession(receiver, requestManager);
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		threadMXBean.resetPeakThreadCount();
+		int initialThreads = threadMXBean.getThreadCount();
+
+		long start = System.nanoTime();
+		List<DataRequest> dataRequests = Arrays.asList(new DataRequest(DataType.LAST_TRADE_PRICE, delay),
+				new DataRequest(DataType.BID, delay), new DataRequest(DataType.ASK, delay),
+				new DataRequest(DataType.VOLUME, delay));
+		for (int i = 0; i < subscriptions; i++) {
+			session.reqMarketData(i, new Contract(YahooExchange.NASDAQ.getCode(), "S" + i), dataRequests, true);
+		}
+		Thread.sleep(duration * 1000L);
+		for (int i = 0; i < subscriptions; i++) {
+			session.cancelRequest(i);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.println("Mode:                 " + mode + ", transport: " + transportType);
+		System.out.println("Subscriptions:        " + subscriptions + " every " + delay + " ms");
+		System.out.printf("Values delivered:     %d (%.1f/s)%n", receiver.getCount(), receiver.getCount() / seconds);
+		System.out.printf("Requests served:      %d (%.1f/s), errors: %d%n", server.getRequestCount(),
+				server.getRequestCount() / seconds, server.getErrorCount());
+		System.out.println("Request latency [ms]: " + timingTransport.getLatencies().summary());
+		if (throttledTransport != null) {
+			System.out.printf("Throttle:             rate %.1f/s, delayed %d, dropped %d, throttled %d%n",
+					throttledTransport.getRate(), throttledTransport.getDelayedRequests(),
+					throttledTransport.getDroppedRequests(), throttledTransport.getThrottledResponses());
+		}
+		System.out.println("Threads:              peak " + threadMXBean.getPeakThreadCount() + ", before "
+				+ initialThreads);
+
+		UrlDataParser.getTransport().shutdown();
+		server.stop();
+		RequestURLFactory.resetBaseURLs();
+	}
+
+	private static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> arguments = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator < 1) {
+				throw new IllegalArgumentException("Illegal argument " + arg + ". Arguments should be key=value pairs.");
+			}
+			arguments.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		return arguments;
+	}
+
+	/**
+	 * Transport measuring time from request until response body starts to be available.
+	 */
+	private static class TimingTransport implements HttpTransport {
+
+		private final HttpTransport transport;
+		private final Latencies latencies = new Latencies();
+
+		private TimingTransport(HttpTransport transport) {
+			this.transport = transport;
+		}
+
+		@Override
+		public CompletableFuture<InputStream> request(URL url) {
+			long start = System.nanoTime();
+			return transport.request(url).whenComplete((input, throwable) -> latencies.add(System.nanoTime() - start));
+		}
+
+		@Override
+		public void shutdown() {
+			transport.shutdown();
+		}
+
+		private Latencies getLatencies() {
+			return latencies;
+		}
+
+	}
+
+	private static class Latencies {
+
+		private long[] values = new long[1024];
+		private int size = 0;
+
+		private synchronized void add(long value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		private synchronized String summary() {
+			if (size == 0) {
+				return "no requests";
+			}
+			long[] sorted = Arrays.copyOf(values, size);
+			Arrays.sort(sorted);
+			return String.format("p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f", percentile(sorted, 0.5),
+					percentile(sorted, 0.99), percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+		}
+
+		private static double percentile(long[] sorted, double percentile) {
+			return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+		}
+
+	}
+
+	private static class CountingDataReceiver implements DataReceiver {
+
+		private final AtomicLong count = new AtomicLong();
+
+		private long getCount() {
+			return count.get();
+		}
+
+		@Override
+		public void onStringReceived(int requestID, DataType dataType, String value) {
+			count.incrementAndGet();
+		}
+
+		@Override
+		public void onDoubleReceived(int requestID, DataType dataType, double value) {
+			count.incrementAndGet();
+		}
+
+		@Override
+		public void onSizeReceived(int requestID, DataType dataType, int value) {
+			count.incrementAndGet();
+		}
+
+		@Override
+		public void onIntradayReceived(int requestID, long timestamp, double close, double high, double low,
+				double open, int volume) {
+			count.incrementAndGet();
+		}
+
+		@Override
+		public void onHistoricalReceived(int requestID, LocalDate date, double close, double high, double low,
+				double open, int volume, double adjustedClose) {
+			count.incrementAndGet();
+		}
+
+		@Override
+		public void onCustomReceived(int requestID, List<String> value) {
+			count.incrementAndGet();
+		}
+
+		@Override
+		public void onForexReceived(int requestID, long timestamp, double price) {
+			count.incrementAndGet();
+		}
+
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Benchmark measuring cost of parsing one value with {@link ParseUtils}, using values from ParseUtilsTest. Methods
+ * with regex suffix parse the same value the way it was done with regular expressions and formatters created per
+ * call, as reference.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseUtilsBenchmark {
+
+	private String date = "\"5/25/2015\"";
+	private String time = "\"3:53pm\"";
+	private String changePercent = "\"13.65 - -2.12%\"";
+	private String tradeWithTime = "\"4:00pm - <b>629.25</b>\"";
+	private String priceRange = "\"627.02 - 640.00\"";
+	private String bigNumber = "1.34B";
+	private String percent = "3.45%";
+	private String pair = "345.34 - 231.32";
+	private String line = "629.25,\"Google, Inc.\",\"627.02 - 640.00\",N/A";
+	private String quoted = "\"34.3\"";
+	private String bold = "<b>23.3</b>";
+	private DoublePair doublePair = new DoublePair();
+	private TimePrice timePrice = new TimePrice();
+
+	@Benchmark
+	public LocalDate toLocalDate() {
+		return ParseUtils.toLocalDate(date);
+	}
+
+	@Benchmark
+	public LocalDate toLocalDateRegex() {
+		return LocalDate.parse(date.replaceAll("^\"|\"$", ""), DateTimeFormatter.ofPattern("M/dd/yyyy"));
+	}
+
+	@Benchmark
+	public LocalTime toLocalTime() {
+		return ParseUtils.toLocalTime(time);
+	}
+
+	@Benchmark
+	public LocalTime toLocalTimeRegex() {
+		return LocalTime.parse(time.replaceAll("^\"|\"$", "").toUpperCase(), DateTimeFormatter.ofPattern("h:ma"));
+	}
+
+	@Benchmark
+	public Tuple<Double, Double> changePercentToTuple() {
+		return ParseUtils.changePercentToTuple(changePercent);
+	}
+
+	@Benchmark
+	public Tuple<Double, Double> changePercentToTupleRegex() {
+		String[] elements = changePercent.replaceAll("^\"|\"$", "").split(" - ");
+		if (elements.length != 2
+				|| !changePercent.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+%|[0-9]+%\")$")) {
+			throw new IllegalArgumentException();
+		}
+		return new Tuple<>(Double.parseDouble(elements[0]), Double.parseDouble(elements[1].replaceAll("%", "")));
+	}
+
+	@Benchmark
+	public DoublePair changePercentToPair() {
+		return ParseUtils.changePercentToPair(changePercent, doublePair);
+	}
+
+	@Benchmark
+	public Tuple<LocalTime, Double> tradeWithTimeToTuple() {
+		return ParseUtils.tradeWithTimeToTuple(tradeWithTime);
+	}
+
+	@Benchmark
+	public Tuple<LocalTime, Double> tradeWithTimeToTupleRegex() {
+		String[] elements = tradeWithTime.replaceAll("^\"|\"$", "").split(" - ");
+		if (elements.length != 2
+				|| !tradeWithTime.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+</b>|[0-9]+</b>\")$")) {
+			throw new IllegalArgumentException();
+		}
+		return new Tuple<>(LocalTime.parse(elements[0].toUpperCase(), DateTimeFormatter.ofPattern("h:ma")),
+				Double.parseDouble(elements[1].replaceAll("<b>|</b>", "")));
+	}
+
+	@Benchmark
+	public TimePrice tradeWithTimeToTimePrice() {
+		return ParseUtils.tradeWithTimeToTimePrice(tradeWithTime, timePrice);
+	}
+
+	@Benchmark
+	public Tuple<Double, Double> priceRangeToTuple() {
+		return ParseUtils.priceRangeToTuple(priceRange);
+	}
+
+	@Benchmark
+	public Tuple<Double, Double> priceRangeToTupleRegex() {
+		String[] elements = priceRange.replaceAll("^\"|\"$", "").split(" - ");
+		if (elements.length != 2
+				|| !priceRange.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+|[0-9]+\")$")) {
+			throw new IllegalArgumentException();
+		}
+		return new Tuple<>(Double.parseDouble(elements[0]), Double.parseDouble(elements[1]));
+	}
+
+	@Benchmark
+	public DoublePair priceRangeToPair() {
+		return ParseUtils.priceRangeToPair(priceRange, doublePair);
+	}
+
+	@Benchmark
+	public long bigNumberToLong() {
+		return ParseUtils.bigNumberToLong(bigNumber);
+	}
+
+	@Benchmark
+	public long bigNumberToLongRegex() {
+		if (!bigNumber.matches("(([0-9]*.[0-9]*)|([0-9]*))[a-zA-Z]{1}$")) {
+			return Long.parseLong(bigNumber);
+		}
+		return (long) (Double.parseDouble(bigNumber.substring(0, bigNumber.length() - 1)) * 1000000000);
+	}
+
+	@Benchmark
+	public double percentValueToDouble() {
+		return ParseUtils.percentValueToDouble(percent);
+	}
+
+	@Benchmark
+	public double percentValueToDoubleRegex() {
+		return Double.parseDouble(percent.replaceAll("%", ""));
+	}
+
+	@Benchmark
+	public LocalDateTime toLocalDateTime() {
+		return ParseUtils.toLocalDateTime(date, time);
+	}
+
+	@Benchmark
+	public long toTimestamp() {
+		return ParseUtils.toTimestamp(date, time);
+	}
+
+	@Benchmark
+	public String[] splitValue() {
+		return ParseUtils.splitValue(pair);
+	}
+
+	@Benchmark
+	public List<String> splitLine() {
+		return ParseUtils.splitLine(line);
+	}
+
+	@Benchmark
+	public String trimQuotes() {
+		return ParseUtils.trimQuotes(quoted);
+	}
+
+	@Benchmark
+	public String trimPercent() {
+		return ParseUtils.trimPercent(percent);
+	}
+
+	@Benchmark
+	public String trimBold() {
+		return ParseUtils.trimBold(bold);
+	}
+
+	@Benchmark
+	public boolean isParsable() {
+		return ParseUtils.isParsable(quoted);
+	}
+
+}
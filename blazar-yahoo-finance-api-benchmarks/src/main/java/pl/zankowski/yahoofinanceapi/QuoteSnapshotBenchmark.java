@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Benchmark comparing delivery of one quotes.csv line with every data type as {@link QuoteSnapshot} against splitting
+ * the line and delivering values to {@link DataReceiver} callbacks, which consumers then convert with
+ * {@link ParseUtils}. Values are taken from recorded quotes.csv fixture.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteSnapshotBenchmark {
+
+	// values which can't be parsed are skipped, otherwise warnings logged by both variants would be measured
+	private static final String NOT_AVAILABLE = "-";
+
+	private DataType[] dataTypes;
+	private String line;
+	private QuoteSnapshot snapshot;
+
+	@Setup
+	public void setUp() throws IOException {
+		Map<String, String> values = new HashMap<>();
+		String fixture = new String(DataParserBenchmark.readFixture("quotes.csv"), StandardCharsets.UTF_8);
+		for (String fixtureLine : fixture.split("\n")) {
+			int separator = fixtureLine.indexOf(',');
+			values.put(fixtureLine.substring(0, separator), fixtureLine.substring(separator + 1));
+		}
+
+		List<DataType> lineDataTypes = new ArrayList<>();
+		StringJoiner joiner = new StringJoiner(",");
+		for (DataType dataType : DataType.values()) {
+			String value = values.get(dataType.getCode());
+			if (value != null && !NOT_AVAILABLE.equals(value)) {
+				lineDataTypes.add(dataType);
+				joiner.add(value);
+			}
+		}
+		dataTypes = lineDataTypes.toArray(new DataType[lineDataTypes.size()]);
+		line = joiner.toString();
+		snapshot = new QuoteSnapshot(1, new Contract(YahooExchange.NASDAQ.getCode(), "GOOG"));
+	}
+
+	@Benchmark
+	public QuoteSnapshot fillSnapshot() {
+		snapshot.fill(line, dataTypes);
+		return snapshot;
+	}
+
+	@Benchmark
+	public void splitAndDeliver(Blackhole blackhole) {
+		DataReceiver receiver = new BlackholeDataReceiver(blackhole);
+		List<String> values = ParseUtils.splitLine(line);
+		for (int i = 0; i < dataTypes.length; i++) {
+			RequestFactory.marketDataValue(receiver, 1, dataTypes[i], values.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Benchmark comparing dispatch of blocking tasks by {@link RequestManager} running tasks on scheduler thread pool and
+ * by {@link RequestManager} running tasks on virtual threads. Every invocation schedules burst of tasks, each only
+ * sleeping for fetch time, and waits until all of them finish. It measures scheduling and thread usage of Request
+ * Manager, not the library's download path - no request is made and nothing is parsed.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestManagerDispatchBenchmark {
+
+	@Param({ "POOL", "VIRTUAL" })
+	private String mode;
+
+	@Param({ "1000" })
+	private int tasks;
+
+	@Param({ "5" })
+	private int fetchTime;
+
+	@Param({ "8" })
+	private int corePoolSize;
+
+	private RequestManager requestManager;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		requestManager = "VIRTUAL".equals(mode) ? RequestManager.createVirtualThreadManager(0)
+				: new RequestManager(corePoolSize);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		requestManager.shutdownScheduler();
+	}
+
+	@Benchmark
+	public void burst() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(tasks);
+		for (int i = 0; i < tasks; i++) {
+			requestManager.schedule(() -> {
+				simulateFetch();
+				latch.countDown();
+			}, 0);
+		}
+		latch.await();
+	}
+
+	private void simulateFetch() {
+		try {
+			Thread.sleep(fetchTime);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Benchmark measuring cost of building request URLs with {@link RequestURLFactory}.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestURLFactoryBenchmark {
+
+	private Contract contract = new Contract(YahooExchange.NASDAQ.getCode(), "GOOG");
+	private DataType[] dataTypes = { DataType.ASK, DataType.BID, DataType.LAST_TRADE_PRICE,
+			DataType.LAST_TRADE_SIZE, DataType.LAST_TRADE_DATE, DataType.LAST_TRADE_TIME };
+	private LocalDate startDate = LocalDate.of(2010, 1, 4);
+	private LocalDate endDate = LocalDate.of(2015, 9, 25);
+
+	@Benchmark
+	public URL createStockURL() throws MalformedURLException {
+		return RequestURLFactory.createStockURL(contract, DataType.ASK);
+	}
+
+	@Benchmark
+	public URL createMultipleDataTypesStockURL() throws MalformedURLException {
+		return RequestURLFactory.createStockURL(contract, dataTypes);
+	}
+
+	@Benchmark
+	public URL createEndofdayURL() throws MalformedURLException {
+		return RequestURLFactory.createEndofdayURL(contract, startDate, endDate, TimePeriod.Daily);
+	}
+
+	@Benchmark
+	public URL createIntradayURL() throws MalformedURLException {
+		return RequestURLFactory.createIntradayURL(contract);
+	}
+
+}
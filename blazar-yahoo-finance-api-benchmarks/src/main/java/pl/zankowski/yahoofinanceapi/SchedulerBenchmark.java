@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Benchmark comparing cost of adding and cancelling periodic subscription in {@link RequestManager} with scheduled
+ * thread pool and with {@link TimingWheelScheduler}, while given number of other subscriptions is scheduled. Tasks are
+ * scheduled from several threads at once, like subscriptions made in many sessions.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class SchedulerBenchmark {
+
+	@Param({ "POOL", "TIMING_WHEEL" })
+	private String mode;
+
+	@Param({ "1000", "50000" })
+	private int subscriptions;
+
+	private RequestManager requestManager;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		requestManager = "TIMING_WHEEL".equals(mode)
+				? new RequestManager(new TimingWheelScheduler(10, 512, 0), 0, null) : new RequestManager(1);
+		for (int i = 0; i < subscriptions; i++) {
+			requestManager.scheduleAtFixedRate(SchedulerBenchmark::task, 60000, 60000);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		requestManager.shutdownScheduler();
+	}
+
+	@Benchmark
+	public boolean scheduleAndCancel() {
+		return requestManager.scheduleAtFixedRate(SchedulerBenchmark::task, 60000, 60000).cancel(false);
+	}
+
+	private static void task() {
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Interface of listener notified about every symbol completed in bulk historical data download - see
+ * {@link Session#reqBulkHistoricalData(int, java.util.List, java.time.LocalDate, java.time.LocalDate, TimePeriod,
+ * int, double, BulkDownloadListener)}. It's called from download threads, so implementation has to be thread safe.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public interface BulkDownloadListener {
+
+	/**
+	 * <p>
+	 * Method is called when all data of symbol has been delivered to {@link DataReceiver} or download of symbol failed.
+	 * </p>
+	 *
+	 * @param result
+	 *            Result of symbol download.
+	 */
+	void onSymbolCompleted(BulkDownloadReport.SymbolResult result);
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Report of bulk historical data download containing result of every symbol and aggregate throughput.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class BulkDownloadReport {
+
+	private final List<SymbolResult> results;
+	private final long elapsedNanos;
+
+	protected BulkDownloadReport(List<SymbolResult> results, long elapsedNanos) {
+		this.results = Collections.unmodifiableList(new ArrayList<>(results));
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return Results of symbols in order of requested contracts.
+	 */
+	public List<SymbolResult> getResults() {
+		return results;
+	}
+
+	public int getSucceeded() {
+		int succeeded = 0;
+		for (SymbolResult result : results) {
+			if (result.isSuccessful()) {
+				succeeded++;
+			}
+		}
+		return succeeded;
+	}
+
+	public int getFailed() {
+		return results.size() - getSucceeded();
+	}
+
+	public long getRows() {
+		long rows = 0;
+		for (SymbolResult result : results) {
+			rows += result.getRows();
+		}
+		return rows;
+	}
+
+	public long getElapsedMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+	}
+
+	public double getSymbolsPerSecond() {
+		return elapsedNanos == 0 ? 0 : results.size() * 1e9 / elapsedNanos;
+	}
+
+	public double getRowsPerSecond() {
+		return elapsedNanos == 0 ? 0 : getRows() * 1e9 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Symbols: %d succeeded, %d failed; rows: %d; elapsed: %d ms; %.1f symbols/s, %.1f rows/s",
+				getSucceeded(), getFailed(), getRows(), getElapsedMillis(), getSymbolsPerSecond(), getRowsPerSecond());
+	}
+
+	/**
+	 * Result of download of one symbol.
+	 */
+	public static class SymbolResult {
+
+		private final Contract contract;
+		private final int requestID;
+		private final int rows;
+		private final long durationNanos;
+		private final Throwable error;
+
+		protected SymbolResult(Contract contract, int requestID, int rows, long durationNanos, Throwable error) {
+			this.contract = contract;
+			this.requestID = requestID;
+			this.rows = rows;
+			this.durationNanos = durationNanos;
+			this.error = error;
+		}
+
+		public Contract getContract() {
+			return contract;
+		}
+
+		/**
+		 * @return RequestID used in {@link DataReceiver} callbacks of this symbol.
+		 */
+		public int getRequestID() {
+			return requestID;
+		}
+
+		/**
+		 * @return Number of rows delivered to {@link DataReceiver}.
+		 */
+		public int getRows() {
+			return rows;
+		}
+
+		public long getDurationMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+		}
+
+		public boolean isSuccessful() {
+			return error == null;
+		}
+
+		/**
+		 * @return Cause of failure or null if download succeeded.
+		 */
+		public Throwable getError() {
+			return error;
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Bulk download of historical data of many contracts. Contracts are downloaded concurrently with at most max in
+ * flight requests at once and requests are started at most max requests per second. Every symbol is parsed and
+ * streamed to {@link DataReceiver} as soon as its response arrives, with requestID increased by index of contract.
+ * </p>
+ *
+ * <p>
+ * Responses are parsed on threads owned by the download, one for every request in flight, which are shut down when
+ * the last symbol completes.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class BulkHistoricalDownload {
+
+	private final static Logger LOGGER = Logger.getLogger(BulkHistoricalDownload.class.getName());
+
+	private final DataReceiver receiver;
+	private final int requestID;
+	private final List<Contract> contracts;
+	private final LocalDate startDate;
+	private final LocalDate endDate;
+	private final TimePeriod timePeriod;
+	private final int maxInFlight;
+	private final long startInterval;
+	private final BulkDownloadListener listener;
+
+	private final CompletableFuture<BulkDownloadReport> report = new CompletableFuture<>();
+	private final BulkDownloadReport.SymbolResult[] results;
+	private final AtomicInteger nextIndex = new AtomicInteger();
+	private final AtomicInteger completed = new AtomicInteger();
+
+	private ExecutorService parser;
+	private ScheduledExecutorService timer;
+	private long startTime;
+	private long nextStartTime;
+
+	protected BulkHistoricalDownload(DataReceiver receiver, int requestID, List<Contract> contracts,
+			LocalDate startDate, LocalDate endDate, TimePeriod timePeriod, int maxInFlight,
+			double maxRequestsPerSecond, BulkDownloadListener listener) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("Illegal value. Max in flight has to be positive.");
+		}
+		if (maxRequestsPerSecond < 0) {
+			throw new IllegalArgumentException("Illegal value. Max requests per second cannot be negative.");
+		}
+		this.receiver = receiver;
+		this.requestID = requestID;
+		this.contracts = contracts;
+		this.startDate = startDate;
+		this.endDate = endDate;
+		this.timePeriod = timePeriod;
+		this.maxInFlight = maxInFlight;
+		this.startInterval = maxRequestsPerSecond == 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1)
+				/ maxRequestsPerSecond);
+		this.listener = listener;
+		this.results = new BulkDownloadReport.SymbolResult[contracts.size()];
+	}
+
+	protected CompletableFuture<BulkDownloadReport> start() {
+		startTime = System.nanoTime();
+		nextStartTime = startTime;
+		if (contracts.isEmpty()) {
+			report.complete(new BulkDownloadReport(Arrays.asList(results), 0));
+			return report;
+		}
+		AtomicInteger threadCount = new AtomicInteger();
+		parser = Executors.newFixedThreadPool(Math.min(maxInFlight, contracts.size()), runnable -> {
+			Thread thread = new Thread(runnable, "yahoo-finance-bulk-parser-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (startInterval > 0) {
+			timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "yahoo-finance-bulk-download");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		for (int i = 0; i < Math.min(maxInFlight, contracts.size()); i++) {
+			startNext();
+		}
+		return report;
+	}
+
+	private void startNext() {
+		int index = nextIndex.getAndIncrement();
+		if (index >= contracts.size()) {
+			return;
+		}
+		long delay = reserveStartTime();
+		if (delay > 0) {
+			timer.schedule(() -> download(index), delay, TimeUnit.NANOSECONDS);
+		} else {
+			download(index);
+		}
+	}
+
+	private synchronized long reserveStartTime() {
+		if (startInterval == 0) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		long start = Math.max(now, nextStartTime);
+		nextStartTime = start + startInterval;
+		return start - now;
+	}
+
+	private void download(int index) {
+		long downloadStart = System.nanoTime();
+		URL url;
+		try {
+			url = RequestURLFactory.createEndofdayURL(contracts.get(index), startDate, endDate, timePeriod);
+		} catch (IOException e) {
+			complete(index, downloadStart, 0, e);
+			return;
+		}
+		CompletableFuture<InputStream> response;
+		try {
+			response = UrlDataParser.getTransport().request(url);
+		} catch (RuntimeException e) {
+			complete(index, downloadStart, 0, e);
+			return;
+		}
+		response.thenApplyAsync(input -> {
+			try {
+				return RequestFactory.parseHistoricalData(receiver, requestID + index, input);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, parser).whenComplete((rows, throwable) -> complete(index, downloadStart, rows == null ? 0 : rows,
+				throwable == null ? null : UrlDataParser.unwrap(throwable)));
+	}
+
+	private void complete(int index, long downloadStart, int rows, Throwable error) {
+		BulkDownloadReport.SymbolResult result = new BulkDownloadReport.SymbolResult(contracts.get(index),
+				requestID + index, rows, System.nanoTime() - downloadStart, error);
+		results[index] = result;
+		if (error != null) {
+			LOGGER.log(Level.WARNING, "Couldn't download data of " + RequestUtils.toInstruments(contracts.get(index))
+					+ ". " + error.getMessage());
+		}
+		if (listener != null) {
+			try {
+				listener.onSymbolCompleted(result);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Couldn't deliver result. " + e.getMessage());
+			}
+		}
+
+		if (completed.incrementAndGet() == contracts.size()) {
+			parser.shutdown();
+			if (timer != null) {
+				timer.shutdown();
+			}
+			report.complete(new BulkDownloadReport(Arrays.asList(results), System.nanoTime() - startTime));
+		} else {
+			// already failed download completes on calling thread, starting next one inline would nest calls
+			parser.execute(this::startNext);
+		}
+	}
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * {@link DataReceiver} decorator delivering only changed values. The last delivered value of every requestID and data
+ * type is kept in open addressing map of primitive arrays, so no value is boxed. Value is delivered to wrapped
+ * receiver if it's the first one, if it differs from the last delivered one (doubles by more than epsilon) or if the
+ * last value was delivered at least heartbeat interval ago.
+ * </p>
+ *
+ * <p>
+ * Double, size, String and Forex values are filtered. Intraday, historical and custom data are series of values, so
+ * they are always delivered. Reset values of request with {@link #reset(int)} when its requestID is reused, so the
+ * first value of the new request is delivered.
+ * </p>
+ *
+ * <p>
+ * Values are delivered on calling thread. Value is compared and delivered while holding lock of its requestID and data
+ * type, one of {@link #STRIPES} locks, so values of the same key received concurrently reach wrapped receiver in the
+ * order in which they were compared, while values of other keys can be delivered in parallel. Wrapped receiver blocks
+ * other values of keys sharing its lock, so it should return quickly.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class ChangeFilterDataReceiver implements DataReceiver {
+
+	private static final byte STRING = 0;
+	private static final byte DOUBLE = 1;
+	private static final byte SIZE = 2;
+
+	private static final int FOREX_SLOT = DataType.values().length;
+	private static final int INITIAL_CAPACITY = 64;
+	private static final long EMPTY = 0;
+
+	protected static final int STRIPES = 64;
+
+	private final DataReceiver receiver;
+	private final double epsilon;
+	private final long heartbeat;
+
+	private final Object[] locks = new Object[STRIPES];
+	private final AtomicLong delivered = new AtomicLong();
+	private final AtomicLong suppressed = new AtomicLong();
+
+	private long[] keys = new long[INITIAL_CAPACITY];
+	private long[] values = new long[INITIAL_CAPACITY];
+	private String[] strings = new String[INITIAL_CAPACITY];
+	private long[] deliveryTimes = new long[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Creates receiver delivering values which are not equal to the last delivered ones.
+	 *
+	 * @param receiver
+	 *            Receiver to which data is delivered.
+	 */
+	public ChangeFilterDataReceiver(DataReceiver receiver) {
+		this(receiver, 0, 0);
+	}
+
+	/**
+	 * @param receiver
+	 *            Receiver to which data is delivered.
+	 * @param epsilon
+	 *            Max difference of double values treated as unchanged.
+	 * @param heartbeat
+	 *            Interval in milliseconds after which unchanged value is delivered again or 0 if unchanged values are
+	 *            never delivered.
+	 */
+	public ChangeFilterDataReceiver(DataReceiver receiver, double epsilon, long heartbeat) {
+		if (receiver == null) {
+			throw new IllegalArgumentException("Illegal value. Data Receiver cannot be null.");
+		}
+		if (!(epsilon >= 0)) {
+			throw new IllegalArgumentException("Illegal value. Epsilon cannot be negative.");
+		}
+		if (heartbeat < 0) {
+			throw new IllegalArgumentException("Illegal value. Heartbeat cannot be negative.");
+		}
+		this.receiver = receiver;
+		this.epsilon = epsilon;
+		this.heartbeat = heartbeat;
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	@Override
+	public void onStringReceived(int requestID, DataType dataType, String value) {
+		long key = toKey(requestID, dataType.ordinal());
+		synchronized (lock(key)) {
+			if (isChanged(key, STRING, 0, value)) {
+				receiver.onStringReceived(requestID, dataType, value);
+			}
+		}
+	}
+
+	@Override
+	public void onDoubleReceived(int requestID, DataType dataType, double value) {
+		long key = toKey(requestID, dataType.ordinal());
+		synchronized (lock(key)) {
+			if (isChanged(key, DOUBLE, Double.doubleToLongBits(value), null)) {
+				receiver.onDoubleReceived(requestID, dataType, value);
+			}
+		}
+	}
+
+	@Override
+	public void onSizeReceived(int requestID, DataType dataType, int value) {
+		long key = toKey(requestID, dataType.ordinal());
+		synchronized (lock(key)) {
+			if (isChanged(key, SIZE, value, null)) {
+				receiver.onSizeReceived(requestID, dataType, value);
+			}
+		}
+	}
+
+	@Override
+	public void onIntradayReceived(int requestID, long timestamp, double close, double high, double low, double open,
+			int volume) {
+		receiver.onIntradayReceived(requestID, timestamp, close, high, low, open, volume);
+	}
+
+	@Override
+	public void onHistoricalReceived(int requestID, LocalDate date, double close, double high, double low,
+			double open, int volume, double adjustedClose) {
+		receiver.onHistoricalReceived(requestID, date, close, high, low, open, volume, adjustedClose);
+	}
+
+	@Override
+	public void onCustomReceived(int requestID, List<String> value) {
+		receiver.onCustomReceived(requestID, value);
+	}
+
+	@Override
+	public void onForexReceived(int requestID, long timestamp, double price) {
+		long key = toKey(requestID, FOREX_SLOT);
+		synchronized (lock(key)) {
+			if (isChanged(key, DOUBLE, Double.doubleToLongBits(price), null)) {
+				receiver.onForexReceived(requestID, timestamp, price);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the last delivered values of request, so its next values are delivered.
+	 *
+	 * @param requestID
+	 *            Same as RequestID provided to {@link Session} call.
+	 */
+	public synchronized void reset(int requestID) {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		String[] oldStrings = strings;
+		long[] oldDeliveryTimes = deliveryTimes;
+		allocate(oldKeys.length);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY && (int) (oldKeys[i] >>> 32) != requestID) {
+				put(oldKeys[i], oldValues[i], oldStrings[i], oldDeliveryTimes[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return Number of values delivered to wrapped receiver.
+	 */
+	public long getDelivered() {
+		return delivered.get();
+	}
+
+	/**
+	 * @return Number of unchanged values which weren't delivered.
+	 */
+	public long getSuppressed() {
+		return suppressed.get();
+	}
+
+	/**
+	 * @return Number of requestID and data type pairs with the last delivered value.
+	 */
+	public synchronized int getSize() {
+		return size;
+	}
+
+	private synchronized boolean isChanged(long key, byte type, long value, String string) {
+		long currentTimeMillis = heartbeat > 0 ? System.currentTimeMillis() : 0;
+		int index = indexOf(key);
+		if (keys[index] == key) {
+			if (!isChanged(type, values[index], strings[index], value, string)
+					&& (heartbeat == 0 || currentTimeMillis - deliveryTimes[index] < heartbeat)) {
+				suppressed.incrementAndGet();
+				return false;
+			}
+			values[index] = value;
+			strings[index] = string;
+			deliveryTimes[index] = currentTimeMillis;
+		} else {
+			put(key, value, string, currentTimeMillis);
+		}
+		delivered.incrementAndGet();
+		return true;
+	}
+
+	private boolean isChanged(byte type, long lastValue, String lastString, long value, String string) {
+		switch (type) {
+		case STRING:
+			return lastString == null ? string != null : !lastString.equals(string);
+		case DOUBLE:
+			if (lastValue == value) {
+				return false;
+			}
+			double last = Double.longBitsToDouble(lastValue);
+			double current = Double.longBitsToDouble(value);
+			return Double.isNaN(last) || Double.isNaN(current) || Math.abs(current - last) > epsilon;
+		default:
+			return lastValue != value;
+		}
+	}
+
+	private void put(long key, long value, String string, long deliveryTime) {
+		if ((size + 1) * 2 > keys.length) {
+			resize();
+		}
+		int index = indexOf(key);
+		keys[index] = key;
+		values[index] = value;
+		strings[index] = string;
+		deliveryTimes[index] = deliveryTime;
+		size++;
+	}
+
+	private void resize() {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		String[] oldStrings = strings;
+		long[] oldDeliveryTimes = deliveryTimes;
+		allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				put(oldKeys[i], oldValues[i], oldStrings[i], oldDeliveryTimes[i]);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		strings = new String[capacity];
+		deliveryTimes = new long[capacity];
+		size = 0;
+	}
+
+	/**
+	 * @return Index of key or of empty slot where it should be put, found with linear probing.
+	 */
+	private int indexOf(long key) {
+		int mask = keys.length - 1;
+		int index = hash(key) & mask;
+		while (keys[index] != EMPTY && keys[index] != key) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	private Object lock(long key) {
+		return locks[hash(key) & (STRIPES - 1)];
+	}
+
+	private static int hash(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * @return Key of requestID and slot, never equal to {@link #EMPTY}.
+	 */
+	private static long toKey(int requestID, int slot) {
+		return ((long) requestID << 32) | (slot + 1);
+	}
+
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * {@link DataReceiver} decorator delivering only the latest values to slow receiver. Values of conflated requests are
+ * stored in slots, one per requestID and data type, and delivered to wrapped receiver by one dedicated consumer
+ * thread. Value stored before previous one of the same slot has been delivered replaces it, so memory is bounded by
+ * number of slots, threads downloading data never wait for receiver and receiver never gets outdated value.
+ * </p>
+ *
+ * <p>
+ * Double, size, String and Forex values are conflated. Intraday, historical and custom data are series of values, so
+ * they are always delivered directly on calling thread, like values of requests which are not conflated. Close it
+ * with {@link #close()} to deliver remaining values and stop consumer thread. Values of conflated requests received
+ * after close are dropped, because delivering them directly could overtake older values still being delivered.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class ConflatingDataReceiver implements DataReceiver {
+
+	private final static Logger LOGGER = Logger.getLogger(ConflatingDataReceiver.class.getName());
+
+	private static final byte STRING = 0;
+	private static final byte DOUBLE = 1;
+	private static final byte SIZE = 2;
+	private static final byte FOREX = 3;
+
+	private static final int FOREX_SLOT = DataType.values().length;
+
+	private final DataReceiver receiver;
+	private final boolean conflateAll;
+	private final Set<Integer> conflatedRequests = ConcurrentHashMap.newKeySet();
+	private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+	private final Queue<Slot> updatedSlots = new ConcurrentLinkedQueue<>();
+	private final Thread consumer;
+
+	private final AtomicLong received = new AtomicLong();
+	private final AtomicLong delivered = new AtomicLong();
+	private final AtomicLong conflated = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	private volatile boolean running = true;
+
+	/**
+	 * Creates receiver conflating values of every request.
+	 *
+	 * @param receiver
+	 *            Receiver to which data is delivered.
+	 */
+	public ConflatingDataReceiver(DataReceiver receiver) {
+		this(receiver, true);
+	}
+
+	/**
+	 * @param receiver
+	 *            Receiver to which data is delivered.
+	 * @param conflateAll
+	 *            If true then values of every request are conflated, otherwise only of requests set with
+	 *            {@link #setConflated(int, boolean)}.
+	 */
+	public ConflatingDataReceiver(DataReceiver receiver, boolean conflateAll) {
+		if (receiver == null) {
+			throw new IllegalArgumentException("Illegal value. Data Receiver cannot be null.");
+		}
+		this.receiver = receiver;
+		this.conflateAll = conflateAll;
+		this.consumer = new Thread(this::consume, "yahoo-finance-conflation");
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+	}
+
+	/**
+	 * Sets if values of request are conflated. It's used only if receiver doesn't conflate values of every request.
+	 *
+	 * @param requestID
+	 *            Same as RequestID provided to {@link Session} call.
+	 * @param conflate
+	 *            If true then values of request are conflated.
+	 */
+	public void setConflated(int requestID, boolean conflate) {
+		if (conflate) {
+			conflatedRequests.add(requestID);
+		} else {
+			conflatedRequests.remove(requestID);
+		}
+	}
+
+	@Override
+	public void onStringReceived(int requestID, DataType dataType, String value) {
+		if (!isConflated(requestID)) {
+			receiver.onStringReceived(requestID, dataType, value);
+			return;
+		}
+		update(requestID, dataType.ordinal(), new Value(STRING, requestID, dataType, 0, 0, value));
+	}
+
+	@Override
+	public void onDoubleReceived(int requestID, DataType dataType, double value) {
+		if (!isConflated(requestID)) {
+			receiver.onDoubleReceived(requestID, dataType, value);
+			return;
+		}
+		update(requestID, dataType.ordinal(), new Value(DOUBLE, requestID, dataType, value, 0, null));
+	}
+
+	@Override
+	public void onSizeReceived(int requestID, DataType dataType, int value) {
+		if (!isConflated(requestID)) {
+			receiver.onSizeReceived(requestID, dataType, value);
+			return;
+		}
+		update(requestID, dataType.ordinal(), new Value(SIZE, requestID, dataType, 0, value, null));
+	}
+
+	@Override
+	public void onIntradayReceived(int requestID, long timestamp, double close, double high, double low, double open,
+			int volume) {
+		receiver.onIntradayReceived(requestID, timestamp, close, high, low, open, volume);
+	}
+
+	@Override
+	public void onHistoricalReceived(int requestID, LocalDate date, double close, double high, double low,
+			double open, int volume, double adjustedClose) {
+		receiver.onHistoricalReceived(requestID, date, close, high, low, open, volume, adjustedClose);
+	}
+
+	@Override
+	public void onCustomReceived(int requestID, List<String> value) {
+		receiver.onCustomReceived(requestID, value);
+	}
+
+	@Override
+	public void onForexReceived(int requestID, long timestamp, double price) {
+		if (!isConflated(requestID)) {
+			receiver.onForexReceived(requestID, timestamp, price);
+			return;
+		}
+		update(requestID, FOREX_SLOT, new Value(FOREX, requestID, null, price, timestamp, null));
+	}
+
+	/**
+	 * Delivers remaining values and stops consumer thread. Values of conflated requests received after this call are
+	 * dropped and counted by {@link #getDropped()}.
+	 *
+	 * @throws InterruptedException
+	 *             Thrown when thread is interrupted while waiting for consumer thread.
+	 */
+	public void close() throws InterruptedException {
+		running = false;
+		LockSupport.unpark(consumer);
+		consumer.join();
+	}
+
+	/**
+	 * @return Number of conflated values received.
+	 */
+	public long getReceived() {
+		return received.get();
+	}
+
+	/**
+	 * @return Number of conflated values delivered to wrapped receiver.
+	 */
+	public long getDelivered() {
+		return delivered.get();
+	}
+
+	/**
+	 * @return Number of values replaced by newer ones before delivery.
+	 */
+	public long getConflated() {
+		return conflated.get();
+	}
+
+	/**
+	 * @return Number of conflated values dropped because they were received after {@link #close()}.
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return Number of slots, which is the maximum number of values waiting for delivery.
+	 */
+	public int getSlotCount() {
+		return slots.size();
+	}
+
+	private boolean isConflated(int requestID) {
+		return conflateAll || conflatedRequests.contains(requestID);
+	}
+
+	private void update(int requestID, int slotIndex, Value value) {
+		if (!running) {
+			dropped.incrementAndGet();
+			return;
+		}
+		received.incrementAndGet();
+		Slot slot = slots.computeIfAbsent(((long) requestID << 32) | slotIndex, key -> new Slot());
+		if (slot.value.getAndSet(value) == null) {
+			updatedSlots.offer(slot);
+			LockSupport.unpark(consumer);
+		} else {
+			conflated.incrementAndGet();
+		}
+	}
+
+	private void consume() {
+		while (true) {
+			Slot slot = updatedSlots.poll();
+			if (slot != null) {
+				deliver(slot.value.getAndSet(null));
+			} else if (!running) {
+				return;
+			} else {
+				LockSupport.park(this);
+			}
+		}
+	}
+
+	private void deliver(Value value) {
+		try {
+			switch (value.type) {
+			case STRING:
+				receiver.onStringReceived(value.requestID, value.dataType, value.string);
+				break;
+			case DOUBLE:
+				receiver.onDoubleReceived(value.requestID, value.dataType, value.number);
+				break;
+			case SIZE:
+				receiver.onSizeReceived(value.requestID, value.dataType, (int) value.longNumber);
+				break;
+			case FOREX:
+				receiver.onForexReceived(value.requestID, value.longNumber, value.number);
+				break;
+			default:
+				break;
+			}
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Couldn't deliver data. " + e.getMessage());
+		}
+		delivered.incrementAndGet();
+	}
+
+	/**
+	 * The latest not delivered value of one requestID and data type, null if it has been delivered.
+	 */
+	private static class Slot {
+
+		private final AtomicReference<Value> value = new AtomicReference<>();
+
+	}
+
+	/**
+	 * Immutable value of one {@link DataReceiver} call. Size value and Forex timestamp are kept in long number field.
+	 */
+	private static class Value {
+
+		private final byte type;
+		private final int requestID;
+		private final DataType dataType;
+		private final double number;
+		private final long longNumber;
+		private final String string;
+
+		private Value(byte type, int requestID, DataType dataType, double number, long longNumber, String string) {
+			this.type = type;
+			this.requestID = requestID;
+			this.dataType = dataType;
+			this.number = number;
+			this.longNumber = longNumber;
+			this.string = string;
+		}
+
+	}
+
+}
@@ -33,14 +33,29 @@ package pl.zankowski.yahoofinanceapi;
  */
 public class Contract {
 
+	private final YahooExchange exchange;
 	private final String exchangeCode;
 	private final String instrumentCode;
 
 	public Contract(String exchange, String instrumentCode) {
+		this.exchange = null;
 		this.exchangeCode = exchange;
 		this.instrumentCode = instrumentCode;
 	}
 
+	public Contract(YahooExchange exchange, String instrumentCode) {
+		this.exchange = exchange;
+		this.exchangeCode = exchange.getCode();
+		this.instrumentCode = instrumentCode;
+	}
+
+	/**
+	 * @return Exchange of contract or null if contract was created with exchange code.
+	 */
+	public YahooExchange getExchange() {
+		return exchange;
+	}
+
 	public String getExchangeCode() {
 		return exchangeCode;
 	}
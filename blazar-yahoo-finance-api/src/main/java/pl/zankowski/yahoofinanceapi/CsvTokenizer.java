@@ -0,0 +1,432 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Streaming tokenizer of CSV data downloaded from Yahoo Finance API. Fields are read one by one from reusable byte
+ * buffer and numeric fields are parsed directly into primitives, so no String is created for a row. Field has to fit
+ * in the buffer, which grows if needed. Quoted fields are not supported.
+ * </p>
+ *
+ * <p>
+ * Decimal numbers are parsed straight from the buffer with {@link ParseUtils#parseDouble(CharSequence, int, int)}, so
+ * results are always equal to {@link Double#parseDouble(String)}. Dates in yyyy-MM-dd format are parsed into epoch days without
+ * {@link java.time.format.DateTimeFormatter}.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class CsvTokenizer implements Closeable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final InputStream input;
+
+	private byte[] buffer;
+	private int position = 0;
+	private int limit = 0;
+	private boolean endOfStream = false;
+	private boolean endOfLine = true;
+
+	private int fieldStart;
+	private int fieldEnd;
+	private AsciiSequence bufferSequence;
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param input
+	 *            Stream of CSV data.
+	 */
+	public CsvTokenizer(InputStream input) {
+		this(input, DEFAULT_BUFFER_SIZE);
+	}
+
+	protected CsvTokenizer(InputStream input, int bufferSize) {
+		if (input == null) {
+			throw new IllegalArgumentException("Illegal value. Input stream cannot be null.");
+		}
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("Illegal value. Buffer size has to be positive.");
+		}
+		this.input = input;
+		this.buffer = new byte[bufferSize];
+	}
+
+	/**
+	 * This method moves tokenizer to the beginning of next non-empty line, skipping not read fields of current line.
+	 *
+	 * @return True if there is next line, false at the end of stream.
+	 * @throws IOException
+	 */
+	public boolean nextLine() throws IOException {
+		while (true) {
+			if (!endOfLine) {
+				skipLine();
+			}
+			if (position >= limit && !fill()) {
+				return false;
+			}
+			byte current = buffer[position];
+			if (current == '\n' || current == '\r') {
+				consumeLineEnd();
+				continue;
+			}
+			endOfLine = false;
+			return true;
+		}
+	}
+
+	/**
+	 * This method skips given number of lines, e.g. header of data.
+	 *
+	 * @param lines
+	 *            Number of lines to skip.
+	 * @throws IOException
+	 */
+	public void skipLines(int lines) throws IOException {
+		for (int i = 0; i < lines && nextLine(); i++) {
+			skipLine();
+		}
+	}
+
+	/**
+	 * This method verificates if all fields of current line were read.
+	 *
+	 * @return Result of verification.
+	 */
+	public boolean isEndOfLine() {
+		return endOfLine;
+	}
+
+	/**
+	 * This method skips next field of current line.
+	 *
+	 * @throws IOException
+	 */
+	public void skipField() throws IOException {
+		nextField();
+	}
+
+	/**
+	 * This method reads next field of current line as String.
+	 *
+	 * @return Value of field.
+	 * @throws IOException
+	 */
+	public String nextString() throws IOException {
+		nextField();
+		return new String(buffer, fieldStart, fieldEnd - fieldStart, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * This method reads next field of current line as double.
+	 *
+	 * @return Value of field.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 *             Thrown when field is not a number.
+	 */
+	public double nextDouble() throws IOException {
+		nextField();
+		if (bufferSequence == null || bufferSequence.bytes != buffer) {
+			bufferSequence = new AsciiSequence(buffer);
+		}
+		return ParseUtils.parseDouble(bufferSequence, fieldStart, fieldEnd);
+	}
+
+	/**
+	 * This method reads next field of current line as long.
+	 *
+	 * @return Value of field.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 *             Thrown when field is not a long number.
+	 */
+	public long nextLong() throws IOException {
+		nextField();
+		return parseLong(buffer, fieldStart, fieldEnd);
+	}
+
+	/**
+	 * This method reads next field of current line as int.
+	 *
+	 * @return Value of field.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 *             Thrown when field is not an int number.
+	 */
+	public int nextInt() throws IOException {
+		nextField();
+		long value = parseLong(buffer, fieldStart, fieldEnd);
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw invalidNumber(buffer, fieldStart, fieldEnd);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * This method reads next field of current line as date in yyyy-MM-dd format.
+	 *
+	 * @return Number of days since 1970-01-01, see {@link java.time.LocalDate#ofEpochDay(long)}.
+	 * @throws IOException
+	 * @throws NumberFormatException
+	 *             Thrown when field is not a valid date.
+	 */
+	public long nextEpochDay() throws IOException {
+		nextField();
+		return parseEpochDay(buffer, fieldStart, fieldEnd);
+	}
+
+	@Override
+	public void close() throws IOException {
+		input.close();
+	}
+
+	protected static double parseDouble(byte[] bytes, int start, int end) {
+		return ParseUtils.parseDouble(new AsciiSequence(bytes), start, end);
+	}
+
+	protected static long parseLong(byte[] bytes, int start, int end) {
+		int index = start;
+		boolean negative = false;
+		if (index < end && (bytes[index] == '-' || bytes[index] == '+')) {
+			negative = bytes[index] == '-';
+			index++;
+		}
+		if (index == end) {
+			throw invalidNumber(bytes, start, end);
+		}
+		long value = 0;
+		while (index < end) {
+			byte current = bytes[index++];
+			if (!isDigit(current)) {
+				throw invalidNumber(bytes, start, end);
+			}
+			int digit = current - '0';
+			if (value < (Long.MIN_VALUE + digit) / 10) {
+				throw invalidNumber(bytes, start, end);
+			}
+			value = value * 10 - digit;
+		}
+		if (!negative) {
+			if (value == Long.MIN_VALUE) {
+				throw invalidNumber(bytes, start, end);
+			}
+			value = -value;
+		}
+		return value;
+	}
+
+	protected static long parseEpochDay(byte[] bytes, int start, int end) {
+		if (end - start != 10 || bytes[start + 4] != '-' || bytes[start + 7] != '-') {
+			throw invalidDate(bytes, start, end);
+		}
+		int year = parseDigits(bytes, start, start + 4);
+		int month = parseDigits(bytes, start + 5, start + 7);
+		int day = parseDigits(bytes, start + 8, start + 10);
+		if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+			throw invalidDate(bytes, start, end);
+		}
+		return toEpochDay(year, month, day);
+	}
+
+	/**
+	 * Days from civil algorithm, the same result as {@link java.time.LocalDate#toEpochDay()} for proleptic ISO
+	 * calendar.
+	 */
+	protected static long toEpochDay(int year, int month, int day) {
+		int y = month <= 2 ? year - 1 : year;
+		int era = (y >= 0 ? y : y - 399) / 400;
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	private static int parseDigits(byte[] bytes, int start, int end) {
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			if (!isDigit(bytes[i])) {
+				return -1;
+			}
+			value = value * 10 + (bytes[i] - '0');
+		}
+		return value;
+	}
+
+	private static boolean isDigit(byte value) {
+		return value >= '0' && value <= '9';
+	}
+
+	private static NumberFormatException invalidNumber(byte[] bytes, int start, int end) {
+		return new NumberFormatException("For input string: \""
+				+ new String(bytes, start, end - start, StandardCharsets.US_ASCII) + "\"");
+	}
+
+	private static NumberFormatException invalidDate(byte[] bytes, int start, int end) {
+		return new NumberFormatException("Illegal date: \""
+				+ new String(bytes, start, end - start, StandardCharsets.US_ASCII) + "\"");
+	}
+
+	private void nextField() throws IOException {
+		if (endOfLine) {
+			throw new NumberFormatException("Missing field, end of line reached.");
+		}
+		int end = findDelimiter(position);
+		while (end == limit && !endOfStream) {
+			int scanned = limit - position;
+			if (!fill()) {
+				break;
+			}
+			end = findDelimiter(position + scanned);
+		}
+		fieldStart = position;
+		fieldEnd = end;
+		position = end;
+		if (position < limit && buffer[position] == ',') {
+			position++;
+		} else {
+			consumeLineEnd();
+		}
+	}
+
+	private int findDelimiter(int from) {
+		for (int i = from; i < limit; i++) {
+			byte current = buffer[i];
+			if (current == ',' || current == '\n' || current == '\r') {
+				return i;
+			}
+		}
+		return limit;
+	}
+
+	private void skipLine() throws IOException {
+		while (true) {
+			for (; position < limit; position++) {
+				byte current = buffer[position];
+				if (current == '\n' || current == '\r') {
+					consumeLineEnd();
+					return;
+				}
+			}
+			if (!fill()) {
+				endOfLine = true;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Consumes line end at current position without reading more data, so field which has just been read stays in
+	 * buffer. If \r is the last byte in buffer then following \n is skipped by {@link #nextLine()} as empty line.
+	 */
+	private void consumeLineEnd() {
+		endOfLine = true;
+		if (position < limit && buffer[position] == '\r') {
+			position++;
+		}
+		if (position < limit && buffer[position] == '\n') {
+			position++;
+		}
+	}
+
+	/**
+	 * Reads more data keeping unread bytes at the beginning of buffer, buffer is grown if it's full.
+	 */
+	private boolean fill() throws IOException {
+		if (endOfStream) {
+			return false;
+		}
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			limit -= position;
+			position = 0;
+		}
+		if (limit == buffer.length) {
+			byte[] grown = new byte[buffer.length * 2];
+			System.arraycopy(buffer, 0, grown, 0, limit);
+			buffer = grown;
+		}
+		int read = input.read(buffer, limit, buffer.length - limit);
+		if (read < 0) {
+			endOfStream = true;
+			return false;
+		}
+		limit += read;
+		return true;
+	}
+
+	/**
+	 * View of ASCII bytes as characters, so numbers can be parsed from buffer without copying it.
+	 */
+	private static class AsciiSequence implements CharSequence {
+
+		private final byte[] bytes;
+
+		private AsciiSequence(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public int length() {
+			return bytes.length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) (bytes[index] & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+		}
+
+		@Override
+		public String toString() {
+			return new String(bytes, StandardCharsets.US_ASCII);
+		}
+
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Interfaces of reactive streams with demand signalling, used by {@link DataPublisher}. Library is compiled for Java
+ * 8, so they mirror java.util.concurrent.Flow interfaces of Java 9 with the same methods and rules: subscriber gets
+ * at most as many items as it requested with {@link Subscription#request(long)} and signals are never delivered
+ * concurrently.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public final class DataFlow {
+
+	private DataFlow() {
+	}
+
+	/**
+	 * Producer of items received by subscribers.
+	 *
+	 * @param <T>
+	 *            Type of published items.
+	 */
+	public interface Publisher<T> {
+
+		/**
+		 * Adds subscriber, which receives {@link Subscriber#onSubscribe(Subscription)} call first.
+		 *
+		 * @param subscriber
+		 *            Subscriber of items.
+		 */
+		void subscribe(Subscriber<? super T> subscriber);
+
+	}
+
+	/**
+	 * Receiver of items.
+	 *
+	 * @param <T>
+	 *            Type of received items.
+	 */
+	public interface Subscriber<T> {
+
+		/**
+		 * Called before any other method with subscription used to request items.
+		 *
+		 * @param subscription
+		 *            New subscription.
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Called with next item, only if it has been requested.
+		 *
+		 * @param item
+		 *            Received item.
+		 */
+		void onNext(T item);
+
+		/**
+		 * Called when subscription fails, no other method is called after it.
+		 *
+		 * @param throwable
+		 *            Cause of failure.
+		 */
+		void onError(Throwable throwable);
+
+		/**
+		 * Called when all items have been delivered, no other method is called after it.
+		 */
+		void onComplete();
+
+	}
+
+	/**
+	 * Link between publisher and subscriber.
+	 */
+	public interface Subscription {
+
+		/**
+		 * Adds given number of items to demand of subscriber.
+		 *
+		 * @param n
+		 *            Number of items, has to be positive.
+		 */
+		void request(long n);
+
+		/**
+		 * Stops delivery of items to subscriber.
+		 */
+		void cancel();
+
+	}
+
+}
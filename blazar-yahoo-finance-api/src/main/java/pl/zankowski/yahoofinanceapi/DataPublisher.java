@@ -0,0 +1,257 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * {@link DataFlow.Publisher} of data downloaded from Yahoo Finance API, created by {@link Session}. Every subscriber
+ * has its own downloads, made with {@link RequestManager} of the session, and gets only as many items as it requested.
+ * </p>
+ *
+ * <p>
+ * If delay is positive then data is downloaded periodically. Download is skipped while subscriber has no demand and
+ * missed downloads are replaced with one download as soon as subscriber requests more items, so slow subscriber gets
+ * the latest data instead of queue of outdated items. Download failures are logged and next download is made in next
+ * period. If delay equals 0 then data is downloaded once, when subscriber requests items for the first time, items are
+ * delivered as subscriber requests them and subscription is completed after the last one or failed with download
+ * error.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ *
+ * @param <T>
+ *            Type of published items.
+ */
+public class DataPublisher<T> implements DataFlow.Publisher<T> {
+
+	private final static Logger LOGGER = Logger.getLogger(DataPublisher.class.getName());
+
+	private final RequestManager requestManager;
+	private final int delay;
+	private final Fetcher<T> fetcher;
+
+	private final AtomicLong fetches = new AtomicLong();
+	private final AtomicLong pausedFetches = new AtomicLong();
+
+	protected DataPublisher(RequestManager requestManager, int delay, Fetcher<T> fetcher) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Illegal argument value. Delay cannot be negative.");
+		}
+		this.requestManager = requestManager;
+		this.delay = delay;
+		this.fetcher = fetcher;
+	}
+
+	@Override
+	public void subscribe(DataFlow.Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber cannot be null.");
+		}
+		DataSubscription subscription = new DataSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+		if (delay > 0) {
+			subscription.schedule();
+		}
+	}
+
+	/**
+	 * @return Number of downloads made for all subscribers.
+	 */
+	public long getFetches() {
+		return fetches.get();
+	}
+
+	/**
+	 * @return Number of periodic downloads skipped because subscriber had no demand.
+	 */
+	public long getPausedFetches() {
+		return pausedFetches.get();
+	}
+
+	/**
+	 * Downloads and parses items.
+	 */
+	protected interface Fetcher<T> {
+
+		CompletableFuture<Iterator<T>> fetch() throws IOException;
+
+	}
+
+	private class DataSubscription implements DataFlow.Subscription {
+
+		private final DataFlow.Subscriber<? super T> subscriber;
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicInteger pendingDrains = new AtomicInteger();
+		private final AtomicBoolean fetching = new AtomicBoolean();
+
+		private volatile Iterator<T> items = Collections.emptyIterator();
+		private volatile ScheduledFuture<?> scheduledTask;
+		private volatile Throwable error;
+		private volatile boolean started;
+		private volatile boolean paused;
+		private volatile boolean done;
+		private volatile boolean cancelled;
+
+		private DataSubscription(DataFlow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		private void schedule() {
+			scheduledTask = requestManager.scheduleAtFixedRate(this::tick, 0, delay);
+			if (cancelled) {
+				scheduledTask.cancel(false);
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			if (cancelled) {
+				return;
+			}
+			if (n <= 0) {
+				error = new IllegalArgumentException("Illegal argument value. Number of requested items has to be "
+						+ "positive.");
+				drain();
+				return;
+			}
+			demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+			if (delay == 0 && !started) {
+				started = true;
+				requestManager.schedule(this::fetch, 0);
+			} else if (paused) {
+				paused = false;
+				requestManager.schedule(this::fetch, 0);
+			}
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			items = Collections.emptyIterator();
+			ScheduledFuture<?> task = scheduledTask;
+			if (task != null) {
+				task.cancel(false);
+			}
+		}
+
+		private void tick() {
+			if (cancelled) {
+				return;
+			}
+			if (demand.get() == 0) {
+				paused = true;
+				pausedFetches.incrementAndGet();
+				return;
+			}
+			fetch();
+		}
+
+		private void fetch() {
+			if (cancelled || !fetching.compareAndSet(false, true)) {
+				return;
+			}
+			fetches.incrementAndGet();
+			try {
+				fetcher.fetch().whenComplete((fetchedItems, throwable) -> {
+					if (throwable != null) {
+						onFailure(UrlDataParser.unwrap(throwable));
+					} else {
+						items = fetchedItems;
+						done = delay == 0;
+					}
+					fetching.set(false);
+					drain();
+				});
+			} catch (IOException | RuntimeException e) {
+				onFailure(e);
+				fetching.set(false);
+				drain();
+			}
+		}
+
+		private void onFailure(Throwable throwable) {
+			if (delay == 0) {
+				error = throwable;
+			} else {
+				RequestFactory.logFailure(throwable);
+			}
+		}
+
+		/**
+		 * Delivers signals on one thread at once; calls made during delivery, e.g. request from onNext, are handled by
+		 * the delivering thread in next loop.
+		 */
+		private void drain() {
+			if (pendingDrains.getAndIncrement() != 0) {
+				return;
+			}
+			int pending = 1;
+			do {
+				if (!cancelled) {
+					emit();
+				}
+				pending = pendingDrains.addAndGet(-pending);
+			} while (pending != 0);
+		}
+
+		private void emit() {
+			Throwable failure = error;
+			if (failure != null) {
+				cancel();
+				subscriber.onError(failure);
+				return;
+			}
+			Iterator<T> currentItems = items;
+			while (!cancelled && demand.get() > 0 && currentItems.hasNext()) {
+				T item = currentItems.next();
+				if (demand.get() != Long.MAX_VALUE) {
+					demand.decrementAndGet();
+				}
+				try {
+					subscriber.onNext(item);
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.WARNING, "Couldn't deliver data. " + e.getMessage());
+					cancel();
+					return;
+				}
+			}
+			if (!cancelled && done && !currentItems.hasNext()) {
+				cancel();
+				subscriber.onComplete();
+			}
+		}
+
+	}
+
+}
@@ -31,12 +31,18 @@ package pl.zankowski.yahoofinanceapi;
  * DataType: {@link DataType#LAST_TRADE_PRICE} &emsp;&emsp; Delay: 1000
  * </p>
  *
+ * <p>
+ * Optional {@link SchedulePolicy} sets how periodic downloads are scheduled. It's not used by {@link RequestManager}
+ * batching market data requests, which downloads all subscriptions with the same delay together.
+ * </p>
+ *
  * @author Wojciech Zankowski
  */
 public class DataRequest {
 
 	private final DataType dataType;
 	private final int delay;
+	private final SchedulePolicy schedulePolicy;
 
 	/**
 	 * Public constructor.
@@ -47,8 +53,30 @@ public class DataRequest {
 	 *            delay in milliseconds
 	 */
 	public DataRequest(DataType dataType, int delay) {
+		this(dataType, delay, SchedulePolicy.DEFAULT);
+	}
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param dataType
+	 *            Data type
+	 * @param delay
+	 *            delay in milliseconds
+	 * @param schedulePolicy
+	 *            policy of scheduling periodic downloads
+	 */
+	public DataRequest(DataType dataType, int delay, SchedulePolicy schedulePolicy) {
+		if (schedulePolicy == null) {
+			throw new IllegalArgumentException("Illegal value. Schedule policy cannot be null.");
+		}
+		if (schedulePolicy.isAdaptive() && schedulePolicy.getMaxDelay() < delay) {
+			throw new IllegalArgumentException("Illegal value. Max delay of schedule policy cannot be shorter than "
+					+ "delay.");
+		}
 		this.dataType = dataType;
 		this.delay = delay;
+		this.schedulePolicy = schedulePolicy;
 	}
 
 	public DataType getDataType() {
@@ -59,4 +87,8 @@ public class DataRequest {
 		return delay;
 	}
 
+	public SchedulePolicy getSchedulePolicy() {
+		return schedulePolicy;
+	}
+
 }
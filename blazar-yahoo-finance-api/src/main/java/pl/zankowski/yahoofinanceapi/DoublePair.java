@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Mutable pair of primitive doubles filled by {@link ParseUtils#changePercentToPair(String, DoublePair)} and
+ * {@link ParseUtils#priceRangeToPair(String, DoublePair)}. One object can be reused for every parsed value, so
+ * parsing doesn't allocate {@link Tuple} and boxed doubles.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class DoublePair {
+
+	private double firstValue;
+	private double secondValue;
+
+	public double getFirstValue() {
+		return firstValue;
+	}
+
+	public double getSecondValue() {
+		return secondValue;
+	}
+
+	protected DoublePair set(double firstValue, double secondValue) {
+		this.firstValue = firstValue;
+		this.secondValue = secondValue;
+		return this;
+	}
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * This class holds {@link TradingHours} of exchanges. Exchanges without trading hours are treated as always open.
+ * Calendar can be loaded from file with lines of trading hours and holidays:
+ * </p>
+ *
+ * <pre>
+ * # exchange,time zone,open,close[,trading days]
+ * NASDAQ,America/New_York,09:30,16:00
+ * TEL_AVIV,Asia/Jerusalem,09:59,17:14,SUN-THU
+ * # exchange,holiday
+ * NASDAQ,2026-12-25
+ * </pre>
+ *
+ * @author Wojciech Zankowski
+ */
+public class ExchangeCalendar {
+
+	private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+	private final Map<YahooExchange, TradingHours> tradingHours;
+
+	public ExchangeCalendar(Map<YahooExchange, TradingHours> tradingHours) {
+		this.tradingHours = tradingHours.isEmpty() ? Collections.emptyMap()
+				: Collections.unmodifiableMap(new EnumMap<>(tradingHours));
+	}
+
+	/**
+	 * This method creates calendar with regular trading hours of main exchanges, without holidays.
+	 *
+	 * @return Created calendar.
+	 */
+	public static ExchangeCalendar createDefault() {
+		Map<YahooExchange, TradingHours> tradingHours = new EnumMap<>(YahooExchange.class);
+		TradingHours us = new TradingHours(NEW_YORK, LocalTime.of(9, 30), LocalTime.of(16, 0));
+		for (YahooExchange exchange : EnumSet.of(YahooExchange.ASE, YahooExchange.BATS, YahooExchange.DOW_JONES,
+				YahooExchange.NASDAQ, YahooExchange.NY_STOCK, YahooExchange.OTC, YahooExchange.PINK_SHEETS,
+				YahooExchange.SP)) {
+			tradingHours.put(exchange, us);
+		}
+		TradingHours xetra = new TradingHours(ZoneId.of("Europe/Berlin"), LocalTime.of(9, 0), LocalTime.of(17, 30));
+		tradingHours.put(YahooExchange.XETRA, xetra);
+		tradingHours.put(YahooExchange.FRANKFURT, xetra);
+		TradingHours euronext = new TradingHours(ZoneId.of("Europe/Paris"), LocalTime.of(9, 0), LocalTime.of(17, 30));
+		tradingHours.put(YahooExchange.PARIS, euronext);
+		tradingHours.put(YahooExchange.AMSTERDAM, euronext);
+		tradingHours.put(YahooExchange.BRUSSELS, euronext);
+		tradingHours.put(YahooExchange.LONDON, new TradingHours(ZoneId.of("Europe/London"), LocalTime.of(8, 0),
+				LocalTime.of(16, 30)));
+		tradingHours.put(YahooExchange.SWISS, new TradingHours(ZoneId.of("Europe/Zurich"), LocalTime.of(9, 0),
+				LocalTime.of(17, 30)));
+		tradingHours.put(YahooExchange.TORONTO, new TradingHours(ZoneId.of("America/Toronto"), LocalTime.of(9, 30),
+				LocalTime.of(16, 0)));
+		tradingHours.put(YahooExchange.HONG_KONG, new TradingHours(ZoneId.of("Asia/Hong_Kong"), LocalTime.of(9, 30),
+				LocalTime.of(16, 0)));
+		tradingHours.put(YahooExchange.NIKKEI, new TradingHours(ZoneId.of("Asia/Tokyo"), LocalTime.of(9, 0),
+				LocalTime.of(15, 30)));
+		tradingHours.put(YahooExchange.AUSTRALIAN, new TradingHours(ZoneId.of("Australia/Sydney"),
+				LocalTime.of(10, 0), LocalTime.of(16, 0)));
+		return new ExchangeCalendar(tradingHours);
+	}
+
+	/**
+	 * This method loads calendar from file. Holidays can be given for exchanges defined in the same file only.
+	 *
+	 * @param path
+	 *            Path of calendar file.
+	 * @return Loaded calendar.
+	 * @throws IOException
+	 *             Thrown when file couldn't be read or parsed.
+	 */
+	public static ExchangeCalendar load(Path path) throws IOException {
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			return load(reader);
+		}
+	}
+
+	/**
+	 * This method loads calendar from given reader.
+	 *
+	 * @param reader
+	 *            Reader of calendar lines.
+	 * @return Loaded calendar.
+	 * @throws IOException
+	 *             Thrown when lines couldn't be read or parsed.
+	 */
+	public static ExchangeCalendar load(Reader reader) throws IOException {
+		Map<YahooExchange, TradingHours> tradingHours = new EnumMap<>(YahooExchange.class);
+		Map<YahooExchange, List<LocalDate>> holidays = new EnumMap<>(YahooExchange.class);
+		BufferedReader br = new BufferedReader(reader);
+		String line;
+		int lineNumber = 0;
+		while ((line = br.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			try {
+				parseLine(line.split(","), tradingHours, holidays);
+			} catch (IllegalArgumentException | DateTimeException e) {
+				throw new IOException("Couldn't parse line " + lineNumber + " of exchange calendar. " + e.getMessage(),
+						e);
+			}
+		}
+
+		for (Map.Entry<YahooExchange, List<LocalDate>> entry : holidays.entrySet()) {
+			TradingHours hours = tradingHours.get(entry.getKey());
+			if (hours == null) {
+				throw new IOException("Couldn't parse exchange calendar. Holidays of " + entry.getKey()
+						+ " are defined without trading hours.");
+			}
+			tradingHours.put(entry.getKey(), hours.withHolidays(entry.getValue()));
+		}
+		return new ExchangeCalendar(tradingHours);
+	}
+
+	private static void parseLine(String[] values, Map<YahooExchange, TradingHours> tradingHours,
+			Map<YahooExchange, List<LocalDate>> holidays) {
+		YahooExchange exchange = YahooExchange.valueOf(values[0].trim());
+		if (values.length == 2) {
+			List<LocalDate> exchangeHolidays = holidays.get(exchange);
+			if (exchangeHolidays == null) {
+				exchangeHolidays = new ArrayList<>();
+				holidays.put(exchange, exchangeHolidays);
+			}
+			exchangeHolidays.add(LocalDate.parse(values[1].trim()));
+		} else if (values.length == 4 || values.length == 5) {
+			Set<DayOfWeek> tradingDays = values.length == 5 ? parseDays(values[4].trim()) : TradingHours.WEEKDAYS;
+			tradingHours.put(exchange, new TradingHours(ZoneId.of(values[1].trim()), LocalTime.parse(values[2].trim()),
+					LocalTime.parse(values[3].trim()), tradingDays, Collections.emptySet()));
+		} else {
+			throw new IllegalArgumentException("Illegal value. Expected 2, 4 or 5 values but got " + values.length
+					+ ".");
+		}
+	}
+
+	private static Set<DayOfWeek> parseDays(String days) {
+		String[] range = days.split("-");
+		if (range.length != 2) {
+			throw new IllegalArgumentException("Illegal value. Trading days have to be given as range, e.g. MON-FRI.");
+		}
+		DayOfWeek day = parseDay(range[0]);
+		DayOfWeek last = parseDay(range[1]);
+		Set<DayOfWeek> tradingDays = EnumSet.of(day);
+		while (day != last) {
+			day = day.plus(1);
+			tradingDays.add(day);
+		}
+		return tradingDays;
+	}
+
+	private static DayOfWeek parseDay(String day) {
+		for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+			if (day.length() >= 3 && dayOfWeek.name().startsWith(day.toUpperCase())) {
+				return dayOfWeek;
+			}
+		}
+		throw new IllegalArgumentException("Illegal value. Unknown day of week " + day + ".");
+	}
+
+	/**
+	 * @param exchange
+	 *            Exchange.
+	 * @return Trading hours of exchange or null if exchange is always open.
+	 */
+	public TradingHours getTradingHours(YahooExchange exchange) {
+		return tradingHours.get(exchange);
+	}
+
+	/**
+	 * This method finds trading hours of contract. If contract was created with exchange code only then trading hours
+	 * of the first {@link YahooExchange} with this code and trading hours are used, e.g. codes of American exchanges
+	 * and indices are empty, so in default calendar they are all resolved to {@link YahooExchange#ASE}.
+	 *
+	 * @param contract
+	 *            Contract.
+	 * @return Trading hours of contract exchange or null if exchange is always open.
+	 */
+	public TradingHours getTradingHours(Contract contract) {
+		if (contract.getExchange() != null) {
+			return tradingHours.get(contract.getExchange());
+		}
+		for (YahooExchange exchange : YahooExchange.values()) {
+			TradingHours hours = tradingHours.get(exchange);
+			if (hours != null && exchange.getCode().equals(contract.getExchangeCode())) {
+				return hours;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param contract
+	 *            Contract.
+	 * @param epochMillis
+	 *            Checked time in milliseconds since epoch.
+	 * @return True if exchange of contract is open at given time.
+	 */
+	public boolean isOpen(Contract contract, long epochMillis) {
+		TradingHours hours = getTradingHours(contract);
+		return hours == null || hours.isOpen(epochMillis);
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Forex currency pair price published by {@link Session#forexPublisher(ForexCurrency, ForexCurrency, int)}.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class ForexQuote {
+
+	private final ForexCurrency fromCurrency;
+	private final ForexCurrency toCurrency;
+	private final long timestamp;
+	private final double price;
+
+	public ForexQuote(ForexCurrency fromCurrency, ForexCurrency toCurrency, long timestamp, double price) {
+		this.fromCurrency = fromCurrency;
+		this.toCurrency = toCurrency;
+		this.timestamp = timestamp;
+		this.price = price;
+	}
+
+	public ForexCurrency getFromCurrency() {
+		return fromCurrency;
+	}
+
+	public ForexCurrency getToCurrency() {
+		return toCurrency;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+}
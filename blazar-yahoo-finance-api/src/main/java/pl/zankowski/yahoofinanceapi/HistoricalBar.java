@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.time.LocalDate;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Historical bar published by {@link Session#historicalPublisher(Contract, LocalDate, LocalDate, TimePeriod)}.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class HistoricalBar {
+
+	private final int epochDay;
+	private final double open;
+	private final double high;
+	private final double low;
+	private final double close;
+	private final long volume;
+	private final double adjClose;
+
+	public HistoricalBar(int epochDay, double open, double high, double low, double close, long volume,
+			double adjClose) {
+		this.epochDay = epochDay;
+		this.open = open;
+		this.high = high;
+		this.low = low;
+		this.close = close;
+		this.volume = volume;
+		this.adjClose = adjClose;
+	}
+
+	public int getEpochDay() {
+		return epochDay;
+	}
+
+	public LocalDate getDate() {
+		return LocalDate.ofEpochDay(epochDay);
+	}
+
+	public double getOpen() {
+		return open;
+	}
+
+	public double getHigh() {
+		return high;
+	}
+
+	public double getLow() {
+		return low;
+	}
+
+	public double getClose() {
+		return close;
+	}
+
+	public long getVolume() {
+		return volume;
+	}
+
+	public double getAdjClose() {
+		return adjClose;
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Interface of store remembering the last historical bar delivered for {@link Contract} and {@link TimePeriod} in
+ * incremental historical data requests - see
+ * {@link Session#reqHistoricalData(int, Contract, java.time.LocalDate, java.time.LocalDate, TimePeriod,
+ * HistoricalCheckpointStore)}. Implementations have to be thread safe.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public interface HistoricalCheckpointStore {
+
+	/**
+	 * <p>
+	 * Method returns the last bar delivered for contract and time period.
+	 * </p>
+	 *
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param timePeriod
+	 *            Interval of historical data.
+	 * @return The last delivered bar or null if nothing has been delivered yet.
+	 */
+	HistoricalCheckpoint getCheckpoint(Contract contract, TimePeriod timePeriod);
+
+	/**
+	 * <p>
+	 * Method saves the last bar delivered for contract and time period.
+	 * </p>
+	 *
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param timePeriod
+	 *            Interval of historical data.
+	 * @param checkpoint
+	 *            The last delivered bar.
+	 */
+	void setCheckpoint(Contract contract, TimePeriod timePeriod, HistoricalCheckpoint checkpoint);
+
+}
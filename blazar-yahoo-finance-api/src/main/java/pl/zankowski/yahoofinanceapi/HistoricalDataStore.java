@@ -0,0 +1,371 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Local store of historical data. Bars of every {@link Contract} and {@link TimePeriod} are kept in separate file as
+ * fixed-width binary records ordered by date. When requested range ends after the last stored bar, only the missing
+ * tail is downloaded from Yahoo Finance API, starting from the last stored bar, which is replaced if it has been
+ * revised (e.g. bar of current week).
+ * </p>
+ *
+ * <p>
+ * Files are read with positional {@link FileChannel} reads: requested range is found by binary search reading only
+ * dates of probed records and then only records of the range are read into returned {@link HistoricalSeries}. Files
+ * aren't memory-mapped, because mapping can't be released explicitly and mapped file can't be replaced on Windows.
+ * </p>
+ *
+ * <p>
+ * Every update writes a complete new file next to the store file and atomically moves it over the old one, so crash
+ * or I/O error in the middle of writing leaves previous content of the store intact.
+ * </p>
+ *
+ * <p>
+ * File starts with 8 bytes header (magic number and version) followed by 52 bytes records: epoch day (int), open,
+ * high, low and close (double), volume (long) and adjusted close (double), all in little endian order.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class HistoricalDataStore {
+
+	protected static final int MAGIC = 0x59464253;
+	protected static final int VERSION = 1;
+	protected static final int HEADER_SIZE = 8;
+	protected static final int RECORD_SIZE = 52;
+
+	private static final String FILE_EXTENSION = ".bars";
+	private static final String TEMPORARY_EXTENSION = ".tmp";
+	private static final int RECORDS_PER_READ = 1024;
+
+	private final Path directory;
+	private final ConcurrentMap<Path, Object> locks = new ConcurrentHashMap<>();
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param directory
+	 *            Directory of store files, created if it doesn't exist.
+	 * @throws IOException
+	 */
+	public HistoricalDataStore(Path directory) throws IOException {
+		if (directory == null) {
+			throw new IllegalArgumentException("Illegal value. Directory cannot be null.");
+		}
+		this.directory = Files.createDirectories(directory);
+	}
+
+	/**
+	 * This method returns historical data from store, downloading bars missing at the end of requested range first.
+	 * If requested range starts before the first stored bar then bars between start date and the first stored bar are
+	 * downloaded too.
+	 *
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param startDate
+	 *            Start date of data.
+	 * @param endDate
+	 *            End date of data.
+	 * @param timePeriod
+	 *            Interval for historical data.
+	 * @return Bars ordered by date ascending.
+	 * @throws IOException
+	 */
+	public HistoricalSeries getHistoricalSeries(Contract contract, LocalDate startDate, LocalDate endDate,
+			TimePeriod timePeriod) throws IOException {
+		validate(contract, startDate, endDate, timePeriod);
+		Path file = file(contract, timePeriod);
+		synchronized (lock(file)) {
+			StoredRange stored = readRange(file);
+			int start = (int) startDate.toEpochDay();
+			int end = (int) endDate.toEpochDay();
+
+			if (stored == null) {
+				writeFile(file, fetch(contract, startDate, endDate, timePeriod), 0);
+				return readFile(file, start, end);
+			}
+			if (start < stored.first) {
+				HistoricalSeries merged = fetch(contract, startDate, LocalDate.ofEpochDay(stored.first - 1),
+						timePeriod);
+				append(merged, readFile(file, stored.first, Integer.MAX_VALUE));
+				writeFile(file, merged, 0);
+			}
+			if (end > stored.last) {
+				HistoricalSeries downloaded = fetch(contract, LocalDate.ofEpochDay(stored.last), endDate, timePeriod);
+				if (!downloaded.isEmpty()) {
+					writeFile(file, downloaded, readIndex(file, downloaded.getEpochDay(0)));
+				}
+			}
+			return readFile(file, start, end);
+		}
+	}
+
+	/**
+	 * This method returns stored historical data without downloading anything.
+	 *
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param startDate
+	 *            Start date of data.
+	 * @param endDate
+	 *            End date of data.
+	 * @param timePeriod
+	 *            Interval for historical data.
+	 * @return Stored bars ordered by date ascending.
+	 * @throws IOException
+	 */
+	public HistoricalSeries read(Contract contract, LocalDate startDate, LocalDate endDate, TimePeriod timePeriod)
+			throws IOException {
+		validate(contract, startDate, endDate, timePeriod);
+		Path file = file(contract, timePeriod);
+		synchronized (lock(file)) {
+			return readFile(file, (int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+		}
+	}
+
+	protected HistoricalSeries fetch(Contract contract, LocalDate startDate, LocalDate endDate, TimePeriod timePeriod)
+			throws IOException {
+		return RequestFactory.createHistoricalSeriesRequest(contract, startDate, endDate, timePeriod);
+	}
+
+	protected Path file(Contract contract, TimePeriod timePeriod) {
+		try {
+			return directory.resolve(URLEncoder.encode(RequestUtils.toInstruments(contract), "UTF-8") + "-"
+					+ timePeriod.getCode() + FILE_EXTENSION);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Object lock(Path file) {
+		Object lock = locks.get(file);
+		if (lock == null) {
+			Object newLock = new Object();
+			lock = locks.putIfAbsent(file, newLock);
+			if (lock == null) {
+				lock = newLock;
+			}
+		}
+		return lock;
+	}
+
+	private static HistoricalSeries readFile(Path file, int start, int end) throws IOException {
+		if (!Files.exists(file)) {
+			return new HistoricalSeries(0);
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			int records = checkHeader(file, channel);
+			int from = lowerBound(channel, records, start);
+			int to = lowerBound(channel, records, end == Integer.MAX_VALUE ? end : end + 1);
+			HistoricalSeries series = new HistoricalSeries(to - from);
+			ByteBuffer buffer = ByteBuffer.allocate(Math.min(to - from, RECORDS_PER_READ) * RECORD_SIZE)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = from; i < to; i += RECORDS_PER_READ) {
+				buffer.clear().limit(Math.min(to - i, RECORDS_PER_READ) * RECORD_SIZE);
+				read(channel, buffer, HEADER_SIZE + (long) i * RECORD_SIZE);
+				while (buffer.hasRemaining()) {
+					series.add(buffer.getInt(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+							buffer.getDouble(), buffer.getLong(), buffer.getDouble());
+				}
+			}
+			return series;
+		}
+	}
+
+	/**
+	 * Writes records starting from given record index, replacing all records stored after it. Records before the index
+	 * are copied from the current file into temporary file, which then replaces the current file.
+	 */
+	private static void writeFile(Path file, HistoricalSeries series, int index) throws IOException {
+		Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), TEMPORARY_EXTENSION);
+		try {
+			try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+				long position = 0;
+				if (index == 0) {
+					ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+					header.putInt(MAGIC).putInt(VERSION).flip();
+					position = write(channel, header, position);
+				} else {
+					position = copy(file, channel, HEADER_SIZE + (long) index * RECORD_SIZE);
+				}
+				ByteBuffer buffer = ByteBuffer.allocate(series.size() * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+				for (int i = 0; i < series.size(); i++) {
+					buffer.putInt(series.getEpochDay(i)).putDouble(series.getOpen(i)).putDouble(series.getHigh(i))
+							.putDouble(series.getLow(i)).putDouble(series.getClose(i)).putLong(series.getVolume(i))
+							.putDouble(series.getAdjClose(i));
+				}
+				buffer.flip();
+				write(channel, buffer, position);
+				channel.force(false);
+			}
+			try {
+				Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	private static long copy(Path file, FileChannel target, long size) throws IOException {
+		try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+			long position = 0;
+			while (position < size) {
+				long transferred = source.transferTo(position, size - position, target);
+				if (transferred <= 0) {
+					throw new IOException("Unexpected end of historical data file " + file + ".");
+				}
+				position += transferred;
+			}
+			return position;
+		}
+	}
+
+	private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+		return position;
+	}
+
+	private static int lowerBound(FileChannel channel, int records, int epochDay) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+		int low = 0;
+		int high = records;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (readEpochDay(channel, buffer, middle) < epochDay) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static int readEpochDay(FileChannel channel, ByteBuffer buffer, int index) throws IOException {
+		buffer.clear();
+		read(channel, buffer, HEADER_SIZE + (long) index * RECORD_SIZE);
+		return buffer.getInt();
+	}
+
+	private static StoredRange readRange(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			int records = checkHeader(file, channel);
+			if (records == 0) {
+				return null;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			return new StoredRange(readEpochDay(channel, buffer, 0), readEpochDay(channel, buffer, records - 1));
+		}
+	}
+
+	private static int readIndex(Path file, int epochDay) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return lowerBound(channel, checkHeader(file, channel), epochDay);
+		}
+	}
+
+	/**
+	 * Verificates header of file and returns number of stored records.
+	 */
+	private static int checkHeader(Path file, FileChannel channel) throws IOException {
+		if (channel.size() < HEADER_SIZE) {
+			throw new IOException("Unsupported historical data file " + file + ".");
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		read(channel, header, 0);
+		if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+			throw new IOException("Unsupported historical data file " + file + ".");
+		}
+		return records(channel);
+	}
+
+	/**
+	 * Fills remaining part of buffer from given position of file and flips it.
+	 */
+	private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new EOFException("Unexpected end of historical data file.");
+			}
+			position += read;
+		}
+		buffer.flip();
+	}
+
+	private static int records(FileChannel channel) throws IOException {
+		return (int) ((channel.size() - HEADER_SIZE) / RECORD_SIZE);
+	}
+
+	private static void append(HistoricalSeries target, HistoricalSeries source) {
+		for (int i = 0; i < source.size(); i++) {
+			target.add(source.getEpochDay(i), source.getOpen(i), source.getHigh(i), source.getLow(i),
+					source.getClose(i), source.getVolume(i), source.getAdjClose(i));
+		}
+	}
+
+	private static void validate(Contract contract, LocalDate startDate, LocalDate endDate, TimePeriod timePeriod) {
+		if (contract == null || startDate == null || endDate == null || timePeriod == null) {
+			throw new IllegalArgumentException("Illegal argument value. Contract, dates and time period cannot be "
+					+ "null.");
+		}
+		if (startDate.isAfter(endDate)) {
+			throw new IllegalArgumentException("Illegal argument value. Start date cannot be after end date.");
+		}
+	}
+
+	private static class StoredRange {
+
+		private final int first;
+		private final int last;
+
+		private StoredRange(int first, int last) {
+			this.first = first;
+			this.last = last;
+		}
+
+	}
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Columnar series of historical OHLCV bars. Every column is kept in growable primitive array, so loading a series
+ * doesn't create any object per bar. Bars are ordered by date ascending.
+ * </p>
+ *
+ * <p>
+ * Arrays returned by column getters are internal arrays of the series, they can be longer than {@link #size()} and
+ * are replaced when series grows.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class HistoricalSeries {
+
+	private static final int DEFAULT_CAPACITY = 256;
+
+	private int size = 0;
+	private int[] epochDays;
+	private double[] open;
+	private double[] high;
+	private double[] low;
+	private double[] close;
+	private long[] volume;
+	private double[] adjClose;
+
+	public HistoricalSeries() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param capacity
+	 *            initial number of bars that fit in the series without growing.
+	 */
+	public HistoricalSeries(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Illegal value. Capacity cannot be negative.");
+		}
+		this.epochDays = new int[capacity];
+		this.open = new double[capacity];
+		this.high = new double[capacity];
+		this.low = new double[capacity];
+		this.close = new double[capacity];
+		this.volume = new long[capacity];
+		this.adjClose = new double[capacity];
+	}
+
+	/**
+	 * This method appends bar at the end of series.
+	 *
+	 * @param epochDay
+	 *            Date of bar as number of days since 1970-01-01.
+	 * @param openPrice
+	 *            Open price.
+	 * @param highPrice
+	 *            High price.
+	 * @param lowPrice
+	 *            Low price.
+	 * @param closePrice
+	 *            Close price.
+	 * @param volumeValue
+	 *            Volume.
+	 * @param adjClosePrice
+	 *            Close price adjusted for dividends and splits.
+	 */
+	public void add(int epochDay, double openPrice, double highPrice, double lowPrice, double closePrice,
+			long volumeValue, double adjClosePrice) {
+		if (size == epochDays.length) {
+			grow();
+		}
+		epochDays[size] = epochDay;
+		open[size] = openPrice;
+		high[size] = highPrice;
+		low[size] = lowPrice;
+		close[size] = closePrice;
+		volume[size] = volumeValue;
+		adjClose[size] = adjClosePrice;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public int getEpochDay(int index) {
+		checkIndex(index);
+		return epochDays[index];
+	}
+
+	public LocalDate getDate(int index) {
+		return LocalDate.ofEpochDay(getEpochDay(index));
+	}
+
+	public double getOpen(int index) {
+		checkIndex(index);
+		return open[index];
+	}
+
+	public double getHigh(int index) {
+		checkIndex(index);
+		return high[index];
+	}
+
+	public double getLow(int index) {
+		checkIndex(index);
+		return low[index];
+	}
+
+	public double getClose(int index) {
+		checkIndex(index);
+		return close[index];
+	}
+
+	public long getVolume(int index) {
+		checkIndex(index);
+		return volume[index];
+	}
+
+	public double getAdjClose(int index) {
+		checkIndex(index);
+		return adjClose[index];
+	}
+
+	public int[] getEpochDays() {
+		return epochDays;
+	}
+
+	public double[] getOpen() {
+		return open;
+	}
+
+	public double[] getHigh() {
+		return high;
+	}
+
+	public double[] getLow() {
+		return low;
+	}
+
+	public double[] getClose() {
+		return close;
+	}
+
+	public long[] getVolume() {
+		return volume;
+	}
+
+	public double[] getAdjClose() {
+		return adjClose;
+	}
+
+	/**
+	 * This method shrinks internal arrays to size of series.
+	 */
+	public void trimToSize() {
+		resize(size);
+	}
+
+	/**
+	 * Yahoo Finance returns bars from the newest, so parsed series is reversed in place to date ascending order.
+	 */
+	protected void sortByDate() {
+		if (size < 2 || epochDays[0] < epochDays[size - 1]) {
+			return;
+		}
+		for (int i = 0, j = size - 1; i < j; i++, j--) {
+			swap(epochDays, i, j);
+			swap(open, i, j);
+			swap(high, i, j);
+			swap(low, i, j);
+			swap(close, i, j);
+			swap(volume, i, j);
+			swap(adjClose, i, j);
+		}
+	}
+
+	private void grow() {
+		resize(Math.max(DEFAULT_CAPACITY, epochDays.length + (epochDays.length >> 1)));
+	}
+
+	private void resize(int capacity) {
+		epochDays = Arrays.copyOf(epochDays, capacity);
+		open = Arrays.copyOf(open, capacity);
+		high = Arrays.copyOf(high, capacity);
+		low = Arrays.copyOf(low, capacity);
+		close = Arrays.copyOf(close, capacity);
+		volume = Arrays.copyOf(volume, capacity);
+		adjClose = Arrays.copyOf(adjClose, capacity);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private static void swap(int[] array, int i, int j) {
+		int value = array[i];
+		array[i] = array[j];
+		array[j] = value;
+	}
+
+	private static void swap(long[] array, int i, int j) {
+		long value = array[i];
+		array[i] = array[j];
+		array[j] = value;
+	}
+
+	private static void swap(double[] array, int i, int j) {
+		double value = array[i];
+		array[i] = array[j];
+		array[j] = value;
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Interface of HTTP transport used to download data from Yahoo Finance API. Transport used by the library can be
+ * changed with {@link UrlDataParser#setTransport(HttpTransport)}. By default {@link NioHttpTransport} is used.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public interface HttpTransport {
+
+	/**
+	 * <p>
+	 * Method sends GET request for passed URL. Returned future is completed with response body when response is
+	 * available or exceptionally with {@link java.io.IOException} when request failed. Responses with status other than
+	 * 2xx complete with {@link HttpStatusException}.
+	 * </p>
+	 *
+	 * <p>
+	 * Body may be streamed while it is still being received, so reading it can block and errors of connection can be
+	 * thrown by the stream itself. It shouldn't be read in dependent stage running on thread which completed the
+	 * future. Caller is responsible for closing returned stream.
+	 * </p>
+	 *
+	 * @param url
+	 *            Requested URL.
+	 * @return Future of response body.
+	 */
+	CompletableFuture<InputStream> request(URL url);
+
+	/**
+	 * <p>
+	 * Method releases all connections and threads held by transport.
+	 * </p>
+	 */
+	void shutdown();
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * {@link HistoricalCheckpointStore} keeping checkpoints in memory.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class InMemoryHistoricalCheckpointStore implements HistoricalCheckpointStore {
+
+	private final Map<String, HistoricalCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+	@Override
+	public HistoricalCheckpoint getCheckpoint(Contract contract, TimePeriod timePeriod) {
+		return checkpoints.get(key(contract, timePeriod));
+	}
+
+	@Override
+	public void setCheckpoint(Contract contract, TimePeriod timePeriod, HistoricalCheckpoint checkpoint) {
+		checkpoints.put(key(contract, timePeriod), checkpoint);
+	}
+
+	private static String key(Contract contract, TimePeriod timePeriod) {
+		return RequestUtils.toInstruments(contract) + ":" + timePeriod.getCode();
+	}
+
+}
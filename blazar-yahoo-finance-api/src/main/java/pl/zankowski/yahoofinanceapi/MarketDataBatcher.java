@@ -0,0 +1,246 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * This class batches market data subscriptions made in {@link Session} classes sharing one {@link RequestManager}.
+ * Subscriptions with the same delay are downloaded in one tick. Instruments of all of them are packed into
+ * multi-instrument requests of at most max batch size instruments, with union of requested data types, and every
+ * returned line is delivered back to each subscription of its instrument.
+ * </p>
+ *
+ * <p>
+ * New subscriptions are downloaded for the first time together with other subscriptions made in the same
+ * {@link #BATCH_WINDOW}.
+ * </p>
+ *
+ * <p>
+ * Subscriptions whose exchange is closed are left out of batched requests according to {@link MarketHoursPolicy} of
+ * {@link RequestManager}.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class MarketDataBatcher {
+
+	private final static Logger LOGGER = Logger.getLogger(MarketDataBatcher.class.getName());
+
+	protected static final int BATCH_WINDOW = 50;
+
+	private final Map<Integer, Bucket> buckets = new HashMap<>();
+	private final List<Subscription> pendingSubscriptions = new ArrayList<>();
+	private final RequestManager requestManager;
+	private final int maxBatchSize;
+
+	private boolean flushScheduled = false;
+
+	protected MarketDataBatcher(RequestManager requestManager, int maxBatchSize) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("Illegal value. Max batch size has to be positive.");
+		}
+		this.requestManager = requestManager;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	protected synchronized Future<?> subscribe(DataReceiver receiver, int requestID, Contract contract,
+			List<DataType> dataTypes, int delay) {
+		Subscription subscription = new Subscription(receiver, requestID, contract,
+				dataTypes.toArray(new DataType[dataTypes.size()]), delay);
+
+		Bucket bucket = buckets.get(delay);
+		if (bucket == null) {
+			bucket = new Bucket();
+			Bucket scheduledBucket = bucket;
+			bucket.scheduledTask = requestManager.scheduleAtFixedRate(() -> request(scheduledBucket.subscriptions),
+					delay, delay);
+			buckets.put(delay, bucket);
+		}
+		bucket.subscriptions.add(subscription);
+
+		pendingSubscriptions.add(subscription);
+		if (!flushScheduled) {
+			flushScheduled = true;
+			requestManager.schedule(this::flushPendingSubscriptions, BATCH_WINDOW);
+		}
+		return subscription;
+	}
+
+	private synchronized void unsubscribe(Subscription subscription) {
+		pendingSubscriptions.remove(subscription);
+		Bucket bucket = buckets.get(subscription.delay);
+		if (bucket != null) {
+			bucket.subscriptions.remove(subscription);
+			if (bucket.subscriptions.isEmpty()) {
+				bucket.scheduledTask.cancel(false);
+				buckets.remove(subscription.delay);
+			}
+		}
+	}
+
+	private void flushPendingSubscriptions() {
+		List<Subscription> subscriptions;
+		synchronized (this) {
+			subscriptions = new ArrayList<>(pendingSubscriptions);
+			pendingSubscriptions.clear();
+			flushScheduled = false;
+		}
+		request(subscriptions);
+	}
+
+	private void request(List<Subscription> subscriptions) {
+		try {
+			boolean[] requestedDataTypes = new boolean[DataType.values().length];
+			Map<String, List<Subscription>> instrumentMap = new LinkedHashMap<>();
+			long currentTimeMillis = System.currentTimeMillis();
+			for (Subscription subscription : subscriptions) {
+				if (subscription.isCancelled() || !requestManager.isExecutionAllowed(subscription.marketHours,
+						currentTimeMillis)) {
+					continue;
+				}
+				subscription.marketHours.setLastExecution(currentTimeMillis);
+				for (DataType dataType : subscription.dataTypes) {
+					requestedDataTypes[dataType.ordinal()] = true;
+				}
+				String instrument = RequestUtils.toInstruments(subscription.contract);
+				List<Subscription> instrumentSubscriptions = instrumentMap.get(instrument);
+				if (instrumentSubscriptions == null) {
+					instrumentSubscriptions = new ArrayList<>();
+					instrumentMap.put(instrument, instrumentSubscriptions);
+				}
+				instrumentSubscriptions.add(subscription);
+			}
+
+			if (instrumentMap.isEmpty()) {
+				return;
+			}
+
+			List<DataType> dataTypes = new ArrayList<>();
+			int[] columns = new int[DataType.values().length];
+			for (DataType dataType : DataType.values()) {
+				if (requestedDataTypes[dataType.ordinal()]) {
+					columns[dataType.ordinal()] = dataTypes.size();
+					dataTypes.add(dataType);
+				}
+			}
+
+			List<String> instruments = new ArrayList<>(instrumentMap.keySet());
+			for (int from = 0; from < instruments.size(); from += maxBatchSize) {
+				List<String> batch = instruments.subList(from, Math.min(from + maxBatchSize, instruments.size()));
+				requestBatch(batch, instrumentMap, dataTypes, columns);
+			}
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Couldn't process batched request. " + e.getMessage());
+		}
+	}
+
+	private void requestBatch(List<String> batch, Map<String, List<Subscription>> instrumentMap,
+			List<DataType> dataTypes, int[] columns) {
+		try {
+			String dataTypeCodes = RequestUtils.toDataTypes(dataTypes.toArray(new DataType[dataTypes.size()]));
+			RequestFactory.onDownloaded(UrlDataParser.manyLinesReaderAsync(RequestURLFactory.createCustomURL(
+					String.join("+", batch), dataTypeCodes)),
+					lines -> deliverBatch(batch, instrumentMap, dataTypes, columns, lines));
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
+		}
+	}
+
+	private void deliverBatch(List<String> batch, Map<String, List<Subscription>> instrumentMap,
+			List<DataType> dataTypes, int[] columns, List<String> lines) {
+		if (lines.size() != batch.size()) {
+			LOGGER.log(Level.WARNING, "Couldn't parse data, expected " + batch.size() + " lines but got "
+					+ lines.size() + ".");
+			return;
+		}
+
+		for (int i = 0; i < batch.size(); i++) {
+			List<String> values = ParseUtils.splitLine(lines.get(i));
+			if (values.size() != dataTypes.size()) {
+				LOGGER.log(Level.WARNING, "Couldn't parse data for " + batch.get(i) + ", expected " + dataTypes.size()
+						+ " values but got " + values.size() + ".");
+				continue;
+			}
+
+			for (Subscription subscription : instrumentMap.get(batch.get(i))) {
+				if (subscription.isCancelled()) {
+					continue;
+				}
+				try {
+					for (DataType dataType : subscription.dataTypes) {
+						RequestFactory.marketDataValue(subscription.receiver, subscription.requestID, dataType,
+								values.get(columns[dataType.ordinal()]));
+					}
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.WARNING, "Couldn't deliver data to request " + subscription.requestID + ". "
+							+ e.getMessage());
+				}
+			}
+		}
+	}
+
+	private static class Bucket {
+
+		private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+		private ScheduledFuture<?> scheduledTask;
+
+	}
+
+	private class Subscription extends SubscriptionFuture {
+
+		private final DataReceiver receiver;
+		private final int requestID;
+		private final Contract contract;
+		private final DataType[] dataTypes;
+		private final int delay;
+		private final RequestManager.MarketHoursState marketHours;
+
+		private Subscription(DataReceiver receiver, int requestID, Contract contract, DataType[] dataTypes, int delay) {
+			this.receiver = receiver;
+			this.requestID = requestID;
+			this.contract = contract;
+			this.dataTypes = dataTypes;
+			this.delay = delay;
+			this.marketHours = new RequestManager.MarketHoursState(contract, delay);
+		}
+
+		@Override
+		protected void unsubscribe() {
+			MarketDataBatcher.this.unsubscribe(this);
+		}
+
+	}
+
+}
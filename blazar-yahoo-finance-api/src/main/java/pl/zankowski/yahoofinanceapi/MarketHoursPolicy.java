@@ -0,0 +1,151 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Policy of downloading data of contracts whose exchange is closed, enforced by {@link RequestManager}. Scheduled
+ * tasks keep their ticks, but while exchange is closed according to {@link ExchangeCalendar} ticks are skipped
+ * depending on {@link Mode}, so no requests are wasted overnight, on weekends and holidays. Once exchange is found
+ * closed, scheduled task is skipped until time returned by {@link #getNextExecutionTime(Contract, long, long, long)},
+ * e.g. next open of exchange, without looking at the calendar on every tick.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class MarketHoursPolicy {
+
+	/**
+	 * What happens with downloads while exchange is closed.
+	 */
+	public enum Mode {
+		/**
+		 * Downloads are paused until exchange opens.
+		 */
+		PAUSE,
+		/**
+		 * Downloads are made with delay multiplied by slow factor.
+		 */
+		SLOW,
+		/**
+		 * One download is made after close of exchange, so closing values are delivered, and next downloads are
+		 * paused until exchange opens.
+		 */
+		END_OF_DAY
+	}
+
+	private final ExchangeCalendar calendar;
+	private final Mode mode;
+	private final int slowFactor;
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param calendar
+	 *            Calendar of exchanges.
+	 * @param mode
+	 *            What happens with downloads while exchange is closed.
+	 */
+	public MarketHoursPolicy(ExchangeCalendar calendar, Mode mode) {
+		this(calendar, mode, 1);
+	}
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param calendar
+	 *            Calendar of exchanges.
+	 * @param mode
+	 *            What happens with downloads while exchange is closed.
+	 * @param slowFactor
+	 *            Multiplier of delay used by {@link Mode#SLOW} mode.
+	 */
+	public MarketHoursPolicy(ExchangeCalendar calendar, Mode mode, int slowFactor) {
+		if (calendar == null || mode == null) {
+			throw new IllegalArgumentException("Illegal argument value. Calendar and mode cannot be null.");
+		}
+		if (slowFactor < 1) {
+			throw new IllegalArgumentException("Illegal value. Slow factor has to be positive.");
+		}
+		this.calendar = calendar;
+		this.mode = mode;
+		this.slowFactor = slowFactor;
+	}
+
+	public ExchangeCalendar getCalendar() {
+		return calendar;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public int getSlowFactor() {
+		return slowFactor;
+	}
+
+	/**
+	 * @param contract
+	 *            Contract of scheduled task.
+	 * @param period
+	 *            Period of scheduled task in milliseconds.
+	 * @param lastExecution
+	 *            Time of the last execution in milliseconds since epoch or 0 if task wasn't executed yet.
+	 * @param currentTimeMillis
+	 *            Time of current tick in milliseconds since epoch.
+	 * @return True if task should be executed in current tick.
+	 */
+	protected boolean isExecutionAllowed(Contract contract, long period, long lastExecution, long currentTimeMillis) {
+		return getNextExecutionTime(contract, period, lastExecution, currentTimeMillis) <= currentTimeMillis;
+	}
+
+	/**
+	 * @param contract
+	 *            Contract of scheduled task.
+	 * @param period
+	 *            Period of scheduled task in milliseconds.
+	 * @param lastExecution
+	 *            Time of the last execution in milliseconds since epoch or 0 if task wasn't executed yet.
+	 * @param currentTimeMillis
+	 *            Time of current tick in milliseconds since epoch.
+	 * @return Time in milliseconds since epoch before which task shouldn't be executed, not later than current time if
+	 *         task should be executed in current tick. While exchange is paused it is the next open of exchange.
+	 */
+	protected long getNextExecutionTime(Contract contract, long period, long lastExecution, long currentTimeMillis) {
+		TradingHours hours = calendar.getTradingHours(contract);
+		if (hours == null || hours.isOpen(currentTimeMillis)) {
+			return currentTimeMillis;
+		}
+		switch (mode) {
+		case SLOW:
+			return Math.min(lastExecution + period * slowFactor, hours.getNextOpen(currentTimeMillis));
+		case END_OF_DAY:
+			if (lastExecution < hours.getLastClose(currentTimeMillis)) {
+				return currentTimeMillis;
+			}
+			return hours.getNextOpen(currentTimeMillis);
+		default:
+			return hours.getNextOpen(currentTimeMillis);
+		}
+	}
+
+}
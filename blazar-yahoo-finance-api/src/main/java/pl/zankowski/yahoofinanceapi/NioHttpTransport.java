@@ -0,0 +1,856 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.InterruptedByTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Non-blocking {@link HttpTransport} implementation based on {@link AsynchronousSocketChannel}. Requests are written
+ * and responses are read with completion handlers, so thousands of requests can be in flight on a few I/O threads.
+ * Connections are kept alive and pooled per host after complete response has been read.
+ * </p>
+ *
+ * <p>
+ * Returned future is completed as soon as response headers are received and body is streamed to caller while it is
+ * read from connection. Reading from connection is paused when caller falls behind by more than 128 KB. Stream reads
+ * block until data arrives, so it should be read on caller's own thread, not in a dependent stage running on I/O
+ * thread which completed the future. Closing stream before its end closes the connection.
+ * </p>
+ *
+ * <p>
+ * Transport supports HTTP/1.1 responses with fixed content length, chunked transfer encoding or body delimited by
+ * connection close and follows redirects. Requests with protocol other than HTTP and requests which
+ * {@link ProxySelector#getDefault()} routes through a proxy, e.g. when http.proxyHost system property is set, are
+ * passed to {@link UrlConnectionTransport}.
+ * </p>
+ *
+ * <p>
+ * Host names are resolved on separate resolver threads, so calling thread never blocks on DNS lookup. Every error,
+ * including unresolved host, is reported through returned future.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class NioHttpTransport implements HttpTransport {
+
+	private final static Logger LOGGER = Logger.getLogger(NioHttpTransport.class.getName());
+
+	private static final int MAX_REDIRECTS = 5;
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Map<String, Queue<AsynchronousSocketChannel>> idleConnections = new ConcurrentHashMap<>();
+	private final AsynchronousChannelGroup channelGroup;
+	private final ScheduledExecutorService timer;
+	private final ExecutorService resolver;
+	private final HttpTransport fallbackTransport;
+	private final int connectTimeout;
+	private final int readTimeout;
+	private final int maxIdleConnections;
+
+	/**
+	 * Public constructor creating transport with 2 I/O threads, 10 seconds connect timeout, 30 seconds read timeout and
+	 * up to 32 idle connections kept alive per host.
+	 */
+	public NioHttpTransport() {
+		this(2, 10000, 30000, 32);
+	}
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param ioThreads
+	 *            number of threads handling I/O completion events
+	 * @param connectTimeout
+	 *            connect timeout in milliseconds
+	 * @param readTimeout
+	 *            read timeout in milliseconds
+	 * @param maxIdleConnections
+	 *            maximum number of idle connections kept alive per host
+	 */
+	public NioHttpTransport(int ioThreads, int connectTimeout, int readTimeout, int maxIdleConnections) {
+		if (connectTimeout <= 0 || readTimeout <= 0) {
+			throw new IllegalArgumentException("Illegal value. Timeout has to be positive.");
+		}
+		if (maxIdleConnections < 0) {
+			throw new IllegalArgumentException("Illegal value. Max idle connections cannot be negative.");
+		}
+		AtomicInteger threadCounter = new AtomicInteger();
+		try {
+			this.channelGroup = AsynchronousChannelGroup.withFixedThreadPool(ioThreads, runnable -> {
+				Thread thread = new Thread(runnable, "yahoo-finance-nio-" + threadCounter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException("Couldn't create channel group.", e);
+		}
+		this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "yahoo-finance-nio-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		AtomicInteger resolverCounter = new AtomicInteger();
+		this.resolver = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "yahoo-finance-nio-resolver-" + resolverCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.fallbackTransport = new UrlConnectionTransport(ioThreads, connectTimeout, readTimeout);
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+		this.maxIdleConnections = maxIdleConnections;
+	}
+
+	@Override
+	public CompletableFuture<InputStream> request(URL url) {
+		return request(url, 0);
+	}
+
+	private CompletableFuture<InputStream> request(URL url, int redirects) {
+		if (!"http".equalsIgnoreCase(url.getProtocol()) || isProxied(url)) {
+			return fallbackTransport.request(url);
+		}
+
+		Exchange exchange = new Exchange(url);
+		try {
+			exchange.start();
+		} catch (RuntimeException e) {
+			exchange.fail(e);
+		}
+		return exchange.future.thenCompose(response -> {
+			if (response.isRedirect() && redirects < MAX_REDIRECTS) {
+				response.body.close();
+				try {
+					return request(new URL(url, response.location), redirects + 1);
+				} catch (MalformedURLException e) {
+					return failedFuture(e);
+				}
+			}
+			if (response.statusCode / 100 != 2) {
+				response.body.close();
+				return failedFuture(new HttpStatusException(response.statusCode, "Server returned HTTP response code: "
+						+ response.statusCode + " for URL: " + url));
+			}
+			return CompletableFuture.completedFuture(response.body);
+		});
+	}
+
+	/**
+	 * Returns true if default proxy selector chooses other proxy than direct connection for given URL.
+	 */
+	protected static boolean isProxied(URL url) {
+		ProxySelector proxySelector = ProxySelector.getDefault();
+		if (proxySelector == null) {
+			return false;
+		}
+		try {
+			for (Proxy proxy : proxySelector.select(url.toURI())) {
+				if (proxy.type() != Proxy.Type.DIRECT) {
+					return true;
+				}
+			}
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			LOGGER.log(Level.WARNING, "Couldn't select proxy. " + e.getMessage());
+		}
+		return false;
+	}
+
+	@Override
+	public void shutdown() {
+		for (Queue<AsynchronousSocketChannel> connections : idleConnections.values()) {
+			AsynchronousSocketChannel channel;
+			while ((channel = connections.poll()) != null) {
+				close(channel);
+			}
+		}
+		try {
+			channelGroup.shutdownNow();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Couldn't close channel group. " + e.getMessage());
+		}
+		timer.shutdownNow();
+		resolver.shutdownNow();
+		fallbackTransport.shutdown();
+	}
+
+	private AsynchronousSocketChannel acquireIdleConnection(String address) {
+		Queue<AsynchronousSocketChannel> connections = idleConnections.get(address);
+		if (connections == null) {
+			return null;
+		}
+		AsynchronousSocketChannel channel;
+		while ((channel = connections.poll()) != null) {
+			if (channel.isOpen()) {
+				return channel;
+			}
+		}
+		return null;
+	}
+
+	private void releaseConnection(String address, AsynchronousSocketChannel channel) {
+		Queue<AsynchronousSocketChannel> connections = idleConnections.computeIfAbsent(address,
+				key -> new ConcurrentLinkedQueue<>());
+		if (connections.size() < maxIdleConnections && !channelGroup.isShutdown()) {
+			connections.offer(channel);
+		} else {
+			close(channel);
+		}
+	}
+
+	private static void close(AsynchronousSocketChannel channel) {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Couldn't close connection. " + e.getMessage());
+		}
+	}
+
+	private static <T> CompletableFuture<T> failedFuture(Throwable throwable) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(throwable);
+		return future;
+	}
+
+	/**
+	 * One request - response exchange. Completion handler callbacks of one exchange never run concurrently because
+	 * only one I/O operation is pending at a time. Future of exchange is completed as soon as response headers are
+	 * parsed, body is passed to {@link BodyInputStream} as it arrives.
+	 */
+	private class Exchange implements CompletionHandler<Integer, Void> {
+
+		private final CompletableFuture<Response> future = new CompletableFuture<>();
+		private final ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+		private final BodyInputStream body = new BodyInputStream(this::abort);
+		private final URL url;
+		private final String address;
+
+		private volatile AsynchronousSocketChannel channel;
+		private ResponseParser parser;
+		private ByteBuffer requestBuffer;
+		private boolean reused;
+
+		private Exchange(URL url) {
+			this.url = url;
+			this.address = url.getHost() + ":" + port();
+		}
+
+		private int port() {
+			return url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+		}
+
+		private void start() {
+			parser = new ResponseParser();
+			requestBuffer = createRequest();
+			channel = acquireIdleConnection(address);
+			if (channel != null) {
+				reused = true;
+				write();
+			} else {
+				reused = false;
+				connect();
+			}
+		}
+
+		private ByteBuffer createRequest() {
+			String file = url.getFile().isEmpty() ? "/" : url.getFile();
+			String host = url.getPort() == -1 ? url.getHost() : url.getHost() + ":" + url.getPort();
+			String request = "GET " + file + " HTTP/1.1\r\n" + "Host: " + host + "\r\n" + "User-Agent: Java/"
+					+ System.getProperty("java.version") + "\r\n" + "Accept: */*\r\n" + "Connection: keep-alive\r\n"
+					+ "\r\n";
+			return ByteBuffer.wrap(request.getBytes(StandardCharsets.ISO_8859_1));
+		}
+
+		private void connect() {
+			ScheduledFuture<?> timeoutTask;
+			try {
+				channel = AsynchronousSocketChannel.open(channelGroup);
+				timeoutTask = timer.schedule(() -> {
+					if (!future.isDone()) {
+						fail(new SocketTimeoutException("Connect timed out."));
+					}
+				}, connectTimeout, TimeUnit.MILLISECONDS);
+			} catch (IOException | RuntimeException e) {
+				// e.g. transport has been shut down
+				fail(e);
+				return;
+			}
+			CompletableFuture<InetSocketAddress> resolution;
+			try {
+				resolution = CompletableFuture.supplyAsync(() -> {
+					try {
+						return new InetSocketAddress(InetAddress.getByName(url.getHost()), port());
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}, resolver);
+			} catch (RuntimeException e) {
+				timeoutTask.cancel(false);
+				fail(e);
+				return;
+			}
+			resolution.whenComplete((socketAddress, throwable) -> {
+				if (throwable != null) {
+					timeoutTask.cancel(false);
+					fail(UrlDataParser.unwrap(throwable));
+				} else if (!future.isDone()) {
+					connect(socketAddress, timeoutTask);
+				}
+			});
+		}
+
+		private void connect(InetSocketAddress socketAddress, ScheduledFuture<?> timeoutTask) {
+			try {
+				channel.connect(socketAddress, null, new CompletionHandler<Void, Void>() {
+
+					@Override
+					public void completed(Void result, Void attachment) {
+						timeoutTask.cancel(false);
+						write();
+					}
+
+					@Override
+					public void failed(Throwable exc, Void attachment) {
+						timeoutTask.cancel(false);
+						fail(exc);
+					}
+
+				});
+			} catch (RuntimeException e) {
+				timeoutTask.cancel(false);
+				fail(e);
+			}
+		}
+
+		private void write() {
+			channel.write(requestBuffer, readTimeout, TimeUnit.MILLISECONDS, null,
+					new CompletionHandler<Integer, Void>() {
+
+						@Override
+						public void completed(Integer result, Void attachment) {
+							if (requestBuffer.hasRemaining()) {
+								write();
+							} else {
+								read();
+							}
+						}
+
+						@Override
+						public void failed(Throwable exc, Void attachment) {
+							retryOrFail(exc);
+						}
+
+					});
+		}
+
+		private void read() {
+			readBuffer.clear();
+			try {
+				channel.read(readBuffer, readTimeout, TimeUnit.MILLISECONDS, null, this);
+			} catch (RuntimeException e) {
+				// e.g. read resumed by consumer after transport has been shut down
+				fail(e);
+			}
+		}
+
+		@Override
+		public void completed(Integer result, Void attachment) {
+			try {
+				if (result < 0) {
+					if (parser.endOfStream()) {
+						finish(false);
+					} else {
+						retryOrFail(new EOFException("Connection closed before response was complete."));
+					}
+					return;
+				}
+
+				readBuffer.flip();
+				parser.feed(readBuffer, body);
+				if (parser.hasHeaders()) {
+					future.complete(parser.toResponse(body));
+				}
+				if (parser.isComplete()) {
+					finish(parser.isKeepAlive());
+				} else if (!body.pause(this::read)) {
+					read();
+				}
+			} catch (IOException | RuntimeException e) {
+				fail(e);
+			}
+		}
+
+		@Override
+		public void failed(Throwable exc, Void attachment) {
+			if (exc instanceof InterruptedByTimeoutException) {
+				fail(new SocketTimeoutException("Read timed out."));
+			} else {
+				retryOrFail(exc);
+			}
+		}
+
+		private void retryOrFail(Throwable exc) {
+			if (reused && parser.isEmpty()) {
+				// idle connection has been closed by server, try again with new connection
+				close(channel);
+				reused = false;
+				requestBuffer.rewind();
+				connect();
+				return;
+			}
+			fail(exc);
+		}
+
+		private void finish(boolean keepAlive) {
+			body.finish();
+			if (keepAlive) {
+				releaseConnection(address, channel);
+			} else {
+				close(channel);
+			}
+		}
+
+		private void fail(Throwable exc) {
+			if (channel != null) {
+				close(channel);
+			}
+			future.completeExceptionally(exc);
+			body.fail(exc instanceof IOException ? (IOException) exc : new IOException(exc.getMessage(), exc));
+		}
+
+		/**
+		 * Called when body stream is closed before whole body has been read. Connection cannot be reused, so it is
+		 * closed, which also stops pending read.
+		 */
+		private void abort() {
+			AsynchronousSocketChannel currentChannel = channel;
+			if (currentChannel != null) {
+				close(currentChannel);
+			}
+		}
+
+	}
+
+	private static class Response {
+
+		private final int statusCode;
+		private final String location;
+		private final BodyInputStream body;
+
+		private Response(int statusCode, String location, BodyInputStream body) {
+			this.statusCode = statusCode;
+			this.location = location;
+			this.body = body;
+		}
+
+		private boolean isRedirect() {
+			return location != null && (statusCode == 301 || statusCode == 302 || statusCode == 303
+					|| statusCode == 307 || statusCode == 308);
+		}
+
+	}
+
+	/**
+	 * Response body passed from I/O thread to consumer. Chunks are queued as they are read from connection. When more
+	 * than {@link #MAX_BUFFERED} bytes are waiting for consumer, reading from connection is paused and resumed by
+	 * consumer once half of them have been read. Reads block until data is available, so stream must not be read on
+	 * I/O thread.
+	 */
+	private static class BodyInputStream extends InputStream {
+
+		private static final int MAX_BUFFERED = 16 * BUFFER_SIZE;
+
+		private final Deque<byte[]> chunks = new ArrayDeque<>();
+		private final Runnable abort;
+
+		private byte[] current;
+		private int position;
+		private int buffered;
+		private boolean finished;
+		private boolean closed;
+		private IOException error;
+		private Runnable resume;
+
+		private BodyInputStream(Runnable abort) {
+			this.abort = abort;
+		}
+
+		private synchronized void write(byte[] data, int offset, int length) {
+			if (closed || length == 0) {
+				return;
+			}
+			chunks.add(Arrays.copyOfRange(data, offset, offset + length));
+			buffered += length;
+			notifyAll();
+		}
+
+		private synchronized void finish() {
+			finished = true;
+			notifyAll();
+		}
+
+		private synchronized void fail(IOException e) {
+			if (!finished && !closed && error == null) {
+				error = e;
+				notifyAll();
+			}
+		}
+
+		/**
+		 * Returns true if reading from connection should be paused, given task is then run by consumer when it has
+		 * read enough buffered data.
+		 */
+		private synchronized boolean pause(Runnable resume) {
+			if (closed || buffered < MAX_BUFFERED) {
+				return false;
+			}
+			this.resume = resume;
+			return true;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (off < 0 || len < 0 || len > b.length - off) {
+				throw new IndexOutOfBoundsException();
+			}
+			if (len == 0) {
+				return 0;
+			}
+			Runnable task = null;
+			int count;
+			synchronized (this) {
+				while (current == null) {
+					if (closed) {
+						throw new IOException("Stream closed.");
+					}
+					current = chunks.poll();
+					if (current != null) {
+						position = 0;
+					} else if (error != null) {
+						throw error;
+					} else if (finished) {
+						return -1;
+					} else {
+						try {
+							wait();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							throw new InterruptedIOException("Interrupted while waiting for response body.");
+						}
+					}
+				}
+				count = Math.min(len, current.length - position);
+				System.arraycopy(current, position, b, off, count);
+				position += count;
+				buffered -= count;
+				if (position == current.length) {
+					current = null;
+				}
+				if (resume != null && buffered <= MAX_BUFFERED / 2) {
+					task = resume;
+					resume = null;
+				}
+			}
+			if (task != null) {
+				task.run();
+			}
+			return count;
+		}
+
+		@Override
+		public synchronized int available() {
+			return buffered;
+		}
+
+		@Override
+		public void close() {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+				chunks.clear();
+				current = null;
+				buffered = 0;
+				resume = null;
+				notifyAll();
+				if (finished) {
+					return;
+				}
+			}
+			abort.run();
+		}
+
+	}
+
+	/**
+	 * Incremental HTTP/1.x response parser. Headers are collected until they are complete, body is then passed on to
+	 * {@link BodyInputStream} without being accumulated.
+	 */
+	private static class ResponseParser {
+
+		private static final int MAX_LINE_LENGTH = 8192;
+
+		private static final int CHUNK_SIZE = 0;
+		private static final int CHUNK_DATA = 1;
+		private static final int CHUNK_DATA_END = 2;
+		private static final int CHUNK_TRAILER = 3;
+
+		private byte[] header = new byte[BUFFER_SIZE];
+		private int headerSize = 0;
+		private boolean headersParsed;
+		private boolean received;
+
+		private int statusCode;
+		private String location;
+		private long contentLength = -1;
+		private boolean chunked;
+		private boolean keepAlive;
+
+		private final StringBuilder line = new StringBuilder();
+		private int chunkState = CHUNK_SIZE;
+		private long remaining;
+
+		private boolean complete;
+
+		private boolean isEmpty() {
+			return !received;
+		}
+
+		private boolean hasHeaders() {
+			return headersParsed;
+		}
+
+		private boolean isComplete() {
+			return complete;
+		}
+
+		private boolean isKeepAlive() {
+			return keepAlive;
+		}
+
+		private void feed(ByteBuffer buffer, BodyInputStream body) throws IOException {
+			int length = buffer.remaining();
+			if (length == 0) {
+				return;
+			}
+			received = true;
+			if (headersParsed) {
+				feedBody(buffer.array(), buffer.arrayOffset() + buffer.position(), length, body);
+				buffer.position(buffer.limit());
+				return;
+			}
+
+			if (headerSize + length > header.length) {
+				header = Arrays.copyOf(header, Math.max(header.length * 2, headerSize + length));
+			}
+			buffer.get(header, headerSize, length);
+			int scanFrom = Math.max(0, headerSize - 3);
+			headerSize += length;
+
+			int end = indexOf(header, scanFrom, headerSize, "\r\n\r\n");
+			if (end < 0) {
+				return;
+			}
+			int headerEnd = end + 4;
+			parseHeaders(headerEnd);
+			headersParsed = true;
+			remaining = contentLength;
+			feedBody(header, headerEnd, headerSize - headerEnd, body);
+			header = null;
+		}
+
+		private boolean endOfStream() {
+			if (headersParsed && !complete && !chunked && contentLength < 0) {
+				keepAlive = false;
+				complete = true;
+			}
+			return complete;
+		}
+
+		private void parseHeaders(int headerEnd) throws IOException {
+			String[] lines = new String(header, 0, headerEnd - 4, StandardCharsets.ISO_8859_1).split("\r\n");
+			String[] statusLine = lines[0].split(" ", 3);
+			if (statusLine.length < 2 || !statusLine[0].startsWith("HTTP/")) {
+				throw new IOException("Malformed status line: " + lines[0]);
+			}
+			try {
+				statusCode = Integer.parseInt(statusLine[1]);
+			} catch (NumberFormatException e) {
+				throw new IOException("Malformed status line: " + lines[0]);
+			}
+			keepAlive = !statusLine[0].equals("HTTP/1.0");
+
+			for (int i = 1; i < lines.length; i++) {
+				int separator = lines[i].indexOf(':');
+				if (separator < 0) {
+					continue;
+				}
+				String name = lines[i].substring(0, separator).trim();
+				String value = lines[i].substring(separator + 1).trim();
+				if (name.equalsIgnoreCase("Content-Length")) {
+					contentLength = Long.parseLong(value);
+				} else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+					chunked = value.toLowerCase().contains("chunked");
+				} else if (name.equalsIgnoreCase("Connection")) {
+					if (value.equalsIgnoreCase("close")) {
+						keepAlive = false;
+					} else if (value.equalsIgnoreCase("keep-alive")) {
+						keepAlive = true;
+					}
+				} else if (name.equalsIgnoreCase("Location")) {
+					location = value;
+				}
+			}
+
+			if (!chunked && contentLength < 0 && (statusCode == 204 || statusCode == 304)) {
+				contentLength = 0;
+			}
+			if (!chunked && contentLength < 0) {
+				keepAlive = false;
+			}
+		}
+
+		private void feedBody(byte[] data, int offset, int length, BodyInputStream body) throws IOException {
+			if (!chunked) {
+				if (contentLength < 0) {
+					body.write(data, offset, length);
+				} else {
+					int count = (int) Math.min(remaining, length);
+					body.write(data, offset, count);
+					remaining -= count;
+					complete = remaining == 0;
+				}
+				return;
+			}
+
+			int end = offset + length;
+			while (offset < end && !complete) {
+				if (chunkState == CHUNK_DATA) {
+					int count = (int) Math.min(remaining, end - offset);
+					body.write(data, offset, count);
+					offset += count;
+					remaining -= count;
+					if (remaining == 0) {
+						chunkState = CHUNK_DATA_END;
+					}
+					continue;
+				}
+
+				byte b = data[offset++];
+				if (b != '\n') {
+					if (b != '\r') {
+						if (line.length() >= MAX_LINE_LENGTH) {
+							throw new IOException("Chunk line too long.");
+						}
+						line.append((char) (b & 0xFF));
+					}
+					continue;
+				}
+				String value = line.toString();
+				line.setLength(0);
+				if (chunkState == CHUNK_SIZE) {
+					remaining = parseChunkSize(value);
+					chunkState = remaining == 0 ? CHUNK_TRAILER : CHUNK_DATA;
+				} else if (chunkState == CHUNK_DATA_END) {
+					if (!value.isEmpty()) {
+						throw new IOException("Malformed chunk end: " + value);
+					}
+					chunkState = CHUNK_SIZE;
+				} else if (value.isEmpty()) {
+					complete = true;
+				}
+			}
+		}
+
+		private static long parseChunkSize(String sizeLine) throws IOException {
+			int extension = sizeLine.indexOf(';');
+			try {
+				long chunkSize = Long.parseLong((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+				if (chunkSize < 0) {
+					throw new NumberFormatException();
+				}
+				return chunkSize;
+			} catch (NumberFormatException e) {
+				throw new IOException("Malformed chunk size: " + sizeLine);
+			}
+		}
+
+		private Response toResponse(BodyInputStream body) {
+			return new Response(statusCode, location, body);
+		}
+
+		private static int indexOf(byte[] data, int from, int to, String pattern) {
+			outer: for (int i = from; i <= to - pattern.length(); i++) {
+				for (int j = 0; j < pattern.length(); j++) {
+					if (data[i + j] != pattern.charAt(j)) {
+						continue outer;
+					}
+				}
+				return i;
+			}
+			return -1;
+		}
+
+	}
+
+}
@@ -22,6 +22,8 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * <p>
@@ -32,10 +34,25 @@ import java.time.format.DateTimeFormatter;
  * Complex set of tools useful for parsing data provided by Yahoo Finance API.
  * </p>
  *
+ * <p>
+ * Values are validated and trimmed by scanning characters instead of regular expressions and date formatters are
+ * created once, so parsing a value doesn't compile any pattern.
+ * </p>
+ *
  * @author Wojciech Zankowski
  */
 public class ParseUtils {
 
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("M/dd/yyyy");
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("h:ma");
+
+	private static final String VALUE_SEPARATOR = " - ";
+	private static final String BOLD_START = "<b>";
+	private static final String BOLD_END = "</b>";
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
 	/**
 	 * This method parse date from String object to LocalDate object.
 	 *
@@ -44,7 +61,7 @@ public class ParseUtils {
 	 * @return Parsed date to LocalDate object.
 	 */
 	public static LocalDate toLocalDate(String dateValue) {
-		return LocalDate.parse(trimQuotes(dateValue), DateTimeFormatter.ofPattern("M/dd/yyyy"));
+		return LocalDate.parse(trimQuotes(dateValue), DATE_FORMATTER);
 	}
 
 	/**
@@ -55,7 +72,7 @@ public class ParseUtils {
 	 * @return Parsed time to LocalTime object.
 	 */
 	public static LocalTime toLocalTime(String timeValue) {
-		return LocalTime.parse(trimQuotes(timeValue).toUpperCase(), DateTimeFormatter.ofPattern("h:ma"));
+		return LocalTime.parse(trimQuotes(timeValue).toUpperCase(), TIME_FORMATTER);
 	}
 
 	/**
@@ -101,7 +118,7 @@ public class ParseUtils {
 	public static Tuple<Double, Double> changePercentToTuple(String value) {
 		String[] elements = splitValue(value);
 
-		if (elements.length != 2 || !value.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+%|[0-9]+%\")$")) {
+		if (elements.length != 2 || !isPair(value, "%")) {
 			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"13.65 - 2.12%\".");
 		}
 
@@ -125,8 +142,7 @@ public class ParseUtils {
 	public static Tuple<LocalTime, Double> tradeWithTimeToTuple(String value) {
 		String[] elements = splitValue(value);
 
-		if (elements.length != 2
-				|| !value.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+</b>|[0-9]+</b>\")$")) {
+		if (elements.length != 2 || !isPair(value, BOLD_END)) {
 			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"4"
 					+ ":00pm - <b>629.25</b>\".");
 		}
@@ -151,13 +167,119 @@ public class ParseUtils {
 	public static Tuple<Double, Double> priceRangeToTuple(String value) {
 		String[] elements = splitValue(value);
 
-		if (elements.length != 2 || !value.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+|[0-9]+\")$")) {
+		if (elements.length != 2 || !isPair(value, "")) {
 			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"627.02 - 640.00\".");
 		}
 
 		return new Tuple<>(Double.parseDouble(elements[0]), Double.parseDouble(elements[1]));
 	}
 
+	/**
+	 * This method converts {@link DataType#CHANGE_PERCENT} value, e.g. "13.65 - 2.12%", like
+	 * {@link #changePercentToTuple(String)} but into passed primitive pair, without allocation.
+	 *
+	 * @param value
+	 *            Value for convertions.
+	 * @param result
+	 *            Pair filled with change and percent.
+	 * @return Passed pair.
+	 */
+	public static DoublePair changePercentToPair(String value, DoublePair result) {
+		if (!isParsable(value) || !isPair(value, "%")) {
+			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"13.65 - 2.12%\".");
+		}
+		int start = valueStart(value);
+		int end = valueEnd(value);
+		int separator = pairSeparator(value, start, end);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"13.65 - 2.12%\".");
+		}
+		return result.set(parseDouble(value, start, separator),
+				parseDouble(value, separator + VALUE_SEPARATOR.length(), end - 1));
+	}
+
+	/**
+	 * This method converts {@link DataType#LAST_TRADE_WITH_TIME} value, e.g. "4:00pm - <b>629.25</b>", like
+	 * {@link #tradeWithTimeToTuple(String)} but into passed time and price holder, without allocation.
+	 *
+	 * @param value
+	 *            Value for convertions.
+	 * @param result
+	 *            Holder filled with second of day and price.
+	 * @return Passed holder.
+	 */
+	public static TimePrice tradeWithTimeToTimePrice(String value, TimePrice result) {
+		if (!isParsable(value) || !isPair(value, BOLD_END)) {
+			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"4"
+					+ ":00pm - <b>629.25</b>\".");
+		}
+		int start = valueStart(value);
+		int end = valueEnd(value);
+		int separator = pairSeparator(value, start, end);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"4"
+					+ ":00pm - <b>629.25</b>\".");
+		}
+		int priceStart = separator + VALUE_SEPARATOR.length();
+		if (value.startsWith(BOLD_START, priceStart)) {
+			priceStart += BOLD_START.length();
+		}
+		return result.set(parseSecondOfDay(value, start, separator),
+				parseDouble(value, priceStart, end - BOLD_END.length()));
+	}
+
+	/**
+	 * This method converts {@link DataType#DAYS_RANGE} value, e.g. "627.02 - 640.00", like
+	 * {@link #priceRangeToTuple(String)} but into passed primitive pair, without allocation.
+	 *
+	 * @param value
+	 *            Value for convertions.
+	 * @param result
+	 *            Pair filled with low and high price.
+	 * @return Passed pair.
+	 */
+	public static DoublePair priceRangeToPair(String value, DoublePair result) {
+		if (!isParsable(value) || !isPair(value, "")) {
+			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"627.02 - 640.00\".");
+		}
+		int start = valueStart(value);
+		int end = valueEnd(value);
+		int separator = pairSeparator(value, start, end);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Illegal arguments. Value should be in format: \"627.02 - 640.00\".");
+		}
+		return result.set(parseDouble(value, start, separator),
+				parseDouble(value, separator + VALUE_SEPARATOR.length(), end));
+	}
+
+	/**
+	 * This method parses time, e.g. "4:00pm", to second of day without creating LocalTime object.
+	 *
+	 * @param timeValue
+	 *            Time value in format "h:mma" - "4:00pm".
+	 * @return Second of day.
+	 */
+	public static int toSecondOfDay(String timeValue) {
+		if (!isParsable(timeValue)) {
+			throw new IllegalArgumentException("Illegal argument value.");
+		}
+		return parseSecondOfDay(timeValue, valueStart(timeValue), valueEnd(timeValue));
+	}
+
+	/**
+	 * This method parses date, e.g. "9/18/2015", to epoch day without creating LocalDate object.
+	 *
+	 * @param dateValue
+	 *            Date value in format "M/d/yyyy".
+	 * @return Epoch day.
+	 */
+	public static long toEpochDay(String dateValue) {
+		if (!isParsable(dateValue)) {
+			throw new IllegalArgumentException("Illegal argument value.");
+		}
+		return parseEpochDay(dateValue, valueStart(dateValue), valueEnd(dateValue));
+	}
+
 	/**
 	 * This method converts big number passed by Yahoo Finance API with symbols at the end. It supports M and B suffix.
 	 *
@@ -170,7 +292,7 @@ public class ParseUtils {
 			throw new IllegalArgumentException("Illegal argument value.");
 		}
 
-		if (!value.matches("(([0-9]*.[0-9]*)|([0-9]*))[a-zA-Z]{1}$")) {
+		if (!hasSuffix(value)) {
 			return Long.parseLong(value);
 		}
 
@@ -208,7 +330,54 @@ public class ParseUtils {
 	 * @return Splitted value.
 	 */
 	public static String[] splitValue(String value) {
-		return trimQuotes(value).split(" - ");
+		String trimmedValue = trimQuotes(value);
+		List<String> elements = new ArrayList<>(2);
+		int start = 0;
+		int index;
+		while ((index = trimmedValue.indexOf(VALUE_SEPARATOR, start)) >= 0) {
+			elements.add(trimmedValue.substring(start, index));
+			start = index + VALUE_SEPARATOR.length();
+		}
+		if (start == 0) {
+			return new String[] { trimmedValue };
+		}
+		elements.add(trimmedValue.substring(start));
+
+		int size = elements.size();
+		while (size > 0 && elements.get(size - 1).isEmpty()) {
+			size--;
+		}
+		return elements.subList(0, size).toArray(new String[size]);
+	}
+
+	/**
+	 * This method splits one CSV line returned by Yahoo Finance API into separate values. Delimiters placed between
+	 * quotes are ignored and quotes are left untouched, so every value has the same form as it would have when
+	 * requested alone.
+	 *
+	 * @param line
+	 *            CSV line to split.
+	 * @return Splitted values.
+	 */
+	public static List<String> splitLine(String line) {
+		if (line == null) {
+			throw new IllegalArgumentException("Illegal argument value.");
+		}
+
+		List<String> values = new ArrayList<>();
+		boolean quoted = false;
+		int start = 0;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				values.add(line.substring(start, i));
+				start = i + 1;
+			}
+		}
+		values.add(line.substring(start));
+		return values;
 	}
 
 	/**
@@ -222,7 +391,12 @@ public class ParseUtils {
 		if (!isParsable(value)) {
 			throw new IllegalArgumentException("Illegal argument value.");
 		}
-		return value.replaceAll("^\"|\"$", "");
+		int start = value.charAt(0) == '"' ? 1 : 0;
+		int end = value.length();
+		if (end > start && value.charAt(end - 1) == '"') {
+			end--;
+		}
+		return value.substring(start, end);
 	}
 
 	/**
@@ -236,7 +410,17 @@ public class ParseUtils {
 		if (!isParsable(value)) {
 			throw new IllegalArgumentException("Illegal argument value.");
 		}
-		return value.replaceAll("%", "");
+		if (value.indexOf('%') < 0) {
+			return value;
+		}
+		StringBuilder builder = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c != '%') {
+				builder.append(c);
+			}
+		}
+		return builder.toString();
 	}
 
 	/**
@@ -250,7 +434,21 @@ public class ParseUtils {
 		if (!isParsable(value)) {
 			throw new IllegalArgumentException("Illegal argument value.");
 		}
-		return value.replaceAll("<b>|</b>", "");
+		if (value.indexOf('<') < 0) {
+			return value;
+		}
+		StringBuilder builder = new StringBuilder(value.length());
+		int i = 0;
+		while (i < value.length()) {
+			if (value.startsWith(BOLD_START, i)) {
+				i += BOLD_START.length();
+			} else if (value.startsWith(BOLD_END, i)) {
+				i += BOLD_END.length();
+			} else {
+				builder.append(value.charAt(i++));
+			}
+		}
+		return builder.toString();
 	}
 
 	/**
@@ -264,4 +462,232 @@ public class ParseUtils {
 		return !(value == null || value.equals("N/A") || value.equals("") || value.equals("\"\""));
 	}
 
+	/**
+	 * Verificates if value has format of two numbers separated with "-", e.g. "627.02 - 640.00", optionally in quotes.
+	 * Value has to start with (optionally negative) number and end with digit followed by passed suffix.
+	 */
+	protected static boolean isPair(String value, String suffix) {
+		int length = value.length();
+		int start = 0;
+		if (start < length && value.charAt(start) == '"') {
+			start++;
+		}
+		if (start < length && value.charAt(start) == '-') {
+			start++;
+		}
+		if (start >= length || !isDigit(value.charAt(start))) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (isLineTerminator(value.charAt(i))) {
+				return false;
+			}
+		}
+		return hasSeparator(value, start, length, suffix)
+				|| (value.charAt(length - 1) == '"' && hasSeparator(value, start, length - 1, suffix));
+	}
+
+	private static boolean hasSeparator(String value, int start, int end, String suffix) {
+		int digit = end - suffix.length() - 1;
+		if (digit <= start || !isDigit(value.charAt(digit)) || !value.startsWith(suffix, digit + 1)) {
+			return false;
+		}
+		for (int i = start + 1; i < digit; i++) {
+			if (value.charAt(i) == '-') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Verificates if value is a number with one letter suffix, e.g. "1.2M".
+	 */
+	protected static boolean hasSuffix(String value) {
+		int last = value.length() - 1;
+		char suffix = value.charAt(last);
+		if (!((suffix >= 'a' && suffix <= 'z') || (suffix >= 'A' && suffix <= 'Z'))) {
+			return false;
+		}
+		int nonDigits = 0;
+		for (int i = 0; i < last; i++) {
+			char c = value.charAt(i);
+			if (!isDigit(c) && (++nonDigits > 1 || isLineTerminator(c))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method parses number from part of value without creating substring. Numbers with at most 15 significant
+	 * digits and decimal exponent in range -22..22, including exponent written after 'e', are computed exactly with one
+	 * double operation, other numbers are passed to {@link Double#parseDouble(String)}, so result is always equal to
+	 * {@link Double#parseDouble(String)}. It is used for both quotes and {@link CsvTokenizer} fields.
+	 *
+	 * @param value
+	 *            Value containing number.
+	 * @param start
+	 *            Index of first character of number.
+	 * @param end
+	 *            Index after last character of number.
+	 * @return Parsed number.
+	 */
+	protected static double parseDouble(CharSequence value, int start, int end) {
+		int index = start;
+		boolean negative = false;
+		if (index < end && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+			negative = value.charAt(index) == '-';
+			index++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean anyDigit = false;
+		boolean fraction = false;
+		for (; index < end; index++) {
+			char c = value.charAt(index);
+			if (c == '.' && !fraction) {
+				fraction = true;
+				continue;
+			}
+			if (!isDigit(c)) {
+				break;
+			}
+			anyDigit = true;
+			if (mantissa != 0 || c != '0') {
+				mantissa = mantissa * 10 + (c - '0');
+				if (++digits > 15) {
+					return fallbackDouble(value, start, end);
+				}
+			}
+			if (fraction) {
+				exponent--;
+			}
+		}
+		if (!anyDigit) {
+			return fallbackDouble(value, start, end);
+		}
+		if (index < end && (value.charAt(index) == 'e' || value.charAt(index) == 'E')) {
+			index++;
+			boolean negativeExponent = false;
+			if (index < end && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+				negativeExponent = value.charAt(index) == '-';
+				index++;
+			}
+			if (index == end) {
+				return fallbackDouble(value, start, end);
+			}
+			int explicitExponent = 0;
+			for (; index < end && isDigit(value.charAt(index)); index++) {
+				if (explicitExponent > 1000) {
+					return fallbackDouble(value, start, end);
+				}
+				explicitExponent = explicitExponent * 10 + (value.charAt(index) - '0');
+			}
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+		if (index != end || exponent < -(POWERS_OF_TEN.length - 1) || exponent > POWERS_OF_TEN.length - 1) {
+			return fallbackDouble(value, start, end);
+		}
+
+		double number = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+		return negative ? -number : number;
+	}
+
+	/**
+	 * This method parses time in format "h:mma", e.g. "4:00pm", from part of value to second of day.
+	 */
+	protected static int parseSecondOfDay(CharSequence value, int start, int end) {
+		int colon = indexOf(value, ':', start, end);
+		if (colon < 0 || end - colon != 5) {
+			throw new IllegalArgumentException("Illegal argument value. Time should be in format h:mma.");
+		}
+		int hour = parseInt(value, start, colon);
+		int minute = parseInt(value, colon + 1, colon + 3);
+		char meridiem = Character.toLowerCase(value.charAt(colon + 3));
+		if (hour < 1 || hour > 12 || minute > 59 || (meridiem != 'a' && meridiem != 'p')
+				|| Character.toLowerCase(value.charAt(colon + 4)) != 'm') {
+			throw new IllegalArgumentException("Illegal argument value. Time should be in format h:mma.");
+		}
+		return ((hour % 12) + (meridiem == 'p' ? 12 : 0)) * 3600 + minute * 60;
+	}
+
+	/**
+	 * This method parses date in format "M/d/yyyy", e.g. "9/18/2015", from part of value to epoch day.
+	 */
+	protected static long parseEpochDay(CharSequence value, int start, int end) {
+		int firstSlash = indexOf(value, '/', start, end);
+		int secondSlash = firstSlash < 0 ? -1 : indexOf(value, '/', firstSlash + 1, end);
+		if (secondSlash < 0) {
+			throw new IllegalArgumentException("Illegal argument value. Date should be in format M/d/yyyy.");
+		}
+		int month = parseInt(value, start, firstSlash);
+		int day = parseInt(value, firstSlash + 1, secondSlash);
+		int year = parseInt(value, secondSlash + 1, end);
+		if (month < 1 || month > 12 || day < 1 || day > 31) {
+			throw new IllegalArgumentException("Illegal argument value. Date should be in format M/d/yyyy.");
+		}
+		return CsvTokenizer.toEpochDay(year, month, day);
+	}
+
+	private static int parseInt(CharSequence value, int start, int end) {
+		if (start >= end || end - start > 9) {
+			throw new NumberFormatException("For input string: \"" + value.subSequence(start, end) + "\"");
+		}
+		int number = 0;
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (!isDigit(c)) {
+				throw new NumberFormatException("For input string: \"" + value.subSequence(start, end) + "\"");
+			}
+			number = number * 10 + (c - '0');
+		}
+		return number;
+	}
+
+	private static int indexOf(CharSequence value, char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (value.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns index of separator of value with exactly two elements or -1.
+	 */
+	private static int pairSeparator(String value, int start, int end) {
+		int separator = value.indexOf(VALUE_SEPARATOR, start);
+		if (separator < 0 || separator + VALUE_SEPARATOR.length() >= end) {
+			return -1;
+		}
+		int next = value.indexOf(VALUE_SEPARATOR, separator + VALUE_SEPARATOR.length());
+		return next < 0 || next >= end ? separator : -1;
+	}
+
+	private static int valueStart(String value) {
+		return value.charAt(0) == '"' ? 1 : 0;
+	}
+
+	private static int valueEnd(String value) {
+		int end = value.length();
+		return end > valueStart(value) && value.charAt(end - 1) == '"' ? end - 1 : end;
+	}
+
+	private static double fallbackDouble(CharSequence value, int start, int end) {
+		return Double.parseDouble(value.subSequence(start, end).toString());
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Cache of quotes.csv responses keyed by request URL. Every response is cached for the shortest TTL of requested
+ * data types, so e.g. {@link DataType#NAME} or {@link DataType#CURRENCY} are downloaded once per hour while
+ * {@link DataType#BID} or {@link DataType#ASK} are reused only by requests made in the same second. Requests of the
+ * same URL made before response arrives share one download. When cache is full, the least recently used response is
+ * evicted.
+ * </p>
+ *
+ * <p>
+ * Set it with {@link UrlDataParser#setQuoteCache(QuoteCache)} to cache market data and custom data requests.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class QuoteCache {
+
+	protected static final long DEFAULT_TTL = TimeUnit.SECONDS.toMillis(1);
+	protected static final long STATIC_DATA_TTL = TimeUnit.HOURS.toMillis(1);
+
+	private static final EnumSet<DataType> STATIC_DATA_TYPES = EnumSet.of(DataType.NAME, DataType.SYMBOL,
+			DataType.STOCK_EXCHANGE, DataType.CURRENCY, DataType.NOTES, DataType.PREVIOUS_CLOSE,
+			DataType.SHARES_OUTSTANDINIG, DataType.FLOAT_SHARES, DataType.AVERAGE_DAILY_VOLUME,
+			DataType.DIVIDEND_PAY_DATE, DataType.EX_DIVIDEND_DATE, DataType.DIVIDEND_PER_SHARE,
+			DataType.EARNINGS_PER_SHARE, DataType.EPS_ESTIMATE_CURRENT_YEAR, DataType.EPS_ESTIMATE_NEXT_YEAR,
+			DataType.EPS_ESTIMATE_NEXT_QUARTER, DataType.BOOK_VALUE, DataType.EBITDA, DataType.REVENUE,
+			DataType.TARGET_PRICE_1Y, DataType.MA_50_DAY, DataType.MA_200_DAY);
+
+	private final Map<String, CachedResponse> entries;
+	private final long[] ttls = new long[DataType.values().length];
+	private final long defaultTTL;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * @param maxSize
+	 *            Maximum number of cached responses.
+	 */
+	public QuoteCache(int maxSize) {
+		this(maxSize, DEFAULT_TTL);
+	}
+
+	/**
+	 * @param maxSize
+	 *            Maximum number of cached responses.
+	 * @param defaultTTL
+	 *            TTL in milliseconds of data types without own TTL and of custom data requests.
+	 */
+	public QuoteCache(int maxSize, long defaultTTL) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Illegal value. Max size has to be positive.");
+		}
+		if (defaultTTL < 0) {
+			throw new IllegalArgumentException("Illegal value. TTL cannot be negative.");
+		}
+		this.defaultTTL = defaultTTL;
+		Arrays.fill(ttls, defaultTTL);
+		for (DataType dataType : STATIC_DATA_TYPES) {
+			ttls[dataType.ordinal()] = Math.max(defaultTTL, STATIC_DATA_TTL);
+		}
+		this.entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+				if (size() > maxSize) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+
+		};
+	}
+
+	/**
+	 * This method sets TTL of data type, 0 means that responses with this data type are never cached.
+	 *
+	 * @param dataType
+	 *            Data type.
+	 * @param ttl
+	 *            TTL in milliseconds.
+	 */
+	public synchronized void setTTL(DataType dataType, long ttl) {
+		if (ttl < 0) {
+			throw new IllegalArgumentException("Illegal value. TTL cannot be negative.");
+		}
+		ttls[dataType.ordinal()] = ttl;
+	}
+
+	/**
+	 * @return TTL in milliseconds of response with given data types - the shortest of their TTLs or default TTL if no
+	 *         data type is given.
+	 */
+	public synchronized long getTTL(DataType... dataTypes) {
+		if (dataTypes.length == 0) {
+			return defaultTTL;
+		}
+		long ttl = Long.MAX_VALUE;
+		for (DataType dataType : dataTypes) {
+			ttl = Math.min(ttl, ttls[dataType.ordinal()]);
+		}
+		return ttl;
+	}
+
+	protected CompletableFuture<List<String>> get(URL url, DataType[] dataTypes,
+			Function<URL, CompletableFuture<List<String>>> loader) {
+		long ttl = getTTL(dataTypes);
+		if (ttl == 0) {
+			misses.incrementAndGet();
+			return loader.apply(url);
+		}
+
+		String key = url.toString();
+		long now = System.nanoTime();
+		CachedResponse response;
+		synchronized (this) {
+			response = entries.get(key);
+			if (response != null && now - response.expiryTime < 0) {
+				hits.incrementAndGet();
+				return response.lines;
+			}
+			response = new CachedResponse(now + TimeUnit.MILLISECONDS.toNanos(ttl));
+			entries.put(key, response);
+		}
+		misses.incrementAndGet();
+
+		CachedResponse loadedResponse = response;
+		CompletableFuture<List<String>> download;
+		try {
+			download = loader.apply(url);
+		} catch (RuntimeException e) {
+			// pending response cannot stay in cache, it would never be completed
+			remove(key, loadedResponse);
+			loadedResponse.lines.completeExceptionally(e);
+			return response.lines;
+		}
+		download.whenComplete((lines, throwable) -> {
+			if (throwable != null) {
+				remove(key, loadedResponse);
+				loadedResponse.lines.completeExceptionally(throwable);
+			} else {
+				loadedResponse.lines.complete(Collections.unmodifiableList(lines));
+			}
+		});
+		return response.lines;
+	}
+
+	private synchronized void remove(String key, CachedResponse response) {
+		if (entries.get(key) == response) {
+			entries.remove(key);
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return Number of requests served from cache, including requests joining download in progress.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return Number of requests downloaded from Yahoo Finance API.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return Number of responses evicted because cache was full.
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	private static class CachedResponse {
+
+		private final CompletableFuture<List<String>> lines = new CompletableFuture<>();
+		private final long expiryTime;
+
+		private CachedResponse(long expiryTime) {
+			this.expiryTime = expiryTime;
+		}
+
+	}
+
+}
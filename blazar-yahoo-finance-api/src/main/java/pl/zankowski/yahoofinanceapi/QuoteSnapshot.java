@@ -0,0 +1,371 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Mutable snapshot of one quote with primitive slot for every {@link DataType}. Downloaded line is parsed in one pass
+ * and every value is stored already converted, according to {@link ValueKind} of its data type:
+ * </p>
+ *
+ * <ul>
+ * <li>NUMBER, PERCENT, BIG_NUMBER - {@link #getValue(DataType)}, e.g. 629.25, -2.12 for "-2.12%", 431370000000 for
+ * "431.37B"</li>
+ * <li>RANGE - low in {@link #getValue(DataType)} and high in {@link #getSecondValue(DataType)}</li>
+ * <li>CHANGE_PERCENT - change in {@link #getValue(DataType)} and percent in {@link #getSecondValue(DataType)}</li>
+ * <li>TRADE_WITH_TIME - price in {@link #getValue(DataType)} and second of day in
+ * {@link #getSecondValue(DataType)}</li>
+ * <li>DATE - epoch day in {@link #getValue(DataType)}</li>
+ * <li>TIME - second of day in {@link #getValue(DataType)}</li>
+ * <li>TEXT - {@link #getString(DataType)} without quotes</li>
+ * </ul>
+ *
+ * <p>
+ * Value is missing when it wasn't requested or Yahoo Finance API returned N/A or "-" - see {@link #has(DataType)}. N/A
+ * element of pair value, e.g. "N/A - +0.55%", is stored as NaN.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class QuoteSnapshot {
+
+	private final static Logger LOGGER = Logger.getLogger(QuoteSnapshot.class.getName());
+
+	private static final DataType[] DATA_TYPES = DataType.values();
+	private static final ValueKind[] VALUE_KINDS = new ValueKind[DATA_TYPES.length];
+	private static final String VALUE_SEPARATOR = " - ";
+	private static final String NOT_AVAILABLE = "N/A";
+
+	static {
+		for (DataType dataType : DATA_TYPES) {
+			VALUE_KINDS[dataType.ordinal()] = toValueKind(dataType);
+		}
+	}
+
+	/**
+	 * Kind of value of data type, it defines how value is parsed and stored in snapshot.
+	 */
+	public enum ValueKind {
+		NUMBER,
+		BIG_NUMBER,
+		PERCENT,
+		RANGE,
+		CHANGE_PERCENT,
+		TRADE_WITH_TIME,
+		DATE,
+		TIME,
+		TEXT
+	}
+
+	private final int requestID;
+	private final Contract contract;
+	private final boolean[] present = new boolean[DATA_TYPES.length];
+	private final double[] values = new double[DATA_TYPES.length];
+	private final double[] secondValues = new double[DATA_TYPES.length];
+	private final String[] strings = new String[DATA_TYPES.length];
+
+	public QuoteSnapshot(int requestID, Contract contract) {
+		this.requestID = requestID;
+		this.contract = contract;
+		Arrays.fill(values, Double.NaN);
+		Arrays.fill(secondValues, Double.NaN);
+	}
+
+	public static ValueKind getValueKind(DataType dataType) {
+		return VALUE_KINDS[dataType.ordinal()];
+	}
+
+	public int getRequestID() {
+		return requestID;
+	}
+
+	public Contract getContract() {
+		return contract;
+	}
+
+	/**
+	 * @return True if snapshot contains value of data type.
+	 */
+	public boolean has(DataType dataType) {
+		return present[dataType.ordinal()];
+	}
+
+	/**
+	 * @return Main value of data type or NaN if value is missing.
+	 */
+	public double getValue(DataType dataType) {
+		return values[dataType.ordinal()];
+	}
+
+	/**
+	 * @return Second value of RANGE, CHANGE_PERCENT or TRADE_WITH_TIME data type or NaN if value is missing.
+	 */
+	public double getSecondValue(DataType dataType) {
+		return secondValues[dataType.ordinal()];
+	}
+
+	/**
+	 * @return Main value of data type as long, e.g. volume or market capitalization, 0 if value is missing.
+	 */
+	public long getLong(DataType dataType) {
+		return present[dataType.ordinal()] ? (long) values[dataType.ordinal()] : 0;
+	}
+
+	/**
+	 * @return Text of TEXT data type or null if value is missing.
+	 */
+	public String getString(DataType dataType) {
+		return strings[dataType.ordinal()];
+	}
+
+	/**
+	 * @return Copy of snapshot which is not changed by next downloads.
+	 */
+	public QuoteSnapshot copy() {
+		QuoteSnapshot copy = new QuoteSnapshot(requestID, contract);
+		System.arraycopy(present, 0, copy.present, 0, present.length);
+		System.arraycopy(values, 0, copy.values, 0, values.length);
+		System.arraycopy(secondValues, 0, copy.secondValues, 0, secondValues.length);
+		System.arraycopy(strings, 0, copy.strings, 0, strings.length);
+		return copy;
+	}
+
+	/**
+	 * This method clears previous values of given data types and fills snapshot with values of one CSV line, in one
+	 * pass over the line.
+	 *
+	 * @param line
+	 *            CSV line of quotes.csv response.
+	 * @param dataTypes
+	 *            Data types of values in line.
+	 * @return False if number of values in line doesn't match number of data types.
+	 */
+	protected boolean fill(String line, DataType[] dataTypes) {
+		for (DataType dataType : dataTypes) {
+			clear(dataType.ordinal());
+		}
+
+		int field = 0;
+		int start = 0;
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				if (field == dataTypes.length - 1) {
+					return false;
+				}
+				set(dataTypes[field++], line, start, i);
+				start = i + 1;
+			}
+		}
+		if (field != dataTypes.length - 1) {
+			return false;
+		}
+		set(dataTypes[field], line, start, line.length());
+		return true;
+	}
+
+	private void clear(int index) {
+		present[index] = false;
+		values[index] = Double.NaN;
+		secondValues[index] = Double.NaN;
+		strings[index] = null;
+	}
+
+	private void set(DataType dataType, String line, int start, int end) {
+		if (start < end && line.charAt(start) == '"') {
+			start++;
+		}
+		if (end > start && line.charAt(end - 1) == '"') {
+			end--;
+		}
+		if (start == end || isNotAvailable(line, start, end)) {
+			return;
+		}
+
+		int index = dataType.ordinal();
+		try {
+			switch (VALUE_KINDS[index]) {
+			case NUMBER:
+				values[index] = parseDouble(line, start, end);
+				break;
+			case BIG_NUMBER:
+				values[index] = parseBigNumber(line, start, end);
+				break;
+			case PERCENT:
+				values[index] = parsePercent(line, start, end);
+				break;
+			case RANGE: {
+				int separator = separatorIndex(line, start, end);
+				values[index] = parseDouble(line, start, separator);
+				secondValues[index] = parseDouble(line, separator + VALUE_SEPARATOR.length(), end);
+				break;
+			}
+			case CHANGE_PERCENT: {
+				int separator = separatorIndex(line, start, end);
+				values[index] = parseDouble(line, start, separator);
+				secondValues[index] = parsePercent(line, separator + VALUE_SEPARATOR.length(), end);
+				break;
+			}
+			case TRADE_WITH_TIME: {
+				int separator = separatorIndex(line, start, end);
+				secondValues[index] = isNotAvailable(line, start, separator) ? Double.NaN
+						: ParseUtils.parseSecondOfDay(line, start, separator);
+				values[index] = parseBold(line, separator + VALUE_SEPARATOR.length(), end);
+				break;
+			}
+			case DATE:
+				values[index] = ParseUtils.parseEpochDay(line, start, end);
+				break;
+			case TIME:
+				values[index] = ParseUtils.parseSecondOfDay(line, start, end);
+				break;
+			default:
+				strings[index] = line.substring(start, end);
+				break;
+			}
+			present[index] = true;
+		} catch (IllegalArgumentException e) {
+			clear(index);
+			LOGGER.log(Level.WARNING, "Couldn't parse " + dataType + " value. " + e.getMessage());
+		}
+	}
+
+	private static int separatorIndex(String line, int start, int end) {
+		int separator = line.indexOf(VALUE_SEPARATOR, start);
+		if (separator < 0 || separator + VALUE_SEPARATOR.length() > end) {
+			throw new IllegalArgumentException("Value should have two elements separated with \" - \".");
+		}
+		return separator;
+	}
+
+	private static boolean isNotAvailable(String line, int start, int end) {
+		return (end - start == NOT_AVAILABLE.length() && line.startsWith(NOT_AVAILABLE, start))
+				|| (end - start == 1 && line.charAt(start) == '-');
+	}
+
+	/**
+	 * Parses number, N/A element of pair value is parsed as NaN.
+	 */
+	private static double parseDouble(String line, int start, int end) {
+		if (isNotAvailable(line, start, end)) {
+			return Double.NaN;
+		}
+		return ParseUtils.parseDouble(line, start, end);
+	}
+
+	private static double parsePercent(String line, int start, int end) {
+		return parseDouble(line, start, end > start && line.charAt(end - 1) == '%' ? end - 1 : end);
+	}
+
+	private static double parseBigNumber(String line, int start, int end) {
+		switch (line.charAt(end - 1)) {
+		case 'B':
+			return parseDouble(line, start, end - 1) * 1000000000;
+		case 'M':
+			return parseDouble(line, start, end - 1) * 1000000;
+		default:
+			return parseDouble(line, start, end);
+		}
+	}
+
+	private static double parseBold(String line, int start, int end) {
+		if (line.startsWith("<b>", start)) {
+			start += 3;
+		}
+		if (end - start > 4 && line.startsWith("</b>", end - 4)) {
+			end -= 4;
+		}
+		return parseDouble(line, start, end);
+	}
+
+	private static ValueKind toValueKind(DataType dataType) {
+		switch (dataType) {
+		case FLOAT_SHARES:
+		case SHARES_OUTSTANDINIG:
+		case VOLUME:
+		case ASK_SIZE:
+		case BID_SIZE:
+		case LAST_TRADE_SIZE:
+		case AVERAGE_DAILY_VOLUME:
+		case HIGH_LIMIT:
+		case LOW_LIMIT:
+		case MARKET_CAPITALIZATION:
+		case MARKET_CAP_RT:
+		case REVENUE:
+		case EBITDA:
+			return ValueKind.BIG_NUMBER;
+		case CHANGE_IN_PERCENT:
+		case CHANGE_PERCENT_200_DAY_MA:
+		case CHANGE_PERCENT_50_DAY_MA:
+		case CHANGE_PERCENT_WEEK_52_LOW:
+		case CHANGE_PERCENT_WEEK_52_HIGH:
+			return ValueKind.PERCENT;
+		case DAYS_RANGE:
+		case DAYS_RANGE_RT:
+		case WEEK_52_RANGE:
+			return ValueKind.RANGE;
+		case CHANGE_PERCENT:
+		case CHANGE_PERCENT_RT:
+			return ValueKind.CHANGE_PERCENT;
+		case LAST_TRADE_WITH_TIME:
+		case LAST_TRADE_WITH_TIME_RT:
+			return ValueKind.TRADE_WITH_TIME;
+		case DIVIDEND_PAY_DATE:
+		case EX_DIVIDEND_DATE:
+		case LAST_TRADE_DATE:
+		case TRADE_DATE:
+			return ValueKind.DATE;
+		case LAST_TRADE_TIME:
+			return ValueKind.TIME;
+		case AFTER_HOURS_CHANGE_RT:
+		case COMMISSION:
+		case HOLDINGS_GAIN_PERCENT:
+		case ANNUALIZED_GAIN:
+		case HOLDINGS_GAIN:
+		case HOLDINGS_GAIN_PERCENT_RT:
+		case HOLDINGS_GAIN_RT:
+		case SYMBOL_INFO:
+		case NAME:
+		case NOTES:
+		case SYMBOL:
+		case SHARES_OWNED:
+		case STOCK_EXCHANGE:
+		case TICKER_TREND:
+		case TRADE_LINKS:
+		case ORDER_BOOK_RT:
+		case HOLDINGS_VALUE:
+		case HOLDINGS_VALUE_RT:
+		case CURRENCY:
+			return ValueKind.TEXT;
+		default:
+			return ValueKind.NUMBER;
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Interface of listener receiving market data as {@link QuoteSnapshot} - see
+ * {@link Session#reqQuoteSnapshot(int, Contract, java.util.List, int, QuoteSnapshotListener)}.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public interface QuoteSnapshotListener {
+
+	/**
+	 * <p>
+	 * Method is called with snapshot filled with values of one downloaded quote. Snapshot object is reused by next
+	 * downloads of the same request, so it's valid only until method returns - use {@link QuoteSnapshot#copy()} to
+	 * keep it longer.
+	 * </p>
+	 *
+	 * @param snapshot
+	 *            Snapshot of quote.
+	 */
+	void onQuoteSnapshot(QuoteSnapshot snapshot);
+
+}
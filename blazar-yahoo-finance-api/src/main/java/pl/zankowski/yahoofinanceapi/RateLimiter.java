@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Token bucket rate limiter with AIMD (additive increase, multiplicative decrease) adaptation of its rate. Bucket
+ * holds at most burst tokens and is refilled with current rate. Every request reserves one token and gets ticket of
+ * its reservation; when bucket is empty the token is borrowed from future and request has to wait until it is
+ * refilled. Wait time of ticket is computed with current rate, so it grows when rate is decreased while request is
+ * waiting.
+ * </p>
+ *
+ * <p>
+ * When server throttles requests the rate is multiplied by decrease factor (but not below min rate) and borrowed
+ * burst is dropped, every successful response increases it by additive step back up to max rate.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class RateLimiter {
+
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	protected static final double DECREASE_FACTOR = 0.5;
+	protected static final int INCREASE_STEPS = 20;
+
+	private final double maxRate;
+	private final double minRate;
+	private final double increaseStep;
+	private final int burst;
+
+	private double rate;
+	private double tokens;
+	private long lastRefill;
+	private long reservations;
+
+	/**
+	 * @param maxRate
+	 *            Maximum number of requests per second.
+	 * @param burst
+	 *            Maximum number of requests made at once after idle time.
+	 */
+	public RateLimiter(double maxRate, int burst) {
+		this(maxRate, maxRate / INCREASE_STEPS / INCREASE_STEPS, burst);
+	}
+
+	/**
+	 * @param maxRate
+	 *            Maximum number of requests per second.
+	 * @param minRate
+	 *            Minimum number of requests per second rate can be decreased to.
+	 * @param burst
+	 *            Maximum number of requests made at once after idle time.
+	 */
+	public RateLimiter(double maxRate, double minRate, int burst) {
+		if (maxRate <= 0 || minRate <= 0 || minRate > maxRate) {
+			throw new IllegalArgumentException("Illegal value. Rates have to be positive and min rate cannot be "
+					+ "greater than max rate.");
+		}
+		if (burst < 1) {
+			throw new IllegalArgumentException("Illegal value. Burst has to be positive.");
+		}
+		this.maxRate = maxRate;
+		this.minRate = minRate;
+		this.increaseStep = maxRate / INCREASE_STEPS;
+		this.burst = burst;
+		this.rate = maxRate;
+		this.tokens = burst;
+		this.lastRefill = System.nanoTime();
+	}
+
+	/**
+	 * This method reserves one token.
+	 *
+	 * @return Ticket of reservation, used to check how long request has to wait with {@link #getDelay(long)}.
+	 */
+	public synchronized long reserve() {
+		refill(System.nanoTime());
+		tokens -= 1;
+		return ++reservations;
+	}
+
+	/**
+	 * This method returns time left until token of given reservation is refilled. Tokens are refilled in order of
+	 * reservations.
+	 *
+	 * @param ticket
+	 *            Ticket returned by {@link #reserve()}.
+	 * @return Time in nanoseconds request has to wait before it's sent, 0 if it can be sent now.
+	 */
+	public synchronized long getDelay(long ticket) {
+		refill(System.nanoTime());
+		double missingTokens = ticket - reservations - tokens;
+		return missingTokens <= 0 ? 0 : (long) Math.ceil(missingTokens / rate * NANOS_PER_SECOND);
+	}
+
+	/**
+	 * This method gives back token reserved by request which hasn't been sent.
+	 */
+	public synchronized void release() {
+		tokens = Math.min(burst, tokens + 1);
+	}
+
+	/**
+	 * This method decreases rate multiplicatively after request has been throttled by server.
+	 */
+	public synchronized void onThrottled() {
+		refill(System.nanoTime());
+		rate = Math.max(minRate, rate * DECREASE_FACTOR);
+		tokens = Math.min(tokens, 0);
+	}
+
+	/**
+	 * This method increases rate additively after successful response.
+	 */
+	public synchronized void onSuccess() {
+		if (rate < maxRate) {
+			refill(System.nanoTime());
+			rate = Math.min(maxRate, rate + increaseStep);
+		}
+	}
+
+	public synchronized double getRate() {
+		return rate;
+	}
+
+	public double getMaxRate() {
+		return maxRate;
+	}
+
+	private void refill(long now) {
+		tokens = Math.min(burst, tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+		lastRefill = now;
+	}
+
+}
@@ -17,12 +17,18 @@
  */
 package pl.zankowski.yahoofinanceapi;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,16 +48,19 @@ public class RequestFactory {
 		return () -> doubleRequest(receiver, requestID, contract, dataType);
 	}
 
-	protected static void doubleRequest(DataReceiver receiver, int requestID, Contract contract, DataType dataType) {
+	protected static CompletableFuture<Void> doubleRequest(DataReceiver receiver, int requestID, Contract contract,
+			DataType dataType) {
 		try {
-			String value = UrlDataParser.oneLineReader(RequestURLFactory.createStockURL(contract, dataType));
-			if (ParseUtils.isParsable(value)) {
-				receiver.onDoubleReceived(requestID, dataType, Double.parseDouble(value));
-			}
+			URL url = RequestURLFactory.createStockURL(contract, dataType);
+			return onDownloaded(UrlDataParser.quoteLineReaderAsync(url, dataType),
+					value -> {
+						if (ParseUtils.isParsable(value)) {
+							receiver.onDoubleReceived(requestID, dataType, Double.parseDouble(value));
+						}
+					});
 		} catch (IOException e) {
 			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
-		} catch (ValidationException e) {
-			LOGGER.log(Level.WARNING, "Coludn't parse data, empty value. " + e.getMessage());
+			return CompletableFuture.completedFuture(null);
 		}
 	}
 
@@ -60,16 +69,19 @@ public class RequestFactory {
 		return () -> stringRequest(receiver, requestID, contract, dataType);
 	}
 
-	protected static void stringRequest(DataReceiver receiver, int requestID, Contract contract, DataType dataType) {
+	protected static CompletableFuture<Void> stringRequest(DataReceiver receiver, int requestID, Contract contract,
+			DataType dataType) {
 		try {
-			String value = UrlDataParser.oneLineReader(RequestURLFactory.createStockURL(contract, dataType));
-			if (ParseUtils.isParsable(value)) {
-				receiver.onStringReceived(requestID, dataType, value);
-			}
+			URL url = RequestURLFactory.createStockURL(contract, dataType);
+			return onDownloaded(UrlDataParser.quoteLineReaderAsync(url, dataType),
+					value -> {
+						if (ParseUtils.isParsable(value)) {
+							receiver.onStringReceived(requestID, dataType, value);
+						}
+					});
 		} catch (IOException e) {
 			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
-		} catch (ValidationException e) {
-			LOGGER.log(Level.WARNING, "Coludn't parse data, empty value. " + e.getMessage());
+			return CompletableFuture.completedFuture(null);
 		}
 	}
 
@@ -78,16 +90,19 @@ public class RequestFactory {
 		return () -> sizeRequest(receiver, requestID, contract, dataType);
 	}
 
-	protected static void sizeRequest(DataReceiver receiver, int requestID, Contract contract, DataType dataType) {
+	protected static CompletableFuture<Void> sizeRequest(DataReceiver receiver, int requestID, Contract contract,
+			DataType dataType) {
 		try {
-			String value = UrlDataParser.oneLineReader(RequestURLFactory.createStockURL(contract, dataType));
-			if (ParseUtils.isParsable(value)) {
-				receiver.onSizeReceived(requestID, dataType, Integer.parseInt(value));
-			}
+			URL url = RequestURLFactory.createStockURL(contract, dataType);
+			return onDownloaded(UrlDataParser.quoteLineReaderAsync(url, dataType),
+					value -> {
+						if (ParseUtils.isParsable(value)) {
+							receiver.onSizeReceived(requestID, dataType, Integer.parseInt(value));
+						}
+					});
 		} catch (IOException e) {
 			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
-		} catch (ValidationException e) {
-			LOGGER.log(Level.WARNING, "Coludn't parse data, empty value. " + e.getMessage());
+			return CompletableFuture.completedFuture(null);
 		}
 	}
 
@@ -96,28 +111,96 @@ public class RequestFactory {
 		return () -> forexRequest(receiver, requestID, fromCurrency, toCurrency);
 	}
 
-	protected static void forexRequest(DataReceiver receiver, int requestID, ForexCurrency fromCurrency,
-			ForexCurrency toCurrency) {
+	protected static CompletableFuture<Void> forexRequest(DataReceiver receiver, int requestID,
+			ForexCurrency fromCurrency, ForexCurrency toCurrency) {
 		try {
-			String value = UrlDataParser.oneLineReader(RequestURLFactory.createForexURL(fromCurrency, toCurrency));
-			String[] elements = value.split(DataConstants.ELEMENT_SPLITTER);
+			return onDownloaded(UrlDataParser.oneLineReaderAsync(RequestURLFactory.createForexURL(fromCurrency,
+					toCurrency)), value -> {
+						ForexQuote quote = parseForexQuote(fromCurrency, toCurrency, value);
+						if (quote != null) {
+							receiver.onForexReceived(requestID, quote.getTimestamp(), quote.getPrice());
+						}
+					});
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
+			return CompletableFuture.completedFuture(null);
+		}
+	}
 
-			for (String element : elements) {
-				if (!ParseUtils.isParsable(element)) {
-					return;
-				}
+	/**
+	 * Parses Forex line, returns null if any value is not available.
+	 */
+	protected static ForexQuote parseForexQuote(ForexCurrency fromCurrency, ForexCurrency toCurrency, String value) {
+		String[] elements = value.split(DataConstants.ELEMENT_SPLITTER);
+
+		for (String element : elements) {
+			if (!ParseUtils.isParsable(element)) {
+				return null;
 			}
+		}
 
-			long timestamp = ParseUtils.toTimestamp(elements[DataConstants.FOREX_DATE],
-					elements[DataConstants.FOREX_TIME]);
-			double price = Double.parseDouble(elements[DataConstants.FOREX_PRICE]);
+		long timestamp = ParseUtils.toTimestamp(elements[DataConstants.FOREX_DATE],
+				elements[DataConstants.FOREX_TIME]);
+		double price = Double.parseDouble(elements[DataConstants.FOREX_PRICE]);
+		return new ForexQuote(fromCurrency, toCurrency, timestamp, price);
+	}
 
-			receiver.onForexReceived(requestID, timestamp, price);
-		} catch (IOException e) {
-			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
-		} catch (ValidationException e) {
-			LOGGER.log(Level.WARNING, "Coludn't parse data, empty value. " + e.getMessage());
-		}
+	protected static DataPublisher.Fetcher<ForexQuote> createForexFetcher(ForexCurrency fromCurrency,
+			ForexCurrency toCurrency) {
+		return () -> UrlDataParser.oneLineReaderAsync(RequestURLFactory.createForexURL(fromCurrency, toCurrency))
+				.thenApplyAsync(value -> toIterator(parseForexQuote(fromCurrency, toCurrency, value)),
+						UrlDataParser.getDeliveryExecutor());
+	}
+
+	protected static DataPublisher.Fetcher<QuoteSnapshot> createQuoteSnapshotFetcher(Contract contract,
+			List<DataType> dataTypes) {
+		DataType[] dataTypeArray = dataTypes.toArray(new DataType[dataTypes.size()]);
+		return () -> UrlDataParser.quoteLineReaderAsync(RequestURLFactory.createStockURL(contract, dataTypeArray),
+				dataTypeArray).thenApplyAsync(line -> {
+					QuoteSnapshot snapshot = new QuoteSnapshot(0, contract);
+					if (!snapshot.fill(line, dataTypeArray)) {
+						LOGGER.log(Level.WARNING, "Couldn't parse data, expected " + dataTypeArray.length
+								+ " values in line " + line + ".");
+						return toIterator(null);
+					}
+					return toIterator(snapshot);
+				}, UrlDataParser.getDeliveryExecutor());
+	}
+
+	/**
+	 * Downloads whole series on calling thread and iterates over it creating bars.
+	 */
+	protected static DataPublisher.Fetcher<HistoricalBar> createHistoricalFetcher(Contract contract,
+			LocalDate startDate, LocalDate endDate, TimePeriod timePeriod) {
+		return () -> {
+			HistoricalSeries series = createHistoricalSeriesRequest(contract, startDate, endDate, timePeriod);
+			return CompletableFuture.completedFuture(new Iterator<HistoricalBar>() {
+
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index < series.size();
+				}
+
+				@Override
+				public HistoricalBar next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					HistoricalBar bar = new HistoricalBar(series.getEpochDay(index), series.getOpen(index),
+							series.getHigh(index), series.getLow(index), series.getClose(index),
+							series.getVolume(index), series.getAdjClose(index));
+					index++;
+					return bar;
+				}
+
+			});
+		};
+	}
+
+	private static <T> Iterator<T> toIterator(T item) {
+		return item == null ? Collections.<T> emptyIterator() : Collections.singletonList(item).iterator();
 	}
 
 	protected static Runnable createCustomDataRequest(DataReceiver receiver, int requestID, String instruments,
@@ -125,532 +208,414 @@ public class RequestFactory {
 		return () -> customDataRequest(receiver, requestID, instruments, dataTypes);
 	}
 
-	protected static void customDataRequest(DataReceiver receiver, int requestID, String instruments, String dataTypes) {
+	protected static CompletableFuture<Void> customDataRequest(DataReceiver receiver, int requestID,
+			String instruments, String dataTypes) {
+		try {
+			return onDownloaded(UrlDataParser.quoteLinesReaderAsync(RequestURLFactory.createCustomURL(instruments,
+					dataTypes)), value -> receiver.onCustomReceived(requestID, value));
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
+			return CompletableFuture.completedFuture(null);
+		}
+	}
+
+	protected static Runnable createCoalescedMarketDataRequest(DataReceiver receiver, int requestID, Contract contract,
+			List<DataType> dataTypes) {
+		DataType[] dataTypeArray = dataTypes.toArray(new DataType[dataTypes.size()]);
+		return () -> coalescedMarketDataRequest(receiver, requestID, contract, dataTypeArray);
+	}
+
+	protected static CompletableFuture<Void> coalescedMarketDataRequest(DataReceiver receiver, int requestID,
+			Contract contract, DataType... dataTypes) {
 		try {
-			List<String> value = UrlDataParser.manyLinesReader(RequestURLFactory.createCustomURL(instruments, dataTypes));
-			receiver.onCustomReceived(requestID, value);
+			URL url = RequestURLFactory.createStockURL(contract, dataTypes);
+			return onDownloaded(UrlDataParser.quoteLineReaderAsync(url, dataTypes),
+					line -> {
+						List<String> values = ParseUtils.splitLine(line);
+						if (values.size() != dataTypes.length) {
+							LOGGER.log(Level.WARNING, "Couldn't parse data, expected " + dataTypes.length
+									+ " values but got " + values.size() + ".");
+							return;
+						}
+
+						for (int i = 0; i < dataTypes.length; i++) {
+							marketDataValue(receiver, requestID, dataTypes[i], values.get(i));
+						}
+					});
 		} catch (IOException e) {
 			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
+			return CompletableFuture.completedFuture(null);
+		}
+	}
+
+	protected static Runnable createQuoteSnapshotRequest(QuoteSnapshotListener listener, int requestID,
+			Contract contract, List<DataType> dataTypes) {
+		DataType[] dataTypeArray = dataTypes.toArray(new DataType[dataTypes.size()]);
+		QuoteSnapshot snapshot = new QuoteSnapshot(requestID, contract);
+		return () -> quoteSnapshotRequest(listener, snapshot, dataTypeArray);
+	}
+
+	protected static CompletableFuture<Void> quoteSnapshotRequest(QuoteSnapshotListener listener,
+			QuoteSnapshot snapshot, DataType... dataTypes) {
+		try {
+			URL url = RequestURLFactory.createStockURL(snapshot.getContract(), dataTypes);
+			return onDownloaded(UrlDataParser.quoteLineReaderAsync(url, dataTypes),
+					line -> {
+						synchronized (snapshot) {
+							if (!snapshot.fill(line, dataTypes)) {
+								LOGGER.log(Level.WARNING, "Couldn't parse data, expected " + dataTypes.length
+										+ " values in line " + line + ".");
+								return;
+							}
+							listener.onQuoteSnapshot(snapshot);
+						}
+					});
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
+			return CompletableFuture.completedFuture(null);
+		}
+	}
+
+	/**
+	 * Method passes value of given data type to matching callback of receiver. It is the only mapping of data types to
+	 * callbacks, used by both single and coalesced market data requests.
+	 *
+	 * @param receiver
+	 *            Receiver of value.
+	 * @param requestID
+	 *            ID of request.
+	 * @param dataType
+	 *            Data type of value.
+	 * @param value
+	 *            Downloaded value, not parsable values are skipped.
+	 */
+	protected static void marketDataValue(DataReceiver receiver, int requestID, DataType dataType, String value) {
+		if (!ParseUtils.isParsable(value)) {
+			return;
+		}
+
+		try {
+			switch (dataType) {
+			case ASK:
+			case BID:
+			case ASK_RT:
+			case BID_RT:
+			case PREVIOUS_CLOSE:
+			case OPEN:
+			case DIVIDEND_YIELD:
+			case DIVIDEND_PER_SHARE:
+			case CHANGE:
+			case CHANGE_RT:
+			case DAYS_LOW:
+			case DAYS_HIGH:
+			case LAST_TRADE_PRICE:
+			case TARGET_PRICE_1Y:
+			case CHANGE_200_DAY_MA:
+			case CHANGE_50_DAY_MA:
+			case MA_50_DAY:
+			case MA_200_DAY:
+			case DAYS_VALUE_CHANGE:
+			case DAYS_VALUE_CHANGE_RT:
+			case PRICE_PAID:
+			case WEEK_52_HIGH:
+			case WEEK_52_LOW:
+			case CHANGE_WEEK_52_LOW:
+			case CHANGE_WEEK_52_HIGH:
+			case EARNINGS_PER_SHARE:
+			case EPS_ESTIMATE_CURRENT_YEAR:
+			case EPS_ESTIMATE_NEXT_YEAR:
+			case EPS_ESTIMATE_NEXT_QUARTER:
+			case BOOK_VALUE:
+			case PRICE_SALES:
+			case PRICE_BOOK:
+			case PE_RATIO:
+			case PE_RATIO_RT:
+			case PEG_RATIO:
+			case PRICE_EPS_ESTIMATE_CURRENT_YEAR:
+			case PRICE_EPS_ESTIMATE_NEXT_YEAR:
+			case SHORT_RATIO:
+				receiver.onDoubleReceived(requestID, dataType, Double.parseDouble(value));
+				return;
+			case FLOAT_SHARES:
+			case SHARES_OUTSTANDINIG:
+			case VOLUME:
+			case ASK_SIZE:
+			case BID_SIZE:
+			case LAST_TRADE_SIZE:
+			case AVERAGE_DAILY_VOLUME:
+			case HIGH_LIMIT:
+			case LOW_LIMIT:
+				receiver.onSizeReceived(requestID, dataType, Integer.parseInt(value));
+				return;
+			case DIVIDEND_PAY_DATE:
+			case EX_DIVIDEND_DATE:
+			case CHANGE_PERCENT:
+			case CHANGE_PERCENT_RT:
+			case CHANGE_IN_PERCENT:
+			case LAST_TRADE_DATE:
+			case TRADE_DATE:
+			case LAST_TRADE_TIME:
+			case AFTER_HOURS_CHANGE_RT:
+			case COMMISSION:
+			case LAST_TRADE_WITH_TIME_RT:
+			case LAST_TRADE_WITH_TIME:
+			case CHANGE_PERCENT_200_DAY_MA:
+			case CHANGE_PERCENT_50_DAY_MA:
+			case DAYS_RANGE:
+			case DAYS_RANGE_RT:
+			case HOLDINGS_GAIN_PERCENT:
+			case ANNUALIZED_GAIN:
+			case HOLDINGS_GAIN:
+			case HOLDINGS_GAIN_PERCENT_RT:
+			case HOLDINGS_GAIN_RT:
+			case CHANGE_PERCENT_WEEK_52_LOW:
+			case CHANGE_PERCENT_WEEK_52_HIGH:
+			case WEEK_52_RANGE:
+			case SYMBOL_INFO:
+			case MARKET_CAPITALIZATION:
+			case MARKET_CAP_RT:
+			case NAME:
+			case NOTES:
+			case SYMBOL:
+			case SHARES_OWNED:
+			case STOCK_EXCHANGE:
+			case TICKER_TREND:
+			case TRADE_LINKS:
+			case ORDER_BOOK_RT:
+			case HOLDINGS_VALUE:
+			case HOLDINGS_VALUE_RT:
+			case REVENUE:
+			case EBITDA:
+			case CURRENCY:
+				receiver.onStringReceived(requestID, dataType, value);
+				return;
+			default:
+				throw new IllegalArgumentException("Wrong data type - " + dataType + ".");
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.log(Level.WARNING, "Couldn't parse " + dataType + " value. " + e.getMessage());
 		}
 	}
 
 	protected static void createHistoricalRequest(DataReceiver receiver, int requestID, Contract contract,
 			LocalDate startDate, LocalDate endDate, TimePeriod timePeriod) throws IOException {
-		BufferedReader br = null;
+		parseHistoricalData(receiver, requestID, UrlDataParser.dataStream(RequestURLFactory.createEndofdayURL(contract,
+				startDate, endDate, timePeriod)));
+	}
+
+	protected static int parseHistoricalData(DataReceiver receiver, int requestID, InputStream input)
+			throws IOException {
+		int rows = 0;
+		CsvTokenizer tokenizer = null;
 		try {
-			br = UrlDataParser.historicalDataStream(RequestURLFactory.createEndofdayURL(contract, startDate, endDate,
-					timePeriod));
-			String line;
-			skipHeader(br, DataConstants.ENDOFDAY_HEADER);
-			while ((line = br.readLine()) != null) {
-				String[] lineElements = line.split(DataConstants.ELEMENT_SPLITTER);
-				LocalDate localDate = LocalDate.parse(lineElements[DataConstants.ENDOFDAY_DATE],
-						DateTimeFormatter.ofPattern(DataConstants.ENDOFDAY_DATE_FORMAT));
-				double openPrice = Double.parseDouble(lineElements[DataConstants.ENDOFDAY_OPEN]);
-				double highPrice = Double.parseDouble(lineElements[DataConstants.ENDOFDAY_HIGH]);
-				double lowPrice = Double.parseDouble(lineElements[DataConstants.ENDOFDAY_LOW]);
-				double closePrice = Double.parseDouble(lineElements[DataConstants.ENDOFDAY_CLOSE]);
-				int volume = Integer.parseInt(lineElements[DataConstants.ENDOFDAY_VOLUME]);
-				double adjClose = Double.parseDouble(lineElements[DataConstants.ENDOFDAY_ADJCLOSE]);
+			tokenizer = new CsvTokenizer(input);
+			tokenizer.skipLines(DataConstants.ENDOFDAY_HEADER);
+			while (tokenizer.nextLine()) {
+				LocalDate localDate = LocalDate.ofEpochDay(tokenizer.nextEpochDay());
+				double openPrice = tokenizer.nextDouble();
+				double highPrice = tokenizer.nextDouble();
+				double lowPrice = tokenizer.nextDouble();
+				double closePrice = tokenizer.nextDouble();
+				int volume = tokenizer.nextInt();
+				double adjClose = tokenizer.nextDouble();
 
 				receiver.onHistoricalReceived(requestID, localDate, closePrice, highPrice, lowPrice, openPrice, volume,
 						adjClose);
+				rows++;
 			}
 		} finally {
-			if (br != null) {
-				try {
-					br.close();
-				} catch (IOException e) {
-					LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
+			close(tokenizer);
+		}
+		return rows;
+	}
+
+	protected static void createIncrementalHistoricalRequest(DataReceiver receiver, int requestID, Contract contract,
+			LocalDate startDate, LocalDate endDate, TimePeriod timePeriod, HistoricalCheckpointStore checkpointStore)
+			throws IOException {
+		HistoricalCheckpoint checkpoint = checkpointStore.getCheckpoint(contract, timePeriod);
+		LocalDate fromDate = startDate;
+		if (checkpoint != null && checkpoint.getEpochDay() >= startDate.toEpochDay()) {
+			fromDate = checkpoint.getDate();
+		}
+		if (fromDate.isAfter(endDate)) {
+			return;
+		}
+
+		HistoricalCheckpoint newCheckpoint = parseIncrementalHistoricalData(receiver, requestID,
+				UrlDataParser.dataStream(RequestURLFactory.createEndofdayURL(contract, fromDate, endDate, timePeriod)),
+				(int) fromDate.toEpochDay(), checkpoint);
+		if (newCheckpoint != null && (checkpoint == null || newCheckpoint.getEpochDay() >= checkpoint.getEpochDay())) {
+			checkpointStore.setCheckpoint(contract, timePeriod, newCheckpoint);
+		}
+	}
+
+	/**
+	 * Delivers bars from given day, skipping the checkpoint bar if it hasn't been revised. Returns the newest parsed
+	 * bar as new checkpoint.
+	 */
+	protected static HistoricalCheckpoint parseIncrementalHistoricalData(DataReceiver receiver, int requestID,
+			InputStream input, int fromEpochDay, HistoricalCheckpoint checkpoint) throws IOException {
+		HistoricalCheckpoint newest = null;
+		CsvTokenizer tokenizer = null;
+		try {
+			tokenizer = new CsvTokenizer(input);
+			tokenizer.skipLines(DataConstants.ENDOFDAY_HEADER);
+			while (tokenizer.nextLine()) {
+				int epochDay = (int) tokenizer.nextEpochDay();
+				double openPrice = tokenizer.nextDouble();
+				double highPrice = tokenizer.nextDouble();
+				double lowPrice = tokenizer.nextDouble();
+				double closePrice = tokenizer.nextDouble();
+				long volume = tokenizer.nextLong();
+				double adjClose = tokenizer.nextDouble();
+
+				if (newest == null || epochDay > newest.getEpochDay()) {
+					newest = new HistoricalCheckpoint(epochDay, openPrice, highPrice, lowPrice, closePrice, volume,
+							adjClose);
+				}
+				if (epochDay < fromEpochDay || (checkpoint != null && checkpoint.isSameBar(epochDay, openPrice,
+						highPrice, lowPrice, closePrice, volume, adjClose))) {
+					continue;
 				}
+				receiver.onHistoricalReceived(requestID, LocalDate.ofEpochDay(epochDay), closePrice, highPrice,
+						lowPrice, openPrice, (int) volume, adjClose);
+			}
+		} finally {
+			close(tokenizer);
+		}
+		return newest;
+	}
+
+	protected static HistoricalSeries createHistoricalSeriesRequest(Contract contract, LocalDate startDate,
+			LocalDate endDate, TimePeriod timePeriod) throws IOException {
+		HistoricalSeries series = new HistoricalSeries();
+		parseHistoricalSeries(UrlDataParser.dataStream(RequestURLFactory.createEndofdayURL(contract, startDate,
+				endDate, timePeriod)), series);
+		return series;
+	}
+
+	protected static void parseHistoricalSeries(InputStream input, HistoricalSeries series) throws IOException {
+		CsvTokenizer tokenizer = null;
+		try {
+			tokenizer = new CsvTokenizer(input);
+			tokenizer.skipLines(DataConstants.ENDOFDAY_HEADER);
+			while (tokenizer.nextLine()) {
+				int epochDay = (int) tokenizer.nextEpochDay();
+				double openPrice = tokenizer.nextDouble();
+				double highPrice = tokenizer.nextDouble();
+				double lowPrice = tokenizer.nextDouble();
+				double closePrice = tokenizer.nextDouble();
+				long volume = tokenizer.nextLong();
+				double adjClose = tokenizer.nextDouble();
+
+				series.add(epochDay, openPrice, highPrice, lowPrice, closePrice, volume, adjClose);
 			}
+			series.sortByDate();
+		} finally {
+			close(tokenizer);
 		}
 	}
 
 	protected static void createIntradayRequest(DataReceiver receiver, int requestID, Contract contract)
 			throws IOException {
-		BufferedReader br = null;
+		parseIntradayData(receiver, requestID, UrlDataParser.dataStream(RequestURLFactory.createIntradayURL(contract)));
+	}
+
+	protected static void parseIntradayData(DataReceiver receiver, int requestID, InputStream input)
+			throws IOException {
+		CsvTokenizer tokenizer = null;
 		try {
-			br = UrlDataParser.historicalDataStream(RequestURLFactory.createIntradayURL(contract));
-			String line;
-			skipHeader(br, DataConstants.INTRADAY_HEADER);
-			while ((line = br.readLine()) != null) {
-				String[] lineElements = line.split(DataConstants.ELEMENT_SPLITTER);
-				long timestamp = Long.parseLong(lineElements[DataConstants.INTRADAY_TIMESTAMP]);
-				double closePrice = Double.parseDouble(lineElements[DataConstants.INTRADAY_CLOSE]);
-				double highPrice = Double.parseDouble(lineElements[DataConstants.INTRADAY_HIGH]);
-				double lowPrice = Double.parseDouble(lineElements[DataConstants.INTRADAY_LOW]);
-				double openPrice = Double.parseDouble(lineElements[DataConstants.INTRADAY_OPEN]);
-				int volume = Integer.parseInt(lineElements[DataConstants.INTRADAY_VOLUME]);
+			tokenizer = new CsvTokenizer(input);
+			tokenizer.skipLines(DataConstants.INTRADAY_HEADER);
+			while (tokenizer.nextLine()) {
+				long timestamp = tokenizer.nextLong();
+				double closePrice = tokenizer.nextDouble();
+				double highPrice = tokenizer.nextDouble();
+				double lowPrice = tokenizer.nextDouble();
+				double openPrice = tokenizer.nextDouble();
+				int volume = tokenizer.nextInt();
 
 				receiver.onIntradayReceived(requestID, timestamp, closePrice, highPrice, lowPrice, openPrice, volume);
 			}
 		} finally {
-			if (br != null) {
-				try {
-					br.close();
-				} catch (IOException e) {
-					LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
-				}
+			close(tokenizer);
+		}
+	}
+
+	private static void close(CsvTokenizer tokenizer) {
+		if (tokenizer != null) {
+			try {
+				tokenizer.close();
+			} catch (IOException e) {
+				LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
 			}
 		}
 	}
 
 	protected static Runnable createMarketDataRequest(DataReceiver receiver, int requestID, Contract contract,
 			DataType dataType) {
-		switch (dataType) {
-		case ASK:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case BID:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case ASK_RT:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case BID_RT:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case PREVIOUS_CLOSE:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case OPEN:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case DIVIDEND_YIELD:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case DIVIDEND_PER_SHARE:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case DIVIDEND_PAY_DATE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case EX_DIVIDEND_DATE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case CHANGE:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CHANGE_PERCENT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case CHANGE_RT:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CHANGE_PERCENT_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case CHANGE_IN_PERCENT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case LAST_TRADE_DATE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case TRADE_DATE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case LAST_TRADE_TIME:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case AFTER_HOURS_CHANGE_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case COMMISSION:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case DAYS_LOW:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case DAYS_HIGH:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case LAST_TRADE_WITH_TIME_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case LAST_TRADE_WITH_TIME:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case LAST_TRADE_PRICE:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case TARGET_PRICE_1Y:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CHANGE_200_DAY_MA:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CHANGE_PERCENT_200_DAY_MA:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case CHANGE_50_DAY_MA:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CHANGE_PERCENT_50_DAY_MA:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case MA_50_DAY:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case MA_200_DAY:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case DAYS_VALUE_CHANGE:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case DAYS_VALUE_CHANGE_RT:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case PRICE_PAID:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case DAYS_RANGE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case DAYS_RANGE_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case HOLDINGS_GAIN_PERCENT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case ANNUALIZED_GAIN:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case HOLDINGS_GAIN:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case HOLDINGS_GAIN_PERCENT_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case HOLDINGS_GAIN_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case WEEK_52_HIGH:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case WEEK_52_LOW:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CHANGE_WEEK_52_LOW:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CHANGE_WEEK_52_HIGH:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CHANGE_PERCENT_WEEK_52_LOW:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case CHANGE_PERCENT_WEEK_52_HIGH:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case WEEK_52_RANGE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case SYMBOL_INFO:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case MARKET_CAPITALIZATION:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case MARKET_CAP_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case FLOAT_SHARES:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case NAME:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case NOTES:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case SYMBOL:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case SHARES_OWNED:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case STOCK_EXCHANGE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case SHARES_OUTSTANDINIG:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case VOLUME:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case ASK_SIZE:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case BID_SIZE:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case LAST_TRADE_SIZE:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case AVERAGE_DAILY_VOLUME:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case TICKER_TREND:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case TRADE_LINKS:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case ORDER_BOOK_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case HIGH_LIMIT:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case LOW_LIMIT:
-			return RequestFactory.createSizeRequest(receiver, requestID, contract, dataType);
-		case HOLDINGS_VALUE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case HOLDINGS_VALUE_RT:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case REVENUE:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case EARNINGS_PER_SHARE:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case EPS_ESTIMATE_CURRENT_YEAR:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case EPS_ESTIMATE_NEXT_YEAR:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case EPS_ESTIMATE_NEXT_QUARTER:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case BOOK_VALUE:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case EBITDA:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		case PRICE_SALES:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case PRICE_BOOK:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case PE_RATIO:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case PE_RATIO_RT:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case PEG_RATIO:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case PRICE_EPS_ESTIMATE_CURRENT_YEAR:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case PRICE_EPS_ESTIMATE_NEXT_YEAR:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case SHORT_RATIO:
-			return RequestFactory.createDoubleRequest(receiver, requestID, contract, dataType);
-		case CURRENCY:
-			return RequestFactory.createStringRequest(receiver, requestID, contract, dataType);
-		default:
-			throw new IllegalArgumentException("Wrong data type - " + dataType + ".");
+		return () -> marketDataRequest(receiver, requestID, contract, dataType);
+	}
+
+	protected static CompletableFuture<Void> marketDataRequest(DataReceiver receiver, int requestID, Contract contract,
+			DataType dataType) {
+		try {
+			URL url = RequestURLFactory.createStockURL(contract, dataType);
+			return onDownloaded(UrlDataParser.quoteLineReaderAsync(url, dataType),
+					value -> marketDataValue(receiver, requestID, dataType, value));
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
+			return CompletableFuture.completedFuture(null);
 		}
 	}
 
-	protected static void marketDataRequest(DataReceiver receiver, int requestID, Contract contract, DataType dataType) {
-		switch (dataType) {
-		case ASK:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case BID:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case ASK_RT:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case BID_RT:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case PREVIOUS_CLOSE:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case OPEN:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case DIVIDEND_YIELD:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case DIVIDEND_PER_SHARE:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case DIVIDEND_PAY_DATE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case EX_DIVIDEND_DATE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_PERCENT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_RT:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_PERCENT_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_IN_PERCENT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case LAST_TRADE_DATE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case TRADE_DATE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case LAST_TRADE_TIME:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case AFTER_HOURS_CHANGE_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case COMMISSION:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case DAYS_LOW:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case DAYS_HIGH:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case LAST_TRADE_WITH_TIME_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case LAST_TRADE_WITH_TIME:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case LAST_TRADE_PRICE:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case TARGET_PRICE_1Y:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_200_DAY_MA:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_PERCENT_200_DAY_MA:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_50_DAY_MA:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_PERCENT_50_DAY_MA:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case MA_50_DAY:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case MA_200_DAY:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case DAYS_VALUE_CHANGE:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case DAYS_VALUE_CHANGE_RT:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case PRICE_PAID:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case DAYS_RANGE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case DAYS_RANGE_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case HOLDINGS_GAIN_PERCENT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case ANNUALIZED_GAIN:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case HOLDINGS_GAIN:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case HOLDINGS_GAIN_PERCENT_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case HOLDINGS_GAIN_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case WEEK_52_HIGH:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case WEEK_52_LOW:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_WEEK_52_LOW:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_WEEK_52_HIGH:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_PERCENT_WEEK_52_LOW:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case CHANGE_PERCENT_WEEK_52_HIGH:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case WEEK_52_RANGE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case SYMBOL_INFO:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case MARKET_CAPITALIZATION:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case MARKET_CAP_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case FLOAT_SHARES:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case NAME:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case NOTES:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case SYMBOL:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case SHARES_OWNED:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case STOCK_EXCHANGE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case SHARES_OUTSTANDINIG:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case VOLUME:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case ASK_SIZE:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case BID_SIZE:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case LAST_TRADE_SIZE:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case AVERAGE_DAILY_VOLUME:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case TICKER_TREND:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case TRADE_LINKS:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case ORDER_BOOK_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case HIGH_LIMIT:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case LOW_LIMIT:
-			sizeRequest(receiver, requestID, contract, dataType);
-			return;
-		case HOLDINGS_VALUE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case HOLDINGS_VALUE_RT:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case REVENUE:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case EARNINGS_PER_SHARE:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case EPS_ESTIMATE_CURRENT_YEAR:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case EPS_ESTIMATE_NEXT_YEAR:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case EPS_ESTIMATE_NEXT_QUARTER:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case BOOK_VALUE:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case EBITDA:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		case PRICE_SALES:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case PRICE_BOOK:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case PE_RATIO:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case PE_RATIO_RT:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case PEG_RATIO:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case PRICE_EPS_ESTIMATE_CURRENT_YEAR:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case PRICE_EPS_ESTIMATE_NEXT_YEAR:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case SHORT_RATIO:
-			doubleRequest(receiver, requestID, contract, dataType);
-			return;
-		case CURRENCY:
-			stringRequest(receiver, requestID, contract, dataType);
-			return;
-		default:
-			throw new IllegalArgumentException("Wrong data type - " + dataType + ".");
+	/**
+	 * Method passes downloaded value to consumer on delivery executor of {@link UrlDataParser} when future completes,
+	 * so consumer never runs on I/O threads of transport. Failures of download and delivery are logged.
+	 *
+	 * @param future
+	 *            Future of download.
+	 * @param consumer
+	 *            Consumer of downloaded value.
+	 * @return Future completed when value has been passed to consumer or failure has been logged.
+	 */
+	protected static <T> CompletableFuture<Void> onDownloaded(CompletableFuture<T> future, Consumer<T> consumer) {
+		return future.handleAsync((value, throwable) -> {
+			if (throwable != null) {
+				logFailure(throwable);
+				return null;
+			}
+			try {
+				consumer.accept(value);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Couldn't deliver data. " + e.getMessage());
+			}
+			return null;
+		}, UrlDataParser.getDeliveryExecutor());
+	}
+
+	/**
+	 * Method waits until downloaded value is delivered, so request without delay is completed when it returns.
+	 *
+	 * @param delivery
+	 *            Future returned by request.
+	 */
+	protected static void awaitDelivery(CompletableFuture<Void> delivery) {
+		try {
+			delivery.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			logFailure(e);
 		}
 	}
 
-	private static void skipHeader(BufferedReader br, int headerLength) throws IOException {
-		int counter = 0;
-		while (counter < headerLength) {
-			br.readLine();
-			counter++;
+	protected static void logFailure(Throwable throwable) {
+		Throwable cause = UrlDataParser.unwrap(throwable);
+		if (cause instanceof ValidationException) {
+			LOGGER.log(Level.WARNING, "Coludn't parse data, empty value. " + cause.getMessage());
+		} else {
+			LOGGER.log(Level.WARNING, "Couldn't download data. " + cause.getMessage());
 		}
 	}
 
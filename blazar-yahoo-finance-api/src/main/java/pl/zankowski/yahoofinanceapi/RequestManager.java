@@ -19,10 +19,21 @@ package pl.zankowski.yahoofinanceapi;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * <p>
@@ -34,14 +45,70 @@ import java.util.concurrent.ScheduledFuture;
  * with possible setting number of threads used to execute scheduled tasks.
  * </p>
  *
+ * <p>
+ * Optionally Request Manager can batch market data requests. In that case every market data subscription with the same
+ * delay is downloaded together with other instruments in multi-instrument requests - see {@link MarketDataBatcher}.
+ * </p>
+ *
+ * <p>
+ * Not batched market data subscriptions of the same instrument and data types with similar delays share one scheduled
+ * download, also when they are made in different sessions - see {@link SubscriptionRegistry}.
+ * </p>
+ *
+ * <p>
+ * Scheduled tasks only start downloads. Downloaded data is parsed and delivered on delivery executor - see
+ * {@link UrlDataParser#setDeliveryExecutor(java.util.concurrent.Executor)}, so number of downloads in flight isn't
+ * limited by number of threads. It can be limited with exclusive {@link SchedulePolicy} or with
+ * {@link ThrottledTransport}.
+ * </p>
+ *
+ * <p>
+ * Request Manager can also be created with separate fetch executor. Then scheduler threads only trigger scheduled
+ * tasks and every task is executed on fetch executor, e.g. on virtual threads - see
+ * {@link #createVirtualThreadManager(int)}.
+ * </p>
+ *
+ * <p>
+ * With thousands of periodic subscriptions scheduled tasks can be run by {@link TimingWheelScheduler} instead of
+ * {@link ScheduledExecutorService}, which adds and cancels tasks in constant time - see
+ * {@link #RequestManager(TimingWheelScheduler, int, ExecutorService)}.
+ * </p>
+ *
+ * <p>
+ * Downloads of contracts whose exchange is closed can be paused, slowed or limited to one download after close - see
+ * {@link #setMarketHoursPolicy(MarketHoursPolicy)}.
+ * </p>
+ *
  * @author Wojciech Zankowski
  */
 public class RequestManager {
 
-	private final Map<Integer, List<ScheduledFuture<?>>> schedulerMap = new ConcurrentHashMap<>();
+	private final static Logger LOGGER = Logger.getLogger(RequestManager.class.getName());
+
+	private static final double GOLDEN_RATIO_FRACTION = 0.6180339887498949;
+
+	private final Map<Integer, List<Future<?>>> schedulerMap = new ConcurrentHashMap<>();
 
 	private final ScheduledExecutorService scheduler;
 
+	private final TimingWheelScheduler timingWheel;
+
+	private final MarketDataBatcher batcher;
+
+	private final SubscriptionRegistry registry;
+
+	private final ExecutorService fetchExecutor;
+
+	private final boolean ownsFetchExecutor;
+
+	private final AtomicLong spreadSequence = new AtomicLong();
+	private final AtomicLong skippedTicks = new AtomicLong();
+	private final AtomicLong skippedOverlaps = new AtomicLong();
+	private final AtomicLong marketClosedTicks = new AtomicLong();
+	private final AtomicLong adaptiveSkippedTicks = new AtomicLong();
+
+	private volatile MarketHoursPolicy marketHoursPolicy;
+
 	/**
 	 * Public constructor.
 	 * 
@@ -49,18 +116,305 @@ public class RequestManager {
 	 *            the number of threads to keep in the pool, even if they are idle
 	 */
 	public RequestManager(int corePoolSize) {
+		this(corePoolSize, 0);
+	}
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param corePoolSize
+	 *            the number of threads to keep in the pool, even if they are idle
+	 * @param maxBatchSize
+	 *            maximum number of instruments downloaded in one market data request, if 0 then market data requests
+	 *            are not batched
+	 */
+	public RequestManager(int corePoolSize, int maxBatchSize) {
+		this(corePoolSize, maxBatchSize, null);
+	}
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param corePoolSize
+	 *            the number of threads to keep in the pool, even if they are idle
+	 * @param maxBatchSize
+	 *            maximum number of instruments downloaded in one market data request, if 0 then market data requests
+	 *            are not batched
+	 * @param fetchExecutor
+	 *            executor running every scheduled task, if null then tasks are run on scheduler threads. It's owned by
+	 *            caller and it isn't shut down together with Request Manager
+	 */
+	public RequestManager(int corePoolSize, int maxBatchSize, ExecutorService fetchExecutor) {
+		this(corePoolSize, maxBatchSize, fetchExecutor, false);
+	}
+
+	private RequestManager(int corePoolSize, int maxBatchSize, ExecutorService fetchExecutor,
+			boolean ownsFetchExecutor) {
+		if (maxBatchSize < 0) {
+			throw new IllegalArgumentException("Illegal value. Max batch size cannot be negative.");
+		}
 		this.scheduler = Executors.newScheduledThreadPool(corePoolSize);
+		this.timingWheel = null;
+		this.fetchExecutor = fetchExecutor;
+		this.ownsFetchExecutor = ownsFetchExecutor;
+		this.batcher = maxBatchSize == 0 ? null : new MarketDataBatcher(this, maxBatchSize);
+		this.registry = new SubscriptionRegistry(this);
+	}
+
+	/**
+	 * Public constructor of Request Manager running scheduled tasks with {@link TimingWheelScheduler}. Tasks are run on
+	 * timing wheel thread, so fetch executor should be passed to keep it from waiting for downloads. Jitter of timing
+	 * wheel isn't applied to tasks of {@link SchedulePolicy} with aligned or spread phase, which keep their phase.
+	 *
+	 * @param timingWheel
+	 *            timing wheel running scheduled tasks, shut down together with Request Manager
+	 * @param maxBatchSize
+	 *            maximum number of instruments downloaded in one market data request, if 0 then market data requests
+	 *            are not batched
+	 * @param fetchExecutor
+	 *            executor running every scheduled task, if null then tasks are run on timing wheel thread. It's owned
+	 *            by caller and it isn't shut down together with Request Manager
+	 */
+	public RequestManager(TimingWheelScheduler timingWheel, int maxBatchSize, ExecutorService fetchExecutor) {
+		if (timingWheel == null) {
+			throw new IllegalArgumentException("Illegal value. Timing wheel cannot be null.");
+		}
+		if (maxBatchSize < 0) {
+			throw new IllegalArgumentException("Illegal value. Max batch size cannot be negative.");
+		}
+		this.scheduler = null;
+		this.timingWheel = timingWheel;
+		this.fetchExecutor = fetchExecutor;
+		this.ownsFetchExecutor = false;
+		this.batcher = maxBatchSize == 0 ? null : new MarketDataBatcher(this, maxBatchSize);
+		this.registry = new SubscriptionRegistry(this);
+	}
+
+	/**
+	 * <p>
+	 * This method creates {@link RequestManager} with one scheduler thread that runs every scheduled task on new
+	 * virtual thread, so number of subscriptions is not limited by size of thread pool. If JVM doesn't support virtual
+	 * threads then tasks are run on cached thread pool - see {@link VirtualThreads}. Executor of virtual threads is
+	 * shut down together with Request Manager.
+	 * </p>
+	 *
+	 * @param maxBatchSize
+	 *            maximum number of instruments downloaded in one market data request, if 0 then market data requests
+	 *            are not batched
+	 * @return {@link RequestManager} class instance.
+	 */
+	public static RequestManager createVirtualThreadManager(int maxBatchSize) {
+		return new RequestManager(1, maxBatchSize, VirtualThreads.newExecutor(), true);
+	}
+
+	protected ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period) {
+		if (timingWheel != null) {
+			return timingWheel.scheduleAtFixedRate(dispatch(task), initialDelay, period);
+		}
+		return scheduler.scheduleAtFixedRate(dispatch(task), initialDelay, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Method schedules periodic task with given policy. Task returns future completed when its execution ends, e.g.
+	 * when started download completes, so exclusive policy can skip executions overlapping with it. Task of adaptive
+	 * policy completes the future with true if downloaded value has changed. Then period is the shortest delay between
+	 * executions and delay is doubled, up to max delay of policy, while value doesn't change.
+	 *
+	 * @param task
+	 *            Task returning future of its execution or null if it has been completed.
+	 * @param period
+	 *            Period between executions in milliseconds.
+	 * @param policy
+	 *            Policy of scheduling.
+	 * @return Future which can be used to cancel task.
+	 */
+	protected ScheduledFuture<?> scheduleAtFixedRate(Supplier<CompletableFuture<?>> task, long period,
+			SchedulePolicy policy) {
+		return scheduleAtFixedRate(task, period, policy, null);
+	}
+
+	/**
+	 * Method schedules periodic task of contract with given policy. Executions of task are also limited by
+	 * {@link MarketHoursPolicy} while exchange of contract is closed.
+	 *
+	 * @param task
+	 *            Task returning future of its execution or null if it has been completed.
+	 * @param period
+	 *            Period between executions in milliseconds.
+	 * @param policy
+	 *            Policy of scheduling.
+	 * @param contract
+	 *            Contract downloaded by task or null if task doesn't depend on market hours.
+	 * @return Future which can be used to cancel task.
+	 */
+	protected ScheduledFuture<?> scheduleAtFixedRate(Supplier<CompletableFuture<?>> task, long period,
+			SchedulePolicy policy, Contract contract) {
+		long initialDelay = getInitialDelay(policy.getPhase(), period);
+		if (timingWheel == null) {
+			return scheduleAtFixedRate(new PolicyTask(task, policy, contract, initialDelay, period, 0), initialDelay,
+					period);
+		}
+		long shift = policy.getPhase() == SchedulePolicy.Phase.IMMEDIATE ? timingWheel.nextShift(period) : 0;
+		return timingWheel.scheduleAtFixedRate(dispatch(new PolicyTask(task, policy, contract, initialDelay, period,
+				shift)), initialDelay, period, shift);
+	}
+
+	private long getInitialDelay(SchedulePolicy.Phase phase, long period) {
+		switch (phase) {
+		case ALIGNED:
+			return toAlignedDelay(System.currentTimeMillis(), period);
+		case SPREAD:
+			double phaseFraction = (spreadSequence.getAndIncrement() * GOLDEN_RATIO_FRACTION) % 1;
+			return (long) (phaseFraction * period);
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns delay from given time to the next time being multiple of period.
+	 */
+	protected static long toAlignedDelay(long currentTimeMillis, long period) {
+		long remainder = currentTimeMillis % period;
+		return remainder == 0 ? 0 : period - remainder;
 	}
 
-	protected List<ScheduledFuture<?>> getScheduledTask(int requestID) {
+	/**
+	 * @return Number of executions of tasks with {@link SchedulePolicy.MissedTicks#SKIP} policy skipped because they
+	 *         were late by at least whole period.
+	 */
+	public long getSkippedTicks() {
+		return skippedTicks.get();
+	}
+
+	/**
+	 * @return Number of executions of tasks with exclusive policy skipped because previous execution was in progress.
+	 */
+	public long getSkippedOverlaps() {
+		return skippedOverlaps.get();
+	}
+
+	/**
+	 * @return Number of executions of tasks and downloads of batched subscriptions skipped because exchange of their
+	 *         contract was closed.
+	 */
+	public long getMarketClosedTicks() {
+		return marketClosedTicks.get();
+	}
+
+	/**
+	 * @return Number of executions of tasks with adaptive policy skipped because their delay was lengthened.
+	 */
+	public long getAdaptiveSkippedTicks() {
+		return adaptiveSkippedTicks.get();
+	}
+
+	/**
+	 * This method sets policy of downloading data of contracts whose exchange is closed. It applies to already
+	 * scheduled market data requests too.
+	 *
+	 * @param marketHoursPolicy
+	 *            Market hours policy or null if data is downloaded regardless of market hours.
+	 */
+	public void setMarketHoursPolicy(MarketHoursPolicy marketHoursPolicy) {
+		this.marketHoursPolicy = marketHoursPolicy;
+	}
+
+	public MarketHoursPolicy getMarketHoursPolicy() {
+		return marketHoursPolicy;
+	}
+
+	/**
+	 * @param state
+	 *            Market hours state of scheduled task.
+	 * @param currentTimeMillis
+	 *            Time of current tick in milliseconds since epoch.
+	 * @return True if task should be executed according to market hours policy.
+	 */
+	protected boolean isExecutionAllowed(MarketHoursState state, long currentTimeMillis) {
+		MarketHoursPolicy policy = marketHoursPolicy;
+		if (state.contract == null || policy == null) {
+			return true;
+		}
+		if (state.closedPolicy == policy && currentTimeMillis < state.closedUntil) {
+			marketClosedTicks.incrementAndGet();
+			return false;
+		}
+		long nextExecution = policy.getNextExecutionTime(state.contract, state.period, state.lastExecution,
+				currentTimeMillis);
+		if (nextExecution <= currentTimeMillis) {
+			return true;
+		}
+		state.closedUntil = nextExecution;
+		state.closedPolicy = policy;
+		marketClosedTicks.incrementAndGet();
+		return false;
+	}
+
+	protected ScheduledFuture<?> schedule(Runnable task, long delay) {
+		if (timingWheel != null) {
+			return timingWheel.schedule(dispatch(task), delay);
+		}
+		return scheduler.schedule(dispatch(task), delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Method runs task on fetch executor or on calling thread if Request Manager has no fetch executor.
+	 *
+	 * @param task
+	 *            Task to run.
+	 */
+	protected void execute(Runnable task) {
+		if (fetchExecutor == null) {
+			task.run();
+			return;
+		}
+		try {
+			fetchExecutor.execute(task);
+		} catch (RejectedExecutionException e) {
+			LOGGER.log(Level.WARNING, "Couldn't execute task. " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Wraps task run by scheduler, so exception thrown by one execution is logged and doesn't cancel following
+	 * executions of periodic task.
+	 */
+	private Runnable dispatch(Runnable task) {
+		Runnable guardedTask = () -> {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Couldn't execute task. " + e.getMessage());
+			}
+		};
+		return fetchExecutor == null ? guardedTask : () -> execute(guardedTask);
+	}
+
+	protected List<Future<?>> getScheduledTask(int requestID) {
 		return schedulerMap.get(requestID);
 	}
 
+	/**
+	 * @return Scheduler of Request Manager or null if it uses timing wheel.
+	 */
 	protected ScheduledExecutorService getScheduler() {
 		return scheduler;
 	}
 
-	protected void addScheduledTasks(int requestID, List<ScheduledFuture<?>> scheduledTasks) {
+	protected MarketDataBatcher getBatcher() {
+		return batcher;
+	}
+
+	protected SubscriptionRegistry getRegistry() {
+		return registry;
+	}
+
+	protected boolean isBatching() {
+		return batcher != null;
+	}
+
+	protected void addScheduledTasks(int requestID, List<Future<?>> scheduledTasks) {
 		schedulerMap.put(requestID, scheduledTasks);
 	}
 
@@ -73,7 +427,130 @@ public class RequestManager {
 	}
 
 	protected void shutdownScheduler() {
-		scheduler.shutdown();
+		if (timingWheel != null) {
+			timingWheel.shutdown();
+		} else {
+			scheduler.shutdown();
+		}
+		if (ownsFetchExecutor) {
+			fetchExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Market hours state of one scheduled task or batched subscription. When {@link MarketHoursPolicy} doesn't allow
+	 * execution, time of the next possible execution is remembered with the policy, so ticks before it are skipped
+	 * without looking at {@link ExchangeCalendar}.
+	 */
+	protected static class MarketHoursState {
+
+		private final Contract contract;
+		private final long period;
+
+		private volatile long lastExecution;
+		private volatile long closedUntil;
+		private volatile MarketHoursPolicy closedPolicy;
+
+		/**
+		 * @param contract
+		 *            Contract of scheduled task or null if task doesn't depend on market hours.
+		 * @param period
+		 *            Period of scheduled task in milliseconds.
+		 */
+		protected MarketHoursState(Contract contract, long period) {
+			this.contract = contract;
+			this.period = period;
+		}
+
+		protected void setLastExecution(long lastExecution) {
+			this.lastExecution = lastExecution;
+		}
+
+	}
+
+	/**
+	 * Periodic task enforcing {@link SchedulePolicy} and {@link MarketHoursPolicy}. It can be run on many fetch
+	 * executor threads at once, so expected time of next execution and execution in progress are kept in atomic
+	 * fields. Shift of the second execution made by timing wheel is added to expected time of next execution after the
+	 * first one. Adaptive delay is kept as number of ticks between executions, between 1 and max delay of policy
+	 * divided by period.
+	 */
+	private class PolicyTask implements Runnable {
+
+		private final Supplier<CompletableFuture<?>> task;
+		private final SchedulePolicy policy;
+		private final MarketHoursState marketHours;
+		private final long periodNanos;
+		private final AtomicLong nextExecution;
+		private final AtomicBoolean executing = new AtomicBoolean();
+		private final int maxIntervalTicks;
+		private final AtomicInteger elapsedTicks = new AtomicInteger();
+
+		private volatile int intervalTicks = 1;
+		private volatile long shiftNanos;
+
+		private PolicyTask(Supplier<CompletableFuture<?>> task, SchedulePolicy policy, Contract contract,
+				long initialDelay, long period, long shift) {
+			this.task = task;
+			this.policy = policy;
+			this.marketHours = new MarketHoursState(contract, period);
+			this.periodNanos = TimeUnit.MILLISECONDS.toNanos(period);
+			this.nextExecution = new AtomicLong(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelay));
+			this.shiftNanos = TimeUnit.MILLISECONDS.toNanos(shift);
+			this.maxIntervalTicks = policy.isAdaptive() ? (int) Math.max(1, policy.getMaxDelay() / period) : 1;
+		}
+
+		@Override
+		public void run() {
+			if (policy.getMissedTicks() == SchedulePolicy.MissedTicks.SKIP) {
+				long shift = shiftNanos;
+				shiftNanos = 0;
+				long expected = nextExecution.getAndAdd(periodNanos + shift);
+				if (System.nanoTime() - expected >= periodNanos) {
+					skippedTicks.incrementAndGet();
+					return;
+				}
+			}
+			long currentTimeMillis = System.currentTimeMillis();
+			if (!isExecutionAllowed(marketHours, currentTimeMillis)) {
+				return;
+			}
+			if (maxIntervalTicks > 1 && elapsedTicks.incrementAndGet() < intervalTicks) {
+				adaptiveSkippedTicks.incrementAndGet();
+				return;
+			}
+			if (policy.isExclusive() && !executing.compareAndSet(false, true)) {
+				skippedOverlaps.incrementAndGet();
+				return;
+			}
+			marketHours.setLastExecution(currentTimeMillis);
+			elapsedTicks.set(0);
+			CompletableFuture<?> execution = null;
+			try {
+				execution = task.get();
+			} finally {
+				if (policy.isExclusive()) {
+					if (execution == null) {
+						executing.set(false);
+					} else {
+						execution.whenComplete((value, throwable) -> executing.set(false));
+					}
+				}
+			}
+			if (execution != null && maxIntervalTicks > 1) {
+				execution.whenComplete((value, throwable) -> {
+					if (throwable == null) {
+						adapt(Boolean.TRUE.equals(value));
+					}
+				});
+			}
+		}
+
+		private void adapt(boolean changed) {
+			int ticks = intervalTicks;
+			intervalTicks = changed ? Math.max(1, ticks / 2) : Math.min(maxIntervalTicks, ticks * 2);
+		}
+
 	}
 
 }
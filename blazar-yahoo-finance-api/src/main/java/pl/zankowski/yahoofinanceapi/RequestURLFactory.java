@@ -24,13 +24,66 @@ import java.time.LocalDate;
 /**
  * Date: 23.09.2015
  *
+ * <p>
+ * Base URLs of Yahoo Finance services can be changed, e.g. to point requests to local stand-in server. Paths of
+ * services stay the same.
+ * </p>
+ *
  * @author Wojciech Zankowski
  */
 public class RequestURLFactory {
 
-	private static final String STOCK_URL = "http://finance.yahoo.com/d/quotes.csv?";
-	private static final String INTRADAY_URL = "http://chartapi.finance.yahoo.com/instrument/1.1/";
-	private static final String ENDOFDAY_URL = "http://ichart.yahoo.com/table.csv?s=";
+	private static final String STOCK_BASE_URL = "http://finance.yahoo.com";
+	private static final String INTRADAY_BASE_URL = "http://chartapi.finance.yahoo.com";
+	private static final String ENDOFDAY_BASE_URL = "http://ichart.yahoo.com";
+
+	private static final String STOCK_PATH = "/d/quotes.csv?";
+	private static final String INTRADAY_PATH = "/instrument/1.1/";
+	private static final String ENDOFDAY_PATH = "/table.csv?s=";
+
+	private static volatile String stockURL = STOCK_BASE_URL + STOCK_PATH;
+	private static volatile String intradayURL = INTRADAY_BASE_URL + INTRADAY_PATH;
+	private static volatile String endofdayURL = ENDOFDAY_BASE_URL + ENDOFDAY_PATH;
+
+	/**
+	 * This method points requests of all services to one base URL, e.g. "http://localhost:8080".
+	 *
+	 * @param baseURL
+	 *            Protocol, host and optional port of server.
+	 */
+	public static void setBaseURL(String baseURL) {
+		setBaseURLs(baseURL, baseURL, baseURL);
+	}
+
+	/**
+	 * This method sets base URLs of services.
+	 *
+	 * @param stockBaseURL
+	 *            Base URL of market data, Forex and custom data service.
+	 * @param intradayBaseURL
+	 *            Base URL of intraday data service.
+	 * @param endofdayBaseURL
+	 *            Base URL of historical data service.
+	 */
+	public static void setBaseURLs(String stockBaseURL, String intradayBaseURL, String endofdayBaseURL) {
+		if (stockBaseURL == null || intradayBaseURL == null || endofdayBaseURL == null) {
+			throw new IllegalArgumentException("Illegal value. Base URL cannot be null.");
+		}
+		stockURL = trimSlash(stockBaseURL) + STOCK_PATH;
+		intradayURL = trimSlash(intradayBaseURL) + INTRADAY_PATH;
+		endofdayURL = trimSlash(endofdayBaseURL) + ENDOFDAY_PATH;
+	}
+
+	/**
+	 * This method restores default Yahoo Finance base URLs.
+	 */
+	public static void resetBaseURLs() {
+		setBaseURLs(STOCK_BASE_URL, INTRADAY_BASE_URL, ENDOFDAY_BASE_URL);
+	}
+
+	private static String trimSlash(String baseURL) {
+		return baseURL.endsWith("/") ? baseURL.substring(0, baseURL.length() - 1) : baseURL;
+	}
 
 	protected static URL createForexURL(ForexCurrency fromCurrency, ForexCurrency toCurrency)
 			throws MalformedURLException {
@@ -44,12 +97,16 @@ public class RequestURLFactory {
 		return new URL(createStockAddress(RequestUtils.toInstruments(contract), dataType.getCode()));
 	}
 
+	protected static URL createStockURL(Contract contract, DataType... dataTypes) throws MalformedURLException {
+		return new URL(createStockAddress(RequestUtils.toInstruments(contract), RequestUtils.toDataTypes(dataTypes)));
+	}
+
 	protected static URL createCustomURL(String instruments, String dataTypes) throws MalformedURLException {
 		return new URL(createStockAddress(instruments, dataTypes));
 	}
 
 	private static String createStockAddress(String instruments, String dataTypes) {
-		return STOCK_URL + "s=" + instruments + "&f=" + dataTypes;
+		return stockURL + "s=" + instruments + "&f=" + dataTypes;
 	}
 
 	protected static URL createEndofdayURL(Contract contract, LocalDate startDate, LocalDate endDate,
@@ -60,13 +117,13 @@ public class RequestURLFactory {
 		int endMonth = endDate.getMonth().getValue() - 1;
 		int endDay = endDate.getDayOfMonth();
 		int endYear = endDate.getYear();
-		return new URL(ENDOFDAY_URL + contract.getInstrumentCode() + contract.getExchangeCode() + "&a=" + startMonth
+		return new URL(endofdayURL + contract.getInstrumentCode() + contract.getExchangeCode() + "&a=" + startMonth
 				+ "&b=" + startDay + "&c=" + startYear + "&d=" + endMonth + "&e=" + endDay + "&f=" + endYear + "&g"
 				+ "=" + timePeriod.getCode() + "&ignore=.csv");
 	}
 
 	protected static URL createIntradayURL(Contract contract) throws MalformedURLException {
-		return new URL(INTRADAY_URL + contract.getInstrumentCode() + contract.getExchangeCode()
+		return new URL(intradayURL + contract.getInstrumentCode() + contract.getExchangeCode()
 				+ "/chartdata;type=quote;range=1d/csv");
 	}
 
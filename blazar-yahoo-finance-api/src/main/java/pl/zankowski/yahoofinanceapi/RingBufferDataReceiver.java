@@ -0,0 +1,506 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * {@link DataReceiver} decorator moving delivery of data off threads downloading it. Every received value is
+ * published into pre-allocated ring buffer of reusable events and delivered to wrapped receiver by one dedicated
+ * consumer thread, in order of publishing, so slow receiver doesn't delay scheduled downloads of
+ * {@link RequestManager}.
+ * </p>
+ *
+ * <p>
+ * Pass it to {@link SessionFactory} instead of receiver. When buffer is full threads publishing data wait for free
+ * event, which is counted in {@link #getProducerWaits()}. Consumer thread waits for new events with chosen
+ * {@link WaitStrategy}. Close it with {@link #close()} to deliver remaining events and stop consumer thread.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class RingBufferDataReceiver implements DataReceiver {
+
+	private final static Logger LOGGER = Logger.getLogger(RingBufferDataReceiver.class.getName());
+
+	/**
+	 * Strategy of waiting for new events in consumer thread and for free events in publishing threads.
+	 */
+	public enum WaitStrategy {
+		/**
+		 * Spins in loop - the lowest latency, occupies one CPU core.
+		 */
+		BUSY_SPIN,
+		/**
+		 * Yields thread in loop - low latency, gives CPU to other threads.
+		 */
+		YIELDING,
+		/**
+		 * Spins, then yields and finally parks thread for short time - low CPU usage when idle.
+		 */
+		SLEEPING,
+		/**
+		 * Waits on lock condition signalled by publishing threads - the lowest CPU usage, the highest latency.
+		 */
+		BLOCKING
+	}
+
+	protected static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int SPIN_TRIES = 100;
+	private static final int YIELD_TRIES = 100;
+	private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private static final byte STRING = 0;
+	private static final byte DOUBLE = 1;
+	private static final byte SIZE = 2;
+	private static final byte INTRADAY = 3;
+	private static final byte HISTORICAL = 4;
+	private static final byte CUSTOM = 5;
+	private static final byte FOREX = 6;
+
+	private final DataReceiver receiver;
+	private final Event[] events;
+	private final int mask;
+	private final boolean singleProducer;
+	private final WaitStrategy waitStrategy;
+	private final AtomicLongArray publishedSequences;
+	private final AtomicLong claimedSequence = new AtomicLong(-1);
+	private final AtomicLong consumedSequence = new AtomicLong(-1);
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition published = lock.newCondition();
+	private final Thread consumer;
+
+	private final AtomicLong producerWaits = new AtomicLong();
+	private final AtomicLong maxSize = new AtomicLong();
+	private final AtomicLong receiverErrors = new AtomicLong();
+
+	private volatile boolean running = true;
+
+	/**
+	 * Creates receiver with buffer of {@link #DEFAULT_CAPACITY} events, published from many threads and with
+	 * {@link WaitStrategy#BLOCKING} wait strategy.
+	 *
+	 * @param receiver
+	 *            Receiver to which data is delivered.
+	 */
+	public RingBufferDataReceiver(DataReceiver receiver) {
+		this(receiver, DEFAULT_CAPACITY, false, WaitStrategy.BLOCKING);
+	}
+
+	/**
+	 * @param receiver
+	 *            Receiver to which data is delivered.
+	 * @param capacity
+	 *            Number of events in buffer, has to be power of two.
+	 * @param singleProducer
+	 *            If true then data can be published only from one thread at once, e.g. by {@link RequestManager}
+	 *            with one thread, which lets publish without atomic claim of event.
+	 * @param waitStrategy
+	 *            Strategy of waiting for events.
+	 */
+	public RingBufferDataReceiver(DataReceiver receiver, int capacity, boolean singleProducer,
+			WaitStrategy waitStrategy) {
+		if (receiver == null) {
+			throw new IllegalArgumentException("Illegal value. Data Receiver cannot be null.");
+		}
+		if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Illegal value. Capacity has to be power of two.");
+		}
+		if (waitStrategy == null) {
+			throw new IllegalArgumentException("Illegal value. Wait strategy cannot be null.");
+		}
+		this.receiver = receiver;
+		this.events = new Event[capacity];
+		for (int i = 0; i < capacity; i++) {
+			events[i] = new Event();
+		}
+		this.mask = capacity - 1;
+		this.singleProducer = singleProducer;
+		this.waitStrategy = waitStrategy;
+		this.publishedSequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			publishedSequences.set(i, -1);
+		}
+		this.consumer = new Thread(this::consume, "yahoo-finance-dispatch");
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+	}
+
+	@Override
+	public void onStringReceived(int requestID, DataType dataType, String value) {
+		long sequence = next();
+		if (sequence < 0) {
+			return;
+		}
+		Event event = events[(int) (sequence & mask)];
+		event.type = STRING;
+		event.requestID = requestID;
+		event.dataType = dataType;
+		event.string = value;
+		publish(sequence);
+	}
+
+	@Override
+	public void onDoubleReceived(int requestID, DataType dataType, double value) {
+		long sequence = next();
+		if (sequence < 0) {
+			return;
+		}
+		Event event = events[(int) (sequence & mask)];
+		event.type = DOUBLE;
+		event.requestID = requestID;
+		event.dataType = dataType;
+		event.close = value;
+		publish(sequence);
+	}
+
+	@Override
+	public void onSizeReceived(int requestID, DataType dataType, int value) {
+		long sequence = next();
+		if (sequence < 0) {
+			return;
+		}
+		Event event = events[(int) (sequence & mask)];
+		event.type = SIZE;
+		event.requestID = requestID;
+		event.dataType = dataType;
+		event.volume = value;
+		publish(sequence);
+	}
+
+	@Override
+	public void onIntradayReceived(int requestID, long timestamp, double close, double high, double low, double open,
+			int volume) {
+		long sequence = next();
+		if (sequence < 0) {
+			return;
+		}
+		Event event = events[(int) (sequence & mask)];
+		event.type = INTRADAY;
+		event.requestID = requestID;
+		event.timestamp = timestamp;
+		event.close = close;
+		event.high = high;
+		event.low = low;
+		event.open = open;
+		event.volume = volume;
+		publish(sequence);
+	}
+
+	@Override
+	public void onHistoricalReceived(int requestID, LocalDate date, double close, double high, double low,
+			double open, int volume, double adjustedClose) {
+		long sequence = next();
+		if (sequence < 0) {
+			return;
+		}
+		Event event = events[(int) (sequence & mask)];
+		event.type = HISTORICAL;
+		event.requestID = requestID;
+		event.date = date;
+		event.close = close;
+		event.high = high;
+		event.low = low;
+		event.open = open;
+		event.volume = volume;
+		event.adjustedClose = adjustedClose;
+		publish(sequence);
+	}
+
+	@Override
+	public void onCustomReceived(int requestID, List<String> value) {
+		long sequence = next();
+		if (sequence < 0) {
+			return;
+		}
+		Event event = events[(int) (sequence & mask)];
+		event.type = CUSTOM;
+		event.requestID = requestID;
+		event.values = value;
+		publish(sequence);
+	}
+
+	@Override
+	public void onForexReceived(int requestID, long timestamp, double price) {
+		long sequence = next();
+		if (sequence < 0) {
+			return;
+		}
+		Event event = events[(int) (sequence & mask)];
+		event.type = FOREX;
+		event.requestID = requestID;
+		event.timestamp = timestamp;
+		event.close = price;
+		publish(sequence);
+	}
+
+	/**
+	 * Stops accepting new data, waits until published events are delivered and stops consumer thread.
+	 *
+	 * @throws InterruptedException
+	 *             Thrown when thread is interrupted while waiting for consumer thread.
+	 */
+	public void close() throws InterruptedException {
+		running = false;
+		signalPublished();
+		consumer.join();
+	}
+
+	/**
+	 * @return Number of events in buffer.
+	 */
+	public int getCapacity() {
+		return events.length;
+	}
+
+	/**
+	 * @return Number of events published and not delivered yet.
+	 */
+	public int getSize() {
+		return (int) Math.max(0, claimedSequence.get() - consumedSequence.get());
+	}
+
+	/**
+	 * @return Highest number of events waiting for delivery at once.
+	 */
+	public long getMaxSize() {
+		return maxSize.get();
+	}
+
+	/**
+	 * @return Number of events published to buffer.
+	 */
+	public long getPublished() {
+		return claimedSequence.get() + 1;
+	}
+
+	/**
+	 * @return Number of events delivered to wrapped receiver.
+	 */
+	public long getDelivered() {
+		return consumedSequence.get() + 1;
+	}
+
+	/**
+	 * @return Number of events which had to wait for free event in full buffer.
+	 */
+	public long getProducerWaits() {
+		return producerWaits.get();
+	}
+
+	/**
+	 * @return Number of events delivery of which threw exception in wrapped receiver.
+	 */
+	public long getReceiverErrors() {
+		return receiverErrors.get();
+	}
+
+	private long next() {
+		if (!running) {
+			LOGGER.log(Level.WARNING, "Couldn't deliver data. Receiver is closed.");
+			return -1;
+		}
+		long sequence;
+		if (singleProducer) {
+			sequence = claimedSequence.get() + 1;
+			claimedSequence.lazySet(sequence);
+		} else {
+			sequence = claimedSequence.incrementAndGet();
+		}
+		long wrapPoint = sequence - events.length;
+		if (consumedSequence.get() < wrapPoint) {
+			producerWaits.incrementAndGet();
+			int counter = 0;
+			while (consumedSequence.get() < wrapPoint) {
+				if (!consumer.isAlive()) {
+					LOGGER.log(Level.WARNING, "Couldn't deliver data. Receiver is closed.");
+					return -1;
+				}
+				counter = waitForSlot(counter);
+			}
+		}
+		long size = sequence - consumedSequence.get();
+		if (size > maxSize.get()) {
+			maxSize.accumulateAndGet(size, Math::max);
+		}
+		return sequence;
+	}
+
+	private void publish(long sequence) {
+		publishedSequences.set((int) (sequence & mask), sequence);
+		if (waitStrategy == WaitStrategy.BLOCKING) {
+			signalPublished();
+		}
+	}
+
+	private void signalPublished() {
+		lock.lock();
+		try {
+			published.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void consume() {
+		long sequence = 0;
+		int counter = 0;
+		while (true) {
+			int index = (int) (sequence & mask);
+			if (publishedSequences.get(index) == sequence) {
+				Event event = events[index];
+				deliver(event);
+				event.clear();
+				consumedSequence.lazySet(sequence);
+				sequence++;
+				counter = 0;
+			} else if (!running && claimedSequence.get() < sequence) {
+				return;
+			} else {
+				counter = waitForEvent(counter, index, sequence);
+			}
+		}
+	}
+
+	private void deliver(Event event) {
+		try {
+			switch (event.type) {
+			case STRING:
+				receiver.onStringReceived(event.requestID, event.dataType, event.string);
+				break;
+			case DOUBLE:
+				receiver.onDoubleReceived(event.requestID, event.dataType, event.close);
+				break;
+			case SIZE:
+				receiver.onSizeReceived(event.requestID, event.dataType, event.volume);
+				break;
+			case INTRADAY:
+				receiver.onIntradayReceived(event.requestID, event.timestamp, event.close, event.high, event.low,
+						event.open, event.volume);
+				break;
+			case HISTORICAL:
+				receiver.onHistoricalReceived(event.requestID, event.date, event.close, event.high, event.low,
+						event.open, event.volume, event.adjustedClose);
+				break;
+			case CUSTOM:
+				receiver.onCustomReceived(event.requestID, event.values);
+				break;
+			case FOREX:
+				receiver.onForexReceived(event.requestID, event.timestamp, event.close);
+				break;
+			default:
+				break;
+			}
+		} catch (RuntimeException e) {
+			receiverErrors.incrementAndGet();
+			LOGGER.log(Level.WARNING, "Couldn't deliver data. " + e.getMessage());
+		}
+	}
+
+	private int waitForEvent(int counter, int index, long sequence) {
+		if (waitStrategy != WaitStrategy.BLOCKING) {
+			return idle(counter);
+		}
+		lock.lock();
+		try {
+			while (running && publishedSequences.get(index) != sequence) {
+				published.awaitUninterruptibly();
+			}
+		} finally {
+			lock.unlock();
+		}
+		return counter;
+	}
+
+	/**
+	 * Publishing threads wait for free event without signalling, as full buffer is exceptional, so blocking strategy
+	 * parks them for short time.
+	 */
+	private int waitForSlot(int counter) {
+		if (waitStrategy == WaitStrategy.BLOCKING) {
+			LockSupport.parkNanos(SLEEP_NANOS);
+			return counter;
+		}
+		return idle(counter);
+	}
+
+	private int idle(int counter) {
+		switch (waitStrategy) {
+		case YIELDING:
+			Thread.yield();
+			return counter;
+		case SLEEPING:
+			if (counter < SPIN_TRIES) {
+				return counter + 1;
+			}
+			if (counter < SPIN_TRIES + YIELD_TRIES) {
+				Thread.yield();
+				return counter + 1;
+			}
+			LockSupport.parkNanos(SLEEP_NANOS);
+			return counter;
+		default:
+			return counter;
+		}
+	}
+
+	/**
+	 * Reusable event holding arguments of one {@link DataReceiver} call. Double value is kept in close field and size
+	 * value in volume field.
+	 */
+	private static class Event {
+
+		private byte type;
+		private int requestID;
+		private DataType dataType;
+		private String string;
+		private List<String> values;
+		private LocalDate date;
+		private long timestamp;
+		private double close;
+		private double high;
+		private double low;
+		private double open;
+		private int volume;
+		private double adjustedClose;
+
+		private void clear() {
+			dataType = null;
+			string = null;
+			values = null;
+			date = null;
+		}
+
+	}
+
+}
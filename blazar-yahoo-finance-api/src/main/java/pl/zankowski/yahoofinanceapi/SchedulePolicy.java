@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Policy of scheduling periodic download of {@link DataRequest}, enforced by {@link RequestManager}. It sets when the
+ * first download is made, what happens with downloads missed because previous ones took too long and if downloads of
+ * one subscription can overlap.
+ * </p>
+ *
+ * <p>
+ * Policy with max delay makes delay adaptive. Delay of request is the shortest delay and while downloaded value
+ * doesn't change downloads are made less often, up to max delay. When value changes delay is halved, so requests are
+ * spent on instruments whose prices are moving.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class SchedulePolicy {
+
+	/**
+	 * When the first download is made.
+	 */
+	public enum Phase {
+		/**
+		 * Immediately after request.
+		 */
+		IMMEDIATE,
+		/**
+		 * At the next wall clock time being multiple of delay, e.g. at full minute for delay of one minute, so all
+		 * subscriptions with the same delay are downloaded at the same, predictable time.
+		 */
+		ALIGNED,
+		/**
+		 * At offset spread evenly across delay, different for every subscription, so subscriptions made together
+		 * aren't downloaded together.
+		 */
+		SPREAD
+	}
+
+	/**
+	 * What happens with downloads which are late by at least whole delay.
+	 */
+	public enum MissedTicks {
+		/**
+		 * Missed downloads are made one after another until schedule is caught up.
+		 */
+		CATCH_UP,
+		/**
+		 * Missed downloads are skipped and schedule continues with the next one on time.
+		 */
+		SKIP
+	}
+
+	/**
+	 * Policy of scheduling used before policies were introduced - the first download immediately, catching up missed
+	 * downloads and overlapping downloads allowed.
+	 */
+	public static final SchedulePolicy DEFAULT = new SchedulePolicy(Phase.IMMEDIATE, MissedTicks.CATCH_UP, false);
+
+	private final Phase phase;
+	private final MissedTicks missedTicks;
+	private final boolean exclusive;
+	private final int maxDelay;
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param phase
+	 *            When the first download is made.
+	 * @param missedTicks
+	 *            What happens with late downloads.
+	 * @param exclusive
+	 *            If true then download is skipped while previous download of the same subscription is in progress.
+	 */
+	public SchedulePolicy(Phase phase, MissedTicks missedTicks, boolean exclusive) {
+		this(phase, missedTicks, exclusive, 0);
+	}
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param phase
+	 *            When the first download is made.
+	 * @param missedTicks
+	 *            What happens with late downloads.
+	 * @param exclusive
+	 *            If true then download is skipped while previous download of the same subscription is in progress.
+	 * @param maxDelay
+	 *            Max delay in milliseconds of adaptive delay or 0 if delay is fixed.
+	 */
+	public SchedulePolicy(Phase phase, MissedTicks missedTicks, boolean exclusive, int maxDelay) {
+		if (phase == null || missedTicks == null) {
+			throw new IllegalArgumentException("Illegal value. Phase and missed ticks policy cannot be null.");
+		}
+		if (maxDelay < 0) {
+			throw new IllegalArgumentException("Illegal value. Max delay cannot be negative.");
+		}
+		this.phase = phase;
+		this.missedTicks = missedTicks;
+		this.exclusive = exclusive;
+		this.maxDelay = maxDelay;
+	}
+
+	public Phase getPhase() {
+		return phase;
+	}
+
+	public MissedTicks getMissedTicks() {
+		return missedTicks;
+	}
+
+	public boolean isExclusive() {
+		return exclusive;
+	}
+
+	public int getMaxDelay() {
+		return maxDelay;
+	}
+
+	public boolean isAdaptive() {
+		return maxDelay > 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		SchedulePolicy that = (SchedulePolicy) o;
+		return exclusive == that.exclusive && maxDelay == that.maxDelay && phase == that.phase
+				&& missedTicks == that.missedTicks;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = phase.hashCode();
+		result = 31 * result + missedTicks.hashCode();
+		result = 31 * result + (exclusive ? 1 : 0);
+		result = 31 * result + maxDelay;
+		return result;
+	}
+
+}
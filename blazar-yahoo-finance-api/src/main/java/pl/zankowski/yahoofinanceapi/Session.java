@@ -20,9 +20,13 @@ package pl.zankowski.yahoofinanceapi;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -57,7 +61,9 @@ public class Session {
 	/**
 	 * This method handles Market Data requests to Yahoo Finance API. For every {@link DataRequest} is created task that
 	 * download and parse data. If delay in {@link DataRequest} equals 0 then task is called only at the beginning and
-	 * it's not scheduled for future execution.
+	 * it's not scheduled for future execution. Scheduled tasks of the same contract and data type with similar delays
+	 * are shared by all requests made with the same {@link RequestManager} - see {@link SubscriptionRegistry}. Tasks
+	 * are scheduled according to {@link SchedulePolicy} of {@link DataRequest}.
 	 * 
 	 * @param requestID
 	 *            Unique requestID that will let identify provided data in implementation of {@link DataReceiver}.
@@ -70,19 +76,50 @@ public class Session {
 	 */
 	public void reqMarketData(int requestID, Contract contract, List<DataRequest> dataRequestList)
 			throws RequestException {
+		reqMarketData(requestID, contract, dataRequestList, false);
+	}
+
+	/**
+	 * This method handles Market Data requests to Yahoo Finance API. If coalesce flag is set then every
+	 * {@link DataRequest} with the same delay is downloaded in one request and values are delivered to
+	 * {@link DataReceiver} from one parsed line. Otherwise it works the same as
+	 * {@link #reqMarketData(int, Contract, List)}. If {@link RequestManager} batches market data requests then
+	 * requests are always coalesced and downloaded together with other instruments.
+	 *
+	 * @param requestID
+	 *            Unique requestID that will let identify provided data in implementation of {@link DataReceiver}.
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param dataRequestList
+	 *            List of data that has to be requested from Yahoo Finance API.
+	 * @param coalesce
+	 *            If true then data requests with the same delay share one download.
+	 * @throws RequestException
+	 *             Thrown when requestID is not unique.
+	 */
+	public void reqMarketData(int requestID, Contract contract, List<DataRequest> dataRequestList, boolean coalesce)
+			throws RequestException {
 		validateReqMarketData(contract, dataRequestList);
-		List<ScheduledFuture<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
+		if (requestManager.isBatching()) {
+			reqBatchedMarketData(requestID, contract, dataRequestList);
+			return;
+		}
+		if (coalesce) {
+			reqCoalescedMarketData(requestID, contract, dataRequestList);
+			return;
+		}
+		List<Future<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
 		if (scheduledTasks == null) {
 			scheduledTasks = new ArrayList<>();
 			for (DataRequest dataRequest : dataRequestList) {
 				try {
 					if (dataRequest.getDelay() == 0) {
-						RequestFactory.marketDataRequest(receiver, requestID, contract, dataRequest.getDataType());
+						RequestFactory.awaitDelivery(RequestFactory.marketDataRequest(receiver, requestID, contract,
+								dataRequest.getDataType()));
 					} else {
-						ScheduledFuture<?> scheduledTask = requestManager.getScheduler().scheduleAtFixedRate(
-								RequestFactory.createMarketDataRequest(receiver, requestID, contract,
-										dataRequest.getDataType()), 0, dataRequest.getDelay(), TimeUnit.MILLISECONDS);
-						scheduledTasks.add(scheduledTask);
+						scheduledTasks.add(requestManager.getRegistry().subscribe(receiver, requestID, contract,
+								Collections.singletonList(dataRequest.getDataType()), dataRequest.getDelay(),
+								dataRequest.getSchedulePolicy()));
 					}
 				} catch (IllegalArgumentException e) {
 					LOGGER.log(Level.WARNING, "Couldn't schedule task. " + e.getMessage());
@@ -95,6 +132,135 @@ public class Session {
 		throw new RequestException("RequestID duplicate. Cannot add different request with same ID.");
 	}
 
+	private void reqCoalescedMarketData(int requestID, Contract contract, List<DataRequest> dataRequestList)
+			throws RequestException {
+		List<Future<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
+		if (scheduledTasks == null) {
+			scheduledTasks = new ArrayList<>();
+			for (Map.Entry<DataRequest, List<DataType>> entry : groupBySchedule(dataRequestList).entrySet()) {
+				DataRequest schedule = entry.getKey();
+				try {
+					if (schedule.getDelay() == 0) {
+						RequestFactory.awaitDelivery(RequestFactory.coalescedMarketDataRequest(receiver, requestID,
+								contract, toArray(entry.getValue())));
+					} else {
+						scheduledTasks.add(requestManager.getRegistry().subscribe(receiver, requestID, contract,
+								entry.getValue(), schedule.getDelay(), schedule.getSchedulePolicy()));
+					}
+				} catch (IllegalArgumentException e) {
+					LOGGER.log(Level.WARNING, "Couldn't schedule task. " + e.getMessage());
+				}
+			}
+			requestManager.addScheduledTasks(requestID, scheduledTasks);
+			return;
+		}
+
+		throw new RequestException("RequestID duplicate. Cannot add different request with same ID.");
+	}
+
+	private void reqBatchedMarketData(int requestID, Contract contract, List<DataRequest> dataRequestList)
+			throws RequestException {
+		List<Future<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
+		if (scheduledTasks == null) {
+			scheduledTasks = new ArrayList<>();
+			for (Map.Entry<Integer, List<DataType>> entry : groupByDelay(dataRequestList).entrySet()) {
+				if (entry.getKey() == 0) {
+					RequestFactory.awaitDelivery(RequestFactory.coalescedMarketDataRequest(receiver, requestID,
+							contract, toArray(entry.getValue())));
+				} else {
+					scheduledTasks.add(requestManager.getBatcher().subscribe(receiver, requestID, contract,
+							entry.getValue(), entry.getKey()));
+				}
+			}
+			requestManager.addScheduledTasks(requestID, scheduledTasks);
+			return;
+		}
+
+		throw new RequestException("RequestID duplicate. Cannot add different request with same ID.");
+	}
+
+	/**
+	 * Groups data types by delay and schedule policy, keyed by the first data request of the group.
+	 */
+	private Map<DataRequest, List<DataType>> groupBySchedule(List<DataRequest> dataRequestList) {
+		Map<DataRequest, List<DataType>> scheduleMap = new LinkedHashMap<>();
+		for (DataRequest dataRequest : dataRequestList) {
+			List<DataType> dataTypes = null;
+			for (Map.Entry<DataRequest, List<DataType>> entry : scheduleMap.entrySet()) {
+				if (entry.getKey().getDelay() == dataRequest.getDelay()
+						&& entry.getKey().getSchedulePolicy().equals(dataRequest.getSchedulePolicy())) {
+					dataTypes = entry.getValue();
+					break;
+				}
+			}
+			if (dataTypes == null) {
+				dataTypes = new ArrayList<>();
+				scheduleMap.put(dataRequest, dataTypes);
+			}
+			dataTypes.add(dataRequest.getDataType());
+		}
+		return scheduleMap;
+	}
+
+	private static DataType[] toArray(List<DataType> dataTypes) {
+		return dataTypes.toArray(new DataType[dataTypes.size()]);
+	}
+
+	private Map<Integer, List<DataType>> groupByDelay(List<DataRequest> dataRequestList) {
+		Map<Integer, List<DataType>> delayMap = new LinkedHashMap<>();
+		for (DataRequest dataRequest : dataRequestList) {
+			List<DataType> dataTypes = delayMap.get(dataRequest.getDelay());
+			if (dataTypes == null) {
+				dataTypes = new ArrayList<>();
+				delayMap.put(dataRequest.getDelay(), dataTypes);
+			}
+			dataTypes.add(dataRequest.getDataType());
+		}
+		return delayMap;
+	}
+
+	/**
+	 * This method handles Market Data requests delivered as {@link QuoteSnapshot}. All data types are downloaded in
+	 * one request and every downloaded line is parsed in one pass into primitive values of snapshot, which is reused
+	 * by next downloads of the request, so no value is parsed twice or boxed. If delay equals 0 then data is
+	 * downloaded only once.
+	 *
+	 * @param requestID
+	 *            Unique requestID that will let identify provided snapshots.
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param dataTypes
+	 *            Data types of snapshot.
+	 * @param delay
+	 *            Delay between scheduled task calls. If 0 then task is called only once.
+	 * @param listener
+	 *            Listener receiving snapshots.
+	 * @throws RequestException
+	 *             Thrown when requestID is not unique.
+	 */
+	public void reqQuoteSnapshot(int requestID, Contract contract, List<DataType> dataTypes, int delay,
+			QuoteSnapshotListener listener) throws RequestException {
+		validateReqQuoteSnapshot(contract, dataTypes, delay, listener);
+		List<Future<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
+		if (scheduledTasks == null) {
+			scheduledTasks = new ArrayList<>();
+			if (delay == 0) {
+				RequestFactory.awaitDelivery(RequestFactory.quoteSnapshotRequest(listener, new QuoteSnapshot(
+						requestID, contract), toArray(dataTypes)));
+			} else {
+				Runnable task = RequestFactory.createQuoteSnapshotRequest(listener, requestID, contract, dataTypes);
+				scheduledTasks.add(requestManager.scheduleAtFixedRate(() -> {
+					task.run();
+					return null;
+				}, delay, SchedulePolicy.DEFAULT, contract));
+			}
+			requestManager.addScheduledTasks(requestID, scheduledTasks);
+			return;
+		}
+
+		throw new RequestException("RequestID duplicate. Cannot add different request with same ID.");
+	}
+
 	/**
 	 * This method handles Custom Data requests to Yahoo Finance API. It allows to create unrestricted data request from
 	 * Yahoo Finance API. If delay value is equal to 0 then data is downloaded only once.
@@ -114,15 +280,15 @@ public class Session {
 	 */
 	public void reqCustomData(int requestID, String instruments, String dataTypes, int delay) throws RequestException {
 		validateReqCustomData(instruments, dataTypes);
-		List<ScheduledFuture<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
+		List<Future<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
 		if (scheduledTasks == null) {
 			scheduledTasks = new ArrayList<>();
 			if (delay == 0) {
-				RequestFactory.customDataRequest(receiver, requestID, instruments, dataTypes);
+				RequestFactory.awaitDelivery(RequestFactory.customDataRequest(receiver, requestID, instruments,
+						dataTypes));
 			} else {
-				ScheduledFuture<?> scheduledTask = requestManager.getScheduler().scheduleAtFixedRate(
-						RequestFactory.createCustomDataRequest(receiver, requestID, instruments, dataTypes), 0, delay,
-						TimeUnit.MILLISECONDS);
+				ScheduledFuture<?> scheduledTask = requestManager.scheduleAtFixedRate(
+						RequestFactory.createCustomDataRequest(receiver, requestID, instruments, dataTypes), 0, delay);
 				scheduledTasks.add(scheduledTask);
 			}
 			requestManager.addScheduledTasks(requestID, scheduledTasks);
@@ -172,6 +338,130 @@ public class Session {
 		RequestFactory.createHistoricalRequest(receiver, requestID, contract, startDate, endDate, timePeriod);
 	}
 
+	/**
+	 * <p>
+	 * This method requests Historical Data from Yahoo Finance API incrementally and streams it to
+	 * {@link DataReceiver}. The last delivered bar of contract and time period is remembered in checkpoint store, so
+	 * next requests download data only from the last delivered date and deliver only new bars or the last bar if it
+	 * has been revised.
+	 * </p>
+	 *
+	 * <p>
+	 * Bars older than the last delivered bar are not delivered again, even if start date is moved back.
+	 * </p>
+	 *
+	 * @param requestID
+	 *            Unique requestID that will let identify provided data in implementation of {@link DataReceiver}
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param startDate
+	 *            Start date of data.
+	 * @param endDate
+	 *            End date of data.
+	 * @param timePeriod
+	 *            Interval for historical data.
+	 * @param checkpointStore
+	 *            Store of the last delivered bars, e.g. {@link InMemoryHistoricalCheckpointStore}.
+	 * @throws IOException
+	 */
+	public void reqHistoricalData(int requestID, Contract contract, LocalDate startDate, LocalDate endDate,
+			TimePeriod timePeriod, HistoricalCheckpointStore checkpointStore) throws IOException {
+		validateReqHistoricalData(contract, startDate, endDate, timePeriod);
+		if (checkpointStore == null) {
+			throw new IllegalArgumentException("Illegal argument value. Checkpoint store cannot be null");
+		}
+		RequestFactory.createIncrementalHistoricalRequest(receiver, requestID, contract, startDate, endDate,
+				timePeriod, checkpointStore);
+	}
+
+	/**
+	 * This method requests Historical Data from Yahoo Finance API and returns it as columnar series. It calls request
+	 * with default Daily interval.
+	 *
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param startDate
+	 *            Start date of data.
+	 * @param endDate
+	 *            End date of data.
+	 * @return Downloaded bars ordered by date ascending.
+	 * @throws IOException
+	 */
+	public HistoricalSeries reqHistoricalSeries(Contract contract, LocalDate startDate, LocalDate endDate)
+			throws IOException {
+		return reqHistoricalSeries(contract, startDate, endDate, TimePeriod.Daily);
+	}
+
+	/**
+	 * This method requests Historical Data from Yahoo Finance API and returns it as columnar series. Unlike
+	 * {@link #reqHistoricalData(int, Contract, LocalDate, LocalDate, TimePeriod)} it doesn't call {@link DataReceiver}
+	 * and doesn't create any object per bar.
+	 *
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param startDate
+	 *            Start date of data.
+	 * @param endDate
+	 *            End date of data.
+	 * @param timePeriod
+	 *            Interval for historical data.
+	 * @return Downloaded bars ordered by date ascending.
+	 * @throws IOException
+	 */
+	public HistoricalSeries reqHistoricalSeries(Contract contract, LocalDate startDate, LocalDate endDate,
+			TimePeriod timePeriod) throws IOException {
+		validateReqHistoricalData(contract, startDate, endDate, timePeriod);
+		return RequestFactory.createHistoricalSeriesRequest(contract, startDate, endDate, timePeriod);
+	}
+
+	/**
+	 * This method downloads Historical Data of many contracts concurrently without limit of requests per second.
+	 *
+	 * @see #reqBulkHistoricalData(int, List, LocalDate, LocalDate, TimePeriod, int, double, BulkDownloadListener)
+	 */
+	public CompletableFuture<BulkDownloadReport> reqBulkHistoricalData(int requestID, List<Contract> contracts,
+			LocalDate startDate, LocalDate endDate, TimePeriod timePeriod, int maxInFlight) {
+		return reqBulkHistoricalData(requestID, contracts, startDate, endDate, timePeriod, maxInFlight, 0, null);
+	}
+
+	/**
+	 * <p>
+	 * This method downloads Historical Data of many contracts concurrently and streams it to {@link DataReceiver} as
+	 * soon as data of each contract arrives. Data of contract at index i of the list is delivered with requestID + i.
+	 * Data of different contracts can be delivered from different threads at the same time.
+	 * </p>
+	 *
+	 * @param requestID
+	 *            RequestID of the first contract, next contracts get following requestIDs.
+	 * @param contracts
+	 *            Contracts to download.
+	 * @param startDate
+	 *            Start date of data.
+	 * @param endDate
+	 *            End date of data.
+	 * @param timePeriod
+	 *            Interval for historical data.
+	 * @param maxInFlight
+	 *            Maximum number of requests downloaded at the same time.
+	 * @param maxRequestsPerSecond
+	 *            Maximum number of requests started per second, 0 means no limit.
+	 * @param listener
+	 *            Listener notified about every completed or failed symbol, can be null.
+	 * @return Future completed with report of all symbols when all of them are completed.
+	 */
+	public CompletableFuture<BulkDownloadReport> reqBulkHistoricalData(int requestID, List<Contract> contracts,
+			LocalDate startDate, LocalDate endDate, TimePeriod timePeriod, int maxInFlight,
+			double maxRequestsPerSecond, BulkDownloadListener listener) {
+		if (contracts == null) {
+			throw new IllegalArgumentException("Illegal argument value. Contracts cannot be null.");
+		}
+		for (Contract contract : contracts) {
+			validateReqHistoricalData(contract, startDate, endDate, timePeriod);
+		}
+		return new BulkHistoricalDownload(receiver, requestID, new ArrayList<>(contracts), startDate, endDate,
+				timePeriod, maxInFlight, maxRequestsPerSecond, listener).start();
+	}
+
 	/**
 	 * This method handles Intraday data requests. Because of Yahoo Finance limitations it allows to download only data
 	 * from last 5 days.
@@ -205,16 +495,16 @@ public class Session {
 	public void reqForexData(int requestID, ForexCurrency fromCurrency, ForexCurrency toCurrency, int delay)
 			throws RequestException {
 		validateReqForexData(fromCurrency, toCurrency);
-		List<ScheduledFuture<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
+		List<Future<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
 		if (scheduledTasks == null) {
 			scheduledTasks = new ArrayList<>();
 
 			if (delay == 0) {
-				RequestFactory.forexRequest(receiver, requestID, fromCurrency, toCurrency);
+				RequestFactory.awaitDelivery(RequestFactory.forexRequest(receiver, requestID, fromCurrency,
+						toCurrency));
 			} else {
-				ScheduledFuture<?> scheduledTask = requestManager.getScheduler().scheduleAtFixedRate(
-						RequestFactory.createForexRequest(receiver, requestID, fromCurrency, toCurrency), 0, delay,
-						TimeUnit.MILLISECONDS);
+				ScheduledFuture<?> scheduledTask = requestManager.scheduleAtFixedRate(
+						RequestFactory.createForexRequest(receiver, requestID, fromCurrency, toCurrency), 0, delay);
 				scheduledTasks.add(scheduledTask);
 			}
 			requestManager.addScheduledTasks(requestID, scheduledTasks);
@@ -224,6 +514,73 @@ public class Session {
 		throw new RequestException("RequestID duplicate. Cannot add different request with same ID.");
 	}
 
+	/**
+	 * This method creates publisher of Market Data snapshots. Every subscriber gets new {@link QuoteSnapshot}, with
+	 * requestID 0, downloaded every delay milliseconds while it has demand for items. If delay equals 0 then one
+	 * snapshot is downloaded and subscription is completed. Subscriptions are cancelled with
+	 * {@link DataFlow.Subscription#cancel()}, not with {@link #cancelRequest(int)}.
+	 *
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param dataTypes
+	 *            Data types of snapshot.
+	 * @param delay
+	 *            Delay between downloads. If 0 then data is downloaded only once.
+	 * @return Publisher of snapshots.
+	 * @see DataPublisher
+	 */
+	public DataPublisher<QuoteSnapshot> marketDataPublisher(Contract contract, List<DataType> dataTypes, int delay) {
+		validateContract(contract);
+		if (dataTypes == null || dataTypes.isEmpty()) {
+			throw new IllegalArgumentException("Illegal argument value. Data types cannot be empty.");
+		}
+		return new DataPublisher<>(requestManager, delay, RequestFactory.createQuoteSnapshotFetcher(contract,
+				new ArrayList<>(dataTypes)));
+	}
+
+	/**
+	 * This method creates publisher of Forex data. Every subscriber gets price of currency pair downloaded every delay
+	 * milliseconds while it has demand for items. If delay equals 0 then price is downloaded once and subscription is
+	 * completed.
+	 *
+	 * @param fromCurrency
+	 *            First of currency pair.
+	 * @param toCurrency
+	 *            Second of currency pair.
+	 * @param delay
+	 *            Delay between downloads. If 0 then data is downloaded only once.
+	 * @return Publisher of Forex prices.
+	 * @see DataPublisher
+	 */
+	public DataPublisher<ForexQuote> forexPublisher(ForexCurrency fromCurrency, ForexCurrency toCurrency, int delay) {
+		validateReqForexData(fromCurrency, toCurrency);
+		return new DataPublisher<>(requestManager, delay, RequestFactory.createForexFetcher(fromCurrency,
+				toCurrency));
+	}
+
+	/**
+	 * This method creates publisher of Historical Data. Data is downloaded when subscriber requests items for the first
+	 * time, bars ordered by date ascending are delivered as subscriber requests them and subscription is completed
+	 * after the last bar.
+	 *
+	 * @param contract
+	 *            Contract objects containing instrument and exchange code.
+	 * @param startDate
+	 *            Start date of data.
+	 * @param endDate
+	 *            End date of data.
+	 * @param timePeriod
+	 *            Interval for historical data.
+	 * @return Publisher of historical bars.
+	 * @see DataPublisher
+	 */
+	public DataPublisher<HistoricalBar> historicalPublisher(Contract contract, LocalDate startDate, LocalDate endDate,
+			TimePeriod timePeriod) {
+		validateReqHistoricalData(contract, startDate, endDate, timePeriod);
+		return new DataPublisher<>(requestManager, 0, RequestFactory.createHistoricalFetcher(contract, startDate,
+				endDate, timePeriod));
+	}
+
 	/**
 	 * This method allows to cancel every request made in {@link Session} class.
 	 * 
@@ -232,9 +589,9 @@ public class Session {
 	 * @throws RequestException
 	 */
 	public void cancelRequest(int requestID) throws RequestException {
-		List<ScheduledFuture<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
+		List<Future<?>> scheduledTasks = requestManager.getScheduledTask(requestID);
 		if (scheduledTasks != null) {
-			for (ScheduledFuture<?> scheduledTask : scheduledTasks) {
+			for (Future<?> scheduledTask : scheduledTasks) {
 				scheduledTask.cancel(false);
 			}
 			requestManager.removeScheduledTasks(requestID);
@@ -266,6 +623,20 @@ public class Session {
 		}
 	}
 
+	private void validateReqQuoteSnapshot(Contract contract, List<DataType> dataTypes, int delay,
+			QuoteSnapshotListener listener) {
+		validateContract(contract);
+		if (dataTypes == null || dataTypes.isEmpty()) {
+			throw new IllegalArgumentException("Illegal argument value. Data types cannot be empty.");
+		}
+		if (delay < 0) {
+			throw new IllegalArgumentException("Illegal argument value. Delay cannot be negative.");
+		}
+		if (listener == null) {
+			throw new IllegalArgumentException("Illegal argument value. Listener cannot be null.");
+		}
+	}
+
 	private void validateReqCustomData(String instruments, String dataTypes) {
 		if (instruments == null) {
 			throw new IllegalArgumentException("Illegal argument value. Instruments cannot be null.");
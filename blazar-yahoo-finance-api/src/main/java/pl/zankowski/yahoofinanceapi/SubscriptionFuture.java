@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Cancel handle of subscription sharing scheduled download with other subscriptions. It's stored in
+ * {@link RequestManager} like scheduled task, so {@link Session#cancelRequest(int)} cancels subscription and it's
+ * removed from shared download. Future never completes normally, it's done only when cancelled.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public abstract class SubscriptionFuture implements Future<Void> {
+
+	private final CountDownLatch cancelLatch = new CountDownLatch(1);
+
+	/**
+	 * Method removes cancelled subscription from shared download.
+	 */
+	protected abstract void unsubscribe();
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		synchronized (cancelLatch) {
+			if (isCancelled()) {
+				return false;
+			}
+			cancelLatch.countDown();
+		}
+		unsubscribe();
+		return true;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelLatch.getCount() == 0;
+	}
+
+	@Override
+	public boolean isDone() {
+		return isCancelled();
+	}
+
+	@Override
+	public Void get() throws InterruptedException {
+		cancelLatch.await();
+		throw new CancellationException();
+	}
+
+	@Override
+	public Void get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+		if (!cancelLatch.await(timeout, unit)) {
+			throw new TimeoutException();
+		}
+		throw new CancellationException();
+	}
+
+}
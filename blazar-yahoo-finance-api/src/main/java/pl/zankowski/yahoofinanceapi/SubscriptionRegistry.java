@@ -0,0 +1,245 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * This class deduplicates market data subscriptions made in {@link Session} classes sharing one
+ * {@link RequestManager}. Subscriptions of the same instrument, data types and endpoint with similar delays (differing
+ * by at most {@link #DELAY_TOLERANCE} of requested delay) and the same {@link SchedulePolicy} share one scheduled
+ * download and downloaded value is
+ * delivered to every subscriber with its own requestID. Download is cancelled when the last subscriber is cancelled.
+ * </p>
+ *
+ * <p>
+ * New subscriber of already scheduled download gets the last downloaded value immediately.
+ * </p>
+ *
+ * <p>
+ * Downloads with adaptive {@link SchedulePolicy} report to {@link RequestManager} if downloaded line has changed, so
+ * delay of the download is adapted to how often values of its instrument and data types change.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class SubscriptionRegistry {
+
+	private final static Logger LOGGER = Logger.getLogger(SubscriptionRegistry.class.getName());
+
+	protected static final double DELAY_TOLERANCE = 0.1;
+
+	private final Map<String, List<SharedDownload>> downloads = new HashMap<>();
+	private final RequestManager requestManager;
+
+	protected SubscriptionRegistry(RequestManager requestManager) {
+		this.requestManager = requestManager;
+	}
+
+	protected synchronized Future<?> subscribe(DataReceiver receiver, int requestID, Contract contract,
+			List<DataType> dataTypes, int delay) {
+		return subscribe(receiver, requestID, contract, dataTypes, delay, SchedulePolicy.DEFAULT);
+	}
+
+	protected synchronized Future<?> subscribe(DataReceiver receiver, int requestID, Contract contract,
+			List<DataType> dataTypes, int delay, SchedulePolicy policy) {
+		DataType[] dataTypeArray = dataTypes.toArray(new DataType[dataTypes.size()]);
+		String key = toKey(contract, dataTypeArray);
+		List<SharedDownload> keyDownloads = downloads.get(key);
+		if (keyDownloads == null) {
+			keyDownloads = new ArrayList<>();
+			downloads.put(key, keyDownloads);
+		}
+
+		SharedDownload download = findDownload(keyDownloads, delay, policy);
+		Subscriber subscriber = new Subscriber(receiver, requestID, key);
+		if (download == null) {
+			download = new SharedDownload(contract, dataTypeArray, delay, policy);
+			download.subscribers.add(subscriber);
+			keyDownloads.add(download);
+			download.scheduledTask = requestManager.scheduleAtFixedRate(download::download, delay, policy, contract);
+		} else {
+			download.subscribers.add(subscriber);
+			String lastLine = download.lastLine;
+			if (lastLine != null) {
+				SharedDownload joinedDownload = download;
+				requestManager.execute(() -> joinedDownload.deliver(subscriber, lastLine));
+			}
+		}
+		subscriber.download = download;
+		return subscriber;
+	}
+
+	private synchronized void unsubscribe(Subscriber subscriber) {
+		SharedDownload download = subscriber.download;
+		download.subscribers.remove(subscriber);
+		if (download.subscribers.isEmpty()) {
+			download.scheduledTask.cancel(false);
+			List<SharedDownload> keyDownloads = downloads.get(subscriber.key);
+			keyDownloads.remove(download);
+			if (keyDownloads.isEmpty()) {
+				downloads.remove(subscriber.key);
+			}
+		}
+	}
+
+	/**
+	 * @return Number of scheduled downloads shared by subscriptions.
+	 */
+	protected synchronized int getDownloadCount() {
+		int count = 0;
+		for (List<SharedDownload> keyDownloads : downloads.values()) {
+			count += keyDownloads.size();
+		}
+		return count;
+	}
+
+	private SharedDownload findDownload(List<SharedDownload> keyDownloads, int delay, SchedulePolicy policy) {
+		for (SharedDownload download : keyDownloads) {
+			if (isSimilarDelay(download.delay, delay) && download.policy.equals(policy)) {
+				return download;
+			}
+		}
+		return null;
+	}
+
+	protected static boolean isSimilarDelay(int scheduledDelay, int delay) {
+		return Math.abs(scheduledDelay - delay) <= delay * DELAY_TOLERANCE;
+	}
+
+	protected static String toKey(Contract contract, DataType[] dataTypes) {
+		return YahooEndpoint.QUOTES + ":" + RequestUtils.toInstruments(contract) + ":"
+				+ RequestUtils.toDataTypes(dataTypes);
+	}
+
+	private static class SharedDownload {
+
+		private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+		private final Contract contract;
+		private final DataType[] dataTypes;
+		private final int delay;
+		private final SchedulePolicy policy;
+
+		private ScheduledFuture<?> scheduledTask;
+		private volatile String lastLine;
+		private String comparedLine;
+
+		private SharedDownload(Contract contract, DataType[] dataTypes, int delay, SchedulePolicy policy) {
+			this.contract = contract;
+			this.dataTypes = dataTypes;
+			this.delay = delay;
+			this.policy = policy;
+		}
+
+		private CompletableFuture<?> download() {
+			try {
+				CompletableFuture<String> future = UrlDataParser.quoteLineReaderAsync(RequestURLFactory
+						.createStockURL(contract, dataTypes), dataTypes);
+				CompletableFuture<Void> delivery = RequestFactory.onDownloaded(future, line -> {
+					lastLine = line;
+					for (Subscriber subscriber : subscribers) {
+						deliver(subscriber, line);
+					}
+				});
+				return policy.isAdaptive() ? future.thenCombine(delivery, (line, ignored) -> isChanged(line))
+						: delivery;
+			} catch (IOException e) {
+				LOGGER.log(Level.WARNING, "Couldn't download data. " + e.getMessage());
+				return null;
+			}
+		}
+
+		private synchronized boolean isChanged(String line) {
+			boolean changed = !line.equals(comparedLine);
+			comparedLine = line;
+			return changed;
+		}
+
+		/**
+		 * Delivers line to one subscriber. Exception thrown by its receiver is logged, so it doesn't prevent delivery
+		 * to other subscribers, which may belong to other sessions.
+		 */
+		private void deliver(Subscriber subscriber, String line) {
+			if (subscriber.isCancelled()) {
+				return;
+			}
+			try {
+				deliverValues(subscriber, line);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Couldn't deliver data to request " + subscriber.requestID + ". "
+						+ e.getMessage());
+			}
+		}
+
+		private void deliverValues(Subscriber subscriber, String line) {
+			if (dataTypes.length == 1) {
+				RequestFactory.marketDataValue(subscriber.receiver, subscriber.requestID, dataTypes[0], line);
+				return;
+			}
+
+			List<String> values = ParseUtils.splitLine(line);
+			if (values.size() != dataTypes.length) {
+				LOGGER.log(Level.WARNING, "Couldn't parse data, expected " + dataTypes.length + " values but got "
+						+ values.size() + ".");
+				return;
+			}
+			for (int i = 0; i < dataTypes.length; i++) {
+				RequestFactory.marketDataValue(subscriber.receiver, subscriber.requestID, dataTypes[i],
+						values.get(i));
+			}
+		}
+
+	}
+
+	private class Subscriber extends SubscriptionFuture {
+
+		private final DataReceiver receiver;
+		private final int requestID;
+		private final String key;
+
+		private SharedDownload download;
+
+		private Subscriber(DataReceiver receiver, int requestID, String key) {
+			this.receiver = receiver;
+			this.requestID = requestID;
+			this.key = key;
+		}
+
+		@Override
+		protected void unsubscribe() {
+			SubscriptionRegistry.this.unsubscribe(this);
+		}
+
+	}
+
+}
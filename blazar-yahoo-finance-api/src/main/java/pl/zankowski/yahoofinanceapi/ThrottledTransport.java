@@ -0,0 +1,271 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * {@link HttpTransport} decorator limiting rate of requests. Every request has to get token from global
+ * {@link RateLimiter} and from limiter of its {@link YahooEndpoint}, if one has been set. Requests which have to wait
+ * are queued and sent when tokens are available; requests which would exceed max queued requests are dropped and
+ * completed with {@link RequestException}. Queued request checks its limiters again when it becomes due and waits
+ * longer if their rate has been decreased in the meantime.
+ * </p>
+ *
+ * <p>
+ * Responses with HTTP status 429 or 5xx decrease rate of used limiters, successful responses increase it back, so
+ * rate converges to the highest one accepted by server.
+ * </p>
+ *
+ * <p>
+ * Set it with {@link UrlDataParser#setTransport(HttpTransport)} to throttle every request made by the library.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class ThrottledTransport implements HttpTransport {
+
+	private static final int TOO_MANY_REQUESTS = 429;
+
+	private final HttpTransport transport;
+	private final RateLimiter globalLimiter;
+	private final Map<YahooEndpoint, RateLimiter> endpointLimiters = new ConcurrentHashMap<>();
+	private final int maxQueued;
+	private final ScheduledExecutorService scheduler;
+
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong delayed = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong throttled = new AtomicLong();
+
+	/**
+	 * @param transport
+	 *            Transport sending requests.
+	 * @param requestsPerSecond
+	 *            Maximum number of requests per second to all endpoints.
+	 * @param burst
+	 *            Maximum number of requests sent at once after idle time.
+	 * @param maxQueued
+	 *            Maximum number of requests waiting for token.
+	 */
+	public ThrottledTransport(HttpTransport transport, double requestsPerSecond, int burst, int maxQueued) {
+		this(transport, new RateLimiter(requestsPerSecond, burst), maxQueued);
+	}
+
+	public ThrottledTransport(HttpTransport transport, RateLimiter globalLimiter, int maxQueued) {
+		if (transport == null || globalLimiter == null) {
+			throw new IllegalArgumentException("Illegal value. Transport and limiter cannot be null.");
+		}
+		if (maxQueued < 0) {
+			throw new IllegalArgumentException("Illegal value. Max queued requests cannot be negative.");
+		}
+		this.transport = transport;
+		this.globalLimiter = globalLimiter;
+		this.maxQueued = maxQueued;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "yahoo-finance-throttle");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * This method sets additional limit of requests to one endpoint.
+	 *
+	 * @param endpoint
+	 *            Limited endpoint.
+	 * @param requestsPerSecond
+	 *            Maximum number of requests per second to endpoint.
+	 * @param burst
+	 *            Maximum number of requests sent at once to endpoint after idle time.
+	 */
+	public void setEndpointLimit(YahooEndpoint endpoint, double requestsPerSecond, int burst) {
+		if (endpoint == null) {
+			throw new IllegalArgumentException("Illegal value. Endpoint cannot be null.");
+		}
+		endpointLimiters.put(endpoint, new RateLimiter(requestsPerSecond, burst));
+	}
+
+	@Override
+	public CompletableFuture<InputStream> request(URL url) {
+		requests.incrementAndGet();
+		YahooEndpoint endpoint = YahooEndpoint.of(url);
+		RateLimiter endpointLimiter = endpoint == null ? null : endpointLimiters.get(endpoint);
+
+		long globalTicket = globalLimiter.reserve();
+		long endpointTicket = endpointLimiter == null ? 0 : endpointLimiter.reserve();
+		long delay = getDelay(globalTicket, endpointLimiter, endpointTicket);
+		if (delay == 0) {
+			return send(url, endpointLimiter);
+		}
+
+		if (queued.incrementAndGet() > maxQueued) {
+			queued.decrementAndGet();
+			globalLimiter.release();
+			if (endpointLimiter != null) {
+				endpointLimiter.release();
+			}
+			return drop(url);
+		}
+		delayed.incrementAndGet();
+		CompletableFuture<InputStream> future = new CompletableFuture<>();
+		schedule(url, endpointLimiter, globalTicket, endpointTicket, future, delay);
+		return future;
+	}
+
+	private void schedule(URL url, RateLimiter endpointLimiter, long globalTicket, long endpointTicket,
+			CompletableFuture<InputStream> future, long delay) {
+		try {
+			scheduler.schedule(() -> sendQueued(url, endpointLimiter, globalTicket, endpointTicket, future), delay,
+					TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			queued.decrementAndGet();
+			future.completeExceptionally(e);
+		}
+	}
+
+	private void sendQueued(URL url, RateLimiter endpointLimiter, long globalTicket, long endpointTicket,
+			CompletableFuture<InputStream> future) {
+		long delay = getDelay(globalTicket, endpointLimiter, endpointTicket);
+		if (delay > 0) {
+			schedule(url, endpointLimiter, globalTicket, endpointTicket, future, delay);
+			return;
+		}
+		queued.decrementAndGet();
+		send(url, endpointLimiter).whenComplete((input, throwable) -> {
+			if (throwable != null) {
+				future.completeExceptionally(throwable);
+			} else {
+				future.complete(input);
+			}
+		});
+	}
+
+	private long getDelay(long globalTicket, RateLimiter endpointLimiter, long endpointTicket) {
+		long delay = globalLimiter.getDelay(globalTicket);
+		if (endpointLimiter != null) {
+			delay = Math.max(delay, endpointLimiter.getDelay(endpointTicket));
+		}
+		return delay;
+	}
+
+	private CompletableFuture<InputStream> send(URL url, RateLimiter endpointLimiter) {
+		return transport.request(url).whenComplete((input, throwable) -> {
+			if (throwable == null) {
+				globalLimiter.onSuccess();
+				if (endpointLimiter != null) {
+					endpointLimiter.onSuccess();
+				}
+			} else if (isThrottled(UrlDataParser.unwrap(throwable))) {
+				throttled.incrementAndGet();
+				globalLimiter.onThrottled();
+				if (endpointLimiter != null) {
+					endpointLimiter.onThrottled();
+				}
+			}
+		});
+	}
+
+	private CompletableFuture<InputStream> drop(URL url) {
+		dropped.incrementAndGet();
+		CompletableFuture<InputStream> future = new CompletableFuture<>();
+		future.completeExceptionally(new RequestException("Request dropped, too many queued requests. " + url));
+		return future;
+	}
+
+	protected static boolean isThrottled(Throwable throwable) {
+		if (!(throwable instanceof HttpStatusException)) {
+			return false;
+		}
+		int statusCode = ((HttpStatusException) throwable).getStatusCode();
+		return statusCode == TOO_MANY_REQUESTS || statusCode >= 500;
+	}
+
+	/**
+	 * @return Number of requests currently waiting for token.
+	 */
+	public int getQueuedRequests() {
+		return queued.get();
+	}
+
+	/**
+	 * @return Number of all requests passed to transport.
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * @return Number of requests which had to wait for token.
+	 */
+	public long getDelayedRequests() {
+		return delayed.get();
+	}
+
+	/**
+	 * @return Number of requests dropped because of full queue.
+	 */
+	public long getDroppedRequests() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return Number of responses with HTTP status 429 or 5xx.
+	 */
+	public long getThrottledResponses() {
+		return throttled.get();
+	}
+
+	/**
+	 * @return Current rate of global limiter.
+	 */
+	public double getRate() {
+		return globalLimiter.getRate();
+	}
+
+	/**
+	 * @return Current rate of endpoint limiter or NaN if endpoint is not limited.
+	 */
+	public double getRate(YahooEndpoint endpoint) {
+		RateLimiter endpointLimiter = endpointLimiters.get(endpoint);
+		return endpointLimiter == null ? Double.NaN : endpointLimiter.getRate();
+	}
+
+	@Override
+	public void shutdown() {
+		scheduler.shutdown();
+		transport.shutdown();
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.time.LocalTime;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Mutable pair of time and price filled by {@link ParseUtils#tradeWithTimeToTimePrice(String, TimePrice)}. Time is
+ * kept as second of day, so one object can be reused for every parsed value without allocating {@link LocalTime} and
+ * boxed double.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class TimePrice {
+
+	private int secondOfDay;
+	private double price;
+
+	public int getSecondOfDay() {
+		return secondOfDay;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	/**
+	 * @return Time converted to LocalTime object.
+	 */
+	public LocalTime toLocalTime() {
+		return LocalTime.ofSecondOfDay(secondOfDay);
+	}
+
+	protected TimePrice set(int secondOfDay, double price) {
+		this.secondOfDay = secondOfDay;
+		this.price = price;
+		return this;
+	}
+
+}
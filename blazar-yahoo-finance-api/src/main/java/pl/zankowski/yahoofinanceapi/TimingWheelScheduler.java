@@ -0,0 +1,465 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Hashed timing wheel running scheduled tasks of {@link RequestManager}. Wheel is an array of buckets, each covering
+ * one tick, and task is put into bucket of its tick with number of full wheel rotations left, so adding and cancelling
+ * task costs O(1) regardless of number of scheduled tasks. One worker thread wakes up once per tick and runs all tasks
+ * due in it together, so precision of scheduling is one tick.
+ * </p>
+ *
+ * <p>
+ * Periodic tasks are run at fixed rate. To avoid downloads of many subscriptions with the same delay made at the same
+ * moment, every periodic task can be shifted once, after its first run, by random part of its period not greater than
+ * jitter. Task which tracks its own schedule can be given its shift up front instead.
+ * </p>
+ *
+ * <p>
+ * Tasks are run on worker thread, so they should be short - {@link RequestManager} with fetch executor only passes
+ * them to the executor.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class TimingWheelScheduler {
+
+	private final static Logger LOGGER = Logger.getLogger(TimingWheelScheduler.class.getName());
+
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+	private final long tickNanos;
+	private final Bucket[] wheel;
+	private final int mask;
+	private final double jitter;
+	private final long startTime;
+	private final Queue<Timeout> addedTimeouts = new ConcurrentLinkedQueue<>();
+	private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+	private final Thread worker;
+
+	private final AtomicInteger pendingTasks = new AtomicInteger();
+	private final AtomicLong executions = new AtomicLong();
+	private volatile int maxTickBatch;
+
+	private volatile boolean running = true;
+	private long tick;
+
+	/**
+	 * @param tickDuration
+	 *            Duration of one tick in milliseconds.
+	 * @param wheelSize
+	 *            Number of buckets, has to be power of two.
+	 * @param jitter
+	 *            Maximum part of period, from 0 to 1, by which periodic tasks are shifted after the first run.
+	 */
+	public TimingWheelScheduler(long tickDuration, int wheelSize, double jitter) {
+		if (tickDuration < 1) {
+			throw new IllegalArgumentException("Illegal value. Tick duration has to be positive.");
+		}
+		if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+			throw new IllegalArgumentException("Illegal value. Wheel size has to be power of two.");
+		}
+		if (jitter < 0 || jitter > 1) {
+			throw new IllegalArgumentException("Illegal value. Jitter has to be between 0 and 1.");
+		}
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+		this.wheel = new Bucket[wheelSize];
+		for (int i = 0; i < wheelSize; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.mask = wheelSize - 1;
+		this.jitter = jitter;
+		this.startTime = System.nanoTime();
+		this.worker = new Thread(this::work, "yahoo-finance-timing-wheel");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Schedules task run once after delay.
+	 *
+	 * @param task
+	 *            Task to run.
+	 * @param delay
+	 *            Delay in milliseconds.
+	 * @return Future which can be used to cancel task.
+	 */
+	public ScheduledFuture<?> schedule(Runnable task, long delay) {
+		return add(task, delay, 0, 0);
+	}
+
+	/**
+	 * Schedules task run periodically with fixed rate.
+	 *
+	 * @param task
+	 *            Task to run.
+	 * @param initialDelay
+	 *            Delay of the first run in milliseconds.
+	 * @param period
+	 *            Period between runs in milliseconds.
+	 * @return Future which can be used to cancel task.
+	 */
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period) {
+		return scheduleAtFixedRate(task, initialDelay, period, nextShift(period));
+	}
+
+	/**
+	 * Schedules task run periodically with fixed rate, shifted once after the first run by given shift instead of
+	 * random one.
+	 *
+	 * @param task
+	 *            Task to run.
+	 * @param initialDelay
+	 *            Delay of the first run in milliseconds.
+	 * @param period
+	 *            Period between runs in milliseconds.
+	 * @param shift
+	 *            Shift added to delay of the second run in milliseconds, e.g. returned by {@link #nextShift(long)}.
+	 * @return Future which can be used to cancel task.
+	 */
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, long shift) {
+		if (period < 1) {
+			throw new IllegalArgumentException("Illegal value. Period has to be positive.");
+		}
+		if (shift < 0) {
+			throw new IllegalArgumentException("Illegal value. Shift cannot be negative.");
+		}
+		return add(task, initialDelay, period, shift);
+	}
+
+	/**
+	 * @param period
+	 *            Period between runs in milliseconds.
+	 * @return Random shift in milliseconds not greater than jitter part of period.
+	 */
+	public long nextShift(long period) {
+		if (jitter == 0) {
+			return 0;
+		}
+		return (long) (ThreadLocalRandom.current().nextDouble() * jitter * period);
+	}
+
+	/**
+	 * Stops worker thread. Scheduled tasks are not run anymore.
+	 */
+	public void shutdown() {
+		running = false;
+		worker.interrupt();
+	}
+
+	/**
+	 * @return Number of scheduled tasks which are not cancelled or done.
+	 */
+	public int getPendingTasks() {
+		return pendingTasks.get();
+	}
+
+	/**
+	 * @return Number of task runs.
+	 */
+	public long getExecutions() {
+		return executions.get();
+	}
+
+	/**
+	 * @return Highest number of tasks run in one tick.
+	 */
+	public int getMaxTickBatch() {
+		return maxTickBatch;
+	}
+
+	private Timeout add(Runnable task, long delay, long period, long shift) {
+		if (task == null) {
+			throw new IllegalArgumentException("Illegal value. Task cannot be null.");
+		}
+		if (!running) {
+			throw new IllegalStateException("Timing wheel is shut down.");
+		}
+		long deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+		Timeout timeout = new Timeout(task, deadline, TimeUnit.MILLISECONDS.toNanos(period),
+				TimeUnit.MILLISECONDS.toNanos(shift));
+		pendingTasks.incrementAndGet();
+		addedTimeouts.offer(timeout);
+		return timeout;
+	}
+
+	private void work() {
+		while (running) {
+			if (!waitForNextTick()) {
+				return;
+			}
+			removeCancelledTimeouts();
+			transferAddedTimeouts();
+			expireTimeouts(wheel[(int) (tick & mask)]);
+			tick++;
+		}
+	}
+
+	private boolean waitForNextTick() {
+		long deadline = tickNanos * (tick + 1);
+		while (true) {
+			long sleepMillis = (deadline - (System.nanoTime() - startTime) + 999999) / 1000000;
+			if (sleepMillis <= 0) {
+				return true;
+			}
+			try {
+				Thread.sleep(sleepMillis);
+			} catch (InterruptedException e) {
+				if (!running) {
+					return false;
+				}
+			}
+		}
+	}
+
+	private void removeCancelledTimeouts() {
+		Timeout timeout;
+		while ((timeout = cancelledTimeouts.poll()) != null) {
+			if (timeout.bucket != null) {
+				timeout.bucket.remove(timeout);
+			}
+		}
+	}
+
+	private void transferAddedTimeouts() {
+		for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+			Timeout timeout = addedTimeouts.poll();
+			if (timeout == null) {
+				return;
+			}
+			if (timeout.state.get() == Timeout.WAITING) {
+				place(timeout, tick);
+			}
+		}
+	}
+
+	/**
+	 * Puts timeout into bucket of its deadline, or of the first tick to process if deadline has passed.
+	 */
+	private void place(Timeout timeout, long firstTick) {
+		long deadlineTick = Math.max(timeout.deadline / tickNanos, firstTick);
+		timeout.remainingRounds = (deadlineTick - firstTick) / wheel.length;
+		wheel[(int) (deadlineTick & mask)].add(timeout);
+	}
+
+	private void expireTimeouts(Bucket bucket) {
+		List<Timeout> periodicTimeouts = null;
+		int batch = 0;
+		Timeout timeout = bucket.head;
+		while (timeout != null) {
+			Timeout next = timeout.next;
+			if (timeout.remainingRounds > 0) {
+				timeout.remainingRounds--;
+			} else {
+				bucket.remove(timeout);
+				if (timeout.state.get() == Timeout.WAITING) {
+					batch++;
+					run(timeout);
+					if (timeout.period > 0 && timeout.state.get() == Timeout.WAITING) {
+						timeout.deadline += timeout.period + timeout.shift;
+						timeout.shift = 0;
+						if (periodicTimeouts == null) {
+							periodicTimeouts = new ArrayList<>();
+						}
+						periodicTimeouts.add(timeout);
+					} else {
+						timeout.complete();
+					}
+				}
+			}
+			timeout = next;
+		}
+		if (periodicTimeouts != null) {
+			for (Timeout periodicTimeout : periodicTimeouts) {
+				place(periodicTimeout, tick + 1);
+			}
+		}
+		if (batch > maxTickBatch) {
+			maxTickBatch = batch;
+		}
+	}
+
+	private void run(Timeout timeout) {
+		executions.incrementAndGet();
+		try {
+			timeout.task.run();
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Couldn't execute task. " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Doubly linked list of timeouts, modified only by worker thread.
+	 */
+	private static class Bucket {
+
+		private Timeout head;
+		private Timeout tail;
+
+		private void add(Timeout timeout) {
+			timeout.bucket = this;
+			if (head == null) {
+				head = timeout;
+				tail = timeout;
+			} else {
+				tail.next = timeout;
+				timeout.prev = tail;
+				tail = timeout;
+			}
+		}
+
+		private void remove(Timeout timeout) {
+			if (timeout.prev != null) {
+				timeout.prev.next = timeout.next;
+			}
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			}
+			if (timeout == head) {
+				head = timeout.next;
+			}
+			if (timeout == tail) {
+				tail = timeout.prev;
+			}
+			timeout.prev = null;
+			timeout.next = null;
+			timeout.bucket = null;
+		}
+
+	}
+
+	private class Timeout implements ScheduledFuture<Object> {
+
+		private static final int WAITING = 0;
+		private static final int CANCELLED = 1;
+		private static final int DONE = 2;
+
+		private final Runnable task;
+		private final long period;
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+
+		private volatile long deadline;
+		private long remainingRounds;
+		private long shift;
+		private Bucket bucket;
+		private Timeout prev;
+		private Timeout next;
+
+		private Timeout(Runnable task, long deadline, long period, long shift) {
+			this.task = task;
+			this.deadline = deadline;
+			this.period = period;
+			this.shift = shift;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if (!state.compareAndSet(WAITING, CANCELLED)) {
+				return false;
+			}
+			pendingTasks.decrementAndGet();
+			cancelledTimeouts.offer(this);
+			synchronized (this) {
+				notifyAll();
+			}
+			return true;
+		}
+
+		private void complete() {
+			if (state.compareAndSet(WAITING, DONE)) {
+				pendingTasks.decrementAndGet();
+				synchronized (this) {
+					notifyAll();
+				}
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return state.get() == CANCELLED;
+		}
+
+		@Override
+		public boolean isDone() {
+			return state.get() != WAITING;
+		}
+
+		@Override
+		public Object get() throws InterruptedException {
+			synchronized (this) {
+				while (state.get() == WAITING) {
+					wait();
+				}
+			}
+			if (isCancelled()) {
+				throw new CancellationException();
+			}
+			return null;
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+			long end = System.nanoTime() + unit.toNanos(timeout);
+			synchronized (this) {
+				while (state.get() == WAITING) {
+					long remaining = end - System.nanoTime();
+					if (remaining <= 0) {
+						throw new TimeoutException();
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+			}
+			if (isCancelled()) {
+				throw new CancellationException();
+			}
+			return null;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(deadline - (System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+
+	}
+
+}
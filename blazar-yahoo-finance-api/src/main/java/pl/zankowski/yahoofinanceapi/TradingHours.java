@@ -0,0 +1,166 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * This class holds trading hours of exchange. Exchange is open on trading days from open time (inclusive) to close
+ * time (exclusive) of its time zone, except for holidays.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class TradingHours {
+
+	/**
+	 * Days from Monday to Friday.
+	 */
+	public static final Set<DayOfWeek> WEEKDAYS = Collections.unmodifiableSet(EnumSet.range(DayOfWeek.MONDAY,
+			DayOfWeek.FRIDAY));
+
+	private static final int MAX_CLOSED_DAYS = 31;
+
+	private final ZoneId zone;
+	private final LocalTime open;
+	private final LocalTime close;
+	private final Set<DayOfWeek> tradingDays;
+	private final Set<LocalDate> holidays;
+
+	public TradingHours(ZoneId zone, LocalTime open, LocalTime close) {
+		this(zone, open, close, WEEKDAYS, Collections.emptySet());
+	}
+
+	public TradingHours(ZoneId zone, LocalTime open, LocalTime close, Set<DayOfWeek> tradingDays,
+			Collection<LocalDate> holidays) {
+		if (zone == null || open == null || close == null || tradingDays == null || holidays == null) {
+			throw new IllegalArgumentException("Illegal argument value. Trading hours values cannot be null.");
+		}
+		if (!open.isBefore(close)) {
+			throw new IllegalArgumentException("Illegal value. Open time has to be before close time.");
+		}
+		if (tradingDays.isEmpty()) {
+			throw new IllegalArgumentException("Illegal value. Trading days cannot be empty.");
+		}
+		this.zone = zone;
+		this.open = open;
+		this.close = close;
+		this.tradingDays = Collections.unmodifiableSet(EnumSet.copyOf(tradingDays));
+		this.holidays = Collections.unmodifiableSet(new HashSet<>(holidays));
+	}
+
+	/**
+	 * @param holidays
+	 *            Additional holidays.
+	 * @return Trading hours with the same session and given holidays added.
+	 */
+	public TradingHours withHolidays(Collection<LocalDate> holidays) {
+		Set<LocalDate> allHolidays = new HashSet<>(this.holidays);
+		allHolidays.addAll(holidays);
+		return new TradingHours(zone, open, close, tradingDays, allHolidays);
+	}
+
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	public LocalTime getOpen() {
+		return open;
+	}
+
+	public LocalTime getClose() {
+		return close;
+	}
+
+	public Set<DayOfWeek> getTradingDays() {
+		return tradingDays;
+	}
+
+	public Set<LocalDate> getHolidays() {
+		return holidays;
+	}
+
+	public boolean isTradingDay(LocalDate date) {
+		return tradingDays.contains(date.getDayOfWeek()) && !holidays.contains(date);
+	}
+
+	/**
+	 * @param epochMillis
+	 *            Checked time in milliseconds since epoch.
+	 * @return True if exchange is open at given time.
+	 */
+	public boolean isOpen(long epochMillis) {
+		ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(zone);
+		LocalTime localTime = time.toLocalTime();
+		return isTradingDay(time.toLocalDate()) && !localTime.isBefore(open) && localTime.isBefore(close);
+	}
+
+	/**
+	 * @param epochMillis
+	 *            Checked time in milliseconds since epoch.
+	 * @return Time in milliseconds since epoch of the last close before or at given time or {@link Long#MIN_VALUE} if
+	 *         there was no trading day in previous month.
+	 */
+	public long getLastClose(long epochMillis) {
+		LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+		for (int i = 0; i <= MAX_CLOSED_DAYS; i++, date = date.minusDays(1)) {
+			if (isTradingDay(date)) {
+				long closeMillis = date.atTime(close).atZone(zone).toInstant().toEpochMilli();
+				if (closeMillis <= epochMillis) {
+					return closeMillis;
+				}
+			}
+		}
+		return Long.MIN_VALUE;
+	}
+
+	/**
+	 * @param epochMillis
+	 *            Checked time in milliseconds since epoch.
+	 * @return Time in milliseconds since epoch of the next open after given time or {@link Long#MAX_VALUE} if there
+	 *         is no trading day in next month.
+	 */
+	public long getNextOpen(long epochMillis) {
+		LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+		for (int i = 0; i <= MAX_CLOSED_DAYS; i++, date = date.plusDays(1)) {
+			if (isTradingDay(date)) {
+				long openMillis = date.atTime(open).atZone(zone).toInstant().toEpochMilli();
+				if (openMillis > epochMillis) {
+					return openMillis;
+				}
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+}
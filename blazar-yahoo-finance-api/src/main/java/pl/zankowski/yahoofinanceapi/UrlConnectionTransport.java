@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * {@link HttpTransport} implementation based on {@link URLConnection}. Every request blocks one of transport threads
+ * until response headers are received, so number of requests in flight is limited by number of threads. Connections
+ * are kept alive and reused by {@link HttpURLConnection} when response body is fully read and closed.
+ * </p>
+ *
+ * <p>
+ * This transport is used by {@link NioHttpTransport} for protocols other than HTTP and for requests routed through
+ * proxy.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class UrlConnectionTransport implements HttpTransport {
+
+	private final ExecutorService executor;
+	private final int connectTimeout;
+	private final int readTimeout;
+
+	/**
+	 * Public constructor.
+	 *
+	 * @param threads
+	 *            number of threads executing requests
+	 * @param connectTimeout
+	 *            connect timeout in milliseconds, 0 means infinite timeout
+	 * @param readTimeout
+	 *            read timeout in milliseconds, 0 means infinite timeout
+	 */
+	public UrlConnectionTransport(int threads, int connectTimeout, int readTimeout) {
+		this(Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "yahoo-finance-url-connection");
+			thread.setDaemon(true);
+			return thread;
+		}), connectTimeout, readTimeout);
+	}
+
+	/**
+	 * Public constructor. Executor is shut down together with transport. With executor from
+	 * {@link VirtualThreads#newExecutor()} every blocking request occupies only one virtual thread.
+	 *
+	 * @param executor
+	 *            executor running requests
+	 * @param connectTimeout
+	 *            connect timeout in milliseconds, 0 means infinite timeout
+	 * @param readTimeout
+	 *            read timeout in milliseconds, 0 means infinite timeout
+	 */
+	public UrlConnectionTransport(ExecutorService executor, int connectTimeout, int readTimeout) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Illegal value. Executor cannot be null.");
+		}
+		if (connectTimeout < 0 || readTimeout < 0) {
+			throw new IllegalArgumentException("Illegal value. Timeout cannot be negative.");
+		}
+		this.executor = executor;
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+	}
+
+	@Override
+	public CompletableFuture<InputStream> request(URL url) {
+		CompletableFuture<InputStream> future = new CompletableFuture<>();
+		try {
+			executor.execute(() -> {
+				try {
+					future.complete(openStream(url));
+				} catch (IOException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	protected InputStream openStream(URL url) throws IOException {
+		URLConnection connection = url.openConnection();
+		connection.setConnectTimeout(connectTimeout);
+		connection.setReadTimeout(readTimeout);
+		connection.setRequestProperty("Connection", "keep-alive");
+
+		if (connection instanceof HttpURLConnection) {
+			HttpURLConnection httpConnection = (HttpURLConnection) connection;
+			int statusCode = httpConnection.getResponseCode();
+			if (statusCode / 100 != 2) {
+				InputStream errorStream = httpConnection.getErrorStream();
+				if (errorStream != null) {
+					errorStream.close();
+				}
+				throw new HttpStatusException(statusCode, "Server returned HTTP response code: " + statusCode
+						+ " for URL: " + url);
+			}
+		}
+
+		return connection.getInputStream();
+	}
+
+	@Override
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+}
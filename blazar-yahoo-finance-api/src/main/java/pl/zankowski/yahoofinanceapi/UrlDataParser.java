@@ -22,16 +22,31 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
+ * <p>
  * Date: 25.08.2015
+ * </p>
+ *
+ * <p>
+ * This class downloads data from Yahoo Finance API with configured {@link HttpTransport}. Every request has
+ * asynchronous variant that doesn't block calling thread. Downloaded data is parsed and delivered on delivery
+ * executor, not on threads of transport - see {@link #setDeliveryExecutor(Executor)}.
+ * </p>
  *
  * @author Wojciech Zankowski
  */
@@ -39,24 +54,225 @@ public class UrlDataParser {
 
 	private final static Logger LOGGER = Logger.getLogger(UrlDataParser.class.getName());
 
+	private static volatile HttpTransport transport;
+
+	private static volatile QuoteCache quoteCache;
+
+	private static volatile Executor deliveryExecutor;
+
+	/**
+	 * This method sets transport used for every request made by the library. Previously used transport is not shut
+	 * down.
+	 *
+	 * @param transport
+	 *            {@link HttpTransport} implementation.
+	 */
+	public static void setTransport(HttpTransport transport) {
+		if (transport == null) {
+			throw new IllegalArgumentException("Illegal value. Transport cannot be null.");
+		}
+		UrlDataParser.transport = transport;
+	}
+
+	/**
+	 * This method returns transport used for every request made by the library. If no transport has been set then
+	 * {@link NioHttpTransport} with default settings is created.
+	 *
+	 * @return Used {@link HttpTransport}.
+	 */
+	public static HttpTransport getTransport() {
+		HttpTransport currentTransport = transport;
+		if (currentTransport == null) {
+			synchronized (UrlDataParser.class) {
+				if (transport == null) {
+					transport = new NioHttpTransport();
+				}
+				currentTransport = transport;
+			}
+		}
+		return currentTransport;
+	}
+
+	/**
+	 * This method sets cache of market data and custom data requests. By default responses are not cached.
+	 *
+	 * @param quoteCache
+	 *            {@link QuoteCache} or null to disable caching.
+	 */
+	public static void setQuoteCache(QuoteCache quoteCache) {
+		UrlDataParser.quoteCache = quoteCache;
+	}
+
+	public static QuoteCache getQuoteCache() {
+		return quoteCache;
+	}
+
+	/**
+	 * This method sets executor parsing downloaded data and calling {@link DataReceiver}, so slow receiver doesn't
+	 * stall I/O threads of {@link HttpTransport}. Previously used executor is not shut down.
+	 *
+	 * @param deliveryExecutor
+	 *            Executor of delivery, e.g. fetch executor of {@link RequestManager}.
+	 */
+	public static void setDeliveryExecutor(Executor deliveryExecutor) {
+		if (deliveryExecutor == null) {
+			throw new IllegalArgumentException("Illegal value. Delivery executor cannot be null.");
+		}
+		UrlDataParser.deliveryExecutor = deliveryExecutor;
+	}
+
+	/**
+	 * This method returns executor of delivery. If no executor has been set then cached pool of daemon threads is
+	 * created.
+	 *
+	 * @return Used delivery executor.
+	 */
+	public static Executor getDeliveryExecutor() {
+		Executor currentExecutor = deliveryExecutor;
+		if (currentExecutor == null) {
+			synchronized (UrlDataParser.class) {
+				if (deliveryExecutor == null) {
+					AtomicInteger threadCounter = new AtomicInteger();
+					deliveryExecutor = Executors.newCachedThreadPool(runnable -> {
+						Thread thread = new Thread(runnable, "yahoo-finance-delivery-"
+								+ threadCounter.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+				currentExecutor = deliveryExecutor;
+			}
+		}
+		return currentExecutor;
+	}
+
 	protected static String oneLineReader(URL url) throws IOException, ValidationException {
-		List<String> lines = manyLinesReader(url);
+		try {
+			return oneLineReaderAsync(url).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for data.");
+		} catch (ExecutionException e) {
+			Throwable cause = unwrap(e);
+			if (cause instanceof ValidationException) {
+				throw (ValidationException) cause;
+			}
+			throw toIOException(cause);
+		}
+	}
+
+	protected static CompletableFuture<String> oneLineReaderAsync(URL url) {
+		return oneLine(manyLinesReaderAsync(url));
+	}
+
+	/**
+	 * This method downloads quotes.csv response of given data types through {@link QuoteCache}, if one is set.
+	 *
+	 * @param url
+	 *            Request URL.
+	 * @param dataTypes
+	 *            Requested data types, if empty then default TTL of cache is used.
+	 * @return Future of response line.
+	 */
+	protected static CompletableFuture<String> quoteLineReaderAsync(URL url, DataType... dataTypes) {
+		return oneLine(quoteLinesReaderAsync(url, dataTypes));
+	}
 
-		if (lines.size() > 1) {
-			throw new ValidationException("More than one line.");
+	protected static CompletableFuture<List<String>> quoteLinesReaderAsync(URL url, DataType... dataTypes) {
+		QuoteCache currentQuoteCache = quoteCache;
+		if (currentQuoteCache == null) {
+			return manyLinesReaderAsync(url);
 		}
+		return currentQuoteCache.get(url, dataTypes, UrlDataParser::manyLinesReaderAsync);
+	}
 
-		return lines.get(0);
+	private static CompletableFuture<String> oneLine(CompletableFuture<List<String>> future) {
+		return future.thenApply(lines -> {
+			if (lines.isEmpty()) {
+				throw new CompletionException(new ValidationException("Empty response."));
+			}
+			if (lines.size() > 1) {
+				throw new CompletionException(new ValidationException("More than one line."));
+			}
+			return lines.get(0);
+		});
 	}
 
 	protected static List<String> manyLinesReader(URL url) throws IOException {
-		URLConnection connection = url.openConnection();
+		try {
+			return manyLinesReaderAsync(url).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for data.");
+		} catch (ExecutionException e) {
+			throw toIOException(unwrap(e));
+		}
+	}
+
+	/**
+	 * This method downloads all lines of response. Body is read on delivery executor, because transport may stream it
+	 * from its I/O threads, which cannot be blocked by reading.
+	 *
+	 * @param url
+	 *            Request URL.
+	 * @return Future of response lines.
+	 */
+	protected static CompletableFuture<List<String>> manyLinesReaderAsync(URL url) {
+		return getTransport().request(url).thenApplyAsync(input -> {
+			try {
+				return readLines(input);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, getDeliveryExecutor());
+	}
+
+	protected static BufferedReader historicalDataStream(URL url) throws IOException {
+		return new BufferedReader(new InputStreamReader(dataStream(url), StandardCharsets.UTF_8));
+	}
+
+	protected static InputStream dataStream(URL url) throws IOException {
+		try {
+			return getTransport().request(url).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for data.");
+		} catch (ExecutionException e) {
+			throw toIOException(unwrap(e));
+		}
+	}
+
+	/**
+	 * This method unwraps exception thrown by asynchronous request to its original cause.
+	 *
+	 * @param throwable
+	 *            Exception thrown by future of request.
+	 * @return Original cause of exception.
+	 */
+	protected static Throwable unwrap(Throwable throwable) {
+		Throwable cause = throwable;
+		while ((cause instanceof ExecutionException || cause instanceof CompletionException
+				|| cause instanceof UncheckedIOException) && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		return cause;
+	}
+
+	private static IOException toIOException(Throwable cause) {
+		if (cause instanceof IOException) {
+			return (IOException) cause;
+		}
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		return new IOException(cause);
+	}
+
+	private static List<String> readLines(InputStream input) throws IOException {
 		List<String> lines = new ArrayList<>();
-		InputStream input = null;
 		BufferedReader br = null;
 
 		try {
-			input = connection.getInputStream();
 			br = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
 
 			String line;
@@ -64,30 +280,22 @@ public class UrlDataParser {
 				lines.add(line);
 			}
 		} finally {
-			if (input != null) {
-				try {
-					input.close();
-				} catch (IOException e) {
-					LOGGER.log(Level.WARNING, "Couldn't close input stream. " + e.getMessage());
-				}
-			}
 			if (br != null) {
 				try {
 					br.close();
 				} catch (IOException e) {
 					LOGGER.log(Level.WARNING, "Couldn't close Buffered Reader. " + e.getMessage());
 				}
+			} else {
+				try {
+					input.close();
+				} catch (IOException e) {
+					LOGGER.log(Level.WARNING, "Couldn't close input stream. " + e.getMessage());
+				}
 			}
 		}
 
 		return lines;
 	}
 
-	protected static BufferedReader historicalDataStream(URL url) throws IOException {
-		URLConnection connection = url.openConnection();
-
-		InputStream input = connection.getInputStream();
-		return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
-	}
-
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * This class provides executor starting new virtual thread for every task. Library is compiled for Java 8, so virtual
+ * threads are looked up at runtime and used only when JVM supports them (Java 21 and newer). On older JVMs cached
+ * thread pool with daemon threads is used instead.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public class VirtualThreads {
+
+	private final static Logger LOGGER = Logger.getLogger(VirtualThreads.class.getName());
+
+	private static final Method VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+	/**
+	 * This method verificates if running JVM supports virtual threads.
+	 *
+	 * @return Result of verification.
+	 */
+	public static boolean isSupported() {
+		return VIRTUAL_THREAD_EXECUTOR != null;
+	}
+
+	/**
+	 * This method creates executor starting new virtual thread for every task or cached thread pool if virtual threads
+	 * are not supported.
+	 *
+	 * @return Created executor.
+	 */
+	public static ExecutorService newExecutor() {
+		if (VIRTUAL_THREAD_EXECUTOR != null) {
+			try {
+				return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invoke(null);
+			} catch (ReflectiveOperationException e) {
+				LOGGER.log(Level.WARNING, "Couldn't create virtual thread executor. " + e.getMessage());
+			}
+		}
+		return Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "yahoo-finance-fetch");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private static Method findVirtualThreadExecutor() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+}
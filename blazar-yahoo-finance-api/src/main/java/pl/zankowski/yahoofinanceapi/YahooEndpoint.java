@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 Wojciech Zankowski
+ *
+ * http://www.zankowski.pl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pl.zankowski.yahoofinanceapi;
+
+import java.net.URL;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * This enum class provides endpoints of Yahoo Finance API used by the library. Endpoint of request is recognized by
+ * path of URL, so it doesn't depend on base URLs set in {@link RequestURLFactory}.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+public enum YahooEndpoint {
+
+	QUOTES("/d/quotes.csv"),
+	CHARTAPI("/instrument/"),
+	ICHART("/table.csv");
+
+	private final String path;
+
+	YahooEndpoint(String path) {
+		this.path = path;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * This method recognizes endpoint of request URL.
+	 *
+	 * @param url
+	 *            Request URL.
+	 * @return Endpoint of request or null if URL doesn't point to any known endpoint.
+	 */
+	public static YahooEndpoint of(URL url) {
+		String urlPath = url.getPath();
+		for (YahooEndpoint endpoint : values()) {
+			if (urlPath.contains(endpoint.path)) {
+				return endpoint;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,171 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class BulkHistoricalDownloadTest {
+
+	private static final String DATA = "Date,Open,High,Low,Close,Volume,Adj Close\n"
+			+ "2015-09-25,627.03,631.11,617.82,618.27,5295304,618.27\n"
+			+ "2015-09-24,621.94,629.67,620.60,624.00,1520977,624.00\n";
+
+	private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final RecordingDataReceiver receiver = new RecordingDataReceiver();
+
+	private HttpTransport previousTransport;
+
+	@Before
+	public void setUp() {
+		previousTransport = UrlDataParser.getTransport();
+		UrlDataParser.setTransport(new HttpTransport() {
+
+			@Override
+			public CompletableFuture<InputStream> request(URL url) {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				CompletableFuture<InputStream> future = new CompletableFuture<>();
+				executor.schedule(() -> {
+					inFlight.decrementAndGet();
+					if (url.toString().contains("FAIL")) {
+						future.completeExceptionally(new HttpStatusException(404, "Not found"));
+					} else {
+						future.complete(new ByteArrayInputStream(DATA.getBytes(StandardCharsets.UTF_8)));
+					}
+				}, 20, TimeUnit.MILLISECONDS);
+				return future;
+			}
+
+			@Override
+			public void shutdown() {
+			}
+
+		});
+	}
+
+	@After
+	public void tearDown() {
+		UrlDataParser.setTransport(previousTransport);
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testBoundedConcurrency() throws Exception {
+		List<Contract> contracts = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			contracts.add(new Contract(YahooExchange.NASDAQ.getCode(), i == 3 ? "FAIL" : "S" + i));
+		}
+		List<BulkDownloadReport.SymbolResult> completed = new ArrayList<>();
+		BulkDownloadReport report = new BulkHistoricalDownload(receiver, 100, contracts,
+				LocalDate.of(2015, 9, 24), LocalDate.of(2015, 9, 25), TimePeriod.Daily, 3, 0, result -> {
+					synchronized (completed) {
+						completed.add(result);
+					}
+				}).start().get(5, TimeUnit.SECONDS);
+
+		assertEquals(10, completed.size());
+		assertEquals(3, maxInFlight.get());
+		assertEquals(9, report.getSucceeded());
+		assertEquals(1, report.getFailed());
+		assertEquals(18, report.getRows());
+		assertFalse(report.getResults().get(3).isSuccessful());
+		assertTrue(report.getResults().get(3).getError() instanceof HttpStatusException);
+		assertEquals(2, receiver.getEventCount("100"));
+		assertEquals(2, receiver.getEventCount("109"));
+		assertEquals(0, receiver.getEventCount("103"));
+	}
+
+	@Test
+	public void testRateLimit() throws Exception {
+		List<Contract> contracts = Arrays.asList(new Contract(YahooExchange.NASDAQ.getCode(), "GOOG"),
+				new Contract(YahooExchange.NASDAQ.getCode(), "AAPL"),
+				new Contract(YahooExchange.NASDAQ.getCode(), "MSFT"));
+		BulkDownloadReport report = new BulkHistoricalDownload(receiver, 0, contracts,
+				LocalDate.of(2015, 9, 24), LocalDate.of(2015, 9, 25), TimePeriod.Daily, 3, 10, null)
+				.start().get(5, TimeUnit.SECONDS);
+
+		assertEquals(3, report.getSucceeded());
+		assertTrue(report.getElapsedMillis() >= 200);
+	}
+
+	@Test
+	public void testParsedOnOwnThreads() throws Exception {
+		List<String> threads = new CopyOnWriteArrayList<>();
+		RecordingDataReceiver threadReceiver = new RecordingDataReceiver() {
+
+			@Override
+			protected void record(String event) {
+				threads.add(Thread.currentThread().getName());
+				super.record(event);
+			}
+
+		};
+		List<Contract> contracts = Arrays.asList(new Contract(YahooExchange.NASDAQ.getCode(), "GOOG"),
+				new Contract(YahooExchange.NASDAQ.getCode(), "AAPL"));
+		new BulkHistoricalDownload(threadReceiver, 0, contracts, LocalDate.of(2015, 9, 24), LocalDate.of(2015, 9, 25),
+				TimePeriod.Daily, 2, 0, null).start().get(5, TimeUnit.SECONDS);
+
+		assertEquals(4, threads.size());
+		for (String thread : threads) {
+			assertTrue(thread.startsWith("yahoo-finance-bulk-parser-"));
+		}
+	}
+
+	@Test
+	public void testFailingTransport() throws Exception {
+		UrlDataParser.setTransport(new HttpTransport() {
+
+			@Override
+			public CompletableFuture<InputStream> request(URL url) {
+				if (url.toString().contains("THROW")) {
+					throw new IllegalStateException("Transport has been shut down.");
+				}
+				CompletableFuture<InputStream> future = new CompletableFuture<>();
+				future.completeExceptionally(new HttpStatusException(404, "Not found"));
+				return future;
+			}
+
+			@Override
+			public void shutdown() {
+			}
+
+		});
+		List<Contract> contracts = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			contracts.add(new Contract(YahooExchange.NASDAQ.getCode(), i == 5 ? "THROW" : "FAIL" + i));
+		}
+		BulkDownloadReport report = new BulkHistoricalDownload(receiver, 0, contracts, LocalDate.of(2015, 9, 24),
+				LocalDate.of(2015, 9, 25), TimePeriod.Daily, 1, 0, null).start().get(10, TimeUnit.SECONDS);
+
+		assertEquals(20000, report.getFailed());
+		assertTrue(report.getResults().get(5).getError() instanceof IllegalStateException);
+		assertTrue(report.getResults().get(6).getError() instanceof HttpStatusException);
+	}
+
+}
@@ -0,0 +1,120 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class ChangeFilterDataReceiverTest {
+
+	@Test
+	public void testUnchangedValuesSuppressed() {
+		RecordingDataReceiver recordingReceiver = new RecordingDataReceiver();
+		ChangeFilterDataReceiver receiver = new ChangeFilterDataReceiver(recordingReceiver);
+		receiver.onDoubleReceived(1, DataType.ASK, 629.25);
+		receiver.onDoubleReceived(1, DataType.ASK, 629.25);
+		receiver.onDoubleReceived(1, DataType.BID, 629.25);
+		receiver.onDoubleReceived(2, DataType.ASK, 629.25);
+		receiver.onDoubleReceived(1, DataType.ASK, 629.5);
+		receiver.onSizeReceived(1, DataType.VOLUME, 100);
+		receiver.onSizeReceived(1, DataType.VOLUME, 100);
+		receiver.onStringReceived(1, DataType.NAME, "Google Inc.");
+		receiver.onStringReceived(1, DataType.NAME, "Google Inc.");
+		receiver.onForexReceived(3, 1000, 1.1);
+		receiver.onForexReceived(3, 2000, 1.1);
+
+		assertEquals(7, recordingReceiver.getEvents().size());
+		assertEquals("1 ASK 629.5", recordingReceiver.getEvents().get(3));
+		assertEquals(7, receiver.getDelivered());
+		assertEquals(4, receiver.getSuppressed());
+		assertEquals(6, receiver.getSize());
+	}
+
+	@Test
+	public void testEpsilon() {
+		RecordingDataReceiver recordingReceiver = new RecordingDataReceiver();
+		ChangeFilterDataReceiver receiver = new ChangeFilterDataReceiver(recordingReceiver, 0.05, 0);
+		receiver.onDoubleReceived(1, DataType.ASK, 10.0);
+		receiver.onDoubleReceived(1, DataType.ASK, 10.04);
+		receiver.onDoubleReceived(1, DataType.ASK, 10.08);
+		receiver.onDoubleReceived(1, DataType.ASK, Double.NaN);
+		receiver.onDoubleReceived(1, DataType.ASK, Double.NaN);
+
+		assertEquals(3, recordingReceiver.getEvents().size());
+		assertEquals("1 ASK 10.08", recordingReceiver.getEvents().get(1));
+	}
+
+	@Test
+	public void testHeartbeat() throws Exception {
+		RecordingDataReceiver recordingReceiver = new RecordingDataReceiver();
+		ChangeFilterDataReceiver receiver = new ChangeFilterDataReceiver(recordingReceiver, 0, 50);
+		receiver.onDoubleReceived(1, DataType.ASK, 10.0);
+		receiver.onDoubleReceived(1, DataType.ASK, 10.0);
+		Thread.sleep(60);
+		receiver.onDoubleReceived(1, DataType.ASK, 10.0);
+
+		assertEquals(2, recordingReceiver.getEvents().size());
+	}
+
+	@Test
+	public void testResetAndResize() {
+		RecordingDataReceiver recordingReceiver = new RecordingDataReceiver();
+		ChangeFilterDataReceiver receiver = new ChangeFilterDataReceiver(recordingReceiver);
+		for (int requestID = -500; requestID < 500; requestID++) {
+			receiver.onDoubleReceived(requestID, DataType.ASK, requestID);
+		}
+		assertEquals(1000, receiver.getSize());
+
+		receiver.reset(-1);
+		assertEquals(999, receiver.getSize());
+		for (int requestID = -500; requestID < 500; requestID++) {
+			receiver.onDoubleReceived(requestID, DataType.ASK, requestID);
+		}
+		assertEquals(1001, recordingReceiver.getEvents().size());
+		assertEquals("-1 ASK -1.0", recordingReceiver.getEvents().get(1000));
+	}
+
+	@Test
+	public void testConcurrentValuesDeliveredInOrder() throws Exception {
+		RecordingDataReceiver recordingReceiver = new RecordingDataReceiver();
+		ChangeFilterDataReceiver receiver = new ChangeFilterDataReceiver(recordingReceiver);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < 20000; j++) {
+					receiver.onDoubleReceived(1, DataType.ASK, ThreadLocalRandom.current().nextInt(2));
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// every delivered value differs from the previous one received by wrapped receiver
+		List<String> events = recordingReceiver.getEvents();
+		assertEquals(receiver.getDelivered(), events.size());
+		for (int i = 1; i < events.size(); i++) {
+			assertNotEquals(events.get(i - 1), events.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class ConflatingDataReceiverTest {
+
+	@Test
+	public void testLatestValueDelivered() throws Exception {
+		RecordingDataReceiver slowReceiver = new RecordingDataReceiver(1);
+		ConflatingDataReceiver receiver = new ConflatingDataReceiver(slowReceiver);
+		for (int i = 0; i < 1000; i++) {
+			receiver.onDoubleReceived(1, DataType.ASK, i);
+			receiver.onDoubleReceived(1, DataType.BID, -i);
+			receiver.onSizeReceived(2, DataType.VOLUME, i);
+		}
+		receiver.close();
+
+		assertEquals("1 ASK 999.0", slowReceiver.getLastEvent("1 ASK"));
+		assertEquals("1 BID -999.0", slowReceiver.getLastEvent("1 BID"));
+		assertEquals("2 VOLUME 999", slowReceiver.getLastEvent("2 VOLUME"));
+		assertEquals(3, receiver.getSlotCount());
+		assertEquals(3000, receiver.getReceived());
+		assertTrue(receiver.getDelivered() < 3000);
+		assertEquals(receiver.getReceived(), receiver.getDelivered() + receiver.getConflated());
+		assertEquals(receiver.getDelivered(), slowReceiver.getEvents().size());
+	}
+
+	@Test
+	public void testConflatedRequests() throws Exception {
+		RecordingDataReceiver slowReceiver = new RecordingDataReceiver(1);
+		ConflatingDataReceiver receiver = new ConflatingDataReceiver(slowReceiver, false);
+		receiver.setConflated(2, true);
+		for (int i = 0; i < 100; i++) {
+			receiver.onDoubleReceived(1, DataType.ASK, i);
+			receiver.onForexReceived(2, i, i * 0.1);
+		}
+		assertEquals(100, receiver.getReceived());
+		receiver.close();
+		assertEquals("2 FOREX 99 9.9", slowReceiver.getLastEvent("2 FOREX"));
+		assertTrue(slowReceiver.getEvents().size() >= 101);
+	}
+
+	@Test
+	public void testValuesAfterCloseDontOvertakeOlderOnes() throws Exception {
+		CountDownLatch delivering = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingDataReceiver blockedReceiver = new RecordingDataReceiver() {
+
+			@Override
+			protected void record(String event) {
+				if (event.equals("1 ASK 0.0")) {
+					delivering.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				super.record(event);
+			}
+
+		};
+		ConflatingDataReceiver receiver = new ConflatingDataReceiver(blockedReceiver);
+		receiver.onDoubleReceived(1, DataType.ASK, 0);
+		delivering.await();
+		receiver.onDoubleReceived(1, DataType.ASK, 1);
+
+		Thread closer = new Thread(() -> {
+			try {
+				receiver.close();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		closer.start();
+		while (closer.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+		receiver.onDoubleReceived(1, DataType.ASK, 2);
+		release.countDown();
+		closer.join();
+
+		assertEquals(Arrays.asList("1 ASK 0.0", "1 ASK 1.0"), blockedReceiver.getEvents());
+		assertEquals(1, receiver.getDropped());
+	}
+
+}
@@ -0,0 +1,179 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class CsvTokenizerTest {
+
+	private static final String HISTORICAL_DATA = "Date,Open,High,Low,Close,Volume,Adj Close\n"
+			+ "2015-09-25,43.75,44.349998,43.00,43.43,9120000,43.43\n"
+			+ "2015-09-24,43.279999,43.73,42.580002,43.450001,12025100,43.450001\n";
+
+	@Test
+	public void testHistoricalData() throws IOException {
+		testHistoricalData(HISTORICAL_DATA, 8192);
+	}
+
+	@Test
+	public void testHistoricalDataWithSmallBuffer() throws IOException {
+		testHistoricalData(HISTORICAL_DATA, 1);
+	}
+
+	@Test
+	public void testHistoricalDataWithWindowsLineEndings() throws IOException {
+		testHistoricalData(HISTORICAL_DATA.replace("\n", "\r\n"), 3);
+	}
+
+	@Test
+	public void testWindowsLineEndingsInChunks() throws IOException {
+		CsvTokenizer tokenizer = new CsvTokenizer(new ChunkedInputStream("1.5\r\n2.5\r\n", 1), 4);
+		assertTrue(tokenizer.nextLine());
+		assertEquals(1.5, tokenizer.nextDouble(), 0);
+		assertTrue(tokenizer.nextLine());
+		assertEquals(2.5, tokenizer.nextDouble(), 0);
+		assertFalse(tokenizer.nextLine());
+
+		StringBuilder data = new StringBuilder("Date,Open,High,Low,Close,Volume,Adj Close\r\n");
+		for (int i = 0; i < 5000; i++) {
+			data.append("2015-09-25,").append(i).append(".25,44.349998,43.00,").append(i).append(".5,")
+					.append(i).append(",43.43\r\n");
+		}
+		for (int chunkSize : new int[] { 1, 7, 1460 }) {
+			tokenizer = new CsvTokenizer(new ChunkedInputStream(data.toString(), chunkSize));
+			tokenizer.skipLines(1);
+			for (int i = 0; i < 5000; i++) {
+				assertTrue(tokenizer.nextLine());
+				tokenizer.skipField();
+				assertEquals(i + 0.25, tokenizer.nextDouble(), 0);
+				tokenizer.skipField();
+				tokenizer.skipField();
+				assertEquals(i + 0.5, tokenizer.nextDouble(), 0);
+				assertEquals(i, tokenizer.nextInt());
+				assertEquals("43.43", tokenizer.nextString());
+			}
+			assertFalse(tokenizer.nextLine());
+		}
+	}
+
+	private void testHistoricalData(String data, int bufferSize) throws IOException {
+		CsvTokenizer tokenizer = tokenizer(data, bufferSize);
+		tokenizer.skipLines(1);
+
+		assertTrue(tokenizer.nextLine());
+		assertEquals(LocalDate.of(2015, 9, 25), LocalDate.ofEpochDay(tokenizer.nextEpochDay()));
+		assertEquals(43.75, tokenizer.nextDouble(), 0);
+		assertEquals(44.349998, tokenizer.nextDouble(), 0);
+		assertEquals(43.00, tokenizer.nextDouble(), 0);
+		assertEquals(43.43, tokenizer.nextDouble(), 0);
+		assertEquals(9120000, tokenizer.nextInt());
+		assertEquals("43.43", tokenizer.nextString());
+		assertTrue(tokenizer.isEndOfLine());
+
+		assertTrue(tokenizer.nextLine());
+		assertEquals(LocalDate.of(2015, 9, 24), LocalDate.ofEpochDay(tokenizer.nextEpochDay()));
+		tokenizer.skipField();
+		assertEquals(43.73, tokenizer.nextDouble(), 0);
+		assertFalse(tokenizer.isEndOfLine());
+
+		assertFalse(tokenizer.nextLine());
+	}
+
+	@Test
+	public void testParseDouble() {
+		String[] values = { "0", "-0", "1", "629.25", "0.05", "-12.5", "1.", ".5", "1e10", "1.5E-3", "123456789012345",
+				"1234567890123456789", "0.1234567890123456789", "1e23", "1e-30", "4.9e-324", "NaN", "Infinity" };
+		for (String value : values) {
+			assertEquals(value, Double.parseDouble(value), parseDouble(value), 0);
+		}
+
+		Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			String value = String.valueOf(random.nextInt(1000000) / 100.0);
+			assertEquals(value, Double.parseDouble(value), parseDouble(value), 0);
+		}
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testWrongDouble() {
+		parseDouble("N/A");
+	}
+
+	@Test
+	public void testParseLong() {
+		assertEquals(1443196800L, parseLong("1443196800"));
+		assertEquals(Long.MAX_VALUE, parseLong(String.valueOf(Long.MAX_VALUE)));
+		assertEquals(Long.MIN_VALUE, parseLong(String.valueOf(Long.MIN_VALUE)));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testLongOverflow() {
+		parseLong("9223372036854775808");
+	}
+
+	@Test
+	public void testParseEpochDay() {
+		LocalDate date = LocalDate.of(1900, 1, 1);
+		while (date.getYear() < 2100) {
+			assertEquals(date.toEpochDay(), parseEpochDay(date.toString()));
+			date = date.plusDays(1);
+		}
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testWrongEpochDay() {
+		parseEpochDay("2015-02-29");
+	}
+
+	/**
+	 * Stream returning at most chunk size bytes from every read, like socket returning data of single packets.
+	 */
+	private static class ChunkedInputStream extends ByteArrayInputStream {
+
+		private final int chunkSize;
+
+		private ChunkedInputStream(String data, int chunkSize) {
+			super(data.getBytes(StandardCharsets.UTF_8));
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public synchronized int read(byte[] bytes, int offset, int length) {
+			return super.read(bytes, offset, Math.min(length, chunkSize));
+		}
+
+	}
+
+	private CsvTokenizer tokenizer(String data, int bufferSize) {
+		return new CsvTokenizer(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), bufferSize);
+	}
+
+	private double parseDouble(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+		return CsvTokenizer.parseDouble(bytes, 0, bytes.length);
+	}
+
+	private long parseLong(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+		return CsvTokenizer.parseLong(bytes, 0, bytes.length);
+	}
+
+	private long parseEpochDay(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+		return CsvTokenizer.parseEpochDay(bytes, 0, bytes.length);
+	}
+
+}
@@ -0,0 +1,152 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class DataPublisherTest {
+
+	private static final Contract CONTRACT = new Contract(YahooExchange.NASDAQ.getCode(), "GOOG");
+
+	private HttpTransport previousTransport;
+	private QuoteCache previousQuoteCache;
+
+	@Before
+	public void setUp() {
+		previousTransport = UrlDataParser.getTransport();
+		previousQuoteCache = UrlDataParser.getQuoteCache();
+		UrlDataParser.setQuoteCache(null);
+		UrlDataParser.setTransport(new HttpTransport() {
+
+			@Override
+			public CompletableFuture<InputStream> request(URL url) {
+				String data = url.getPath().endsWith("table.csv") ? "Date,Open,High,Low,Close,Volume,Adj Close\n"
+						+ "2015-09-25,629.77,629.77,611.00,611.97,2174000,611.97\n"
+						+ "2015-09-24,616.64,627.32,612.40,625.80,2240100,625.80\n"
+						+ "2015-09-23,622.05,628.93,620.00,622.36,1470900,622.36\n" : "629.25,1500";
+				return CompletableFuture.completedFuture(new ByteArrayInputStream(data
+						.getBytes(StandardCharsets.UTF_8)));
+			}
+
+			@Override
+			public void shutdown() {
+			}
+
+		});
+	}
+
+	@After
+	public void tearDown() {
+		UrlDataParser.setTransport(previousTransport);
+		UrlDataParser.setQuoteCache(previousQuoteCache);
+	}
+
+	@Test
+	public void testPausedWithoutDemand() throws Exception {
+		Session session = SessionFactory.createNewSession(new RecordingDataReceiver(), new RequestManager(1));
+		DataPublisher<QuoteSnapshot> publisher = session.marketDataPublisher(CONTRACT,
+				Arrays.asList(DataType.LAST_TRADE_PRICE, DataType.VOLUME), 50);
+		RecordingSubscriber<QuoteSnapshot> subscriber = new RecordingSubscriber<>(2, 3);
+		publisher.subscribe(subscriber);
+
+		Thread.sleep(400);
+		assertEquals(2, subscriber.items.size());
+		assertEquals(2, publisher.getFetches());
+		assertTrue(publisher.getPausedFetches() > 0);
+		assertEquals(629.25, subscriber.items.get(0).getValue(DataType.LAST_TRADE_PRICE), 0.0);
+		assertEquals(1500, subscriber.items.get(1).getLong(DataType.VOLUME));
+
+		subscriber.subscription.request(1);
+		assertTrue(subscriber.received.await(40, TimeUnit.MILLISECONDS));
+		subscriber.subscription.cancel();
+	}
+
+	@Test
+	public void testHistoricalBarsOnDemand() throws Exception {
+		Session session = SessionFactory.createNewSession(new RecordingDataReceiver(), new RequestManager(1));
+		DataPublisher<HistoricalBar> publisher = session.historicalPublisher(CONTRACT, LocalDate.of(2015, 9, 23),
+				LocalDate.of(2015, 9, 25), TimePeriod.Daily);
+		RecordingSubscriber<HistoricalBar> subscriber = new RecordingSubscriber<>(1, 3);
+		publisher.subscribe(subscriber);
+
+		Thread.sleep(100);
+		assertEquals(1, subscriber.items.size());
+		assertEquals(LocalDate.of(2015, 9, 23), subscriber.items.get(0).getDate());
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertTrue(subscriber.completed.await(1, TimeUnit.SECONDS));
+		assertEquals(3, subscriber.items.size());
+		assertEquals(611.97, subscriber.items.get(2).getClose(), 0.0);
+		assertEquals(1, publisher.getFetches());
+	}
+
+	@Test
+	public void testIllegalDemand() throws Exception {
+		Session session = SessionFactory.createNewSession(new RecordingDataReceiver(), new RequestManager(1));
+		RecordingSubscriber<ForexQuote> subscriber = new RecordingSubscriber<>(0, 1);
+		session.forexPublisher(ForexCurrency.EUR, ForexCurrency.USD, 0).subscribe(subscriber);
+		subscriber.subscription.request(0);
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+	}
+
+	private static class RecordingSubscriber<T> implements DataFlow.Subscriber<T> {
+
+		private final List<T> items = new CopyOnWriteArrayList<>();
+		private final CountDownLatch received;
+		private final CountDownLatch completed = new CountDownLatch(1);
+		private final long initialDemand;
+
+		private volatile DataFlow.Subscription subscription;
+		private volatile Throwable error;
+
+		private RecordingSubscriber(long initialDemand, int expectedItems) {
+			this.initialDemand = initialDemand;
+			this.received = new CountDownLatch(expectedItems);
+		}
+
+		@Override
+		public void onSubscribe(DataFlow.Subscription subscription) {
+			this.subscription = subscription;
+			if (initialDemand > 0) {
+				subscription.request(initialDemand);
+			}
+		}
+
+		@Override
+		public void onNext(T item) {
+			items.add(item);
+			received.countDown();
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed.countDown();
+		}
+
+	}
+
+}
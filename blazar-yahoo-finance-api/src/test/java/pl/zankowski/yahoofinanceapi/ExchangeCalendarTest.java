@@ -0,0 +1,123 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class ExchangeCalendarTest {
+
+	private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+	private static final String CALENDAR = "# exchange,time zone,open,close[,trading days]\n"
+			+ "NASDAQ,America/New_York,09:30,16:00\n"
+			+ "TEL_AVIV,Asia/Jerusalem,09:59,17:14,SUN-THU\n"
+			+ "\n"
+			+ "# exchange,holiday\n"
+			+ "NASDAQ,2026-12-25\n";
+
+	@Test
+	public void testTradingHours() {
+		TradingHours hours = new TradingHours(NEW_YORK, LocalTime.of(9, 30), LocalTime.of(16, 0), TradingHours.WEEKDAYS,
+				Collections.singleton(LocalDate.of(2026, 12, 25)));
+
+		assertTrue(hours.isOpen(newYork(2026, 12, 24, 9, 30)));
+		assertFalse(hours.isOpen(newYork(2026, 12, 24, 16, 0)));
+		assertFalse(hours.isOpen(newYork(2026, 12, 25, 12, 0)));
+		assertFalse(hours.isOpen(newYork(2026, 10, 18, 12, 0)));
+
+		assertEquals(newYork(2026, 12, 24, 16, 0), hours.getLastClose(newYork(2026, 12, 28, 9, 0)));
+		assertEquals(newYork(2026, 12, 28, 9, 30), hours.getNextOpen(newYork(2026, 12, 24, 16, 0)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalTradingHours() {
+		new TradingHours(NEW_YORK, LocalTime.of(16, 0), LocalTime.of(9, 30));
+	}
+
+	@Test
+	public void testLoad() throws IOException {
+		ExchangeCalendar calendar = ExchangeCalendar.load(new StringReader(CALENDAR));
+
+		TradingHours nasdaq = calendar.getTradingHours(YahooExchange.NASDAQ);
+		assertEquals(LocalTime.of(9, 30), nasdaq.getOpen());
+		assertEquals(Collections.singleton(LocalDate.of(2026, 12, 25)), nasdaq.getHolidays());
+
+		TradingHours telAviv = calendar.getTradingHours(YahooExchange.TEL_AVIV);
+		assertTrue(telAviv.getTradingDays().contains(DayOfWeek.SUNDAY));
+		assertFalse(telAviv.getTradingDays().contains(DayOfWeek.FRIDAY));
+		assertEquals(5, telAviv.getTradingDays().size());
+
+		assertNull(calendar.getTradingHours(YahooExchange.LONDON));
+		assertTrue(calendar.isOpen(new Contract(YahooExchange.LONDON, "BARC"), newYork(2026, 10, 18, 12, 0)));
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadHolidayWithoutTradingHours() throws IOException {
+		ExchangeCalendar.load(new StringReader("LONDON,2026-12-25\n"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadIllegalLine() throws IOException {
+		ExchangeCalendar.load(new StringReader("NASDAQ,America/New_York,09:30\n"));
+	}
+
+	@Test
+	public void testContractExchangeCode() throws IOException {
+		ExchangeCalendar calendar = ExchangeCalendar.load(new StringReader(CALENDAR));
+
+		assertSame(calendar.getTradingHours(YahooExchange.NASDAQ), calendar.getTradingHours(new Contract("", "GOOG")));
+		assertSame(calendar.getTradingHours(YahooExchange.TEL_AVIV),
+				calendar.getTradingHours(new Contract(".TA", "TEVA")));
+		assertNull(calendar.getTradingHours(new Contract(YahooExchange.NY_STOCK, "IBM")));
+	}
+
+	@Test
+	public void testMarketHoursPolicy() {
+		ExchangeCalendar calendar = ExchangeCalendar.createDefault();
+		Contract contract = new Contract(YahooExchange.NASDAQ, "GOOG");
+		long open = newYork(2026, 12, 24, 12, 0);
+		long closed = newYork(2026, 12, 26, 12, 0);
+
+		MarketHoursPolicy pause = new MarketHoursPolicy(calendar, MarketHoursPolicy.Mode.PAUSE);
+		assertTrue(pause.isExecutionAllowed(contract, 1000, open - 1000, open));
+		assertFalse(pause.isExecutionAllowed(contract, 1000, closed - 1000, closed));
+		assertTrue(pause.isExecutionAllowed(new Contract(YahooExchange.OSLO, "STL"), 1000, closed - 1000, closed));
+
+		MarketHoursPolicy slow = new MarketHoursPolicy(calendar, MarketHoursPolicy.Mode.SLOW, 60);
+		assertFalse(slow.isExecutionAllowed(contract, 1000, closed - 59000, closed));
+		assertTrue(slow.isExecutionAllowed(contract, 1000, closed - 60000, closed));
+
+		MarketHoursPolicy endOfDay = new MarketHoursPolicy(calendar, MarketHoursPolicy.Mode.END_OF_DAY);
+		assertTrue(endOfDay.isExecutionAllowed(contract, 1000, newYork(2026, 12, 25, 15, 59), closed));
+		assertFalse(endOfDay.isExecutionAllowed(contract, 1000, newYork(2026, 12, 25, 16, 1), closed));
+
+		long nextOpen = newYork(2026, 12, 28, 9, 30);
+		assertEquals(open, pause.getNextExecutionTime(contract, 1000, open - 1000, open));
+		assertEquals(nextOpen, pause.getNextExecutionTime(contract, 1000, closed - 1000, closed));
+		assertEquals(closed + 1000, slow.getNextExecutionTime(contract, 1000, closed - 59000, closed));
+		assertEquals(nextOpen, endOfDay.getNextExecutionTime(contract, 1000, newYork(2026, 12, 25, 16, 1), closed));
+	}
+
+	private static long newYork(int year, int month, int day, int hour, int minute) {
+		return LocalDateTime.of(year, month, day, hour, minute).atZone(NEW_YORK).toInstant().toEpochMilli();
+	}
+
+}
@@ -0,0 +1,71 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class HistoricalCheckpointTest {
+
+	private static final String HEADER = "Date,Open,High,Low,Close,Volume,Adj Close\n";
+
+	private final RecordingDataReceiver receiver = new RecordingDataReceiver();
+
+	@Test
+	public void testDeliverOnlyNewAndRevisedBars() throws IOException {
+		HistoricalCheckpoint checkpoint = parse(HEADER
+				+ "2015-09-24,616.64,627.32,612.40,625.80,2240100,625.80\n"
+				+ "2015-09-23,622.05,628.93,620.00,622.36,1470900,622.36\n", LocalDate.of(2015, 9, 23), null);
+		assertEquals(2, receiver.getEvents().size());
+		assertEquals(LocalDate.of(2015, 9, 24), checkpoint.getDate());
+
+		receiver.getEvents().clear();
+		checkpoint = parse(HEADER
+				+ "2015-09-25,629.77,629.77,611.00,611.97,2174000,611.97\n"
+				+ "2015-09-24,616.64,627.32,612.40,625.80,2240100,625.80\n", checkpoint.getDate(), checkpoint);
+		assertEquals(1, receiver.getEvents().size());
+		assertEquals("1 2015-09-25 611.97 2174000", receiver.getEvents().get(0));
+
+		receiver.getEvents().clear();
+		checkpoint = parse(HEADER + "2015-09-25,629.77,629.77,611.00,612.50,2374000,612.50\n", checkpoint.getDate(),
+				checkpoint);
+		assertEquals(1, receiver.getEvents().size());
+		assertEquals("1 2015-09-25 612.5 2374000", receiver.getEvents().get(0));
+		assertEquals(612.50, checkpoint.getClose(), 0);
+
+		receiver.getEvents().clear();
+		parse(HEADER + "2015-09-25,629.77,629.77,611.00,612.50,2374000,612.50\n", checkpoint.getDate(), checkpoint);
+		assertTrue(receiver.getEvents().isEmpty());
+	}
+
+	@Test
+	public void testInMemoryCheckpointStore() {
+		HistoricalCheckpointStore store = new InMemoryHistoricalCheckpointStore();
+		Contract contract = new Contract(YahooExchange.NASDAQ.getCode(), "GOOG");
+		HistoricalCheckpoint checkpoint = new HistoricalCheckpoint(16703, 1, 2, 0.5, 1.5, 100, 1.5);
+
+		store.setCheckpoint(contract, TimePeriod.Daily, checkpoint);
+
+		assertEquals(checkpoint, store.getCheckpoint(new Contract(YahooExchange.NASDAQ.getCode(), "GOOG"),
+				TimePeriod.Daily));
+		assertEquals(null, store.getCheckpoint(contract, TimePeriod.Weekly));
+	}
+
+	private HistoricalCheckpoint parse(String data, LocalDate fromDate, HistoricalCheckpoint checkpoint)
+			throws IOException {
+		return RequestFactory.parseIncrementalHistoricalData(receiver, 1,
+				new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), (int) fromDate.toEpochDay(),
+				checkpoint);
+	}
+
+}
@@ -0,0 +1,142 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class HistoricalDataStoreTest {
+
+	private static final Contract CONTRACT = new Contract(YahooExchange.NASDAQ.getCode(), "GOOG");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<LocalDate[]> fetchedRanges = new ArrayList<>();
+	private HistoricalDataStore store;
+	private boolean failingSeries;
+
+	@Before
+	public void setUp() throws IOException {
+		store = new HistoricalDataStore(folder.getRoot().toPath()) {
+
+			@Override
+			protected HistoricalSeries fetch(Contract contract, LocalDate startDate, LocalDate endDate,
+					TimePeriod timePeriod) {
+				fetchedRanges.add(new LocalDate[] { startDate, endDate });
+				HistoricalSeries series = !failingSeries ? new HistoricalSeries() : new HistoricalSeries() {
+
+					@Override
+					public double getAdjClose(int index) {
+						if (index == 2) {
+							throw new IllegalStateException("Failed bar.");
+						}
+						return super.getAdjClose(index);
+					}
+
+				};
+				for (long day = startDate.toEpochDay(); day <= endDate.toEpochDay(); day++) {
+					series.add((int) day, day, day + 1, day - 1, day + fetchedRanges.size(), 1000 + day, day);
+				}
+				return series;
+			}
+
+		};
+	}
+
+	@Test
+	public void testFetchOnlyMissingTail() throws IOException {
+		LocalDate start = LocalDate.of(2015, 1, 1);
+		HistoricalSeries series = store.getHistoricalSeries(CONTRACT, start, LocalDate.of(2015, 1, 10),
+				TimePeriod.Daily);
+		assertEquals(10, series.size());
+
+		series = store.getHistoricalSeries(CONTRACT, start, LocalDate.of(2015, 1, 10), TimePeriod.Daily);
+		assertEquals(10, series.size());
+		assertEquals(1, fetchedRanges.size());
+
+		series = store.getHistoricalSeries(CONTRACT, start, LocalDate.of(2015, 1, 15), TimePeriod.Daily);
+		assertEquals(2, fetchedRanges.size());
+		assertEquals(LocalDate.of(2015, 1, 10), fetchedRanges.get(1)[0]);
+		assertEquals(15, series.size());
+		assertEquals(start, series.getDate(0));
+		assertEquals(LocalDate.of(2015, 1, 15), series.getDate(14));
+		// last stored bar is replaced with revised one
+		assertEquals(LocalDate.of(2015, 1, 10).toEpochDay() + 2, series.getClose(9), 0);
+		assertEquals(LocalDate.of(2015, 1, 15).toEpochDay() + 1000, series.getVolume(14));
+	}
+
+	@Test
+	public void testFetchRangeBeforeStoredData() throws IOException {
+		store.getHistoricalSeries(CONTRACT, LocalDate.of(2015, 1, 10), LocalDate.of(2015, 1, 20), TimePeriod.Daily);
+		HistoricalSeries series = store.getHistoricalSeries(CONTRACT, LocalDate.of(2015, 1, 1),
+				LocalDate.of(2015, 1, 5), TimePeriod.Daily);
+
+		assertEquals(5, series.size());
+		assertEquals(LocalDate.of(2015, 1, 9), fetchedRanges.get(1)[1]);
+		assertEquals(20, store.read(CONTRACT, LocalDate.of(2015, 1, 1), LocalDate.of(2015, 1, 31), TimePeriod.Daily)
+				.size());
+	}
+
+	@Test
+	public void testReadRange() throws IOException {
+		store.getHistoricalSeries(CONTRACT, LocalDate.of(2015, 1, 1), LocalDate.of(2015, 1, 31), TimePeriod.Daily);
+
+		HistoricalSeries series = store.read(CONTRACT, LocalDate.of(2015, 1, 10), LocalDate.of(2015, 1, 12),
+				TimePeriod.Daily);
+
+		assertEquals(3, series.size());
+		assertEquals(LocalDate.of(2015, 1, 10), series.getDate(0));
+		assertEquals(0, store.read(CONTRACT, LocalDate.of(2015, 1, 1), LocalDate.of(2015, 1, 31), TimePeriod.Weekly)
+				.size());
+	}
+
+	@Test
+	public void testReadManyRecords() throws IOException {
+		LocalDate start = LocalDate.of(2000, 1, 1);
+		store.getHistoricalSeries(CONTRACT, start, start.plusDays(2999), TimePeriod.Daily);
+
+		HistoricalSeries series = store.read(CONTRACT, start.plusDays(500), start.plusDays(2600), TimePeriod.Daily);
+		assertEquals(2101, series.size());
+		for (int i = 0; i < series.size(); i++) {
+			long day = start.plusDays(500 + i).toEpochDay();
+			assertEquals(day, series.getEpochDay(i));
+			assertEquals(day + 1, series.getClose(i), 0);
+			assertEquals(1000 + day, series.getVolume(i));
+		}
+	}
+
+	@Test
+	public void testFailedWriteKeepsStoredData() throws IOException {
+		LocalDate start = LocalDate.of(2015, 1, 1);
+		store.getHistoricalSeries(CONTRACT, start, LocalDate.of(2015, 1, 10), TimePeriod.Daily);
+
+		failingSeries = true;
+		try {
+			store.getHistoricalSeries(CONTRACT, start, LocalDate.of(2015, 1, 15), TimePeriod.Daily);
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		HistoricalSeries series = store.read(CONTRACT, start, LocalDate.of(2015, 1, 31), TimePeriod.Daily);
+		assertEquals(10, series.size());
+		assertEquals(LocalDate.of(2015, 1, 10), series.getDate(9));
+		assertEquals(LocalDate.of(2015, 1, 10).toEpochDay() + 1, series.getClose(9), 0);
+		assertEquals(1, folder.getRoot().list().length);
+	}
+
+}
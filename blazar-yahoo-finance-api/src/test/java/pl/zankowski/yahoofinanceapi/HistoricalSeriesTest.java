@@ -0,0 +1,60 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class HistoricalSeriesTest {
+
+	@Test
+	public void testParseHistoricalSeries() throws IOException {
+		String data = "Date,Open,High,Low,Close,Volume,Adj Close\n"
+				+ "2015-09-25,629.77,629.77,611.00,611.97,2174000,611.97\n"
+				+ "2015-09-24,616.64,627.32,612.40,625.80,2240100,625.80\n"
+				+ "2015-09-23,622.05,628.93,620.00,622.36,1470900,622.36\n";
+		HistoricalSeries series = new HistoricalSeries(1);
+
+		RequestFactory.parseHistoricalSeries(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), series);
+
+		assertEquals(3, series.size());
+		assertEquals(LocalDate.of(2015, 9, 23), series.getDate(0));
+		assertEquals(622.05, series.getOpen(0), 0);
+		assertEquals(628.93, series.getHigh(0), 0);
+		assertEquals(620.00, series.getLow(0), 0);
+		assertEquals(622.36, series.getClose(0), 0);
+		assertEquals(1470900, series.getVolume(0));
+		assertEquals(LocalDate.of(2015, 9, 24), series.getDate(1));
+		assertEquals(LocalDate.of(2015, 9, 25), series.getDate(2));
+		assertEquals(611.97, series.getAdjClose(2), 0);
+	}
+
+	@Test
+	public void testGrowAndTrim() {
+		HistoricalSeries series = new HistoricalSeries(0);
+		for (int i = 0; i < 1000; i++) {
+			series.add(i, i, i, i, i, i, i);
+		}
+		series.trimToSize();
+
+		assertEquals(1000, series.size());
+		assertEquals(1000, series.getEpochDays().length);
+		assertEquals(999, series.getEpochDay(999));
+		assertEquals(999, series.getVolume()[999]);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testIndexOutOfBounds() {
+		new HistoricalSeries().getClose(0);
+	}
+
+}
@@ -0,0 +1,193 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class MarketDataBatcherTest {
+
+	private static final List<String> INSTRUMENTS = Arrays.asList("GOOG", "AAPL", "MSFT", "IBM");
+
+	private final List<List<String>> requestedInstruments = new CopyOnWriteArrayList<>();
+	private final List<String> requestedDataTypes = new CopyOnWriteArrayList<>();
+
+	private HttpTransport previousTransport;
+	private QuoteCache previousQuoteCache;
+
+	@Before
+	public void setUp() {
+		previousTransport = UrlDataParser.getTransport();
+		previousQuoteCache = UrlDataParser.getQuoteCache();
+		UrlDataParser.setQuoteCache(null);
+		UrlDataParser.setTransport(new HttpTransport() {
+
+			@Override
+			public CompletableFuture<InputStream> request(URL url) {
+				String query = url.getQuery();
+				int dataTypesIndex = query.indexOf("&f=");
+				List<String> instruments = Arrays.asList(query.substring(2, dataTypesIndex).split("\\+"));
+				String dataTypes = query.substring(dataTypesIndex + 3);
+				requestedInstruments.add(instruments);
+				requestedDataTypes.add(dataTypes);
+				return CompletableFuture.completedFuture(new ByteArrayInputStream(createResponse(instruments,
+						dataTypes).getBytes(StandardCharsets.UTF_8)));
+			}
+
+			@Override
+			public void shutdown() {
+			}
+
+		});
+	}
+
+	@After
+	public void tearDown() {
+		UrlDataParser.setTransport(previousTransport);
+		UrlDataParser.setQuoteCache(previousQuoteCache);
+	}
+
+	/**
+	 * Creates one line for every instrument, e.g. "2.5,2.25,200" for AAPL and data types "abv".
+	 */
+	private static String createResponse(List<String> instruments, String dataTypes) {
+		StringBuilder builder = new StringBuilder();
+		for (String instrument : instruments) {
+			int number = INSTRUMENTS.indexOf(instrument) + 1;
+			for (int i = 0; i < dataTypes.length(); i++) {
+				if (i > 0) {
+					builder.append(',');
+				}
+				switch (dataTypes.charAt(i)) {
+				case 'a':
+					builder.append(number).append(".5");
+					break;
+				case 'b':
+					builder.append(number).append(".25");
+					break;
+				default:
+					builder.append(number).append("00");
+				}
+			}
+			builder.append('\n');
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void testBatchedDownload() throws Exception {
+		RequestManager requestManager = new RequestManager(1, 2);
+		RecordingDataReceiver firstReceiver = new RecordingDataReceiver();
+		RecordingDataReceiver secondReceiver = new RecordingDataReceiver();
+		Session firstSession = SessionFactory.createNewSession(firstReceiver, requestManager);
+		Session secondSession = SessionFactory.createNewSession(secondReceiver, requestManager);
+		assertTrue(requestManager.isBatching());
+
+		firstSession.reqMarketData(1, contract("GOOG"), Collections.singletonList(new DataRequest(DataType.ASK,
+				1000)));
+		firstSession.reqMarketData(2, contract("AAPL"), Arrays.asList(new DataRequest(DataType.ASK, 1000),
+				new DataRequest(DataType.VOLUME, 1000)));
+		secondSession.reqMarketData(3, contract("GOOG"), Collections.singletonList(new DataRequest(DataType.BID,
+				1000)));
+		secondSession.reqMarketData(4, contract("MSFT"), Collections.singletonList(new DataRequest(DataType.ASK,
+				1000)));
+		Thread.sleep(300);
+
+		assertEquals(2, requestedInstruments.size());
+		List<String> instruments = new ArrayList<>();
+		for (List<String> batch : requestedInstruments) {
+			assertTrue(batch.size() <= 2);
+			instruments.addAll(batch);
+		}
+		assertEquals(3, instruments.size());
+		assertEquals(new HashSet<>(Arrays.asList("GOOG", "AAPL", "MSFT")), new HashSet<>(instruments));
+		assertEquals(Arrays.asList("abv", "abv"), requestedDataTypes);
+
+		assertEquals(new HashSet<>(Arrays.asList("1 ASK 1.5", "2 ASK 2.5", "2 VOLUME 200")),
+				new HashSet<>(firstReceiver.getEvents()));
+		assertEquals(new HashSet<>(Arrays.asList("3 BID 1.25", "4 ASK 3.5")),
+				new HashSet<>(secondReceiver.getEvents()));
+	}
+
+	@Test
+	public void testCancelledSubscription() throws Exception {
+		RequestManager requestManager = new RequestManager(1, 10);
+		RecordingDataReceiver receiver = new RecordingDataReceiver();
+		Session session = SessionFactory.createNewSession(receiver, requestManager);
+
+		session.reqMarketData(1, contract("GOOG"), Collections.singletonList(new DataRequest(DataType.ASK, 100)));
+		session.reqMarketData(2, contract("IBM"), Collections.singletonList(new DataRequest(DataType.BID, 100)));
+		session.cancelRequest(2);
+		Thread.sleep(250);
+
+		assertTrue(requestedInstruments.size() >= 2);
+		for (int i = 0; i < requestedInstruments.size(); i++) {
+			assertEquals(Collections.singletonList("GOOG"), requestedInstruments.get(i));
+			assertEquals("a", requestedDataTypes.get(i));
+		}
+		assertEquals(0, receiver.getEventCount("2"));
+		assertEquals(receiver.getEvents().size(), receiver.getEventCount("1"));
+
+		session.cancelRequest(1);
+		int requests = requestedInstruments.size();
+		Thread.sleep(250);
+		assertEquals(requests, requestedInstruments.size());
+	}
+
+	@Test
+	public void testFailingReceiverDoesNotStarveOthers() throws Exception {
+		RequestManager requestManager = new RequestManager(1, 10);
+		RecordingDataReceiver failingReceiver = new RecordingDataReceiver() {
+
+			@Override
+			protected void record(String event) {
+				super.record(event);
+				throw new IllegalStateException("Receiver failure.");
+			}
+
+		};
+		RecordingDataReceiver receiver = new RecordingDataReceiver();
+		Session failingSession = SessionFactory.createNewSession(failingReceiver, requestManager);
+		Session session = SessionFactory.createNewSession(receiver, requestManager);
+
+		failingSession.reqMarketData(1, contract("GOOG"), Collections.singletonList(new DataRequest(DataType.ASK,
+				1000)));
+		session.reqMarketData(2, contract("GOOG"), Collections.singletonList(new DataRequest(DataType.BID, 1000)));
+		Thread.sleep(300);
+
+		assertEquals(1, requestedInstruments.size());
+		assertEquals(Arrays.asList("1 ASK 1.5"), failingReceiver.getEvents());
+		assertEquals(Arrays.asList("2 BID 1.25"), receiver.getEvents());
+		failingSession.cancelRequest(1);
+		session.cancelRequest(2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalBatchSize() {
+		new RequestManager(1, -1);
+	}
+
+	private static Contract contract(String instrument) {
+		return new Contract(YahooExchange.NASDAQ.getCode(), instrument);
+	}
+
+}
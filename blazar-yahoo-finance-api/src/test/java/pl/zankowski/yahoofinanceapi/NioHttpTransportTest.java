@@ -0,0 +1,227 @@
+package pl.zankowski.yahoofinanceapi;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class NioHttpTransportTest {
+
+	private static final int STREAMED_LINES = 100000;
+
+	private final CountDownLatch firstLineRead = new CountDownLatch(1);
+
+	private HttpServer server;
+	private NioHttpTransport transport;
+
+	@Before
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+		server.createContext("/fixed", exchange -> respond(exchange, 200, "629.25", false));
+		server.createContext("/chunked", exchange -> respond(exchange, 200, "GOOG,629.25\nYHOO,30.12", true));
+		server.createContext("/missing", exchange -> respond(exchange, 404, "Not found", false));
+		server.createContext("/redirect", exchange -> {
+			exchange.getResponseHeaders().add("Location", "/fixed");
+			respond(exchange, 302, "", false);
+		});
+		server.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(2000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, 200, "late", false);
+		});
+		server.createContext("/streamed", exchange -> {
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write("first\n".getBytes(StandardCharsets.UTF_8));
+				output.flush();
+				// rest of body is sent only after client has read first line
+				if (!firstLineRead.await(5, TimeUnit.SECONDS)) {
+					return;
+				}
+				for (int i = 0; i < STREAMED_LINES; i++) {
+					output.write(("GOOG," + i + "\n").getBytes(StandardCharsets.UTF_8));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		server.setExecutor(Executors.newFixedThreadPool(8));
+		server.start();
+		transport = new NioHttpTransport(2, 5000, 500, 4);
+	}
+
+	@After
+	public void tearDown() {
+		transport.shutdown();
+		server.stop(0);
+	}
+
+	private void respond(com.sun.net.httpserver.HttpExchange exchange, int statusCode, String body, boolean chunked)
+			throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(statusCode, chunked ? 0 : bytes.length == 0 ? -1 : bytes.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(bytes);
+		}
+	}
+
+	@Test
+	public void testFixedLengthResponse() throws Exception {
+		assertEquals("629.25", read(transport.request(url("/fixed"))));
+	}
+
+	@Test
+	public void testChunkedResponse() throws Exception {
+		assertEquals("GOOG,629.25\nYHOO,30.12", read(transport.request(url("/chunked"))));
+	}
+
+	@Test
+	public void testKeepAliveRequests() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			assertEquals("629.25", read(transport.request(url("/fixed"))));
+		}
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[200];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = transport.request(url("/fixed"));
+		}
+		for (CompletableFuture<?> future : futures) {
+			assertEquals("629.25", read((InputStream) future.get()));
+		}
+	}
+
+	@Test
+	public void testStreamedResponse() throws Exception {
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(transport.request(url("/streamed")).get(5,
+				TimeUnit.SECONDS), StandardCharsets.UTF_8))) {
+			assertEquals("first", br.readLine());
+			firstLineRead.countDown();
+			for (int i = 0; i < STREAMED_LINES; i++) {
+				assertEquals("GOOG," + i, br.readLine());
+			}
+			assertNull(br.readLine());
+		}
+		assertEquals("629.25", read(transport.request(url("/fixed"))));
+	}
+
+	@Test
+	public void testStreamClosedBeforeEnd() throws Exception {
+		InputStream input = transport.request(url("/streamed")).get(5, TimeUnit.SECONDS);
+		assertEquals('f', input.read());
+		input.close();
+		firstLineRead.countDown();
+		assertEquals("629.25", read(transport.request(url("/fixed"))));
+	}
+
+	@Test
+	public void testRedirect() throws Exception {
+		assertEquals("629.25", read(transport.request(url("/redirect"))));
+	}
+
+	@Test
+	public void testErrorStatus() throws Exception {
+		Throwable cause = failure(transport.request(url("/missing")));
+		assertTrue(cause instanceof HttpStatusException);
+		assertEquals(404, ((HttpStatusException) cause).getStatusCode());
+	}
+
+	@Test
+	public void testReadTimeout() throws Exception {
+		assertTrue(failure(transport.request(url("/slow"))) instanceof SocketTimeoutException);
+	}
+
+	@Test
+	public void testUnknownHost() throws Exception {
+		CompletableFuture<InputStream> future = transport.request(new URL("http://quotes.invalid/fixed"));
+		assertTrue(failure(future) instanceof UnknownHostException);
+	}
+
+	@Test
+	public void testProxyFallback() throws Exception {
+		ProxySelector previousProxySelector = ProxySelector.getDefault();
+		InetSocketAddress proxyAddress = server.getAddress();
+		ProxySelector.setDefault(new ProxySelector() {
+
+			@Override
+			public List<Proxy> select(URI uri) {
+				return Collections.singletonList("quotes.invalid".equals(uri.getHost()) ? new Proxy(Proxy.Type.HTTP,
+						proxyAddress) : Proxy.NO_PROXY);
+			}
+
+			@Override
+			public void connectFailed(URI uri, SocketAddress address, IOException e) {
+			}
+
+		});
+		try {
+			assertTrue(NioHttpTransport.isProxied(new URL("http://quotes.invalid/fixed")));
+			assertEquals("629.25", read(transport.request(new URL("http://quotes.invalid/fixed"))));
+		} finally {
+			ProxySelector.setDefault(previousProxySelector);
+		}
+		assertFalse(NioHttpTransport.isProxied(url("/fixed")));
+	}
+
+	private URL url(String path) throws IOException {
+		return new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+	}
+
+	private String read(CompletableFuture<InputStream> future) throws Exception {
+		return read(future.get());
+	}
+
+	private String read(InputStream input) throws IOException {
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+			return br.lines().collect(Collectors.joining("\n"));
+		}
+	}
+
+	private Throwable failure(CompletableFuture<InputStream> future) throws InterruptedException {
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			return UrlDataParser.unwrap(e);
+		}
+		throw new AssertionError("Request should fail.");
+	}
+
+}
@@ -6,9 +6,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -175,6 +179,16 @@ public class ParseUtilsTest {
 		assertEquals("231.32", parsedValues[1]);
 	}
 
+	@Test
+	public void testSplitLine() {
+		List<String> parsedValues = ParseUtils.splitLine("629.25,\"Google, Inc.\",\"627.02 - 640.00\",N/A");
+		assertEquals(4, parsedValues.size());
+		assertEquals("629.25", parsedValues.get(0));
+		assertEquals("\"Google, Inc.\"", parsedValues.get(1));
+		assertEquals("\"627.02 - 640.00\"", parsedValues.get(2));
+		assertEquals("N/A", parsedValues.get(3));
+	}
+
 	@Test
 	public void testTrimQuotes() {
 		String parsedValue = ParseUtils.trimQuotes("\"34.3\"");
@@ -203,4 +217,91 @@ public class ParseUtilsTest {
 		assertFalse(ParseUtils.isParsable(null));
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testSameResultsAsRegularExpressions() {
+		char[] alphabet = { '"', '-', '0', '5', '.', ' ', '%', '<', 'b', '/', '>', 'M', '\n' };
+		Random random = new Random(42);
+		for (int i = 0; i < 100000; i++) {
+			char[] chars = new char[1 + random.nextInt(12)];
+			for (int j = 0; j < chars.length; j++) {
+				chars[j] = alphabet[random.nextInt(alphabet.length)];
+			}
+			String value = new String(chars);
+			if (!ParseUtils.isParsable(value)) {
+				continue;
+			}
+
+			assertEquals(value, value.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+%|[0-9]+%\")$"),
+					ParseUtils.isPair(value, "%"));
+			assertEquals(value, value.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+</b>|[0-9]+</b>\")$"),
+					ParseUtils.isPair(value, "</b>"));
+			assertEquals(value, value.matches("^(\"[0-9]+|\"-[0-9]+|[0-9]+|-[0-9]+).*-+.*([0-9]+|[0-9]+\")$"),
+					ParseUtils.isPair(value, ""));
+			assertEquals(value, value.matches("(([0-9]*.[0-9]*)|([0-9]*))[a-zA-Z]{1}$"), ParseUtils.hasSuffix(value));
+			assertEquals(value, value.replaceAll("%", ""), ParseUtils.trimPercent(value));
+			assertEquals(value, value.replaceAll("<b>|</b>", ""), ParseUtils.trimBold(value));
+			if (!value.endsWith("\"\n")) {
+				assertEquals(value, value.replaceAll("^\"|\"$", ""), ParseUtils.trimQuotes(value));
+				assertEquals(value, Arrays.asList(value.replaceAll("^\"|\"$", "").split(" - ")),
+						Arrays.asList(ParseUtils.splitValue(value)));
+			}
+		}
+	}
+
+	@Test
+	public void testParseDouble() {
+		String[] values = { "629.25", "-13.65", "+0.55", "0.0000", "1.", "000123.4500", "123456789012345",
+				"1234567890123456789", "0.00000000000000000000000001", "1e3", "-0" };
+		for (String value : values) {
+			String line = "\"" + value + "\"";
+			assertEquals(value, Double.parseDouble(value), ParseUtils.parseDouble(line, 1, line.length() - 1), 0.0);
+		}
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testParseDoubleWithIllegalValue() {
+		ParseUtils.parseDouble("12.3.4", 0, 6);
+	}
+
+	@Test
+	public void testSameResultsAsTuples() {
+		DoublePair pair = new DoublePair();
+		TimePrice timePrice = new TimePrice();
+		for (String value : new String[] { "\"13.65 - -2.12%\"", "13.65 - 2.12%", "-0.55 - -0.09%" }) {
+			Tuple<Double, Double> tuple = ParseUtils.changePercentToTuple(value);
+			assertSame(pair, ParseUtils.changePercentToPair(value, pair));
+			assertEquals(value, tuple.getFirstValue(), pair.getFirstValue(), 0.0);
+			assertEquals(value, tuple.getSecondValue(), pair.getSecondValue(), 0.0);
+		}
+		for (String value : new String[] { "\"627.02 - 640.00\"", "0.50 - 1234567.891" }) {
+			Tuple<Double, Double> tuple = ParseUtils.priceRangeToTuple(value);
+			ParseUtils.priceRangeToPair(value, pair);
+			assertEquals(value, tuple.getFirstValue(), pair.getFirstValue(), 0.0);
+			assertEquals(value, tuple.getSecondValue(), pair.getSecondValue(), 0.0);
+		}
+		String[] tradesWithTime = { "\"4:00pm - <b>629.25</b>\"", "12:05am - <b>1.5</b>", "9:30AM - 12.00</b>" };
+		for (String value : tradesWithTime) {
+			Tuple<LocalTime, Double> tuple = ParseUtils.tradeWithTimeToTuple(value);
+			assertSame(timePrice, ParseUtils.tradeWithTimeToTimePrice(value, timePrice));
+			assertEquals(value, tuple.getFirstValue(), timePrice.toLocalTime());
+			assertEquals(value, tuple.getSecondValue(), timePrice.getPrice(), 0.0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongDataChangePercentToPair() {
+		ParseUtils.changePercentToPair("13.65 - 2.12 - 3.4%", new DoublePair());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongDataTradeWithTimeToTimePrice() {
+		ParseUtils.tradeWithTimeToTimePrice("16:00 - <b>629.25</b>", new TimePrice());
+	}
+
+	@Test
+	public void testToSecondOfDayAndEpochDay() {
+		assertEquals(ParseUtils.toLocalTime("\"3:53pm\"").toSecondOfDay(), ParseUtils.toSecondOfDay("\"3:53pm\""));
+		assertEquals(ParseUtils.toLocalDate("5/25/2015").toEpochDay(), ParseUtils.toEpochDay("5/25/2015"));
+	}
+
+}
@@ -0,0 +1,112 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class QuoteCacheTest {
+
+	private final AtomicInteger downloads = new AtomicInteger();
+	private final Function<URL, CompletableFuture<List<String>>> loader = url -> {
+		downloads.incrementAndGet();
+		return CompletableFuture.completedFuture(Collections.singletonList(url.getQuery()));
+	};
+
+	@Test
+	public void testTTL() throws Exception {
+		QuoteCache cache = new QuoteCache(10, 50);
+		URL nameURL = new URL("http://finance.yahoo.com/d/quotes.csv?s=GOOG&f=n");
+		URL bidURL = new URL("http://finance.yahoo.com/d/quotes.csv?s=GOOG&f=b");
+
+		cache.get(nameURL, new DataType[] { DataType.NAME }, loader);
+		cache.get(bidURL, new DataType[] { DataType.BID }, loader);
+		assertEquals("s=GOOG&f=n", cache.get(nameURL, new DataType[] { DataType.NAME }, loader).get().get(0));
+		cache.get(bidURL, new DataType[] { DataType.BID }, loader);
+		assertEquals(2, downloads.get());
+
+		Thread.sleep(100);
+		cache.get(nameURL, new DataType[] { DataType.NAME }, loader);
+		cache.get(bidURL, new DataType[] { DataType.BID }, loader);
+		assertEquals(3, downloads.get());
+		assertEquals(3, cache.getHits());
+		assertEquals(3, cache.getMisses());
+
+		assertEquals(50, cache.getTTL(DataType.NAME, DataType.BID));
+		cache.setTTL(DataType.BID, 0);
+		cache.get(bidURL, new DataType[] { DataType.BID }, loader);
+		cache.get(bidURL, new DataType[] { DataType.BID }, loader);
+		assertEquals(5, downloads.get());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() throws Exception {
+		QuoteCache cache = new QuoteCache(2);
+		URL first = new URL("http://finance.yahoo.com/d/quotes.csv?s=GOOG&f=a");
+		URL second = new URL("http://finance.yahoo.com/d/quotes.csv?s=YHOO&f=a");
+		URL third = new URL("http://finance.yahoo.com/d/quotes.csv?s=AAPL&f=a");
+		DataType[] dataTypes = { DataType.ASK };
+
+		cache.get(first, dataTypes, loader);
+		cache.get(second, dataTypes, loader);
+		cache.get(first, dataTypes, loader);
+		cache.get(third, dataTypes, loader);
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictions());
+
+		cache.get(first, dataTypes, loader);
+		assertEquals(3, downloads.get());
+		cache.get(second, dataTypes, loader);
+		assertEquals(4, downloads.get());
+	}
+
+	@Test
+	public void testSharedDownloadAndFailure() throws Exception {
+		QuoteCache cache = new QuoteCache(10);
+		URL url = new URL("http://finance.yahoo.com/d/quotes.csv?s=GOOG&f=a");
+		CompletableFuture<List<String>> response = new CompletableFuture<>();
+		Function<URL, CompletableFuture<List<String>>> pendingLoader = requestURL -> {
+			downloads.incrementAndGet();
+			return response;
+		};
+
+		CompletableFuture<List<String>> first = cache.get(url, new DataType[] { DataType.ASK }, pendingLoader);
+		CompletableFuture<List<String>> second = cache.get(url, new DataType[] { DataType.ASK }, pendingLoader);
+		assertSame(first, second);
+		assertEquals(1, downloads.get());
+
+		response.completeExceptionally(new HttpStatusException(500, "Error"));
+		assertTrue(first.isCompletedExceptionally());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testLoaderThrowingException() throws Exception {
+		QuoteCache cache = new QuoteCache(10);
+		URL url = new URL("http://finance.yahoo.com/d/quotes.csv?s=GOOG&f=n");
+		Function<URL, CompletableFuture<List<String>>> failingLoader = requestURL -> {
+			throw new IllegalStateException("Transport has been shut down.");
+		};
+
+		CompletableFuture<List<String>> failed = cache.get(url, new DataType[] { DataType.NAME }, failingLoader);
+		assertTrue(failed.isCompletedExceptionally());
+		assertEquals(0, cache.size());
+
+		assertEquals("s=GOOG&f=n", cache.get(url, new DataType[] { DataType.NAME }, loader).get().get(0));
+		assertEquals(1, downloads.get());
+	}
+
+}
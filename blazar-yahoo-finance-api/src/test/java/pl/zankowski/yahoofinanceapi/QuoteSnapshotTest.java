@@ -0,0 +1,66 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class QuoteSnapshotTest {
+
+	private static final DataType[] DATA_TYPES = { DataType.ASK, DataType.VOLUME, DataType.MARKET_CAPITALIZATION,
+			DataType.CHANGE_IN_PERCENT, DataType.DAYS_RANGE, DataType.CHANGE_PERCENT, DataType.LAST_TRADE_WITH_TIME,
+			DataType.LAST_TRADE_DATE, DataType.LAST_TRADE_TIME, DataType.NAME, DataType.BID };
+
+	@Test
+	public void testFill() {
+		QuoteSnapshot snapshot = new QuoteSnapshot(1, new Contract(YahooExchange.NASDAQ.getCode(), "GOOG"));
+		assertTrue(snapshot.fill("630.25,5133386,431.37B,\"-2.12%\",\"627.02 - 640.00\",\"-13.65 - -2.12%\","
+				+ "\"4:00pm - <b>629.25</b>\",\"9/18/2015\",\"4:00pm\",\"Google, Inc.\",N/A", DATA_TYPES));
+
+		assertEquals(630.25, snapshot.getValue(DataType.ASK), 0.0);
+		assertEquals(5133386, snapshot.getLong(DataType.VOLUME));
+		assertEquals(431370000000L, snapshot.getLong(DataType.MARKET_CAPITALIZATION));
+		assertEquals(-2.12, snapshot.getValue(DataType.CHANGE_IN_PERCENT), 0.0);
+		assertEquals(627.02, snapshot.getValue(DataType.DAYS_RANGE), 0.0);
+		assertEquals(640.00, snapshot.getSecondValue(DataType.DAYS_RANGE), 0.0);
+		assertEquals(-13.65, snapshot.getValue(DataType.CHANGE_PERCENT), 0.0);
+		assertEquals(-2.12, snapshot.getSecondValue(DataType.CHANGE_PERCENT), 0.0);
+		assertEquals(629.25, snapshot.getValue(DataType.LAST_TRADE_WITH_TIME), 0.0);
+		assertEquals(LocalTime.of(16, 0).toSecondOfDay(), snapshot.getSecondValue(DataType.LAST_TRADE_WITH_TIME), 0.0);
+		assertEquals(LocalDate.of(2015, 9, 18).toEpochDay(), snapshot.getValue(DataType.LAST_TRADE_DATE), 0.0);
+		assertEquals(LocalTime.of(16, 0).toSecondOfDay(), snapshot.getValue(DataType.LAST_TRADE_TIME), 0.0);
+		assertEquals("Google, Inc.", snapshot.getString(DataType.NAME));
+		assertFalse(snapshot.has(DataType.BID));
+		assertTrue(Double.isNaN(snapshot.getValue(DataType.BID)));
+		assertFalse(snapshot.has(DataType.OPEN));
+	}
+
+	@Test
+	public void testReuse() {
+		QuoteSnapshot snapshot = new QuoteSnapshot(1, new Contract(YahooExchange.NASDAQ.getCode(), "GOOG"));
+		DataType[] dataTypes = { DataType.CHANGE_PERCENT_RT, DataType.NAME };
+		assertTrue(snapshot.fill("\"-13.65 - -2.12%\",\"Google Inc.\"", dataTypes));
+		QuoteSnapshot copy = snapshot.copy();
+
+		assertTrue(snapshot.fill("\"N/A - +0.55%\",N/A", dataTypes));
+		assertTrue(Double.isNaN(snapshot.getValue(DataType.CHANGE_PERCENT_RT)));
+		assertEquals(0.55, snapshot.getSecondValue(DataType.CHANGE_PERCENT_RT), 0.0);
+		assertNull(snapshot.getString(DataType.NAME));
+		assertEquals("Google Inc.", copy.getString(DataType.NAME));
+		assertEquals(-13.65, copy.getValue(DataType.CHANGE_PERCENT_RT), 0.0);
+
+		assertFalse(snapshot.fill("630.25", dataTypes));
+		assertFalse(snapshot.fill("630.25,1,2", dataTypes));
+	}
+
+}
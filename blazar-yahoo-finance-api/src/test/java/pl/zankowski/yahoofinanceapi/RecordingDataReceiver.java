@@ -0,0 +1,118 @@
+package pl.zankowski.yahoofinanceapi;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Date: 18.10.2026
+ * </p>
+ *
+ * <p>
+ * Data Receiver used by tests. It records every received value as one event, e.g. "1 ASK 629.25" or
+ * "1 2015-09-25 611.97 2174000" for historical bar, optionally sleeping before recording to simulate slow receiver.
+ * </p>
+ *
+ * @author Wojciech Zankowski
+ */
+class RecordingDataReceiver implements DataReceiver {
+
+	private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+	private final long delay;
+
+	RecordingDataReceiver() {
+		this(0);
+	}
+
+	/**
+	 * @param delay
+	 *            Delay of every received value in milliseconds.
+	 */
+	RecordingDataReceiver(long delay) {
+		this.delay = delay;
+	}
+
+	protected void record(String event) {
+		if (delay > 0) {
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		events.add(event);
+	}
+
+	List<String> getEvents() {
+		return events;
+	}
+
+	/**
+	 * @return The last recorded event starting with given prefix followed by space or null if there is none.
+	 */
+	String getLastEvent(String prefix) {
+		synchronized (events) {
+			for (int i = events.size() - 1; i >= 0; i--) {
+				if (events.get(i).startsWith(prefix + " ")) {
+					return events.get(i);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return Number of recorded events starting with given prefix followed by space.
+	 */
+	int getEventCount(String prefix) {
+		int count = 0;
+		synchronized (events) {
+			for (String event : events) {
+				if (event.startsWith(prefix + " ")) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void onStringReceived(int requestID, DataType dataType, String value) {
+		record(requestID + " " + dataType + " " + value);
+	}
+
+	@Override
+	public void onDoubleReceived(int requestID, DataType dataType, double value) {
+		record(requestID + " " + dataType + " " + value);
+	}
+
+	@Override
+	public void onSizeReceived(int requestID, DataType dataType, int value) {
+		record(requestID + " " + dataType + " " + value);
+	}
+
+	@Override
+	public void onIntradayReceived(int requestID, long timestamp, double close, double high, double low,
+			double open, int volume) {
+		record(requestID + " " + timestamp + " " + close + " " + volume);
+	}
+
+	@Override
+	public void onHistoricalReceived(int requestID, LocalDate date, double close, double high, double low,
+			double open, int volume, double adjustedClose) {
+		record(requestID + " " + date + " " + close + " " + volume);
+	}
+
+	@Override
+	public void onCustomReceived(int requestID, List<String> value) {
+		record(requestID + " " + value);
+	}
+
+	@Override
+	public void onForexReceived(int requestID, long timestamp, double price) {
+		record(requestID + " FOREX " + timestamp + " " + price);
+	}
+
+}
@@ -0,0 +1,143 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class RequestFactoryTest {
+
+	private static final Contract CONTRACT = new Contract(YahooExchange.NASDAQ.getCode(), "GOOG");
+
+	private HttpTransport previousTransport;
+	private volatile String response;
+	private volatile URL requestedURL;
+
+	@Before
+	public void setUp() {
+		previousTransport = UrlDataParser.getTransport();
+		UrlDataParser.setTransport(new HttpTransport() {
+
+			@Override
+			public CompletableFuture<InputStream> request(URL url) {
+				requestedURL = url;
+				return CompletableFuture.completedFuture(new ByteArrayInputStream(response
+						.getBytes(StandardCharsets.UTF_8)));
+			}
+
+			@Override
+			public void shutdown() {
+			}
+
+		});
+	}
+
+	@After
+	public void tearDown() {
+		UrlDataParser.setTransport(previousTransport);
+	}
+
+	@Test
+	public void testCoalescedFanOut() {
+		response = "629.25,1500,\"Google, Inc.\",N/A,\"+0.52%\"";
+		RecordingDataReceiver receiver = new RecordingDataReceiver();
+		RequestFactory.awaitDelivery(RequestFactory.coalescedMarketDataRequest(receiver, 1, CONTRACT, DataType.ASK,
+				DataType.VOLUME, DataType.NAME, DataType.BID, DataType.CHANGE_PERCENT));
+
+		assertTrue(requestedURL.toString().contains("f=" + RequestUtils.toDataTypes(DataType.ASK, DataType.VOLUME,
+				DataType.NAME, DataType.BID, DataType.CHANGE_PERCENT)));
+		assertEquals(Arrays.asList("1 ASK 629.25", "1 VOLUME 1500", "1 NAME \"Google, Inc.\"",
+				"1 CHANGE_PERCENT \"+0.52%\""), receiver.getEvents());
+	}
+
+	@Test
+	public void testSingleMarketDataRequests() {
+		RecordingDataReceiver receiver = new RecordingDataReceiver();
+		response = "629.25";
+		RequestFactory.awaitDelivery(RequestFactory.marketDataRequest(receiver, 1, CONTRACT, DataType.ASK));
+		response = "1500";
+		RequestFactory.awaitDelivery(RequestFactory.marketDataRequest(receiver, 1, CONTRACT, DataType.VOLUME));
+		response = "\"Google, Inc.\"";
+		RequestFactory.awaitDelivery(RequestFactory.marketDataRequest(receiver, 1, CONTRACT, DataType.NAME));
+		response = "N/A";
+		RequestFactory.awaitDelivery(RequestFactory.marketDataRequest(receiver, 1, CONTRACT, DataType.BID));
+
+		assertEquals(Arrays.asList("1 ASK 629.25", "1 VOLUME 1500", "1 NAME \"Google, Inc.\""), receiver
+				.getEvents());
+	}
+
+	@Test
+	public void testCoalescedFieldCountMismatch() {
+		response = "629.25,1500";
+		RecordingDataReceiver receiver = new RecordingDataReceiver();
+		RequestFactory.awaitDelivery(RequestFactory.coalescedMarketDataRequest(receiver, 1, CONTRACT, DataType.ASK,
+				DataType.VOLUME, DataType.NAME));
+
+		assertTrue(receiver.getEvents().isEmpty());
+	}
+
+	@Test
+	public void testDeliveryOffTransportThread() throws Exception {
+		ExecutorService ioExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "io"));
+		UrlDataParser.setTransport(new HttpTransport() {
+
+			@Override
+			public CompletableFuture<InputStream> request(URL url) {
+				return CompletableFuture.supplyAsync(() -> new ByteArrayInputStream("629.25"
+						.getBytes(StandardCharsets.UTF_8)), ioExecutor);
+			}
+
+			@Override
+			public void shutdown() {
+			}
+
+		});
+		List<String> threads = new CopyOnWriteArrayList<>();
+		RecordingDataReceiver receiver = new RecordingDataReceiver() {
+
+			@Override
+			protected void record(String event) {
+				threads.add(Thread.currentThread().getName());
+				super.record(event);
+			}
+
+		};
+		try {
+			RequestFactory.awaitDelivery(RequestFactory.marketDataRequest(receiver, 1, CONTRACT, DataType.ASK));
+			assertEquals(Arrays.asList("1 ASK 629.25"), receiver.getEvents());
+			assertFalse(threads.contains("io"));
+		} finally {
+			ioExecutor.shutdown();
+		}
+	}
+
+	@Test
+	public void testMarketDataValueParseError() {
+		RecordingDataReceiver receiver = new RecordingDataReceiver();
+		RequestFactory.marketDataValue(receiver, 1, DataType.VOLUME, "1.5B");
+		RequestFactory.marketDataValue(receiver, 1, DataType.ASK, "N/A");
+		RequestFactory.marketDataValue(receiver, 1, DataType.BID, "629.5");
+
+		assertEquals(Arrays.asList("1 BID 629.5"), receiver.getEvents());
+	}
+
+}
@@ -69,4 +69,22 @@ public class RequestURLFactoryTest {
 		assertEquals(expectedURL, createdURL);
 	}
 
+	@Test
+	public void testSetBaseURL() throws MalformedURLException {
+		Contract contractGOOG = new Contract(YahooExchange.NASDAQ.getCode(), "GOOG");
+		try {
+			RequestURLFactory.setBaseURL("http://localhost:8080/");
+
+			assertEquals(new URL("http://localhost:8080/d/quotes.csv?s=GOOG&f=l1"),
+					RequestURLFactory.createStockURL(contractGOOG, DataType.LAST_TRADE_PRICE));
+			assertEquals(new URL("http://localhost:8080/instrument/1.1/GOOG/chartdata;type=quote;range=1d/csv"),
+					RequestURLFactory.createIntradayURL(contractGOOG));
+		} finally {
+			RequestURLFactory.resetBaseURLs();
+		}
+
+		assertEquals(new URL("http://finance.yahoo.com/d/quotes.csv?s=GOOG&f=l1"),
+				RequestURLFactory.createStockURL(contractGOOG, DataType.LAST_TRADE_PRICE));
+	}
+
 }
@@ -0,0 +1,116 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class RingBufferDataReceiverTest {
+
+	@Test
+	public void testDeliveryInPublishingOrder() throws Exception {
+		for (RingBufferDataReceiver.WaitStrategy waitStrategy : RingBufferDataReceiver.WaitStrategy.values()) {
+			RecordingDataReceiver recordingReceiver = new RecordingDataReceiver(0);
+			RingBufferDataReceiver receiver = new RingBufferDataReceiver(recordingReceiver, 8, true, waitStrategy);
+			for (int i = 0; i < 100; i++) {
+				receiver.onDoubleReceived(i, DataType.ASK, i * 0.5);
+			}
+			receiver.onStringReceived(100, DataType.NAME, "Google Inc.");
+			receiver.onHistoricalReceived(101, LocalDate.of(2015, 9, 18), 629.25, 640.0, 627.02, 636.79, 5133400,
+					629.25);
+			receiver.onCustomReceived(102, Arrays.asList("629.25", "GOOG"));
+			receiver.close();
+
+			assertEquals(waitStrategy.name(), 103, recordingReceiver.getEvents().size());
+			for (int i = 0; i < 100; i++) {
+				assertEquals(i + " ASK " + (i * 0.5), recordingReceiver.getEvents().get(i));
+			}
+			assertEquals("100 NAME Google Inc.", recordingReceiver.getEvents().get(100));
+			assertEquals("101 2015-09-18 629.25 5133400", recordingReceiver.getEvents().get(101));
+			assertEquals("102 [629.25, GOOG]", recordingReceiver.getEvents().get(102));
+			assertEquals(103, receiver.getPublished());
+			assertEquals(103, receiver.getDelivered());
+		}
+	}
+
+	@Test
+	public void testManyProducers() throws Exception {
+		RecordingDataReceiver recordingReceiver = new RecordingDataReceiver(0);
+		RingBufferDataReceiver receiver = new RingBufferDataReceiver(recordingReceiver, 16, false,
+				RingBufferDataReceiver.WaitStrategy.YIELDING);
+		List<Thread> producers = new ArrayList<>();
+		for (int p = 0; p < 4; p++) {
+			int producer = p;
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					receiver.onSizeReceived(producer, DataType.VOLUME, i);
+				}
+			});
+			producers.add(thread);
+			thread.start();
+		}
+		for (Thread thread : producers) {
+			thread.join();
+		}
+		receiver.close();
+
+		assertEquals(4000, recordingReceiver.getEvents().size());
+		int[] lastValues = { -1, -1, -1, -1 };
+		for (String event : recordingReceiver.getEvents()) {
+			String[] elements = event.split(" ");
+			int producer = Integer.parseInt(elements[0]);
+			int value = Integer.parseInt(elements[2]);
+			assertEquals(lastValues[producer] + 1, value);
+			lastValues[producer] = value;
+		}
+	}
+
+	@Test
+	public void testBackpressure() throws Exception {
+		RecordingDataReceiver recordingReceiver = new RecordingDataReceiver(2);
+		RingBufferDataReceiver receiver = new RingBufferDataReceiver(recordingReceiver, 4, true,
+				RingBufferDataReceiver.WaitStrategy.BLOCKING);
+		for (int i = 0; i < 20; i++) {
+			receiver.onForexReceived(i, i, 1.1);
+		}
+		assertTrue(receiver.getProducerWaits() > 0);
+		assertEquals(4, receiver.getMaxSize());
+		receiver.close();
+		assertEquals(20, recordingReceiver.getEvents().size());
+		assertEquals(0, receiver.getSize());
+	}
+
+	@Test
+	public void testReceiverError() throws Exception {
+		RingBufferDataReceiver receiver = new RingBufferDataReceiver(new RecordingDataReceiver(0) {
+
+			@Override
+			public void onStringReceived(int requestID, DataType dataType, String value) {
+				throw new IllegalStateException("Receiver failure.");
+			}
+
+		});
+		receiver.onStringReceived(1, DataType.NAME, "Google Inc.");
+		receiver.onDoubleReceived(2, DataType.ASK, 629.25);
+		receiver.close();
+		assertEquals(1, receiver.getReceiverErrors());
+		assertEquals(2, receiver.getDelivered());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalCapacity() {
+		new RingBufferDataReceiver(new RecordingDataReceiver(0), 10, false,
+				RingBufferDataReceiver.WaitStrategy.BUSY_SPIN);
+	}
+
+}
@@ -0,0 +1,238 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class SchedulePolicyTest {
+
+	private final ExecutorService fetchExecutor = Executors.newCachedThreadPool();
+	private RequestManager requestManager;
+
+	@Before
+	public void setUp() {
+		requestManager = new RequestManager(1, 0, fetchExecutor);
+	}
+
+	@After
+	public void tearDown() {
+		requestManager.shutdownScheduler();
+		fetchExecutor.shutdown();
+	}
+
+	@Test
+	public void testAlignedDelay() {
+		assertEquals(0, RequestManager.toAlignedDelay(60000, 1000));
+		assertEquals(400, RequestManager.toAlignedDelay(60600, 1000));
+		assertEquals(59999, RequestManager.toAlignedDelay(1, 60000));
+	}
+
+	@Test
+	public void testSpreadPhase() {
+		SchedulePolicy policy = new SchedulePolicy(SchedulePolicy.Phase.SPREAD, SchedulePolicy.MissedTicks.CATCH_UP,
+				false);
+		List<Long> delays = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			ScheduledFuture<?> future = requestManager.scheduleAtFixedRate(() -> null, 10000, policy);
+			delays.add(future.getDelay(TimeUnit.MILLISECONDS));
+			future.cancel(false);
+		}
+		Collections.sort(delays);
+		// golden ratio sequence keeps 10 phases at least 0.05 of period apart
+		for (int i = 1; i < delays.size(); i++) {
+			assertTrue(delays.get(i) - delays.get(i - 1) > 500);
+		}
+		assertTrue(delays.get(delays.size() - 1) < 10000);
+	}
+
+	@Test
+	public void testFetchExecutorOwnedByCaller() {
+		requestManager.shutdownScheduler();
+		assertFalse(fetchExecutor.isShutdown());
+	}
+
+	@Test
+	public void testSkipMissedTicks() throws Exception {
+		AtomicInteger catchUpExecutions = new AtomicInteger();
+		AtomicInteger skipExecutions = new AtomicInteger();
+		RequestManager sequentialManager = new RequestManager(2);
+		sequentialManager.scheduleAtFixedRate(() -> delayedExecution(catchUpExecutions), 50,
+				new SchedulePolicy(SchedulePolicy.Phase.IMMEDIATE, SchedulePolicy.MissedTicks.CATCH_UP, false));
+		sequentialManager.scheduleAtFixedRate(() -> delayedExecution(skipExecutions), 50,
+				new SchedulePolicy(SchedulePolicy.Phase.IMMEDIATE, SchedulePolicy.MissedTicks.SKIP, false));
+		Thread.sleep(475);
+		sequentialManager.shutdownScheduler();
+
+		// first execution takes 300 ms, catch up executes 6 missed ticks at once, skip drops them
+		assertTrue(sequentialManager.getSkippedTicks() >= 4);
+		assertTrue(skipExecutions.get() + 4 <= catchUpExecutions.get());
+	}
+
+	@Test
+	public void testSkipMissedTicksWithJitter() throws Exception {
+		RequestManager timingWheelManager = new RequestManager(new TimingWheelScheduler(5, 64, 1), 0, fetchExecutor);
+		int tasks = 50;
+		AtomicInteger executions = new AtomicInteger();
+		for (int i = 0; i < tasks; i++) {
+			timingWheelManager.scheduleAtFixedRate(() -> {
+				executions.incrementAndGet();
+				return null;
+			}, 100, new SchedulePolicy(SchedulePolicy.Phase.IMMEDIATE, SchedulePolicy.MissedTicks.SKIP, false));
+		}
+		Thread.sleep(450);
+		timingWheelManager.shutdownScheduler();
+
+		// shift of the second execution is up to one period, so every task runs at least at 0, 200, 300 ms
+		assertEquals(0, timingWheelManager.getSkippedTicks());
+		assertTrue(executions.get() >= 3 * tasks);
+	}
+
+	@Test
+	public void testAlignedPhaseWithJitter() throws Exception {
+		RequestManager timingWheelManager = new RequestManager(new TimingWheelScheduler(5, 64, 1), 0, fetchExecutor);
+		List<Long> secondExecutions = Collections.synchronizedList(new ArrayList<>());
+		for (int i = 0; i < 10; i++) {
+			AtomicInteger executions = new AtomicInteger();
+			timingWheelManager.scheduleAtFixedRate(() -> {
+				if (executions.incrementAndGet() == 2) {
+					secondExecutions.add(System.currentTimeMillis());
+				}
+				return null;
+			}, 100, new SchedulePolicy(SchedulePolicy.Phase.ALIGNED, SchedulePolicy.MissedTicks.CATCH_UP, false));
+		}
+		Thread.sleep(350);
+		timingWheelManager.shutdownScheduler();
+
+		assertEquals(10, secondExecutions.size());
+		for (long secondExecution : secondExecutions) {
+			// precision of timing wheel is one tick
+			assertTrue(secondExecution % 100 < 30);
+		}
+	}
+
+	@Test
+	public void testExclusiveExecution() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		AtomicInteger inProgress = new AtomicInteger();
+		AtomicInteger maxInProgress = new AtomicInteger();
+		ScheduledFuture<?> future = requestManager.scheduleAtFixedRate(() -> {
+			executions.incrementAndGet();
+			maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+			CompletableFuture<Void> download = new CompletableFuture<>();
+			requestManager.schedule(() -> {
+				inProgress.decrementAndGet();
+				download.complete(null);
+			}, 60);
+			return download;
+		}, 10, new SchedulePolicy(SchedulePolicy.Phase.IMMEDIATE, SchedulePolicy.MissedTicks.CATCH_UP, true));
+		Thread.sleep(300);
+		future.cancel(false);
+
+		assertEquals(1, maxInProgress.get());
+		assertTrue(executions.get() <= 6);
+		assertTrue(requestManager.getSkippedOverlaps() > 0);
+	}
+
+	@Test
+	public void testMarketHoursPolicy() throws Exception {
+		DayOfWeek today = LocalDate.now(ZoneOffset.UTC).getDayOfWeek();
+		Map<YahooExchange, TradingHours> tradingHours = new EnumMap<>(YahooExchange.class);
+		AtomicInteger calendarChecks = new AtomicInteger();
+		tradingHours.put(YahooExchange.LONDON, new TradingHours(ZoneOffset.UTC, LocalTime.MIN, LocalTime.MAX,
+				EnumSet.complementOf(EnumSet.of(today)), Collections.emptySet()) {
+
+			@Override
+			public boolean isOpen(long epochMillis) {
+				calendarChecks.incrementAndGet();
+				return super.isOpen(epochMillis);
+			}
+
+		});
+		requestManager.setMarketHoursPolicy(new MarketHoursPolicy(new ExchangeCalendar(tradingHours),
+				MarketHoursPolicy.Mode.PAUSE));
+
+		AtomicInteger closedExecutions = new AtomicInteger();
+		AtomicInteger openExecutions = new AtomicInteger();
+		requestManager.scheduleAtFixedRate(() -> {
+			closedExecutions.incrementAndGet();
+			return null;
+		}, 20, SchedulePolicy.DEFAULT, new Contract(YahooExchange.LONDON, "BARC"));
+		requestManager.scheduleAtFixedRate(() -> {
+			openExecutions.incrementAndGet();
+			return null;
+		}, 20, SchedulePolicy.DEFAULT, new Contract(YahooExchange.PARIS, "BNP"));
+		Thread.sleep(200);
+
+		assertEquals(0, closedExecutions.get());
+		assertTrue(openExecutions.get() > 0);
+		assertTrue(requestManager.getMarketClosedTicks() > 2);
+		// closed exchange is skipped until its next open without checking calendar again
+		assertEquals(1, calendarChecks.get());
+	}
+
+	@Test
+	public void testAdaptiveDelay() throws Exception {
+		SchedulePolicy policy = new SchedulePolicy(SchedulePolicy.Phase.IMMEDIATE, SchedulePolicy.MissedTicks.CATCH_UP,
+				false, 160);
+		AtomicInteger changedExecutions = new AtomicInteger();
+		AtomicInteger unchangedExecutions = new AtomicInteger();
+		requestManager.scheduleAtFixedRate(() -> {
+			changedExecutions.incrementAndGet();
+			return CompletableFuture.completedFuture(true);
+		}, 10, policy);
+		requestManager.scheduleAtFixedRate(() -> {
+			unchangedExecutions.incrementAndGet();
+			return CompletableFuture.completedFuture(false);
+		}, 10, policy);
+		Thread.sleep(500);
+
+		// unchanged value doubles delay up to 160 ms: executions at 0, 10, 30, 70, 150, 310 and 470 ms
+		assertTrue(changedExecutions.get() >= 20);
+		assertTrue(unchangedExecutions.get() <= 10);
+		assertTrue(requestManager.getAdaptiveSkippedTicks() > 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAdaptiveMaxDelayShorterThanDelay() {
+		new DataRequest(DataType.ASK, 1000, new SchedulePolicy(SchedulePolicy.Phase.IMMEDIATE,
+				SchedulePolicy.MissedTicks.CATCH_UP, false, 500));
+	}
+
+	private static CompletableFuture<?> delayedExecution(AtomicInteger executions) {
+		if (executions.getAndIncrement() == 0) {
+			try {
+				Thread.sleep(300);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,120 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class SubscriptionRegistryTest {
+
+	private static final Contract CONTRACT = new Contract(YahooExchange.NASDAQ.getCode(), "GOOG");
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private HttpTransport previousTransport;
+
+	@Before
+	public void setUp() {
+		previousTransport = UrlDataParser.getTransport();
+		UrlDataParser.setTransport(new HttpTransport() {
+
+			@Override
+			public CompletableFuture<InputStream> request(URL url) {
+				requests.incrementAndGet();
+				return CompletableFuture.completedFuture(new ByteArrayInputStream("629.25"
+						.getBytes(StandardCharsets.UTF_8)));
+			}
+
+			@Override
+			public void shutdown() {
+			}
+
+		});
+	}
+
+	@After
+	public void tearDown() {
+		UrlDataParser.setTransport(previousTransport);
+	}
+
+	@Test
+	public void testSharedDownload() throws Exception {
+		RequestManager requestManager = new RequestManager(1);
+		RecordingDataReceiver firstReceiver = new RecordingDataReceiver();
+		RecordingDataReceiver secondReceiver = new RecordingDataReceiver();
+		Session firstSession = SessionFactory.createNewSession(firstReceiver, requestManager);
+		Session secondSession = SessionFactory.createNewSession(secondReceiver, requestManager);
+
+		firstSession.reqMarketData(1, CONTRACT, Collections.singletonList(new DataRequest(DataType.ASK, 100)));
+		firstSession.reqMarketData(2, CONTRACT, Collections.singletonList(new DataRequest(DataType.ASK, 105)));
+		secondSession.reqMarketData(4, CONTRACT, Collections.singletonList(new DataRequest(DataType.ASK, 95)));
+		secondSession.reqMarketData(3, CONTRACT, Collections.singletonList(new DataRequest(DataType.BID, 100)));
+		assertEquals(2, requestManager.getRegistry().getDownloadCount());
+
+		Thread.sleep(450);
+		assertTrue(firstReceiver.getEvents().size() > 0);
+		assertTrue(secondReceiver.getEvents().size() > 0);
+		// ASK and BID downloads, ticks at 0, 100, 200, 300, 400 ms
+		assertTrue(requests.get() <= 2 * 6);
+
+		firstSession.cancelRequest(1);
+		secondSession.cancelRequest(4);
+		assertEquals(2, requestManager.getRegistry().getDownloadCount());
+		firstSession.cancelRequest(2);
+		assertEquals(1, requestManager.getRegistry().getDownloadCount());
+		secondSession.cancelRequest(3);
+		assertEquals(0, requestManager.getRegistry().getDownloadCount());
+	}
+
+	@Test
+	public void testFailingReceiverDoesNotStarveOthers() throws Exception {
+		RequestManager requestManager = new RequestManager(1);
+		RecordingDataReceiver failingReceiver = new RecordingDataReceiver() {
+
+			@Override
+			protected void record(String event) {
+				super.record(event);
+				throw new IllegalStateException("Receiver failure.");
+			}
+
+		};
+		RecordingDataReceiver receiver = new RecordingDataReceiver();
+		Session failingSession = SessionFactory.createNewSession(failingReceiver, requestManager);
+		Session session = SessionFactory.createNewSession(receiver, requestManager);
+
+		failingSession.reqMarketData(1, CONTRACT, Collections.singletonList(new DataRequest(DataType.ASK, 100)));
+		session.reqMarketData(2, CONTRACT, Collections.singletonList(new DataRequest(DataType.ASK, 100)));
+		assertEquals(1, requestManager.getRegistry().getDownloadCount());
+
+		Thread.sleep(250);
+		failingSession.cancelRequest(1);
+		session.cancelRequest(2);
+		assertTrue(failingReceiver.getEventCount("1") > 1);
+		assertTrue(receiver.getEventCount("2") > 1);
+		assertEquals("2 ASK 629.25", receiver.getLastEvent("2"));
+	}
+
+	@Test
+	public void testSimilarDelay() {
+		assertTrue(SubscriptionRegistry.isSimilarDelay(1000, 1100));
+		assertTrue(SubscriptionRegistry.isSimilarDelay(1000, 950));
+		assertFalse(SubscriptionRegistry.isSimilarDelay(1000, 2000));
+		assertFalse(SubscriptionRegistry.isSimilarDelay(1000, 800));
+	}
+
+}
@@ -0,0 +1,138 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class ThrottledTransportTest {
+
+	private final AtomicInteger statusCode = new AtomicInteger(200);
+	private final AtomicInteger sent = new AtomicInteger();
+	private final HttpTransport transport = new HttpTransport() {
+
+		@Override
+		public CompletableFuture<InputStream> request(URL url) {
+			sent.incrementAndGet();
+			CompletableFuture<InputStream> future = new CompletableFuture<>();
+			if (statusCode.get() == 200) {
+				future.complete(new ByteArrayInputStream(new byte[0]));
+			} else {
+				future.completeExceptionally(new HttpStatusException(statusCode.get(), "Error"));
+			}
+			return future;
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+	};
+
+	private ThrottledTransport throttledTransport;
+
+	@After
+	public void tearDown() {
+		throttledTransport.shutdown();
+	}
+
+	@Test
+	public void testRequestsDelayedAfterBurst() throws Exception {
+		throttledTransport = new ThrottledTransport(transport, 20, 2, 10);
+		long start = System.nanoTime();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[5];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = throttledTransport.request(new URL("http://finance.yahoo.com/d/quotes.csv?s=GOOG"));
+		}
+		assertEquals(2, sent.get());
+		assertEquals(3, throttledTransport.getQueuedRequests());
+		CompletableFuture.allOf(futures).get(5, TimeUnit.SECONDS);
+
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 140);
+		assertEquals(5, sent.get());
+		assertEquals(3, throttledTransport.getDelayedRequests());
+		assertEquals(0, throttledTransport.getQueuedRequests());
+	}
+
+	@Test
+	public void testRequestsDroppedWhenQueueIsFull() throws Exception {
+		throttledTransport = new ThrottledTransport(transport, 10, 1, 1);
+		URL url = new URL("http://ichart.yahoo.com/table.csv?s=GOOG");
+		throttledTransport.request(url);
+		CompletableFuture<InputStream> queued = throttledTransport.request(url);
+		CompletableFuture<InputStream> dropped = throttledTransport.request(url);
+
+		try {
+			dropped.get();
+			throw new AssertionError("Request should be dropped.");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RequestException);
+		}
+		queued.get(5, TimeUnit.SECONDS);
+		assertEquals(1, throttledTransport.getDroppedRequests());
+		assertEquals(2, sent.get());
+	}
+
+	@Test
+	public void testQueuedRequestsSlowedDownAfterThrottling() throws Exception {
+		throttledTransport = new ThrottledTransport(transport, 10, 1, 10);
+		URL url = new URL("http://finance.yahoo.com/d/quotes.csv?s=GOOG");
+		long start = System.nanoTime();
+		throttledTransport.request(url);
+		statusCode.set(429);
+		CompletableFuture<InputStream> throttled = throttledTransport.request(url);
+		CompletableFuture<InputStream> queued = throttledTransport.request(url);
+
+		await(throttled);
+		assertEquals(5, throttledTransport.getRate(), 0.001);
+		await(queued);
+		// queued for 200 ms at 10 requests per second, the second half of its wait is made at 5 requests per second
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 280);
+		assertEquals(3, sent.get());
+		assertEquals(0, throttledTransport.getQueuedRequests());
+	}
+
+	@Test
+	public void testAdaptiveRate() throws Exception {
+		throttledTransport = new ThrottledTransport(transport, 1000, 100, 100);
+		throttledTransport.setEndpointLimit(YahooEndpoint.CHARTAPI, 100, 100);
+		URL url = new URL("http://chartapi.finance.yahoo.com/instrument/1.1/GOOG/chartdata;type=quote;range=1d/csv");
+
+		statusCode.set(429);
+		await(throttledTransport.request(url));
+		statusCode.set(503);
+		await(throttledTransport.request(url));
+		assertEquals(250, throttledTransport.getRate(), 0.001);
+		assertEquals(25, throttledTransport.getRate(YahooEndpoint.CHARTAPI), 0.001);
+		assertEquals(2, throttledTransport.getThrottledResponses());
+
+		statusCode.set(404);
+		await(throttledTransport.request(url));
+		assertEquals(25, throttledTransport.getRate(YahooEndpoint.CHARTAPI), 0.001);
+
+		statusCode.set(200);
+		await(throttledTransport.request(url));
+		assertEquals(300, throttledTransport.getRate(), 0.001);
+		assertEquals(30, throttledTransport.getRate(YahooEndpoint.CHARTAPI), 0.001);
+		assertTrue(Double.isNaN(throttledTransport.getRate(YahooEndpoint.QUOTES)));
+	}
+
+	private void await(CompletableFuture<InputStream> future) throws Exception {
+		future.handle((input, throwable) -> null).get(5, TimeUnit.SECONDS);
+	}
+
+}
@@ -0,0 +1,133 @@
+package pl.zankowski.yahoofinanceapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ *
+ * @author Wojciech Zankowski
+ */
+public class TimingWheelSchedulerTest {
+
+	private TimingWheelScheduler timingWheel;
+
+	@Before
+	public void setUp() {
+		timingWheel = new TimingWheelScheduler(5, 64, 0);
+	}
+
+	@After
+	public void tearDown() {
+		timingWheel.shutdown();
+	}
+
+	@Test
+	public void testSchedule() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		long start = System.nanoTime();
+		ScheduledFuture<?> future = timingWheel.schedule(latch::countDown, 50);
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		future.get(1, TimeUnit.SECONDS);
+		assertTrue(future.isDone());
+		assertEquals(0, timingWheel.getPendingTasks());
+	}
+
+	@Test
+	public void testScheduleBeyondOneRotation() throws Exception {
+		// one rotation of wheel takes 64 * 5 = 320 ms
+		CountDownLatch latch = new CountDownLatch(1);
+		long start = System.nanoTime();
+		timingWheel.schedule(latch::countDown, 700);
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertTrue(String.valueOf(elapsed), elapsed >= 700 && elapsed < 1000);
+	}
+
+	@Test
+	public void testFixedRateAndCancel() throws Exception {
+		AtomicInteger runs = new AtomicInteger();
+		ScheduledFuture<?> future = timingWheel.scheduleAtFixedRate(runs::incrementAndGet, 0, 20);
+		Thread.sleep(310);
+		future.cancel(false);
+		int cancelledRuns = runs.get();
+		assertTrue(String.valueOf(cancelledRuns), cancelledRuns >= 12 && cancelledRuns <= 17);
+		Thread.sleep(60);
+		assertEquals(cancelledRuns, runs.get());
+		assertTrue(future.isCancelled());
+		assertEquals(0, timingWheel.getPendingTasks());
+	}
+
+	@Test
+	public void testManyTasks() throws Exception {
+		AtomicInteger runs = new AtomicInteger();
+		List<ScheduledFuture<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 50000; i++) {
+			futures.add(timingWheel.scheduleAtFixedRate(runs::incrementAndGet, 100, 100));
+		}
+		assertEquals(50000, timingWheel.getPendingTasks());
+		for (ScheduledFuture<?> future : futures) {
+			future.cancel(false);
+		}
+		assertEquals(0, timingWheel.getPendingTasks());
+		Thread.sleep(150);
+		assertEquals(0, runs.get());
+	}
+
+	@Test
+	public void testTickBatch() throws Exception {
+		timingWheel.shutdown();
+		timingWheel = new TimingWheelScheduler(100, 8, 0);
+		CountDownLatch latch = new CountDownLatch(1000);
+		for (int i = 0; i < 1000; i++) {
+			timingWheel.schedule(latch::countDown, 0);
+		}
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		// batch size is recorded after all tasks of tick are run
+		Thread.sleep(50);
+		assertTrue(timingWheel.getMaxTickBatch() >= 500);
+	}
+
+	@Test
+	public void testJitter() throws Exception {
+		timingWheel.shutdown();
+		timingWheel = new TimingWheelScheduler(5, 64, 0.5);
+		int tasks = 100;
+		AtomicLongArray secondRuns = new AtomicLongArray(tasks);
+		CountDownLatch latch = new CountDownLatch(tasks);
+		long start = System.nanoTime();
+		for (int i = 0; i < tasks; i++) {
+			int task = i;
+			AtomicInteger runs = new AtomicInteger();
+			timingWheel.scheduleAtFixedRate(() -> {
+				if (runs.incrementAndGet() == 2) {
+					secondRuns.set(task, System.nanoTime() - start);
+					latch.countDown();
+				}
+			}, 0, 100);
+		}
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		long min = Long.MAX_VALUE;
+		long max = 0;
+		for (int i = 0; i < tasks; i++) {
+			min = Math.min(min, secondRuns.get(i));
+			max = Math.max(max, secondRuns.get(i));
+		}
+		assertTrue(min >= TimeUnit.MILLISECONDS.toNanos(100));
+		assertTrue(max - min >= TimeUnit.MILLISECONDS.toNanos(20));
+	}
+
+}